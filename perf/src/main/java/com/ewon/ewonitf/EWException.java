@@ -0,0 +1,29 @@
+package com.ewon.ewonitf;
+
+/**
+ * Stub of the Ewon ETK {@code EWException} class, for running the connector on a standard JVM.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class EWException extends Exception {
+
+  /**
+   * Constructor for an {@link EWException} without a message.
+   *
+   * @since 1.1.0
+   */
+  public EWException() {
+    super();
+  }
+
+  /**
+   * Constructor for an {@link EWException} with the specified message.
+   *
+   * @param message the exception message
+   * @since 1.1.0
+   */
+  public EWException(String message) {
+    super(message);
+  }
+}
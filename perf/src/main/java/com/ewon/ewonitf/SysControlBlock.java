@@ -0,0 +1,107 @@
+package com.ewon.ewonitf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stub of the Ewon ETK {@code SysControlBlock} class, for running the connector on a standard JVM.
+ * Saving a {@link #TAG} block creates an in-memory tag which can be opened with {@link
+ * TagControl}. Other blocks are accepted and discarded.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class SysControlBlock {
+
+  /**
+   * Block type of the Ewon system configuration.
+   *
+   * @since 1.1.0
+   */
+  public static final int SYS = 0;
+
+  /**
+   * Block type of an Ewon tag configuration.
+   *
+   * @since 1.1.0
+   */
+  public static final int TAG = 1;
+
+  /**
+   * The type of the block.
+   *
+   * @since 1.1.0
+   */
+  private final int blockType;
+
+  /**
+   * The items of the block.
+   *
+   * @since 1.1.0
+   */
+  private final Map<String, String> items = new HashMap<>();
+
+  /**
+   * Constructor for a new {@link SysControlBlock} of the specified type.
+   *
+   * @param blockType the type of the block
+   * @throws EWException never thrown by the stub
+   * @since 1.1.0
+   */
+  public SysControlBlock(int blockType) throws EWException {
+    this.blockType = blockType;
+  }
+
+  /**
+   * Constructor for an existing {@link SysControlBlock} of the specified type and name. The stub
+   * returns an empty block.
+   *
+   * @param blockType the type of the block
+   * @param name the name of the block
+   * @throws EWException never thrown by the stub
+   * @since 1.1.0
+   */
+  public SysControlBlock(int blockType, String name) throws EWException {
+    this.blockType = blockType;
+    items.put("Name", name);
+  }
+
+  /**
+   * Sets the specified item of the block.
+   *
+   * @param itemName the name of the item
+   * @param itemValue the value of the item
+   * @throws EWException never thrown by the stub
+   * @since 1.1.0
+   */
+  public void setItem(String itemName, String itemValue) throws EWException {
+    items.put(itemName, itemValue);
+  }
+
+  /**
+   * Gets the specified item of the block.
+   *
+   * @param itemName the name of the item
+   * @return the value of the item, or an empty string if it has not been set
+   * @throws EWException never thrown by the stub
+   * @since 1.1.0
+   */
+  public String getItem(String itemName) throws EWException {
+    String itemValue = items.get(itemName);
+    return itemValue != null ? itemValue : "";
+  }
+
+  /**
+   * Saves the block. Saving a {@link #TAG} block creates an in-memory tag with the name of the
+   * block.
+   *
+   * @param saveToFlash ignored by the stub
+   * @throws EWException never thrown by the stub
+   * @since 1.1.0
+   */
+  public void saveBlock(boolean saveToFlash) throws EWException {
+    if (blockType == TAG) {
+      TagControl.createTag(getItem("Name"));
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.ewon.ewonitf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stub of the Ewon ETK {@code TagControl} class, for running the connector on a standard JVM. Tags
+ * are held in memory, and must be created with {@link SysControlBlock} before they are opened.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class TagControl {
+
+  /**
+   * The values of the in-memory tags, by tag name.
+   *
+   * @since 1.1.0
+   */
+  private static final Map<String, Double> TAG_VALUES = new HashMap<>();
+
+  /**
+   * The name of the tag.
+   *
+   * @since 1.1.0
+   */
+  private final String tagName;
+
+  /**
+   * Constructor for a {@link TagControl} of the specified existing tag.
+   *
+   * @param tagName the name of the tag
+   * @throws EWException if the tag does not exist
+   * @since 1.1.0
+   */
+  public TagControl(String tagName) throws EWException {
+    synchronized (TAG_VALUES) {
+      if (!TAG_VALUES.containsKey(tagName)) {
+        throw new EWException("Tag " + tagName + " does not exist");
+      }
+    }
+    this.tagName = tagName;
+  }
+
+  /**
+   * Creates the specified in-memory tag with a value of 0, if it does not exist.
+   *
+   * @param tagName the name of the tag
+   * @since 1.1.0
+   */
+  static void createTag(String tagName) {
+    synchronized (TAG_VALUES) {
+      TAG_VALUES.putIfAbsent(tagName, 0.0);
+    }
+  }
+
+  /**
+   * Sets the value of the tag.
+   *
+   * @param value the value to set
+   * @throws EWException never thrown by the stub
+   * @since 1.1.0
+   */
+  public void setTagValueAsDouble(double value) throws EWException {
+    synchronized (TAG_VALUES) {
+      TAG_VALUES.put(tagName, value);
+    }
+  }
+
+  /**
+   * Sets the value of the tag.
+   *
+   * @param value the value to set
+   * @throws EWException never thrown by the stub
+   * @since 1.1.0
+   */
+  public void setTagValueAsLong(long value) throws EWException {
+    setTagValueAsDouble(value);
+  }
+
+  /**
+   * Sets the value of the tag.
+   *
+   * @param value the value to set
+   * @throws EWException never thrown by the stub
+   * @since 1.1.0
+   */
+  public void setTagValueAsInt(int value) throws EWException {
+    setTagValueAsDouble(value);
+  }
+
+  /**
+   * Gets the value of the tag.
+   *
+   * @return the value of the tag
+   * @since 1.1.0
+   */
+  public double getTagValueAsDouble() {
+    synchronized (TAG_VALUES) {
+      return TAG_VALUES.get(tagName);
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
+import com.hms_networks.sc.canary.api.CanaryApiRequestBuilder;
+import com.hms_networks.sc.canary.api.CanaryApiRequestSender;
+import com.hms_networks.sc.canary.api.CanaryApiRequestTimeouts;
+import com.hms_networks.sc.canary.api.CanaryApiResponseStatus;
+import com.hms_networks.sc.canary.api.CanaryApiTransport;
+import com.hms_networks.sc.canary.api.CanaryHistorianTarget;
+import com.hms_networks.sc.canary.api.SessionManager;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of handling Canary API responses with {@link
+ * CanaryApiRequestSender#processRequest(SCHttpPostRequestInfo, SessionManager, long)}. Requests
+ * are answered immediately with a canned response body by an in-process transport, so that only
+ * response handling is measured.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CanaryApiResponseBenchmark {
+
+  /**
+   * Response kind of a successful store data request.
+   *
+   * @since 1.1.0
+   */
+  public static final String RESPONSE_STORE_DATA_GOOD = "storeDataGood";
+
+  /**
+   * Response kind of a store data request with tag errors.
+   *
+   * @since 1.1.0
+   */
+  public static final String RESPONSE_STORE_DATA_ERRORS = "storeDataErrors";
+
+  /**
+   * Response kind of a successful session token request.
+   *
+   * @since 1.1.0
+   */
+  public static final String RESPONSE_SESSION_TOKEN = "sessionToken";
+
+  /**
+   * Response kind of a response which is rejected by the response scanner, and handled by the full
+   * JSON parser.
+   *
+   * @since 1.1.0
+   */
+  public static final String RESPONSE_UNEXPECTED_FORMAT = "unexpectedFormat";
+
+  /**
+   * The kind of response body returned to each request.
+   *
+   * @since 1.1.0
+   */
+  @Param({
+    RESPONSE_STORE_DATA_GOOD,
+    RESPONSE_STORE_DATA_ERRORS,
+    RESPONSE_SESSION_TOKEN,
+    RESPONSE_UNEXPECTED_FORMAT
+  })
+  public String responseKind;
+
+  /**
+   * The session which requests are sent with.
+   *
+   * @since 1.1.0
+   */
+  private SessionManager session;
+
+  /**
+   * The request which is sent by each invocation.
+   *
+   * @since 1.1.0
+   */
+  private SCHttpPostRequestInfo request;
+
+  /**
+   * Creates the session and request of the benchmark, and installs a transport which returns the
+   * response body for the response kind.
+   *
+   * @since 1.1.0
+   */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    final String responseBody = getResponseBody(responseKind);
+    PerfDataPoints.initializeConnector(
+        new CanaryApiTransport() {
+          public String doRequest(SCHttpPostRequestInfo request) {
+            return responseBody;
+          }
+        });
+
+    CanaryHistorianTarget target =
+        new CanaryHistorianTarget(
+            "Benchmark",
+            "https://localhost:55293",
+            "v2",
+            "localhost",
+            "",
+            "",
+            120,
+            8,
+            false,
+            false,
+            false,
+            true);
+    final long errorSummaryIntervalMillis = TimeUnit.MINUTES.toMillis(1);
+    session =
+        new SessionManager(
+            target,
+            PerfDataPoints.CLIENT_ID,
+            errorSummaryIntervalMillis,
+            new CanaryApiRequestTimeouts(0, 0, 0));
+    session.setCurrentUserToken("benchmark-user-token");
+    session.setCurrentSessionToken("benchmark-session-token");
+    request = CanaryApiRequestBuilder.getStoreDataRequest(session, "{}");
+  }
+
+  /**
+   * Restores the default transport.
+   *
+   * @since 1.1.0
+   */
+  @TearDown(Level.Trial)
+  public void tearDownTrial() {
+    PerfDataPoints.initializeConnector(null);
+  }
+
+  /**
+   * Benchmarks processing a request and handling its response.
+   *
+   * @return the status of the request
+   * @since 1.1.0
+   */
+  @Benchmark
+  public CanaryApiResponseStatus processRequest() {
+    final long noDeadline = 0;
+    return CanaryApiRequestSender.processRequest(request, session, noDeadline);
+  }
+
+  /**
+   * Gets the canned response body for the specified response kind.
+   *
+   * @param responseKind the response kind
+   * @return the response body
+   * @throws IllegalArgumentException if the response kind is unknown
+   * @since 1.1.0
+   */
+  static String getResponseBody(String responseKind) {
+    switch (responseKind) {
+      case RESPONSE_STORE_DATA_GOOD:
+        return "{\"statusCode\":\"Good\",\"errors\":[]}";
+      case RESPONSE_STORE_DATA_ERRORS:
+        return "{\"statusCode\":\"Errors\",\"errors\":["
+            + "\"PerfFlexy.PerfTag12: Timestamp 2023-05-01T12:00:00.000Z is out of range\","
+            + "\"PerfFlexy.PerfTag13: Timestamp 2023-05-01T12:00:01.000Z is out of range\","
+            + "\"PerfFlexy.PerfTag14: Value type changed from \\\"Float\\\" to \\\"String\\\"\"]}";
+      case RESPONSE_SESSION_TOKEN:
+        return "{\"sessionToken\":\"b3f1e2d4-5a6b-4c7d-8e9f-0a1b2c3d4e5f\","
+            + "\"statusCode\":\"Good\",\"errors\":[]}";
+      case RESPONSE_UNEXPECTED_FORMAT:
+        return "{\"statusCode\":\"Good\",\"errors\":null}";
+      default:
+        throw new IllegalArgumentException("Unknown response kind: " + responseKind);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.sc.canary.data.CanaryDataPayload;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of building and serializing a single {@link CanaryDataPayload}, for each {@link
+ * DataPoint} type.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CanaryDataPayloadBenchmark {
+
+  /**
+   * The data point type name of the benchmarked data points.
+   *
+   * @since 1.1.0
+   */
+  @Param({
+    PerfDataPoints.TYPE_BOOLEAN,
+    PerfDataPoints.TYPE_DWORD,
+    PerfDataPoints.TYPE_FLOAT,
+    PerfDataPoints.TYPE_INTEGER,
+    PerfDataPoints.TYPE_MAPPED_STRING,
+    PerfDataPoints.TYPE_STRING
+  })
+  public String dataPointType;
+
+  /**
+   * The number of distinct tags which data points are added for.
+   *
+   * @since 1.1.0
+   */
+  @Param({"100"})
+  public int tagCount;
+
+  /**
+   * The length of string values.
+   *
+   * @since 1.1.0
+   */
+  @Param({"32"})
+  public int stringLength;
+
+  /**
+   * The data points which are added to payloads, cycled through in order.
+   *
+   * @since 1.1.0
+   */
+  private DataPoint[] dataPoints;
+
+  /**
+   * The index of the next data point to add.
+   *
+   * @since 1.1.0
+   */
+  private int nextDataPointIndex;
+
+  /**
+   * The payload which data points are added to, replaced when full.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDataPayload payload;
+
+  /**
+   * Creates the data points of the benchmark.
+   *
+   * @since 1.1.0
+   */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    PerfDataPoints.initializeConnector(null);
+    final long timeStampSeconds = System.currentTimeMillis() / 1000;
+    final int samplesPerTag = 10;
+    dataPoints = new DataPoint[tagCount * samplesPerTag];
+    for (int sampleIndex = 0; sampleIndex < samplesPerTag; sampleIndex++) {
+      for (int tagIndex = 0; tagIndex < tagCount; tagIndex++) {
+        dataPoints[sampleIndex * tagCount + tagIndex] =
+            PerfDataPoints.createDataPoint(
+                dataPointType, tagIndex, sampleIndex, timeStampSeconds + sampleIndex, stringLength);
+      }
+    }
+  }
+
+  /**
+   * Creates an empty payload for the add data point benchmark.
+   *
+   * @since 1.1.0
+   */
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+    payload = new CanaryDataPayload();
+    nextDataPointIndex = 0;
+  }
+
+  /**
+   * Benchmarks adding a data point to a payload, including JSON formatting of the tvq.
+   *
+   * @return whether the data point was added
+   * @throws Exception if the data point cannot be added
+   * @since 1.1.0
+   */
+  @Benchmark
+  public boolean addDataPoint() throws Exception {
+    if (payload.isMaxDataPoints()) {
+      payload = new CanaryDataPayload();
+    }
+    DataPoint dataPoint = dataPoints[nextDataPointIndex];
+    nextDataPointIndex = (nextDataPointIndex + 1) % dataPoints.length;
+    return payload.addDataPoint(dataPoint);
+  }
+
+  /**
+   * Benchmarks sealing a full payload, which serializes its tvqs to the JSON string sent to
+   * Canary.
+   *
+   * @param fullPayloadState the state holding the full payload
+   * @return the serialized tvqs of the payload
+   * @since 1.1.0
+   */
+  @Benchmark
+  public String sealPayload(FullPayloadState fullPayloadState) {
+    fullPayloadState.fullPayload.seal();
+    return fullPayloadState.fullPayload.getTvqsJsonString();
+  }
+
+  /**
+   * State holding a payload which has been filled with data points, recreated before each
+   * invocation of the serialization benchmark.
+   *
+   * @since 1.1.0
+   */
+  @State(Scope.Thread)
+  public static class FullPayloadState {
+
+    /**
+     * The full payload, sealed by the serialization benchmark.
+     *
+     * @since 1.1.0
+     */
+    CanaryDataPayload fullPayload;
+
+    /**
+     * Fills a new payload with the data points of the benchmark.
+     *
+     * @param benchmark the benchmark state holding the data points
+     * @throws Exception if a data point cannot be added
+     * @since 1.1.0
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation(CanaryDataPayloadBenchmark benchmark) throws Exception {
+      fullPayload = new CanaryDataPayload();
+      for (int i = 0; !fullPayload.isMaxDataPoints(); i++) {
+        fullPayload.addDataPoint(benchmark.dataPoints[i % benchmark.dataPoints.length]);
+      }
+    }
+  }
+}
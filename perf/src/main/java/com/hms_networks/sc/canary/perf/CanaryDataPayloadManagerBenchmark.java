@@ -0,0 +1,172 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.sc.canary.data.CanaryDataPayloadManager;
+import com.hms_networks.sc.canary.data.CanaryDataPayloadScheduler;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of adding a batch of polled data points to the {@link CanaryDataPayloadManager}, for
+ * realistic tag counts and historical queue backlog depths. Each invocation adds one batch, as
+ * returned by one poll of the historical data queue.
+ *
+ * <p>Pending payloads are acknowledged between invocations, so that each invocation starts with
+ * empty payload streams.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CanaryDataPayloadManagerBenchmark {
+
+  /**
+   * The number of tags in each batch.
+   *
+   * @since 1.1.0
+   */
+  @Param({"100", "1000", "5000"})
+  public int tagCount;
+
+  /**
+   * The number of samples of each tag in each batch, which is the depth of the historical queue
+   * backlog being read.
+   *
+   * @since 1.1.0
+   */
+  @Param({"1", "10", "60"})
+  public int backlogDepth;
+
+  /**
+   * The number of session shards which tags are partitioned across.
+   *
+   * @since 1.1.0
+   */
+  @Param({"1"})
+  public int shardCount;
+
+  /**
+   * The type mix of the tags.
+   *
+   * @see PerfDataPoints#getTypeForTag(String, int)
+   * @since 1.1.0
+   */
+  @Param({"1,1,6,1,0,1"})
+  public String typeMix;
+
+  /**
+   * The length of string values.
+   *
+   * @since 1.1.0
+   */
+  @Param({"32"})
+  public int stringLength;
+
+  /**
+   * The batch of data points added by the list benchmark.
+   *
+   * @since 1.1.0
+   */
+  private List<DataPoint> dataPointsList;
+
+  /**
+   * The batch of aggregated data points added by the map benchmark.
+   *
+   * @since 1.1.0
+   */
+  private Map<Date, List<DataPoint>> dataPointsMap;
+
+  /**
+   * The payload scheduler of each shard, used to acknowledge pending payloads between invocations.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDataPayloadScheduler[] payloadSchedulers;
+
+  /**
+   * Creates the batches of the benchmark and initializes the payload manager.
+   *
+   * @since 1.1.0
+   */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    PerfDataPoints.initializeConnector(null);
+    final String[] tagTypes = PerfDataPoints.getTagTypes(typeMix, tagCount);
+    final long firstTimeStampSeconds = System.currentTimeMillis() / 1000 - backlogDepth;
+    dataPointsList =
+        PerfDataPoints.createBatch(tagTypes, backlogDepth, firstTimeStampSeconds, 1, stringLength);
+    dataPointsMap =
+        PerfDataPoints.createAggregatedBatch(
+            tagTypes, backlogDepth, firstTimeStampSeconds, 1, stringLength);
+
+    final int maxPendingPayloads = -1;
+    final long reorderWindowSecs = 0;
+    final boolean lateDataLaneEnabled = false;
+    CanaryDataPayloadManager.initialize(
+        shardCount, maxPendingPayloads, reorderWindowSecs, lateDataLaneEnabled);
+    payloadSchedulers = new CanaryDataPayloadScheduler[shardCount];
+    for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+      payloadSchedulers[shardIndex] =
+          CanaryDataPayloadManager.createPayloadScheduler("Benchmark" + shardIndex, shardIndex);
+    }
+  }
+
+  /**
+   * Acknowledges all pending payloads, so that the invocation starts with empty payload streams.
+   *
+   * @since 1.1.0
+   */
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    for (int shardIndex = 0; shardIndex < payloadSchedulers.length; shardIndex++) {
+      while (payloadSchedulers[shardIndex].getNextPayload() != null) {
+        payloadSchedulers[shardIndex].acknowledgePayload();
+      }
+    }
+  }
+
+  /**
+   * Benchmarks adding a batch of data points with their own timestamps, as done by {@code
+   * CanaryConnectorMain.connectorProcessDataPoints}.
+   *
+   * @return whether all data points were added
+   * @throws Exception if the data points cannot be added
+   * @since 1.1.0
+   */
+  @Benchmark
+  public boolean addDataPointsList() throws Exception {
+    return CanaryDataPayloadManager.addDataPointsList(dataPointsList);
+  }
+
+  /**
+   * Benchmarks adding a batch of aggregated data points, as done by {@code
+   * CanaryConnectorMain.connectorProcessAggregatedDataPoints}.
+   *
+   * @return whether all data points were added
+   * @throws Exception if the data points cannot be added
+   * @since 1.1.0
+   */
+  @Benchmark
+  public boolean addDataPointsMap() throws Exception {
+    return CanaryDataPayloadManager.addDataPointsMap(dataPointsMap);
+  }
+}
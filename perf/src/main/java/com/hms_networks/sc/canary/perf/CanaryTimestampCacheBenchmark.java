@@ -0,0 +1,125 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.system.time.SCTimeUtils;
+import com.hms_networks.sc.canary.data.CanaryTimestampCache;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of formatting the ISO 8601 timestamp of a {@link DataPoint}, with and without the
+ * {@link CanaryTimestampCache}. Data points are ordered as returned by a poll of the historical
+ * data queue: every sample of one tag, then every sample of the next tag.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CanaryTimestampCacheBenchmark {
+
+  /**
+   * The number of distinct tags which data points are formatted for.
+   *
+   * @since 1.1.0
+   */
+  @Param({"100"})
+  public int tagCount;
+
+  /**
+   * The number of samples (one per second) of each tag.
+   *
+   * @since 1.1.0
+   */
+  @Param({"60"})
+  public int samplesPerTag;
+
+  /**
+   * The data points which are formatted, cycled through in order.
+   *
+   * @since 1.1.0
+   */
+  private DataPoint[] dataPoints;
+
+  /**
+   * The index of the next data point to format.
+   *
+   * @since 1.1.0
+   */
+  private int nextDataPointIndex;
+
+  /**
+   * Creates the data points of the benchmark.
+   *
+   * @since 1.1.0
+   */
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    PerfDataPoints.initializeConnector(null);
+    final long timeStampSeconds = System.currentTimeMillis() / 1000;
+    final int stringLength = 0;
+    dataPoints = new DataPoint[tagCount * samplesPerTag];
+    for (int tagIndex = 0; tagIndex < tagCount; tagIndex++) {
+      for (int sampleIndex = 0; sampleIndex < samplesPerTag; sampleIndex++) {
+        dataPoints[tagIndex * samplesPerTag + sampleIndex] =
+            PerfDataPoints.createDataPoint(
+                PerfDataPoints.TYPE_FLOAT,
+                tagIndex,
+                sampleIndex,
+                timeStampSeconds + sampleIndex,
+                stringLength);
+      }
+    }
+  }
+
+  /**
+   * Gets the next data point to format.
+   *
+   * @return the next data point
+   * @since 1.1.0
+   */
+  private DataPoint nextDataPoint() {
+    DataPoint dataPoint = dataPoints[nextDataPointIndex];
+    nextDataPointIndex = (nextDataPointIndex + 1) % dataPoints.length;
+    return dataPoint;
+  }
+
+  /**
+   * Benchmarks formatting a timestamp through the timestamp cache.
+   *
+   * @return the formatted timestamp
+   * @throws Exception if the timestamp cannot be formatted
+   * @since 1.1.0
+   */
+  @Benchmark
+  public String formatCached() throws Exception {
+    return CanaryTimestampCache.getIso8601FormattedTimestamp(nextDataPoint());
+  }
+
+  /**
+   * Benchmarks formatting a timestamp without the timestamp cache.
+   *
+   * @return the formatted timestamp
+   * @throws Exception if the timestamp cannot be formatted
+   * @since 1.1.0
+   */
+  @Benchmark
+  public String formatUncached() throws Exception {
+    return SCTimeUtils.getIso8601FormattedTimestampForDataPoint(nextDataPoint());
+  }
+}
@@ -0,0 +1,263 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.sc.canary.CanaryConnectorMain;
+import com.hms_networks.sc.canary.data.CanaryDataCaptureBatch;
+import com.hms_networks.sc.canary.data.CanaryDataCaptureReader;
+import com.hms_networks.sc.canary.data.CanaryDataPayloadManager;
+import com.hms_networks.sc.canary.metrics.CanaryHistogram;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.io.FileInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tool which replays a data capture file, written by the connector with data capture enabled,
+ * through the connector data pipeline. Each captured batch is handed to {@link
+ * CanaryConnectorMain#connectorProcessDataPoints(java.util.List)} (or {@link
+ * CanaryConnectorMain#connectorProcessAggregatedDataPoints(java.util.Map)} for aggregated
+ * batches) at its original time relative to the start of the capture, divided by the replay speed.
+ *
+ * <p>While back pressure blocks data polling, replay waits as the Ewon historical data queue
+ * would, and the following batches are handed over as soon as polling resumes.
+ *
+ * <p>By default, the timestamps of the replayed data points are shifted so that the capture
+ * starts at the time the replay starts. At speeds above 1x, timestamps run ahead of the clock as
+ * the replay progresses, so ingestion lag results are only meaningful at 1x.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CaptureReplayTool {
+
+  /**
+   * The minimum replay speed.
+   *
+   * @since 1.1.0
+   */
+  private static final double MIN_SPEED = 1.0;
+
+  /**
+   * The maximum replay speed.
+   *
+   * @since 1.1.0
+   */
+  private static final double MAX_SPEED = 100.0;
+
+  /**
+   * The interval (in milliseconds) between checks while replay is blocked by back pressure.
+   *
+   * @since 1.1.0
+   */
+  private static final long BACK_PRESSURE_CHECK_MILLIS = 100;
+
+  /**
+   * The interval (in milliseconds) between progress reports.
+   *
+   * @since 1.1.0
+   */
+  private static final long PROGRESS_INTERVAL_MILLIS = 10000;
+
+  /**
+   * The path of the data capture file.
+   *
+   * @since 1.1.0
+   */
+  private String filePath = null;
+
+  /**
+   * The replay speed, as a multiple of the captured speed.
+   *
+   * @since 1.1.0
+   */
+  private double speed = MIN_SPEED;
+
+  /**
+   * Boolean indicating whether data point timestamps are shifted to the replay start time.
+   *
+   * @since 1.1.0
+   */
+  private boolean rebaseTimestamps = true;
+
+  /**
+   * The maximum time (in seconds) to wait for pending data to be sent after the replay ends.
+   *
+   * @since 1.1.0
+   */
+  private int drainSeconds = 60;
+
+  /**
+   * The connector data pipeline which the replayed data points are handed to.
+   *
+   * @since 1.1.0
+   */
+  private final ConnectorPipeline pipeline = new ConnectorPipeline();
+
+  /**
+   * Applies settings from command line arguments of the form {@code --name=value}. Arguments
+   * which are not replay settings are applied to the connector data pipeline.
+   *
+   * @param args the command line arguments
+   * @throws IllegalArgumentException if an argument is unknown or invalid
+   * @since 1.1.0
+   */
+  public void applyArgs(String[] args) {
+    for (String arg : args) {
+      final int separatorIndex = arg.indexOf('=');
+      final String name = separatorIndex > 2 ? arg.substring(2, separatorIndex) : arg;
+      final String value = separatorIndex > 2 ? arg.substring(separatorIndex + 1) : "";
+      switch (name) {
+        case "file":
+          filePath = value;
+          break;
+        case "speed":
+          speed = Double.parseDouble(value);
+          break;
+        case "rebase-timestamps":
+          rebaseTimestamps = Boolean.parseBoolean(value);
+          break;
+        case "drain-secs":
+          drainSeconds = Integer.parseInt(value);
+          break;
+        default:
+          if (!pipeline.tryApplyArg(name, value, arg)) {
+            throw new IllegalArgumentException("Unknown argument: " + arg);
+          }
+          break;
+      }
+    }
+    if (filePath == null) {
+      throw new IllegalArgumentException("A data capture file is required.");
+    }
+    if (speed < MIN_SPEED || speed > MAX_SPEED) {
+      throw new IllegalArgumentException(
+          "Speed must be from " + MIN_SPEED + " to " + MAX_SPEED + ".");
+    }
+  }
+
+  /**
+   * Gets the usage text listing the command line arguments of the tool.
+   *
+   * @return the usage text
+   * @since 1.1.0
+   */
+  public static String getUsage() {
+    return "Usage: CaptureReplayTool --file=<path> [options] [pipeline options]\n"
+        + "  --file=<path>                  data capture file\n"
+        + "  --speed=<multiple>             replay speed from 1 to 100 (default 1)\n"
+        + "  --rebase-timestamps=<bool>     shift timestamps to the replay start (default true)\n"
+        + "  --drain-secs=<s>               maximum wait for pending data (default 60)\n"
+        + ConnectorPipeline.getUsage();
+  }
+
+  /**
+   * Replays the data capture file and prints the results.
+   *
+   * @throws Exception if the data capture file cannot be read, or the pipeline cannot be run
+   * @since 1.1.0
+   */
+  public void run() throws Exception {
+    CanaryDataCaptureReader reader = new CanaryDataCaptureReader(new FileInputStream(filePath));
+    pipeline.start();
+    CanaryConnectorMain connector = pipeline.getConnector();
+
+    final long replayStartTimeMillis = System.currentTimeMillis();
+    final long captureStartTimeMillis = reader.getCaptureStartTimeMillis();
+    if (rebaseTimestamps) {
+      reader.setTimeStampOffsetSeconds((replayStartTimeMillis - captureStartTimeMillis) / 1000);
+    }
+    System.out.println("Replaying " + filePath + " at " + speed + "x");
+
+    long batchesReplayed = 0;
+    long pointsReplayed = 0;
+    long blockedMillis = 0;
+    long capturedDurationMillis = 0;
+    long nextProgressTimeMillis = replayStartTimeMillis + PROGRESS_INTERVAL_MILLIS;
+    CanaryDataCaptureBatch batch = reader.readBatch();
+    while (batch != null) {
+      // Wait for the time of the batch, then for polling to be unblocked
+      capturedDurationMillis = batch.getCaptureTimeMillis() - captureStartTimeMillis;
+      final long batchTimeMillis = replayStartTimeMillis + (long) (capturedDurationMillis / speed);
+      final long waitMillis = batchTimeMillis - System.currentTimeMillis();
+      if (waitMillis > 0) {
+        Thread.sleep(waitMillis);
+      }
+      while (CanaryDataPayloadManager.isBackPressureActive()) {
+        Thread.sleep(BACK_PRESSURE_CHECK_MILLIS);
+        blockedMillis += BACK_PRESSURE_CHECK_MILLIS;
+        pipeline.updateMetrics();
+      }
+
+      if (batch.isAggregated()) {
+        connector.connectorProcessAggregatedDataPoints(batch.getAggregatedDataPoints());
+      } else {
+        connector.connectorProcessDataPoints(batch.getDataPoints());
+      }
+      batchesReplayed++;
+      pointsReplayed += batch.getDataPointCount();
+      pipeline.updateMetrics();
+
+      if (System.currentTimeMillis() >= nextProgressTimeMillis) {
+        System.out.println(
+            "  replayed "
+                + batchesReplayed
+                + " batch(es), "
+                + pointsReplayed
+                + " point(s), "
+                + CanaryMetricsRegistry.PENDING_POINTS.getValue()
+                + " pending");
+        nextProgressTimeMillis += PROGRESS_INTERVAL_MILLIS;
+      }
+      batch = reader.readBatch();
+    }
+    reader.close();
+    final long replayDurationMillis = System.currentTimeMillis() - replayStartTimeMillis;
+
+    // Wait for pending data to be sent
+    pipeline.drain(TimeUnit.SECONDS.toMillis(drainSeconds), BACK_PRESSURE_CHECK_MILLIS);
+    final long totalDurationMillis = System.currentTimeMillis() - replayStartTimeMillis;
+    pipeline.stop();
+
+    final long pointsAcked =
+        CanaryMetricsRegistry.POINTS_ACCEPTED.getValue()
+            - CanaryMetricsRegistry.PENDING_POINTS.getValue();
+    final CanaryHistogram lagHistogram = CanaryMetricsRegistry.LAG_SAMPLE_TO_ACK_MILLIS;
+    long[] lagBucketCounts = new long[lagHistogram.getBucketCount() + 1];
+    lagHistogram.copyBucketCounts(lagBucketCounts);
+
+    System.out.println("Results:");
+    System.out.println("  batches replayed:         " + batchesReplayed);
+    System.out.println("  points replayed:          " + pointsReplayed);
+    System.out.println("  captured duration (s):    " + capturedDurationMillis / 1000);
+    System.out.println("  replay duration (s):      " + replayDurationMillis / 1000);
+    System.out.println("  blocked by back pressure: " + blockedMillis / 1000 + "s");
+    final double totalSeconds = Math.max(1, totalDurationMillis) / 1000.0;
+    System.out.printf("  acked points/s:           %.1f%n", pointsAcked / totalSeconds);
+    System.out.println(
+        "  p50 lag (ms):             "
+            + ThroughputHarness.getPercentile(lagHistogram, lagBucketCounts, 0.50));
+    System.out.println(
+        "  p99 lag (ms):             "
+            + ThroughputHarness.getPercentile(lagHistogram, lagBucketCounts, 0.99));
+    pipeline.printResults(pointsReplayed);
+  }
+
+  /**
+   * Runs the tool with settings from the command line.
+   *
+   * @param args the command line arguments
+   * @throws Exception if the tool cannot be run
+   * @since 1.1.0
+   */
+  public static void main(String[] args) throws Exception {
+    CaptureReplayTool tool = new CaptureReplayTool();
+    try {
+      tool.applyArgs(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.print(getUsage());
+      System.exit(1);
+      return;
+    }
+    tool.run();
+    System.exit(0);
+  }
+}
@@ -0,0 +1,332 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.sc.canary.CanaryConnectorMain;
+import com.hms_networks.sc.canary.api.CanaryApiRequestTimeouts;
+import com.hms_networks.sc.canary.api.CanaryDataPosterThread;
+import com.hms_networks.sc.canary.api.CanaryHistorianTarget;
+import com.hms_networks.sc.canary.data.CanaryDataPayloadManager;
+import com.hms_networks.sc.canary.data.CanaryTagPriorityClasses;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The connector data pipeline as started by the connector: the payload manager, and a data poster
+ * thread and session for each session shard of one historian target. The target is an embedded
+ * {@link MockCanaryServer}, or an external endpoint.
+ *
+ * <p>Data points are handed to the pipeline through {@link #getConnector()}, in the same way the
+ * connector framework hands polled data points to the connector.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class ConnectorPipeline {
+
+  /**
+   * The number of bytes in a megabyte.
+   *
+   * @since 1.1.0
+   */
+  static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+  /**
+   * The number of session shards.
+   *
+   * @since 1.1.0
+   */
+  private int shardCount = 1;
+
+  /**
+   * The maximum number of pending payloads per shard, or -1 for no limit.
+   *
+   * @since 1.1.0
+   */
+  private int maxPendingPayloads = CanaryDataPayloadManager.DEFAULT_MAX_PENDING_PAYLOADS;
+
+  /**
+   * The interval (in milliseconds) between payloads sent by each data poster thread.
+   *
+   * @since 1.1.0
+   */
+  private long postRateMillis = 3000;
+
+  /**
+   * The API URL of an external endpoint, or null to use an embedded {@link MockCanaryServer}.
+   *
+   * @since 1.1.0
+   */
+  private String apiUrl = null;
+
+  /**
+   * The settings of the embedded mock server.
+   *
+   * @since 1.1.0
+   */
+  private final MockCanaryServerSettings mockServerSettings = new MockCanaryServerSettings();
+
+  /**
+   * The embedded mock server, or null if not started or an external endpoint is used.
+   *
+   * @since 1.1.0
+   */
+  private MockCanaryServer mockServer = null;
+
+  /**
+   * The connector which data points are handed to, or null if the pipeline has not been started.
+   *
+   * @since 1.1.0
+   */
+  private CanaryConnectorMain connector = null;
+
+  /**
+   * The highest heap usage (in bytes) observed by {@link #updateMetrics()}.
+   *
+   * @since 1.1.0
+   */
+  private long peakHeapBytes = 0;
+
+  /**
+   * Constructor for a {@link ConnectorPipeline} with default settings. The embedded mock server
+   * listens on a port chosen by the system.
+   *
+   * @since 1.1.0
+   */
+  public ConnectorPipeline() {
+    mockServerSettings.setPort(0);
+  }
+
+  /**
+   * Applies a pipeline or mock server setting from a command line argument of the form {@code
+   * --name=value}.
+   *
+   * @param name the name of the argument
+   * @param value the value of the argument
+   * @param arg the full argument
+   * @return {@code true} if the argument was applied, {@code false} if it is unknown
+   * @throws IllegalArgumentException if the value is invalid
+   * @since 1.1.0
+   */
+  public boolean tryApplyArg(String name, String value, String arg) {
+    boolean applied = true;
+    switch (name) {
+      case "shards":
+        shardCount = Integer.parseInt(value);
+        break;
+      case "max-pending-payloads":
+        maxPendingPayloads = Integer.parseInt(value);
+        break;
+      case "post-rate-ms":
+        postRateMillis = Long.parseLong(value);
+        break;
+      case "api-url":
+        apiUrl = value;
+        break;
+      default:
+        applied = mockServerSettings.tryApplyArg(arg);
+        break;
+    }
+    return applied;
+  }
+
+  /**
+   * Gets the usage text listing the command line arguments of the pipeline.
+   *
+   * @return the usage text
+   * @since 1.1.0
+   */
+  public static String getUsage() {
+    return "Pipeline options:\n"
+        + "  --shards=<count>               session shards (default 1)\n"
+        + "  --max-pending-payloads=<n>     pending payloads per shard (default 50)\n"
+        + "  --post-rate-ms=<ms>            data poster interval (default 3000)\n"
+        + "  --api-url=<url>                external endpoint instead of the mock server\n"
+        + "Mock server options:\n"
+        + MockCanaryServerSettings.getUsage();
+  }
+
+  /**
+   * Starts the embedded mock server (unless an external endpoint is used), then the payload
+   * manager and the data poster threads with the data pipeline wiring of the connector.
+   *
+   * @throws IOException if the mock server cannot be started
+   * @since 1.1.0
+   */
+  public void start() throws IOException {
+    String targetApiUrl = apiUrl;
+    if (targetApiUrl == null) {
+      mockServer = new MockCanaryServer(mockServerSettings);
+      mockServer.start();
+      targetApiUrl = mockServer.getApiUrl();
+    }
+
+    final int connectTimeoutMillis = 10000;
+    final int readTimeoutMillis = 120000;
+    PerfDataPoints.initializeConnector(
+        new HttpUrlConnectionTransport(connectTimeoutMillis, readTimeoutMillis));
+
+    final int clientTimeoutSeconds = 120;
+    final int fileSizeMegabytes = 8;
+    CanaryHistorianTarget target =
+        new CanaryHistorianTarget(
+            "Pipeline",
+            targetApiUrl,
+            "v2",
+            "localhost",
+            "pipeline",
+            "pipeline",
+            clientTimeoutSeconds,
+            fileSizeMegabytes,
+            false,
+            false,
+            false,
+            true);
+    final long reorderWindowSecs = 0;
+    final boolean lateDataLaneEnabled = false;
+    final boolean backfillLaneEnabled = false;
+    final int defaultPriorityClassWeight = 1;
+    final long errorSummaryIntervalMillis = TimeUnit.MINUTES.toMillis(1);
+    CanaryApiRequestTimeouts requestTimeouts =
+        new CanaryApiRequestTimeouts(
+            TimeUnit.SECONDS.toMillis(30),
+            TimeUnit.SECONDS.toMillis(15),
+            TimeUnit.SECONDS.toMillis(60));
+
+    connector = new CanaryConnectorMain();
+    connector.startDataPipeline(
+        Collections.singletonList(target),
+        PerfDataPoints.CLIENT_ID,
+        shardCount,
+        maxPendingPayloads,
+        reorderWindowSecs,
+        lateDataLaneEnabled,
+        backfillLaneEnabled,
+        maxPendingPayloads,
+        new CanaryTagPriorityClasses(new ArrayList<>(), defaultPriorityClassWeight),
+        postRateMillis,
+        errorSummaryIntervalMillis,
+        requestTimeouts);
+    System.out.println("Started " + shardCount + " data poster thread(s) for " + targetApiUrl);
+  }
+
+  /**
+   * Gets the connector which data points are handed to.
+   *
+   * @return the connector, or null if the pipeline has not been started
+   * @since 1.1.0
+   */
+  public CanaryConnectorMain getConnector() {
+    return connector;
+  }
+
+  /**
+   * Gets the embedded mock server.
+   *
+   * @return the mock server, or null if an external endpoint is used
+   * @since 1.1.0
+   */
+  public MockCanaryServer getMockServer() {
+    return mockServer;
+  }
+
+  /**
+   * Gets the settings of the embedded mock server.
+   *
+   * @return the mock server settings
+   * @since 1.1.0
+   */
+  public MockCanaryServerSettings getMockServerSettings() {
+    return mockServerSettings;
+  }
+
+  /**
+   * Updates the pending payload metrics and the peak heap usage, as done by the connector main
+   * loop.
+   *
+   * @since 1.1.0
+   */
+  public void updateMetrics() {
+    CanaryDataPayloadManager.updatePendingPayloadMetrics();
+    Runtime runtime = Runtime.getRuntime();
+    peakHeapBytes = Math.max(peakHeapBytes, runtime.totalMemory() - runtime.freeMemory());
+  }
+
+  /**
+   * Gets the highest heap usage (in bytes) observed by {@link #updateMetrics()}.
+   *
+   * @return the peak heap usage (in bytes)
+   * @since 1.1.0
+   */
+  public long getPeakHeapBytes() {
+    return peakHeapBytes;
+  }
+
+  /**
+   * Waits for pending data points to be sent, for up to the specified time.
+   *
+   * @param drainMillis the maximum time (in milliseconds) to wait
+   * @param checkIntervalMillis the interval (in milliseconds) between checks
+   * @throws InterruptedException if interrupted while waiting
+   * @since 1.1.0
+   */
+  public void drain(long drainMillis, long checkIntervalMillis) throws InterruptedException {
+    final long drainEndTimeMillis = System.currentTimeMillis() + drainMillis;
+    updateMetrics();
+    while (CanaryMetricsRegistry.PENDING_POINTS.getValue() > 0
+        && System.currentTimeMillis() < drainEndTimeMillis) {
+      Thread.sleep(checkIntervalMillis);
+      updateMetrics();
+    }
+  }
+
+  /**
+   * Stops the data poster threads and revokes their session tokens, as done at connector
+   * shutdown, then stops the embedded mock server.
+   *
+   * @throws InterruptedException if interrupted while waiting for a thread to stop
+   * @since 1.1.0
+   */
+  public void stop() throws InterruptedException {
+    if (connector != null) {
+      final List<?> posterThreads = connector.getDataPosterThreads();
+      for (Object posterThread : posterThreads) {
+        ((CanaryDataPosterThread) posterThread).quitLoop();
+      }
+      for (Object posterThread : posterThreads) {
+        final CanaryDataPosterThread dataPosterThread = (CanaryDataPosterThread) posterThread;
+        dataPosterThread.join();
+        dataPosterThread.getSession().revokeTokens();
+        dataPosterThread.getSession().getRequestExecutor().shutdown();
+      }
+    }
+    if (mockServer != null) {
+      mockServer.stop();
+    }
+  }
+
+  /**
+   * Prints the pipeline results common to all tools: points still pending, peak heap usage, and
+   * the summary of the embedded mock server.
+   *
+   * @param pointsGenerated the number of data points handed to the pipeline, used to report lost
+   *     data points when the mock server tracks distinct TVQs
+   * @since 1.1.0
+   */
+  public void printResults(long pointsGenerated) {
+    System.out.println(
+        "  points still pending:     " + CanaryMetricsRegistry.PENDING_POINTS.getValue());
+    System.out.printf(
+        "  peak heap (MB):           %.1f of %.1f%n",
+        peakHeapBytes / BYTES_PER_MEGABYTE, Runtime.getRuntime().maxMemory() / BYTES_PER_MEGABYTE);
+    if (mockServer != null) {
+      System.out.println("  mock server:              " + mockServer.getSummary());
+      if (mockServerSettings.getTrackDistinctTvqs()) {
+        final long pointsLost = pointsGenerated - mockServer.getDistinctTvqsStored();
+        System.out.println("  lost points:              " + pointsLost);
+      }
+    }
+  }
+}
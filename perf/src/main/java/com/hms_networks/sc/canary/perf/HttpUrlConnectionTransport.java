@@ -0,0 +1,120 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
+import com.hms_networks.sc.canary.api.CanaryApiTransport;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Canary API transport which performs requests with {@link HttpURLConnection}, for running the
+ * connector against a local or mock endpoint on a standard JVM.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class HttpUrlConnectionTransport implements CanaryApiTransport {
+
+  /**
+   * The timeout (in milliseconds) for connecting to the endpoint.
+   *
+   * @since 1.1.0
+   */
+  private final int connectTimeoutMillis;
+
+  /**
+   * The timeout (in milliseconds) for reading the response from the endpoint.
+   *
+   * @since 1.1.0
+   */
+  private final int readTimeoutMillis;
+
+  /**
+   * Constructor for a {@link HttpUrlConnectionTransport} with the specified timeouts.
+   *
+   * @param connectTimeoutMillis the timeout (in milliseconds) for connecting to the endpoint
+   * @param readTimeoutMillis the timeout (in milliseconds) for reading the response
+   * @since 1.1.0
+   */
+  public HttpUrlConnectionTransport(int connectTimeoutMillis, int readTimeoutMillis) {
+    this.connectTimeoutMillis = connectTimeoutMillis;
+    this.readTimeoutMillis = readTimeoutMillis;
+  }
+
+  /**
+   * Performs the specified request and returns its response body.
+   *
+   * @param request the request to perform
+   * @return the response body of the request
+   * @throws IOException if the request failed or the response status is not 200
+   * @since 1.1.0
+   */
+  public String doRequest(SCHttpPostRequestInfo request) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(request.getUrl()).openConnection();
+    try {
+      connection.setConnectTimeout(connectTimeoutMillis);
+      connection.setReadTimeout(readTimeoutMillis);
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      setRequestHeaders(connection, request.getHeaders());
+
+      final byte[] requestBody = request.getBody().getBytes(StandardCharsets.UTF_8);
+      connection.setFixedLengthStreamingMode(requestBody.length);
+      try (OutputStream outputStream = connection.getOutputStream()) {
+        outputStream.write(requestBody);
+      }
+
+      final int responseCode = connection.getResponseCode();
+      if (responseCode != HttpURLConnection.HTTP_OK) {
+        throw new IOException("HTTP status " + responseCode + " from " + request.getUrl());
+      }
+      try (InputStream inputStream = connection.getInputStream()) {
+        return readFully(inputStream);
+      }
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  /**
+   * Sets the request headers of the specified connection from a headers string in the format used
+   * by {@link SCHttpPostRequestInfo}, which is {@code name=value} pairs separated by {@code &}.
+   *
+   * @param connection the connection
+   * @param headers the headers string, or null for no headers
+   * @since 1.1.0
+   */
+  private static void setRequestHeaders(HttpURLConnection connection, String headers) {
+    if (headers != null && !headers.isEmpty()) {
+      for (String header : headers.split("&")) {
+        final int separatorIndex = header.indexOf('=');
+        if (separatorIndex > 0) {
+          connection.setRequestProperty(
+              header.substring(0, separatorIndex), header.substring(separatorIndex + 1));
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the specified input stream to a UTF-8 string.
+   *
+   * @param inputStream the input stream
+   * @return the contents of the input stream
+   * @throws IOException if the input stream cannot be read
+   * @since 1.1.0
+   */
+  static String readFully(InputStream inputStream) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int readCount;
+    while ((readCount = inputStream.read(buffer)) != -1) {
+      outputStream.write(buffer, 0, readCount);
+    }
+    return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
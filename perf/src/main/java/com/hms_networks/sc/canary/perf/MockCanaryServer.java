@@ -0,0 +1,673 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.americas.sc.extensions.json.JSONArray;
+import com.hms_networks.americas.sc.extensions.json.JSONException;
+import com.hms_networks.americas.sc.extensions.json.JSONObject;
+import com.hms_networks.americas.sc.extensions.json.JSONTokener;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Canary Sender API endpoints used by the connector, for soak and load
+ * testing the data poster threads and {@link com.hms_networks.sc.canary.api.SessionManager}
+ * without a Canary historian.
+ *
+ * <p>The server implements the {@code getUserToken}, {@code getSessionToken}, {@code storeData},
+ * {@code keepAlive}, {@code revokeSessionToken} and {@code revokeUserToken} endpoints under any
+ * {@code /api/<version>/} path, and validates the user and session tokens of each request. Latency
+ * and faults are injected according to its {@link MockCanaryServerSettings}.
+ *
+ * <p>Every TVQ received and stored is counted, and stored TVQs are optionally tracked by tag and
+ * timestamp, so that tests can check for lost or duplicated samples.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class MockCanaryServer {
+
+  /**
+   * The status code of a successful response.
+   *
+   * @since 1.1.0
+   */
+  private static final String STATUS_GOOD = "Good";
+
+  /**
+   * The status code of a response with errors.
+   *
+   * @since 1.1.0
+   */
+  private static final String STATUS_ERROR = "Error";
+
+  /**
+   * The status code of a response to a request with an invalid session token.
+   *
+   * @since 1.1.0
+   */
+  private static final String STATUS_BAD_SESSION_ID = "BadSessionId";
+
+  /**
+   * The status code of a response to a request with an invalid user token.
+   *
+   * @since 1.1.0
+   */
+  private static final String STATUS_BAD_USER_TOKEN = "BadUserToken";
+
+  /**
+   * The error message of an injected generic API error.
+   *
+   * @since 1.1.0
+   */
+  private static final String ERROR_MESSAGE_GENERIC = "Internal error while processing request";
+
+  /**
+   * The error message of an injected "Tag is already being logged" error.
+   *
+   * @since 1.1.0
+   */
+  private static final String ERROR_MESSAGE_ALREADY_LOGGED =
+      "Tag is already being logged by another session";
+
+  /**
+   * The settings of the server.
+   *
+   * @since 1.1.0
+   */
+  private final MockCanaryServerSettings settings;
+
+  /**
+   * The random number generator used for latency and fault injection.
+   *
+   * @since 1.1.0
+   */
+  private final Random random;
+
+  /**
+   * The valid user tokens.
+   *
+   * @since 1.1.0
+   */
+  private final Set<String> userTokens = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The valid session tokens.
+   *
+   * @since 1.1.0
+   */
+  private final Set<String> sessionTokens = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The stored TVQs, identified by TVQ name and timestamp, if tracking is enabled.
+   *
+   * @since 1.1.0
+   */
+  private final Set<String> storedTvqKeys = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The number of requests received, by endpoint name.
+   *
+   * @since 1.1.0
+   */
+  private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+
+  /**
+   * The number of faults injected, by fault name.
+   *
+   * @since 1.1.0
+   */
+  private final Map<String, AtomicLong> faultCounts = new ConcurrentHashMap<>();
+
+  /**
+   * The number of TVQs received in store data requests, including requests which failed.
+   *
+   * @since 1.1.0
+   */
+  private final AtomicLong tvqsReceived = new AtomicLong();
+
+  /**
+   * The number of TVQs stored by successful store data requests.
+   *
+   * @since 1.1.0
+   */
+  private final AtomicLong tvqsStored = new AtomicLong();
+
+  /**
+   * The number of stored TVQs which had already been stored, if tracking is enabled.
+   *
+   * @since 1.1.0
+   */
+  private final AtomicLong duplicateTvqsStored = new AtomicLong();
+
+  /**
+   * The HTTP server, or null if the server has not been started.
+   *
+   * @since 1.1.0
+   */
+  private HttpServer httpServer = null;
+
+  /**
+   * The executor of the HTTP server, or null if the server has not been started.
+   *
+   * @since 1.1.0
+   */
+  private ExecutorService executor = null;
+
+  /**
+   * Constructor for a {@link MockCanaryServer} with the specified settings.
+   *
+   * @param settings the settings of the server
+   * @since 1.1.0
+   */
+  public MockCanaryServer(MockCanaryServerSettings settings) {
+    this.settings = settings;
+    this.random = settings.createRandom();
+  }
+
+  /**
+   * Starts the server.
+   *
+   * @throws IOException if the server cannot be started
+   * @since 1.1.0
+   */
+  public void start() throws IOException {
+    httpServer = HttpServer.create(new InetSocketAddress(settings.getPort()), 0);
+    executor = Executors.newFixedThreadPool(settings.getThreadCount());
+    httpServer.setExecutor(executor);
+    httpServer.createContext("/api/", this::handleExchange);
+    httpServer.start();
+  }
+
+  /**
+   * Stops the server.
+   *
+   * @since 1.1.0
+   */
+  public void stop() {
+    if (httpServer != null) {
+      httpServer.stop(0);
+      executor.shutdownNow();
+      httpServer = null;
+    }
+  }
+
+  /**
+   * Gets the TCP port which the server is listening on.
+   *
+   * @return the TCP port
+   * @since 1.1.0
+   */
+  public int getPort() {
+    return httpServer != null ? httpServer.getAddress().getPort() : settings.getPort();
+  }
+
+  /**
+   * Gets the base API URL of the server, for use as the API URL of a Canary historian target.
+   *
+   * @return the base API URL
+   * @since 1.1.0
+   */
+  public String getApiUrl() {
+    return "http://localhost:" + getPort();
+  }
+
+  /**
+   * Handles a request to any endpoint.
+   *
+   * @param exchange the exchange of the request
+   * @throws IOException if the response cannot be written
+   * @since 1.1.0
+   */
+  private void handleExchange(HttpExchange exchange) throws IOException {
+    try {
+      final String path = exchange.getRequestURI().getPath();
+      final String endpoint = path.substring(path.lastIndexOf('/') + 1);
+      final String requestBody = readRequestBody(exchange);
+      count(requestCounts, endpoint);
+
+      sleep(settings.drawLatencyMillis(random));
+      if (inject(settings.getConnectionDropRate(), "connectionDrop")) {
+        // Close the connection without a response
+        return;
+      }
+
+      JSONObject requestJson = new JSONObject(new JSONTokener(requestBody));
+      String responseBody;
+      switch (endpoint) {
+        case "getUserToken":
+          responseBody = handleGetUserToken();
+          break;
+        case "getSessionToken":
+          responseBody = handleGetSessionToken(requestJson);
+          break;
+        case "keepAlive":
+          responseBody = handleKeepAlive(requestJson);
+          break;
+        case "storeData":
+          responseBody = handleStoreData(requestJson);
+          break;
+        case "revokeSessionToken":
+          sessionTokens.remove(optString(requestJson, "sessionToken"));
+          responseBody = getResponseBody(STATUS_GOOD, null);
+          break;
+        case "revokeUserToken":
+          userTokens.remove(optString(requestJson, "userToken"));
+          responseBody = getResponseBody(STATUS_GOOD, null);
+          break;
+        default:
+          responseBody = getResponseBody(STATUS_ERROR, "Unknown endpoint " + endpoint);
+          break;
+      }
+
+      if (responseBody != null) {
+        writeResponse(exchange, responseBody);
+      }
+    } catch (JSONException e) {
+      writeResponse(exchange, getResponseBody(STATUS_ERROR, "Invalid request: " + e.getMessage()));
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Handles a {@code getUserToken} request.
+   *
+   * @return the response body
+   * @since 1.1.0
+   */
+  private String handleGetUserToken() {
+    final String userToken = UUID.randomUUID().toString();
+    userTokens.add(userToken);
+    return "{\"userToken\":" + JSONObject.quote(userToken) + "," + getStatusFields(STATUS_GOOD);
+  }
+
+  /**
+   * Handles a {@code getSessionToken} request.
+   *
+   * @param requestJson the request body
+   * @return the response body
+   * @since 1.1.0
+   */
+  private String handleGetSessionToken(JSONObject requestJson) {
+    String responseBody = checkUserToken(requestJson);
+    if (responseBody == null) {
+      final String sessionToken = UUID.randomUUID().toString();
+      sessionTokens.add(sessionToken);
+      responseBody =
+          "{\"sessionToken\":"
+              + JSONObject.quote(sessionToken)
+              + ","
+              + getStatusFields(STATUS_GOOD);
+    }
+    return responseBody;
+  }
+
+  /**
+   * Handles a {@code keepAlive} request.
+   *
+   * @param requestJson the request body
+   * @return the response body
+   * @since 1.1.0
+   */
+  private String handleKeepAlive(JSONObject requestJson) {
+    String responseBody = checkTokens(requestJson);
+    if (responseBody == null) {
+      responseBody = getResponseBody(STATUS_GOOD, null);
+    }
+    return responseBody;
+  }
+
+  /**
+   * Handles a {@code storeData} request, counting and storing its TVQs if the request succeeds.
+   *
+   * @param requestJson the request body
+   * @return the response body, or null if the connection is dropped after storing the data
+   * @throws JSONException if the TVQs of the request are malformed
+   * @since 1.1.0
+   */
+  private String handleStoreData(JSONObject requestJson) throws JSONException {
+    JSONObject tvqsJson =
+        requestJson.has("tvqs") ? requestJson.getJSONObject("tvqs") : new JSONObject();
+    tvqsReceived.addAndGet(countTvqs(tvqsJson));
+
+    String responseBody = checkTokens(requestJson);
+    if (responseBody == null) {
+      if (inject(settings.getErrorRate(), "error")) {
+        responseBody = getResponseBody(STATUS_ERROR, ERROR_MESSAGE_GENERIC);
+      } else if (inject(settings.getAlreadyLoggedRate(), "alreadyLogged")) {
+        responseBody = getResponseBody(STATUS_ERROR, ERROR_MESSAGE_ALREADY_LOGGED);
+      } else {
+        storeTvqs(tvqsJson);
+        if (!inject(settings.getResponseDropRate(), "responseDrop")) {
+          responseBody = getResponseBody(STATUS_GOOD, null);
+        }
+      }
+    }
+    return responseBody;
+  }
+
+  /**
+   * Checks the user token of the specified request, injecting {@code BadUserToken} faults.
+   *
+   * @param requestJson the request body
+   * @return the error response body, or null if the user token is valid
+   * @since 1.1.0
+   */
+  private String checkUserToken(JSONObject requestJson) {
+    final String userToken = optString(requestJson, "userToken");
+    String responseBody = null;
+    if (!userTokens.contains(userToken)) {
+      responseBody = getResponseBody(STATUS_BAD_USER_TOKEN, "Invalid user token");
+    } else if (inject(settings.getBadUserTokenRate(), "badUserToken")) {
+      userTokens.remove(userToken);
+      responseBody = getResponseBody(STATUS_BAD_USER_TOKEN, "User token expired");
+    }
+    return responseBody;
+  }
+
+  /**
+   * Checks the user and session tokens of the specified request, injecting {@code BadUserToken}
+   * and {@code BadSessionId} faults.
+   *
+   * @param requestJson the request body
+   * @return the error response body, or null if the tokens are valid
+   * @since 1.1.0
+   */
+  private String checkTokens(JSONObject requestJson) {
+    String responseBody = checkUserToken(requestJson);
+    if (responseBody == null) {
+      final String sessionToken = optString(requestJson, "sessionToken");
+      if (!sessionTokens.contains(sessionToken)) {
+        responseBody = getResponseBody(STATUS_BAD_SESSION_ID, "Invalid session token");
+      } else if (inject(settings.getBadSessionIdRate(), "badSessionId")) {
+        sessionTokens.remove(sessionToken);
+        responseBody = getResponseBody(STATUS_BAD_SESSION_ID, "Session expired");
+      }
+    }
+    return responseBody;
+  }
+
+  /**
+   * Counts the TVQs of the specified store data TVQs object.
+   *
+   * @param tvqsJson the TVQs object, keyed by TVQ name
+   * @return the number of TVQs
+   * @throws JSONException if the TVQs are malformed
+   * @since 1.1.0
+   */
+  private static long countTvqs(JSONObject tvqsJson) throws JSONException {
+    long tvqCount = 0;
+    Iterator tvqNames = tvqsJson.keys();
+    while (tvqNames.hasNext()) {
+      tvqCount += tvqsJson.getJSONArray((String) tvqNames.next()).length();
+    }
+    return tvqCount;
+  }
+
+  /**
+   * Stores the TVQs of the specified store data TVQs object, counting duplicates if tracking is
+   * enabled.
+   *
+   * @param tvqsJson the TVQs object, keyed by TVQ name
+   * @throws JSONException if the TVQs are malformed
+   * @since 1.1.0
+   */
+  private void storeTvqs(JSONObject tvqsJson) throws JSONException {
+    Iterator tvqNames = tvqsJson.keys();
+    while (tvqNames.hasNext()) {
+      final String tvqName = (String) tvqNames.next();
+      JSONArray tvqs = tvqsJson.getJSONArray(tvqName);
+      tvqsStored.addAndGet(tvqs.length());
+      if (settings.getTrackDistinctTvqs()) {
+        for (int tvqIndex = 0; tvqIndex < tvqs.length(); tvqIndex++) {
+          final String timestamp = tvqs.getJSONArray(tvqIndex).getString(0);
+          if (!storedTvqKeys.add(tvqName + '\u0000' + timestamp)) {
+            duplicateTvqsStored.incrementAndGet();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns {@code true} with the specified probability, counting the injected fault.
+   *
+   * @param rate the probability of injecting the fault
+   * @param faultName the name of the fault
+   * @return {@code true} if the fault is injected, {@code false} otherwise
+   * @since 1.1.0
+   */
+  private boolean inject(double rate, String faultName) {
+    final boolean injected = rate > 0 && random.nextDouble() < rate;
+    if (injected) {
+      count(faultCounts, faultName);
+    }
+    return injected;
+  }
+
+  /**
+   * Gets a response body with the specified status code and optional error message.
+   *
+   * @param statusCode the status code
+   * @param errorMessage the error message, or null for no errors
+   * @return the response body
+   * @since 1.1.0
+   */
+  private static String getResponseBody(String statusCode, String errorMessage) {
+    if (errorMessage == null) {
+      return "{" + getStatusFields(statusCode);
+    }
+    return "{\"statusCode\":"
+        + JSONObject.quote(statusCode)
+        + ",\"errors\":["
+        + JSONObject.quote(errorMessage)
+        + "]}";
+  }
+
+  /**
+   * Gets the status code and empty errors fields which end a successful response body.
+   *
+   * @param statusCode the status code
+   * @return the status fields, followed by the end of the response object
+   * @since 1.1.0
+   */
+  private static String getStatusFields(String statusCode) {
+    return "\"statusCode\":" + JSONObject.quote(statusCode) + ",\"errors\":[]}";
+  }
+
+  /**
+   * Gets the specified string field of a request body, or null if it is missing.
+   *
+   * @param requestJson the request body
+   * @param fieldName the name of the field
+   * @return the field value, or null if it is missing
+   * @since 1.1.0
+   */
+  private static String optString(JSONObject requestJson, String fieldName) {
+    String value = null;
+    try {
+      if (requestJson.has(fieldName)) {
+        value = requestJson.getString(fieldName);
+      }
+    } catch (JSONException e) {
+      // Treat malformed fields as missing
+    }
+    return value;
+  }
+
+  /**
+   * Reads the body of the request of the specified exchange.
+   *
+   * @param exchange the exchange
+   * @return the request body
+   * @throws IOException if the request body cannot be read
+   * @since 1.1.0
+   */
+  private static String readRequestBody(HttpExchange exchange) throws IOException {
+    try (InputStream inputStream = exchange.getRequestBody()) {
+      return HttpUrlConnectionTransport.readFully(inputStream);
+    }
+  }
+
+  /**
+   * Writes the specified response body with status 200.
+   *
+   * @param exchange the exchange
+   * @param responseBody the response body
+   * @throws IOException if the response cannot be written
+   * @since 1.1.0
+   */
+  private static void writeResponse(HttpExchange exchange, String responseBody)
+      throws IOException {
+    final byte[] responseBytes = responseBody.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, responseBytes.length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(responseBytes);
+    }
+  }
+
+  /**
+   * Sleeps for the specified time, if it is positive.
+   *
+   * @param millis the time to sleep (in milliseconds)
+   * @since 1.1.0
+   */
+  private static void sleep(long millis) {
+    if (millis > 0) {
+      try {
+        Thread.sleep(millis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Increments the count of the specified key.
+   *
+   * @param counts the counts, by key
+   * @param key the key
+   * @since 1.1.0
+   */
+  private static void count(Map<String, AtomicLong> counts, String key) {
+    counts.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+  }
+
+  /**
+   * Gets the number of requests received by the specified endpoint.
+   *
+   * @param endpoint the endpoint name, for example {@code storeData}
+   * @return the number of requests
+   * @since 1.1.0
+   */
+  public long getRequestCount(String endpoint) {
+    AtomicLong count = requestCounts.get(endpoint);
+    return count != null ? count.get() : 0;
+  }
+
+  /**
+   * Gets the number of TVQs received in store data requests, including requests which failed.
+   *
+   * @return the number of TVQs received
+   * @since 1.1.0
+   */
+  public long getTvqsReceived() {
+    return tvqsReceived.get();
+  }
+
+  /**
+   * Gets the number of TVQs stored by successful store data requests, including duplicates.
+   *
+   * @return the number of TVQs stored
+   * @since 1.1.0
+   */
+  public long getTvqsStored() {
+    return tvqsStored.get();
+  }
+
+  /**
+   * Gets the number of distinct TVQs (by TVQ name and timestamp) stored, if tracking is enabled.
+   *
+   * @return the number of distinct TVQs stored
+   * @since 1.1.0
+   */
+  public long getDistinctTvqsStored() {
+    return storedTvqKeys.size();
+  }
+
+  /**
+   * Gets the number of stored TVQs which had already been stored, if tracking is enabled.
+   *
+   * @return the number of duplicate TVQs stored
+   * @since 1.1.0
+   */
+  public long getDuplicateTvqsStored() {
+    return duplicateTvqsStored.get();
+  }
+
+  /**
+   * Gets a one line summary of the request, fault and TVQ counts of the server.
+   *
+   * @return the summary
+   * @since 1.1.0
+   */
+  public String getSummary() {
+    return "requests="
+        + requestCounts
+        + " faults="
+        + faultCounts
+        + " tvqsReceived="
+        + getTvqsReceived()
+        + " tvqsStored="
+        + getTvqsStored()
+        + " distinctTvqsStored="
+        + getDistinctTvqsStored()
+        + " duplicateTvqsStored="
+        + getDuplicateTvqsStored();
+  }
+
+  /**
+   * Runs a standalone mock server with settings from the command line, logging a summary every 10
+   * seconds until the process is stopped.
+   *
+   * @param args the command line arguments
+   * @throws Exception if the server cannot be started
+   * @since 1.1.0
+   */
+  public static void main(String[] args) throws Exception {
+    MockCanaryServerSettings settings;
+    try {
+      settings = MockCanaryServerSettings.fromArgs(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println("Usage: MockCanaryServer [options]");
+      System.err.print(MockCanaryServerSettings.getUsage());
+      System.exit(1);
+      return;
+    }
+
+    MockCanaryServer server = new MockCanaryServer(settings);
+    server.start();
+    System.out.println("Mock Canary server listening at " + server.getApiUrl());
+    final long summaryIntervalMillis = TimeUnit.SECONDS.toMillis(10);
+    while (true) {
+      Thread.sleep(summaryIntervalMillis);
+      System.out.println(server.getSummary());
+    }
+  }
+}
@@ -0,0 +1,494 @@
+package com.hms_networks.sc.canary.perf;
+
+import java.util.Random;
+
+/**
+ * Class for the settings of a {@link MockCanaryServer}, including its latency distribution and the
+ * rates (probabilities from 0 to 1) of each injected fault.
+ *
+ * <p>The latency of each request is drawn uniformly between the minimum and maximum latency. With
+ * the tail latency probability, the tail latency is added, to model occasional slow responses.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class MockCanaryServerSettings {
+
+  /**
+   * The TCP port of the server, or 0 to use a port chosen by the system.
+   *
+   * @since 1.1.0
+   */
+  private int port = 55293;
+
+  /**
+   * The number of threads handling requests.
+   *
+   * @since 1.1.0
+   */
+  private int threadCount = 8;
+
+  /**
+   * The minimum latency (in milliseconds) of each request.
+   *
+   * @since 1.1.0
+   */
+  private long latencyMinMillis = 0;
+
+  /**
+   * The maximum latency (in milliseconds) of each request.
+   *
+   * @since 1.1.0
+   */
+  private long latencyMaxMillis = 0;
+
+  /**
+   * The probability that the tail latency is added to a request.
+   *
+   * @since 1.1.0
+   */
+  private double latencyTailRate = 0;
+
+  /**
+   * The latency (in milliseconds) added to a request with the tail latency probability.
+   *
+   * @since 1.1.0
+   */
+  private long latencyTailMillis = 0;
+
+  /**
+   * The probability that a request fails with a generic API error.
+   *
+   * @since 1.1.0
+   */
+  private double errorRate = 0;
+
+  /**
+   * The probability that a request fails with {@code BadSessionId}, invalidating its session.
+   *
+   * @since 1.1.0
+   */
+  private double badSessionIdRate = 0;
+
+  /**
+   * The probability that a request fails with {@code BadUserToken}, invalidating its user token.
+   *
+   * @since 1.1.0
+   */
+  private double badUserTokenRate = 0;
+
+  /**
+   * The probability that a store data request fails with a "Tag is already being logged" error.
+   *
+   * @since 1.1.0
+   */
+  private double alreadyLoggedRate = 0;
+
+  /**
+   * The probability that the connection of a request is dropped before the request is processed.
+   *
+   * @since 1.1.0
+   */
+  private double connectionDropRate = 0;
+
+  /**
+   * The probability that the connection of a store data request is dropped after its data has been
+   * stored, so that the connector resends data which was already stored.
+   *
+   * @since 1.1.0
+   */
+  private double responseDropRate = 0;
+
+  /**
+   * Boolean indicating whether each stored TVQ is tracked, to detect duplicated samples. This uses
+   * memory for every distinct stored sample.
+   *
+   * @since 1.1.0
+   */
+  private boolean trackDistinctTvqs = true;
+
+  /**
+   * The seed of the random number generator used for latency and fault injection, or 0 to use a
+   * random seed.
+   *
+   * @since 1.1.0
+   */
+  private long randomSeed = 0;
+
+  /**
+   * Creates settings from command line arguments of the form {@code --name=value}, where the name
+   * is the setting name as listed by {@link #getUsage()}.
+   *
+   * @param args the command line arguments
+   * @return the settings
+   * @throws IllegalArgumentException if an argument is unknown or invalid
+   * @since 1.1.0
+   */
+  public static MockCanaryServerSettings fromArgs(String[] args) {
+    MockCanaryServerSettings settings = new MockCanaryServerSettings();
+    for (String arg : args) {
+      settings.applyArg(arg);
+    }
+    return settings;
+  }
+
+  /**
+   * Applies the specified command line argument, if it is a mock server setting.
+   *
+   * @param arg the command line argument, of the form {@code --name=value}
+   * @return {@code true} if the argument was applied, {@code false} if it is not a mock server
+   *     setting
+   * @throws IllegalArgumentException if the argument value is invalid
+   * @since 1.1.0
+   */
+  public boolean tryApplyArg(String arg) {
+    boolean applied = true;
+    try {
+      applyArg(arg);
+    } catch (UnknownSettingException e) {
+      applied = false;
+    }
+    return applied;
+  }
+
+  /**
+   * Applies the specified command line argument.
+   *
+   * @param arg the command line argument, of the form {@code --name=value}
+   * @throws IllegalArgumentException if the argument is unknown or invalid
+   * @since 1.1.0
+   */
+  private void applyArg(String arg) {
+    final int separatorIndex = arg.indexOf('=');
+    if (!arg.startsWith("--") || separatorIndex < 0) {
+      throw new UnknownSettingException(arg);
+    }
+    final String name = arg.substring(2, separatorIndex);
+    final String value = arg.substring(separatorIndex + 1);
+    switch (name) {
+      case "port":
+        port = Integer.parseInt(value);
+        break;
+      case "threads":
+        threadCount = Integer.parseInt(value);
+        break;
+      case "latency-min-ms":
+        latencyMinMillis = Long.parseLong(value);
+        break;
+      case "latency-max-ms":
+        latencyMaxMillis = Long.parseLong(value);
+        break;
+      case "latency-tail-rate":
+        latencyTailRate = parseRate(value);
+        break;
+      case "latency-tail-ms":
+        latencyTailMillis = Long.parseLong(value);
+        break;
+      case "error-rate":
+        errorRate = parseRate(value);
+        break;
+      case "bad-session-id-rate":
+        badSessionIdRate = parseRate(value);
+        break;
+      case "bad-user-token-rate":
+        badUserTokenRate = parseRate(value);
+        break;
+      case "already-logged-rate":
+        alreadyLoggedRate = parseRate(value);
+        break;
+      case "connection-drop-rate":
+        connectionDropRate = parseRate(value);
+        break;
+      case "response-drop-rate":
+        responseDropRate = parseRate(value);
+        break;
+      case "track-distinct-tvqs":
+        trackDistinctTvqs = Boolean.parseBoolean(value);
+        break;
+      case "seed":
+        randomSeed = Long.parseLong(value);
+        break;
+      default:
+        throw new UnknownSettingException(arg);
+    }
+  }
+
+  /**
+   * Gets the usage text listing the command line arguments of the mock server settings.
+   *
+   * @return the usage text
+   * @since 1.1.0
+   */
+  public static String getUsage() {
+    return "  --port=<port>                  TCP port, 0 for any (default 55293)\n"
+        + "  --threads=<count>              request handler threads (default 8)\n"
+        + "  --latency-min-ms=<ms>          minimum request latency (default 0)\n"
+        + "  --latency-max-ms=<ms>          maximum request latency (default 0)\n"
+        + "  --latency-tail-rate=<0..1>     probability of adding the tail latency (default 0)\n"
+        + "  --latency-tail-ms=<ms>         tail latency (default 0)\n"
+        + "  --error-rate=<0..1>            generic API error rate (default 0)\n"
+        + "  --bad-session-id-rate=<0..1>   BadSessionId reply rate (default 0)\n"
+        + "  --bad-user-token-rate=<0..1>   BadUserToken reply rate (default 0)\n"
+        + "  --already-logged-rate=<0..1>   'Tag is already being logged' rate (default 0)\n"
+        + "  --connection-drop-rate=<0..1>  drop before processing rate (default 0)\n"
+        + "  --response-drop-rate=<0..1>    drop after storing data rate (default 0)\n"
+        + "  --track-distinct-tvqs=<bool>   track stored samples for duplicates (default true)\n"
+        + "  --seed=<seed>                  random seed, 0 for random (default 0)\n";
+  }
+
+  /**
+   * Parses the specified rate, which must be between 0 and 1.
+   *
+   * @param value the rate string
+   * @return the rate
+   * @throws IllegalArgumentException if the rate is invalid
+   * @since 1.1.0
+   */
+  private static double parseRate(String value) {
+    final double rate = Double.parseDouble(value);
+    if (rate < 0 || rate > 1) {
+      throw new IllegalArgumentException("Rate must be between 0 and 1: " + value);
+    }
+    return rate;
+  }
+
+  /**
+   * Creates the random number generator used for latency and fault injection.
+   *
+   * @return the random number generator
+   * @since 1.1.0
+   */
+  Random createRandom() {
+    return randomSeed != 0 ? new Random(randomSeed) : new Random();
+  }
+
+  /**
+   * Draws the latency (in milliseconds) of a request from the latency distribution.
+   *
+   * @param random the random number generator
+   * @return the latency (in milliseconds)
+   * @since 1.1.0
+   */
+  long drawLatencyMillis(Random random) {
+    long latencyMillis = latencyMinMillis;
+    if (latencyMaxMillis > latencyMinMillis) {
+      latencyMillis += (long) (random.nextDouble() * (latencyMaxMillis - latencyMinMillis));
+    }
+    if (latencyTailRate > 0 && random.nextDouble() < latencyTailRate) {
+      latencyMillis += latencyTailMillis;
+    }
+    return latencyMillis;
+  }
+
+  /**
+   * Gets the TCP port of the server.
+   *
+   * @return the TCP port, or 0 to use a port chosen by the system
+   * @since 1.1.0
+   */
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * Sets the TCP port of the server.
+   *
+   * @param port the TCP port, or 0 to use a port chosen by the system
+   * @since 1.1.0
+   */
+  public void setPort(int port) {
+    this.port = port;
+  }
+
+  /**
+   * Gets the number of threads handling requests.
+   *
+   * @return the number of threads
+   * @since 1.1.0
+   */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  /**
+   * Sets the latency distribution of requests.
+   *
+   * @param latencyMinMillis the minimum latency (in milliseconds)
+   * @param latencyMaxMillis the maximum latency (in milliseconds)
+   * @param latencyTailRate the probability that the tail latency is added
+   * @param latencyTailMillis the tail latency (in milliseconds)
+   * @since 1.1.0
+   */
+  public void setLatency(
+      long latencyMinMillis,
+      long latencyMaxMillis,
+      double latencyTailRate,
+      long latencyTailMillis) {
+    this.latencyMinMillis = latencyMinMillis;
+    this.latencyMaxMillis = latencyMaxMillis;
+    this.latencyTailRate = latencyTailRate;
+    this.latencyTailMillis = latencyTailMillis;
+  }
+
+  /**
+   * Gets the probability that a request fails with a generic API error.
+   *
+   * @return the generic API error rate
+   * @since 1.1.0
+   */
+  public double getErrorRate() {
+    return errorRate;
+  }
+
+  /**
+   * Sets the probability that a request fails with a generic API error.
+   *
+   * @param errorRate the generic API error rate
+   * @since 1.1.0
+   */
+  public void setErrorRate(double errorRate) {
+    this.errorRate = errorRate;
+  }
+
+  /**
+   * Gets the probability that a request fails with {@code BadSessionId}.
+   *
+   * @return the {@code BadSessionId} rate
+   * @since 1.1.0
+   */
+  public double getBadSessionIdRate() {
+    return badSessionIdRate;
+  }
+
+  /**
+   * Sets the probability that a request fails with {@code BadSessionId}.
+   *
+   * @param badSessionIdRate the {@code BadSessionId} rate
+   * @since 1.1.0
+   */
+  public void setBadSessionIdRate(double badSessionIdRate) {
+    this.badSessionIdRate = badSessionIdRate;
+  }
+
+  /**
+   * Gets the probability that a request fails with {@code BadUserToken}.
+   *
+   * @return the {@code BadUserToken} rate
+   * @since 1.1.0
+   */
+  public double getBadUserTokenRate() {
+    return badUserTokenRate;
+  }
+
+  /**
+   * Sets the probability that a request fails with {@code BadUserToken}.
+   *
+   * @param badUserTokenRate the {@code BadUserToken} rate
+   * @since 1.1.0
+   */
+  public void setBadUserTokenRate(double badUserTokenRate) {
+    this.badUserTokenRate = badUserTokenRate;
+  }
+
+  /**
+   * Gets the probability that a store data request fails with a "Tag is already being logged"
+   * error.
+   *
+   * @return the "Tag is already being logged" rate
+   * @since 1.1.0
+   */
+  public double getAlreadyLoggedRate() {
+    return alreadyLoggedRate;
+  }
+
+  /**
+   * Sets the probability that a store data request fails with a "Tag is already being logged"
+   * error.
+   *
+   * @param alreadyLoggedRate the "Tag is already being logged" rate
+   * @since 1.1.0
+   */
+  public void setAlreadyLoggedRate(double alreadyLoggedRate) {
+    this.alreadyLoggedRate = alreadyLoggedRate;
+  }
+
+  /**
+   * Gets the probability that the connection of a request is dropped before it is processed.
+   *
+   * @return the connection drop rate
+   * @since 1.1.0
+   */
+  public double getConnectionDropRate() {
+    return connectionDropRate;
+  }
+
+  /**
+   * Sets the probability that the connection of a request is dropped before it is processed.
+   *
+   * @param connectionDropRate the connection drop rate
+   * @since 1.1.0
+   */
+  public void setConnectionDropRate(double connectionDropRate) {
+    this.connectionDropRate = connectionDropRate;
+  }
+
+  /**
+   * Gets the probability that the connection of a store data request is dropped after its data has
+   * been stored.
+   *
+   * @return the response drop rate
+   * @since 1.1.0
+   */
+  public double getResponseDropRate() {
+    return responseDropRate;
+  }
+
+  /**
+   * Sets the probability that the connection of a store data request is dropped after its data has
+   * been stored.
+   *
+   * @param responseDropRate the response drop rate
+   * @since 1.1.0
+   */
+  public void setResponseDropRate(double responseDropRate) {
+    this.responseDropRate = responseDropRate;
+  }
+
+  /**
+   * Gets a boolean indicating whether each stored TVQ is tracked to detect duplicated samples.
+   *
+   * @return {@code true} if stored TVQs are tracked, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean getTrackDistinctTvqs() {
+    return trackDistinctTvqs;
+  }
+
+  /**
+   * Sets whether each stored TVQ is tracked to detect duplicated samples.
+   *
+   * @param trackDistinctTvqs {@code true} to track stored TVQs, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public void setTrackDistinctTvqs(boolean trackDistinctTvqs) {
+    this.trackDistinctTvqs = trackDistinctTvqs;
+  }
+
+  /**
+   * Exception thrown when a command line argument is not a mock server setting.
+   *
+   * @since 1.1.0
+   */
+  private static class UnknownSettingException extends IllegalArgumentException {
+
+    /**
+     * Constructor for an {@link UnknownSettingException} for the specified argument.
+     *
+     * @param arg the command line argument
+     * @since 1.1.0
+     */
+    UnknownSettingException(String arg) {
+      super("Unknown mock server argument: " + arg);
+    }
+  }
+}
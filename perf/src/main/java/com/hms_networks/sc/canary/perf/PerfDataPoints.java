@@ -0,0 +1,289 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointBoolean;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointDword;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointFloat;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointInteger;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointIntegerMappedString;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointString;
+import com.hms_networks.americas.sc.extensions.datapoint.DataQuality;
+import com.hms_networks.sc.canary.api.CanaryApiRequestExecutor;
+import com.hms_networks.sc.canary.api.CanaryApiTransport;
+import com.hms_networks.sc.canary.data.CanaryDataUtils;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Utility class for creating synthetic {@link DataPoint}s and preparing the connector to run on a
+ * standard JVM, for use by the benchmarks and harnesses of this module.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public final class PerfDataPoints {
+
+  /**
+   * The API client ID used as the prefix of TVQ names.
+   *
+   * @since 1.1.0
+   */
+  public static final String CLIENT_ID = "PerfFlexy";
+
+  /**
+   * Data point type name for {@link DataPointBoolean}.
+   *
+   * @since 1.1.0
+   */
+  public static final String TYPE_BOOLEAN = "boolean";
+
+  /**
+   * Data point type name for {@link DataPointDword}.
+   *
+   * @since 1.1.0
+   */
+  public static final String TYPE_DWORD = "dword";
+
+  /**
+   * Data point type name for {@link DataPointFloat}.
+   *
+   * @since 1.1.0
+   */
+  public static final String TYPE_FLOAT = "float";
+
+  /**
+   * Data point type name for {@link DataPointInteger}.
+   *
+   * @since 1.1.0
+   */
+  public static final String TYPE_INTEGER = "integer";
+
+  /**
+   * Data point type name for {@link DataPointIntegerMappedString}.
+   *
+   * @since 1.1.0
+   */
+  public static final String TYPE_MAPPED_STRING = "mappedString";
+
+  /**
+   * Data point type name for {@link DataPointString}.
+   *
+   * @since 1.1.0
+   */
+  public static final String TYPE_STRING = "string";
+
+  /**
+   * The name of each data point type, in the order used by type mixes.
+   *
+   * @since 1.1.0
+   */
+  public static final String[] TYPES = {
+    TYPE_BOOLEAN, TYPE_DWORD, TYPE_FLOAT, TYPE_INTEGER, TYPE_MAPPED_STRING, TYPE_STRING
+  };
+
+  /**
+   * Private constructor to prevent instantiation of this utility class.
+   *
+   * @since 1.1.0
+   */
+  private PerfDataPoints() {}
+
+  /**
+   * Prepares the connector to run without a configuration file, using the specified transport for
+   * Canary API requests.
+   *
+   * @param transport the transport for Canary API requests, or null to use the Ewon HTTP client
+   * @since 1.1.0
+   */
+  public static void initializeConnector(CanaryApiTransport transport) {
+    CanaryDataUtils.setTvqNameClientId(CLIENT_ID);
+    CanaryApiRequestExecutor.setTransport(transport);
+  }
+
+  /**
+   * Gets the name of the synthetic tag with the specified index.
+   *
+   * @param tagIndex the index of the tag
+   * @return the name of the tag
+   * @since 1.1.0
+   */
+  public static String getTagName(int tagIndex) {
+    return "PerfTag" + tagIndex;
+  }
+
+  /**
+   * Creates a synthetic data point of the specified type.
+   *
+   * @param type the data point type name, one of {@link #TYPES}
+   * @param tagIndex the index of the tag, used for the tag name and ID
+   * @param sampleIndex the index of the sample, used to vary the value
+   * @param timeStampSeconds the timestamp (in seconds since epoch) of the data point
+   * @param stringLength the length of string values
+   * @return the data point
+   * @throws IllegalArgumentException if the type is unknown
+   * @since 1.1.0
+   */
+  public static DataPoint createDataPoint(
+      String type, int tagIndex, int sampleIndex, long timeStampSeconds, int stringLength) {
+    final String tagName = getTagName(tagIndex);
+    final String timeStamp = Long.toString(timeStampSeconds);
+    final DataQuality quality = DataQuality.GOOD;
+    switch (type) {
+      case TYPE_BOOLEAN:
+        return new DataPointBoolean(
+            tagName, tagIndex, "", sampleIndex % 2 == 0, timeStamp, quality);
+      case TYPE_DWORD:
+        return new DataPointDword(tagName, tagIndex, "", sampleIndex, timeStamp, quality);
+      case TYPE_FLOAT:
+        return new DataPointFloat(
+            tagName, tagIndex, "", sampleIndex * 0.25f + tagIndex, timeStamp, quality);
+      case TYPE_INTEGER:
+        return new DataPointInteger(tagName, tagIndex, "", sampleIndex, timeStamp, quality);
+      case TYPE_MAPPED_STRING:
+        final int stateIndex = sampleIndex % 4;
+        return new DataPointIntegerMappedString(
+            tagName, tagIndex, "", stateIndex, "State" + stateIndex, timeStamp, quality);
+      case TYPE_STRING:
+        return new DataPointString(
+            tagName, tagIndex, "", createString(sampleIndex, stringLength), timeStamp, quality);
+      default:
+        throw new IllegalArgumentException("Unknown data point type: " + type);
+    }
+  }
+
+  /**
+   * Creates a string value of the specified length, varied by the specified sample index.
+   *
+   * @param sampleIndex the index of the sample
+   * @param length the length of the string
+   * @return the string value
+   * @since 1.1.0
+   */
+  public static String createString(int sampleIndex, int length) {
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) ('a' + (sampleIndex + i) % 26);
+    }
+    return new String(chars);
+  }
+
+  /**
+   * Gets the data point type name of the specified tag for a type mix. The type mix is a comma
+   * separated list of weights, in the order of {@link #TYPES}. Tags are assigned types in
+   * proportion to the weights, using a seeded random number generator so that the assignment is
+   * repeatable.
+   *
+   * @param typeMix the type mix, for example {@code "1,1,6,1,0,1"}
+   * @param tagIndex the index of the tag
+   * @return the data point type name of the tag
+   * @throws IllegalArgumentException if the type mix is invalid
+   * @since 1.1.0
+   */
+  public static String getTypeForTag(String typeMix, int tagIndex) {
+    final String[] weightStrings = typeMix.split(",");
+    if (weightStrings.length != TYPES.length) {
+      throw new IllegalArgumentException(
+          "Type mix must have " + TYPES.length + " weights: " + typeMix);
+    }
+    int[] weights = new int[TYPES.length];
+    int totalWeight = 0;
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = Integer.parseInt(weightStrings[i].trim());
+      totalWeight += weights[i];
+    }
+    if (totalWeight <= 0) {
+      throw new IllegalArgumentException("Type mix must have a positive weight: " + typeMix);
+    }
+
+    int pick = new Random(tagIndex * 31L + 17L).nextInt(totalWeight);
+    int typeIndex = 0;
+    while (pick >= weights[typeIndex]) {
+      pick -= weights[typeIndex];
+      typeIndex++;
+    }
+    return TYPES[typeIndex];
+  }
+
+  /**
+   * Creates a batch of data points as returned by the historical data queue, with the specified
+   * number of samples per tag, in time order.
+   *
+   * @param tagTypes the data point type name of each tag
+   * @param samplesPerTag the number of samples of each tag (the backlog depth)
+   * @param firstTimeStampSeconds the timestamp (in seconds since epoch) of the first sample
+   * @param sampleIntervalSeconds the interval (in seconds) between samples of a tag
+   * @param stringLength the length of string values
+   * @return the list of data points
+   * @since 1.1.0
+   */
+  public static List<DataPoint> createBatch(
+      String[] tagTypes,
+      int samplesPerTag,
+      long firstTimeStampSeconds,
+      long sampleIntervalSeconds,
+      int stringLength) {
+    List<DataPoint> batch = new ArrayList<>(tagTypes.length * samplesPerTag);
+    for (int sampleIndex = 0; sampleIndex < samplesPerTag; sampleIndex++) {
+      final long timeStampSeconds = firstTimeStampSeconds + sampleIndex * sampleIntervalSeconds;
+      for (int tagIndex = 0; tagIndex < tagTypes.length; tagIndex++) {
+        batch.add(
+            createDataPoint(
+                tagTypes[tagIndex], tagIndex, sampleIndex, timeStampSeconds, stringLength));
+      }
+    }
+    return batch;
+  }
+
+  /**
+   * Creates a batch of aggregated data points as returned by the historical data queue with
+   * aggregation enabled, with one list of data points per aggregated timestamp.
+   *
+   * @param tagTypes the data point type name of each tag
+   * @param samplesPerTag the number of samples of each tag (the backlog depth)
+   * @param firstTimeStampSeconds the timestamp (in seconds since epoch) of the first sample
+   * @param sampleIntervalSeconds the interval (in seconds) between samples of a tag
+   * @param stringLength the length of string values
+   * @return the map of aggregated timestamps to lists of data points
+   * @since 1.1.0
+   */
+  public static Map<Date, List<DataPoint>> createAggregatedBatch(
+      String[] tagTypes,
+      int samplesPerTag,
+      long firstTimeStampSeconds,
+      long sampleIntervalSeconds,
+      int stringLength) {
+    Map<Date, List<DataPoint>> batch = new LinkedHashMap<>();
+    for (int sampleIndex = 0; sampleIndex < samplesPerTag; sampleIndex++) {
+      final long timeStampSeconds = firstTimeStampSeconds + sampleIndex * sampleIntervalSeconds;
+      List<DataPoint> dataPoints = new ArrayList<>(tagTypes.length);
+      for (int tagIndex = 0; tagIndex < tagTypes.length; tagIndex++) {
+        dataPoints.add(
+            createDataPoint(
+                tagTypes[tagIndex], tagIndex, sampleIndex, timeStampSeconds, stringLength));
+      }
+      batch.put(new Date(timeStampSeconds * 1000), dataPoints);
+    }
+    return batch;
+  }
+
+  /**
+   * Gets the data point type name of each tag for a type mix.
+   *
+   * @param typeMix the type mix
+   * @param tagCount the number of tags
+   * @return the data point type name of each tag
+   * @see #getTypeForTag(String, int)
+   * @since 1.1.0
+   */
+  public static String[] getTagTypes(String typeMix, int tagCount) {
+    String[] tagTypes = new String[tagCount];
+    for (int tagIndex = 0; tagIndex < tagCount; tagIndex++) {
+      tagTypes[tagIndex] = getTypeForTag(typeMix, tagIndex);
+    }
+    return tagTypes;
+  }
+}
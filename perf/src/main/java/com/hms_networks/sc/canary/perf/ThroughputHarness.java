@@ -0,0 +1,436 @@
+package com.hms_networks.sc.canary.perf;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.sc.canary.CanaryConnectorMain;
+import com.hms_networks.sc.canary.data.CanaryDataPayloadManager;
+import com.hms_networks.sc.canary.metrics.CanaryHistogram;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Capacity planning harness which runs the full connector data pipeline with synthetic tags. Each
+ * poll cycle, the samples of every tag since the previous poll are handed to {@link
+ * CanaryConnectorMain#connectorProcessDataPoints(List)} (or {@link
+ * CanaryConnectorMain#connectorProcessAggregatedDataPoints(Map)}), and are sent by the real
+ * payload manager, data poster threads and sessions to a {@link MockCanaryServer} or another
+ * loopback endpoint.
+ *
+ * <p>While back pressure blocks data polling, samples accumulate as they would in the Ewon
+ * historical data queue, and are read in later polls with their original timestamps.
+ *
+ * <p>At the end of the run, the harness reports the sustained acknowledged points per second,
+ * the p50 and p99 ingestion lag, and the peak heap usage. Run the harness with the target heap
+ * size (for example {@code -Xmx25m}) to answer how many tags one Ewon Flexy can send to Canary.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class ThroughputHarness {
+
+  /**
+   * The number of synthetic tags.
+   *
+   * @since 1.1.0
+   */
+  private int tagCount = 1000;
+
+  /**
+   * The interval (in seconds) between samples of each tag.
+   *
+   * @since 1.1.0
+   */
+  private int sampleIntervalSeconds = 1;
+
+  /**
+   * The type mix of the tags.
+   *
+   * @see PerfDataPoints#getTypeForTag(String, int)
+   * @since 1.1.0
+   */
+  private String typeMix = "1,1,6,1,0,1";
+
+  /**
+   * The length of string values.
+   *
+   * @since 1.1.0
+   */
+  private int stringLength = 32;
+
+  /**
+   * The duration (in seconds) of data generation.
+   *
+   * @since 1.1.0
+   */
+  private int durationSeconds = 60;
+
+  /**
+   * The duration (in seconds) at the start of the run which is excluded from the results.
+   *
+   * @since 1.1.0
+   */
+  private int warmupSeconds = 10;
+
+  /**
+   * The maximum time (in seconds) to wait for pending data to be sent after data generation ends.
+   *
+   * @since 1.1.0
+   */
+  private int drainSeconds = 60;
+
+  /**
+   * The interval (in milliseconds) between polls of the synthetic historical data queue.
+   *
+   * @since 1.1.0
+   */
+  private long pollIntervalMillis = 5000;
+
+  /**
+   * The maximum time span (in seconds) of samples read by one poll.
+   *
+   * @since 1.1.0
+   */
+  private int maxPollSpanSeconds = 60;
+
+  /**
+   * The time span (in seconds) of samples already waiting in the historical data queue at the
+   * start of the run.
+   *
+   * @since 1.1.0
+   */
+  private int initialBacklogSeconds = 0;
+
+  /**
+   * Boolean indicating whether polled samples are processed as aggregated data points.
+   *
+   * @since 1.1.0
+   */
+  private boolean aggregated = false;
+
+  /**
+   * The connector data pipeline which the synthetic data points are handed to.
+   *
+   * @since 1.1.0
+   */
+  private final ConnectorPipeline pipeline = new ConnectorPipeline();
+
+  /**
+   * Applies settings from command line arguments of the form {@code --name=value}. Arguments
+   * which are not harness settings are applied to the connector data pipeline.
+   *
+   * @param args the command line arguments
+   * @throws IllegalArgumentException if an argument is unknown or invalid
+   * @since 1.1.0
+   */
+  public void applyArgs(String[] args) {
+    for (String arg : args) {
+      final int separatorIndex = arg.indexOf('=');
+      final String name = separatorIndex > 2 ? arg.substring(2, separatorIndex) : arg;
+      final String value = separatorIndex > 2 ? arg.substring(separatorIndex + 1) : "";
+      switch (name) {
+        case "tags":
+          tagCount = Integer.parseInt(value);
+          break;
+        case "sample-interval-secs":
+          sampleIntervalSeconds = Integer.parseInt(value);
+          break;
+        case "type-mix":
+          typeMix = value;
+          break;
+        case "string-length":
+          stringLength = Integer.parseInt(value);
+          break;
+        case "duration-secs":
+          durationSeconds = Integer.parseInt(value);
+          break;
+        case "warmup-secs":
+          warmupSeconds = Integer.parseInt(value);
+          break;
+        case "drain-secs":
+          drainSeconds = Integer.parseInt(value);
+          break;
+        case "poll-interval-ms":
+          pollIntervalMillis = Long.parseLong(value);
+          break;
+        case "max-poll-span-secs":
+          maxPollSpanSeconds = Integer.parseInt(value);
+          break;
+        case "initial-backlog-secs":
+          initialBacklogSeconds = Integer.parseInt(value);
+          break;
+        case "aggregated":
+          aggregated = Boolean.parseBoolean(value);
+          break;
+        default:
+          if (!pipeline.tryApplyArg(name, value, arg)) {
+            throw new IllegalArgumentException("Unknown argument: " + arg);
+          }
+          break;
+      }
+    }
+    if (sampleIntervalSeconds < 1) {
+      throw new IllegalArgumentException("Sample interval must be at least 1 second.");
+    }
+  }
+
+  /**
+   * Gets the usage text listing the command line arguments of the harness.
+   *
+   * @return the usage text
+   * @since 1.1.0
+   */
+  public static String getUsage() {
+    return "Usage: ThroughputHarness [options] [pipeline options]\n"
+        + "  --tags=<count>                 synthetic tags (default 1000)\n"
+        + "  --sample-interval-secs=<s>     interval between samples of a tag (default 1)\n"
+        + "  --type-mix=<weights>           boolean,dword,float,integer,mappedString,string\n"
+        + "                                 weights (default 1,1,6,1,0,1)\n"
+        + "  --string-length=<chars>        length of string values (default 32)\n"
+        + "  --duration-secs=<s>            data generation duration (default 60)\n"
+        + "  --warmup-secs=<s>              excluded from results (default 10)\n"
+        + "  --drain-secs=<s>               maximum wait for pending data (default 60)\n"
+        + "  --poll-interval-ms=<ms>        historical queue poll interval (default 5000)\n"
+        + "  --max-poll-span-secs=<s>       maximum sample time span per poll (default 60)\n"
+        + "  --initial-backlog-secs=<s>     queued samples at start (default 0)\n"
+        + "  --aggregated=<bool>            use aggregated data points (default false)\n"
+        + ConnectorPipeline.getUsage();
+  }
+
+  /**
+   * Runs the harness and prints the results.
+   *
+   * @throws Exception if the harness cannot be run
+   * @since 1.1.0
+   */
+  public void run() throws Exception {
+    pipeline.start();
+    CanaryConnectorMain connector = pipeline.getConnector();
+    final String[] tagTypes = PerfDataPoints.getTagTypes(typeMix, tagCount);
+    System.out.println(
+        "Running "
+            + tagCount
+            + " tags every "
+            + sampleIntervalSeconds
+            + "s ("
+            + (tagCount / sampleIntervalSeconds)
+            + " points/s) for "
+            + durationSeconds
+            + "s");
+
+    // Generate and process samples each poll cycle
+    final long startTimeMillis = System.currentTimeMillis();
+    final long warmupEndTimeMillis = startTimeMillis + TimeUnit.SECONDS.toMillis(warmupSeconds);
+    final long endTimeMillis = startTimeMillis + TimeUnit.SECONDS.toMillis(durationSeconds);
+    long nextSampleTimeSeconds = startTimeMillis / 1000 - initialBacklogSeconds;
+    long pointsGenerated = 0;
+    long pollsBlocked = 0;
+    ResultsSnapshot warmupSnapshot = null;
+    long currentTimeMillis = startTimeMillis;
+    while (currentTimeMillis < endTimeMillis) {
+      if (warmupSnapshot == null && currentTimeMillis >= warmupEndTimeMillis) {
+        warmupSnapshot = new ResultsSnapshot(currentTimeMillis);
+      }
+
+      if (CanaryDataPayloadManager.isBackPressureActive()) {
+        pollsBlocked++;
+      } else {
+        final long lastSampleTimeSeconds =
+            Math.min(currentTimeMillis / 1000, nextSampleTimeSeconds + maxPollSpanSeconds - 1);
+        if (lastSampleTimeSeconds >= nextSampleTimeSeconds) {
+          final int samplesPerTag =
+              (int) ((lastSampleTimeSeconds - nextSampleTimeSeconds) / sampleIntervalSeconds) + 1;
+          pointsGenerated +=
+              processSamples(connector, tagTypes, nextSampleTimeSeconds, samplesPerTag);
+          nextSampleTimeSeconds += (long) samplesPerTag * sampleIntervalSeconds;
+        }
+      }
+
+      pipeline.updateMetrics();
+      final long pollDurationMillis = System.currentTimeMillis() - currentTimeMillis;
+      Thread.sleep(Math.max(0, pollIntervalMillis - pollDurationMillis));
+      currentTimeMillis = System.currentTimeMillis();
+    }
+    if (warmupSnapshot == null) {
+      warmupSnapshot = new ResultsSnapshot(startTimeMillis);
+    }
+    ResultsSnapshot endSnapshot = new ResultsSnapshot(System.currentTimeMillis());
+
+    // Wait for pending data to be sent
+    pipeline.drain(TimeUnit.SECONDS.toMillis(drainSeconds), pollIntervalMillis);
+    pipeline.stop();
+    printResults(warmupSnapshot, endSnapshot, pointsGenerated, pollsBlocked);
+  }
+
+  /**
+   * Creates the samples of every tag for a poll and hands them to the connector.
+   *
+   * @param connector the connector
+   * @param tagTypes the data point type name of each tag
+   * @param firstSampleTimeSeconds the timestamp (in seconds since epoch) of the first samples
+   * @param samplesPerTag the number of samples of each tag
+   * @return the number of data points processed
+   * @throws Exception if the data points cannot be processed
+   * @since 1.1.0
+   */
+  private int processSamples(
+      CanaryConnectorMain connector,
+      String[] tagTypes,
+      long firstSampleTimeSeconds,
+      int samplesPerTag)
+      throws Exception {
+    if (aggregated) {
+      Map<Date, List<DataPoint>> dataPoints =
+          PerfDataPoints.createAggregatedBatch(
+              tagTypes, samplesPerTag, firstSampleTimeSeconds, sampleIntervalSeconds, stringLength);
+      connector.connectorProcessAggregatedDataPoints(dataPoints);
+    } else {
+      List<DataPoint> dataPoints =
+          PerfDataPoints.createBatch(
+              tagTypes, samplesPerTag, firstSampleTimeSeconds, sampleIntervalSeconds, stringLength);
+      connector.connectorProcessDataPoints(dataPoints);
+    }
+    return tagTypes.length * samplesPerTag;
+  }
+
+  /**
+   * Prints the results of the run, measured between the specified snapshots.
+   *
+   * @param startSnapshot the snapshot at the end of the warmup
+   * @param endSnapshot the snapshot at the end of data generation
+   * @param pointsGenerated the number of data points generated
+   * @param pollsBlocked the number of polls skipped because of back pressure
+   * @since 1.1.0
+   */
+  private void printResults(
+      ResultsSnapshot startSnapshot,
+      ResultsSnapshot endSnapshot,
+      long pointsGenerated,
+      long pollsBlocked) {
+    final double measuredSeconds =
+        Math.max(1, endSnapshot.timeMillis - startSnapshot.timeMillis) / 1000.0;
+    final long pointsAcked = endSnapshot.pointsAcked - startSnapshot.pointsAcked;
+    long[] lagBucketCounts = new long[endSnapshot.lagBucketCounts.length];
+    for (int i = 0; i < lagBucketCounts.length; i++) {
+      lagBucketCounts[i] = endSnapshot.lagBucketCounts[i] - startSnapshot.lagBucketCounts[i];
+    }
+    final CanaryHistogram lagHistogram = CanaryMetricsRegistry.LAG_SAMPLE_TO_ACK_MILLIS;
+
+    System.out.println("Results (excluding " + warmupSeconds + "s warmup):");
+    System.out.println("  points generated:         " + pointsGenerated);
+    System.out.println("  polls blocked:            " + pollsBlocked);
+    System.out.printf("  sustained points/s:       %.1f%n", pointsAcked / measuredSeconds);
+    System.out.println(
+        "  p50 lag (ms):             " + getPercentile(lagHistogram, lagBucketCounts, 0.50));
+    System.out.println(
+        "  p99 lag (ms):             " + getPercentile(lagHistogram, lagBucketCounts, 0.99));
+    System.out.println("  max lag (ms):             " + lagHistogram.getMax());
+    pipeline.printResults(pointsGenerated);
+    System.out.println(
+        "  (lag is from the oldest sample of each payload to its acknowledgement, interpolated"
+            + " from histogram buckets)");
+  }
+
+  /**
+   * Gets an estimate of the specified percentile of a histogram from its bucket counts, by linear
+   * interpolation within the bucket containing the percentile.
+   *
+   * @param histogram the histogram, for its bucket upper bounds and maximum
+   * @param bucketCounts the bucket counts, including the overflow bucket
+   * @param percentile the percentile, from 0 to 1
+   * @return the estimated percentile, or 0 if there are no values
+   * @since 1.1.0
+   */
+  static long getPercentile(CanaryHistogram histogram, long[] bucketCounts, double percentile) {
+    long totalCount = 0;
+    for (long bucketCount : bucketCounts) {
+      totalCount += bucketCount;
+    }
+    if (totalCount == 0) {
+      return 0;
+    }
+
+    final double rank = percentile * totalCount;
+    long cumulativeCount = 0;
+    for (int bucketIndex = 0; bucketIndex < histogram.getBucketCount(); bucketIndex++) {
+      final long bucketCount = bucketCounts[bucketIndex];
+      if (bucketCount > 0 && cumulativeCount + bucketCount >= rank) {
+        final long lowerBound =
+            bucketIndex > 0 ? histogram.getBucketUpperBound(bucketIndex - 1) : 0;
+        final long upperBound = histogram.getBucketUpperBound(bucketIndex);
+        final double fraction = (rank - cumulativeCount) / bucketCount;
+        return lowerBound + Math.round(fraction * (upperBound - lowerBound));
+      }
+      cumulativeCount += bucketCount;
+    }
+    return histogram.getMax();
+  }
+
+  /**
+   * Snapshot of the cumulative metrics used to calculate results over a measurement window.
+   *
+   * @since 1.1.0
+   */
+  private static class ResultsSnapshot {
+
+    /**
+     * The time (in milliseconds since epoch) of the snapshot.
+     *
+     * @since 1.1.0
+     */
+    final long timeMillis;
+
+    /**
+     * The number of data points acknowledged by all targets at the time of the snapshot.
+     *
+     * @since 1.1.0
+     */
+    final long pointsAcked;
+
+    /**
+     * The bucket counts of the sample to acknowledgement lag histogram at the time of the
+     * snapshot.
+     *
+     * @since 1.1.0
+     */
+    final long[] lagBucketCounts;
+
+    /**
+     * Constructor for a {@link ResultsSnapshot} of the current metrics.
+     *
+     * @param timeMillis the time (in milliseconds since epoch) of the snapshot
+     * @since 1.1.0
+     */
+    ResultsSnapshot(long timeMillis) {
+      this.timeMillis = timeMillis;
+      this.pointsAcked =
+          CanaryMetricsRegistry.POINTS_ACCEPTED.getValue()
+              - CanaryMetricsRegistry.PENDING_POINTS.getValue();
+      CanaryHistogram lagHistogram = CanaryMetricsRegistry.LAG_SAMPLE_TO_ACK_MILLIS;
+      this.lagBucketCounts = new long[lagHistogram.getBucketCount() + 1];
+      lagHistogram.copyBucketCounts(lagBucketCounts);
+    }
+  }
+
+  /**
+   * Runs the harness with settings from the command line.
+   *
+   * @param args the command line arguments
+   * @throws Exception if the harness cannot be run
+   * @since 1.1.0
+   */
+  public static void main(String[] args) throws Exception {
+    ThroughputHarness harness = new ThroughputHarness();
+    try {
+      harness.applyArgs(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.print(getUsage());
+      System.exit(1);
+      return;
+    }
+    harness.run();
+    System.exit(0);
+  }
+}
@@ -2,10 +2,25 @@ package com.hms_networks.sc.canary;
 
 import com.hms_networks.americas.sc.extensions.config.exceptions.ConfigFileException;
 import com.hms_networks.americas.sc.extensions.connectors.framework.AbstractConnectorConfig;
+import com.hms_networks.americas.sc.extensions.json.JSONArray;
 import com.hms_networks.americas.sc.extensions.json.JSONException;
 import com.hms_networks.americas.sc.extensions.json.JSONObject;
 import com.hms_networks.americas.sc.extensions.logging.Logger;
 import com.hms_networks.americas.sc.extensions.string.StringUtils;
+import com.hms_networks.americas.sc.extensions.system.time.SCTimeUnit;
+import com.hms_networks.sc.canary.api.CanaryApiRequestTimeouts;
+import com.hms_networks.sc.canary.api.CanaryHistorianTarget;
+import com.hms_networks.sc.canary.data.CanaryDataPayloadManager;
+import com.hms_networks.sc.canary.data.CanaryTagPriorityClass;
+import com.hms_networks.sc.canary.data.CanaryTagPriorityClasses;
+import com.hms_networks.sc.canary.data.CanaryDataUtils;
+import com.hms_networks.sc.canary.filter.CanaryTagFilter;
+import com.hms_networks.sc.canary.filter.CanaryTagFilterRule;
+import com.hms_networks.sc.canary.filter.CanaryTagFilterSettings;
+import com.hms_networks.sc.canary.filter.CanaryTagGroups;
+import com.hms_networks.sc.canary.filter.CanaryTagStatistics;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Configuration class for the Canary Connector.
@@ -38,6 +53,88 @@ public class CanaryConnectorConfig extends AbstractConnectorConfig {
    */
   private static final String CONFIG_FILE_AUTH_CONFIGURATION_OBJECT_KEY = "Auth";
 
+  /**
+   * Key for the diagnostics configuration object in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY = "Diagnostics";
+
+  /**
+   * Key for the enable diagnostic tags setting in the configuration file diagnostics object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_ENABLE_TAGS_KEY = "EnableTags";
+
+  /**
+   * Key for the diagnostic tag name prefix in the configuration file diagnostics object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_TAG_NAME_PREFIX_KEY = "TagNamePrefix";
+
+  /**
+   * Key for the diagnostic tag update interval in the configuration file diagnostics object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_UPDATE_INTERVAL_SECS_KEY =
+      "UpdateIntervalSecs";
+
+  /**
+   * Key for the enable metrics HTTP endpoint setting in the configuration file diagnostics object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED_KEY =
+      "HttpEndpointEnabled";
+
+  /**
+   * Key for the metrics HTTP endpoint port in the configuration file diagnostics object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_PORT_KEY = "HttpEndpointPort";
+
+  /**
+   * Key for the enable data capture setting in the configuration file diagnostics object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_CAPTURE_ENABLED_KEY = "CaptureEnabled";
+
+  /**
+   * Key for the data capture file path in the configuration file diagnostics object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_CAPTURE_FILE_PATH_KEY = "CaptureFilePath";
+
+  /**
+   * Key for the maximum data capture file size (in megabytes) in the configuration file
+   * diagnostics object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB_KEY = "CaptureMaxSizeMB";
+
+  /**
+   * Key for the enable top tags setting in the configuration file diagnostics object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_ENABLED_KEY = "TopTagsEnabled";
+
+  /**
+   * Key for the top tags report interval (in seconds) in the configuration file diagnostics
+   * object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS_KEY =
+      "TopTagsIntervalSecs";
+
   /**
    * Key for the URL in the configuration file API object.
    *
@@ -124,6 +221,283 @@ public class CanaryConnectorConfig extends AbstractConnectorConfig {
    */
   private static final String CONFIG_FILE_API_INSERT_REPLACE_DATA_KEY = "InsertReplaceData";
 
+  /**
+   * Key for the maximum number of pending payloads per historian target in the configuration file
+   * API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_MAX_PENDING_PAYLOADS_KEY = "MaxPendingPayloads";
+
+  /**
+   * Key for the API error summary interval in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_ERROR_SUMMARY_INTERVAL_SECS_KEY =
+      "ErrorSummaryIntervalSecs";
+
+  /**
+   * Key for the request timeouts object in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_REQUEST_TIMEOUTS_KEY = "RequestTimeouts";
+
+  /**
+   * Key for the auth request timeout in the configuration file request timeouts object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_REQUEST_TIMEOUT_AUTH_SECS_KEY = "AuthSecs";
+
+  /**
+   * Key for the keep alive request timeout in the configuration file request timeouts object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_REQUEST_TIMEOUT_KEEP_ALIVE_SECS_KEY = "KeepAliveSecs";
+
+  /**
+   * Key for the store data request timeout in the configuration file request timeouts object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_REQUEST_TIMEOUT_STORE_DATA_SECS_KEY = "StoreDataSecs";
+
+  /**
+   * Key for the number of session shards in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_SESSION_SHARD_COUNT_KEY = "SessionShardCount";
+
+  /**
+   * Key for the reorder window in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_REORDER_WINDOW_SECS_KEY = "ReorderWindowSecs";
+
+  /**
+   * Key for the late data lane enabled setting in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_LATE_DATA_LANE_ENABLED_KEY = "LateDataLaneEnabled";
+
+  /**
+   * Key for the backfill lane enabled setting in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_BACKFILL_LANE_ENABLED_KEY = "BackfillLaneEnabled";
+
+  /**
+   * Key for the live lane maximum pending payloads in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_LIVE_LANE_MAX_PENDING_PAYLOADS_KEY =
+      "LiveLaneMaxPendingPayloads";
+
+  /**
+   * Key for the tag priority classes array in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_PRIORITY_CLASSES_KEY = "PriorityClasses";
+
+  /**
+   * Key for the weight of the default priority class in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_DEFAULT_PRIORITY_WEIGHT_KEY = "DefaultPriorityWeight";
+
+  /**
+   * Key for the name of a priority class in the configuration file priority classes array.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_PRIORITY_CLASS_NAME_KEY = "Name";
+
+  /**
+   * Key for the weight of a priority class in the configuration file priority classes array.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_PRIORITY_CLASS_WEIGHT_KEY = "Weight";
+
+  /**
+   * Key for the tag name pattern of a priority class in the configuration file priority classes
+   * array.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_PRIORITY_CLASS_TAG_NAME_PATTERN_KEY = "TagNamePattern";
+
+  /**
+   * Key for the tag group of a priority class in the configuration file priority classes array.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_PRIORITY_CLASS_TAG_GROUP_KEY = "TagGroup";
+
+  /**
+   * Key for the historian targets array in the configuration file API object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_API_HISTORIANS_KEY = "Historians";
+
+  /**
+   * Key for the name of a historian target in the configuration file historian targets array.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_HISTORIAN_NAME_KEY = "Name";
+
+  /**
+   * Key for the tag filter configuration object in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_CONFIGURATION_OBJECT_KEY = "Filter";
+
+  /**
+   * Key for the default tag filter settings object in the configuration file filter object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_TAG_DEFAULTS_KEY = "TagDefaults";
+
+  /**
+   * Key for the tag filter rules array in the configuration file filter object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_TAG_RULES_KEY = "TagRules";
+
+  /**
+   * Key for the rate limit report interval in the configuration file filter object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_RATE_LIMIT_REPORT_INTERVAL_SECS_KEY =
+      "RateLimitReportIntervalSecs";
+
+  /**
+   * Key for the enable filtering setting in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_ENABLED_KEY = "Enabled";
+
+  /**
+   * Key for the absolute deadband in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_DEADBAND_ABSOLUTE_KEY = "DeadbandAbsolute";
+
+  /**
+   * Key for the percent deadband in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_DEADBAND_PERCENT_KEY = "DeadbandPercent";
+
+  /**
+   * Key for the compression deviation in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_COMPRESSION_DEVIATION_KEY =
+      "CompressionDeviation";
+
+  /**
+   * Key for the maximum silence (in seconds) in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_MAX_SILENCE_SECS_KEY = "MaxSilenceSecs";
+
+  /**
+   * Key for the maximum hold time (in seconds) of compressed data points in a configuration file
+   * tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_HOLD_MAX_SECS_KEY = "HoldMaxSecs";
+
+  /**
+   * Key for the aggregation window length (in seconds) in a configuration file tag filter settings
+   * object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_AGGREGATION_WINDOW_SECS_KEY =
+      "AggregationWindowSecs";
+
+  /**
+   * Key for the aggregation statistics array in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_AGGREGATION_STATISTICS_KEY =
+      "AggregationStatistics";
+
+  /**
+   * Key for the pass on quality change setting in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_PASS_ON_QUALITY_CHANGE_KEY =
+      "PassOnQualityChange";
+
+  /**
+   * Key for the decimals setting in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_DECIMALS_KEY = "Decimals";
+
+  /**
+   * Key for the rate limit setting in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_RATE_LIMIT_PER_SEC_KEY = "RateLimitPerSec";
+
+  /**
+   * Key for the rate limit burst setting in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_RATE_LIMIT_BURST_KEY = "RateLimitBurst";
+
+  /**
+   * Key for the rate limit mode setting in a configuration file tag filter settings object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_RATE_LIMIT_MODE_KEY = "RateLimitMode";
+
+  /**
+   * Key for the tag name pattern in a configuration file tag filter rule object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_TAG_NAME_PATTERN_KEY = "TagNamePattern";
+
+  /**
+   * Key for the tag group in a configuration file tag filter rule object.
+   *
+   * @since 1.1.0
+   */
+  private static final String CONFIG_FILE_FILTER_TAG_GROUP_KEY = "TagGroup";
+
   /**
    * Key for the username in the configuration file auth object.
    *
@@ -259,73 +633,458 @@ public class CanaryConnectorConfig extends AbstractConnectorConfig {
    */
   public static final long DEFAULT_CONFIG_QUEUE_DATA_POST_RATE_MILLIS = 3000;
 
-  // endregion
+  /**
+   * Default value for the maximum number of pending payloads per historian target in the
+   * configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_CONFIG_API_MAX_PENDING_PAYLOADS =
+      CanaryDataPayloadManager.DEFAULT_MAX_PENDING_PAYLOADS;
 
   /**
-   * Automatically generated value for the API client ID in the configuration file.
+   * Default value for the API error summary interval (in seconds) in the configuration file.
    *
-   * <p>To reduce initial memory usage, this is defaulted to null and populated when required. Once
-   * populated, the same value is then referenced as necessary.
+   * @since 1.1.0
+   */
+  public static final long DEFAULT_CONFIG_API_ERROR_SUMMARY_INTERVAL_SECS = 60;
+
+  /**
+   * Default value for the auth request timeout (in seconds) in the configuration file.
    *
-   * <p>Additionally, by defaulting to null, this allows the automatically generated client ID to
-   * only be logged once (when the value is first generated).
+   * @since 1.1.0
+   */
+  public static final long DEFAULT_CONFIG_REQUEST_TIMEOUT_AUTH_SECS = 30;
+
+  /**
+   * Default value for the keep alive request timeout (in seconds) in the configuration file.
    *
-   * @since 1.0.0
+   * @since 1.1.0
    */
-  public static String autoGeneratedApiClientId = null;
+  public static final long DEFAULT_CONFIG_REQUEST_TIMEOUT_KEEP_ALIVE_SECS = 15;
 
   /**
-   * Constructor for the {@link CanaryConnectorConfig} class.
+   * Default value for the store data request timeout (in seconds) in the configuration file.
    *
-   * @throws ConfigFileException if unable to read/parse an existing configuration file or unable to
-   *     write a new (default) configuration file
-   * @since 1.0.0
+   * @since 1.1.0
    */
-  public CanaryConnectorConfig() throws ConfigFileException {
-    super(CONFIG_FILE_CONNECTOR_CONFIGURATION_OBJECT_KEY, true);
-  }
+  public static final long DEFAULT_CONFIG_REQUEST_TIMEOUT_STORE_DATA_SECS = 60;
 
   /**
-   * Gets the default configuration object for the connector. This is used to populate the
-   * configuration file with default values if the file does not exist.
+   * Default value for the enable diagnostic tags setting in the configuration file.
    *
-   * @return default connector configuration object
-   * @throws JSONException for errors parsing JSON
-   * @since 1.0.0
+   * @since 1.1.0
    */
-  public JSONObject getDefaultConnectorConfigurationObject() throws JSONException {
+  public static final boolean DEFAULT_CONFIG_DIAGNOSTICS_ENABLE_TAGS = false;
 
-    // Create connector configuration object
-    JSONObject connectorConfigObject = new JSONObject();
+  /**
+   * Default value for the diagnostic tag name prefix in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final String DEFAULT_CONFIG_DIAGNOSTICS_TAG_NAME_PREFIX = "CanaryConnector";
 
-    // Create API configuration object
-    JSONObject apiConfigObject = new JSONObject();
-    apiConfigObject.put(CONFIG_FILE_API_URL_KEY, DEFAULT_CONFIG_API_URL);
-    apiConfigObject.put(CONFIG_FILE_API_SENDER_API_VER_NUM_KEY, DEFAULT_CONFIG_SENDER_API_VERSION);
-    apiConfigObject.put(
-        CONFIG_FILE_API_RECEIVER_API_VER_NUM_KEY, DEFAULT_CONFIG_RECEIVER_API_VERSION);
-    apiConfigObject.put(CONFIG_FILE_API_HISTORY_SERVER_NAME_KEY, DEFAULT_CONFIG_API_HISTORIAN);
-    apiConfigObject.put(CONFIG_FILE_API_CLIENT_ID_KEY, DEFAULT_CONFIG_API_CLIENT_ID);
-    apiConfigObject.put(
-        CONFIG_FILE_API_CLIENT_TIMEOUT_KEY, DEFAULT_CONFIG_API_CLIENT_TIMEOUT_SECONDS);
-    apiConfigObject.put(CONFIG_FILE_API_FILE_SIZE_KEY, DEFAULT_CONFIG_API_CLIENT_FILE_SIZE_MB);
-    apiConfigObject.put(
-        CONFIG_FILE_API_AUTO_WRITE_NO_DATA_KEY, DEFAULT_CONFIG_API_AUTO_WRITE_NO_DATA);
-    apiConfigObject.put(CONFIG_FILE_API_EXTEND_DATA_KEY, DEFAULT_CONFIG_API_EXTEND_DATA);
-    apiConfigObject.put(
-        CONFIG_FILE_API_INSERT_REPLACE_DATA_KEY, DEFAULT_CONFIG_API_INSERT_REPLACE_DATA);
-    apiConfigObject.put(
-        CONFIG_FILE_API_AUTO_CREATE_DATASETS_KEY, DEFAULT_CONFIG_API_AUTO_CREATE_DATASETS);
-    apiConfigObject.put(
-        CONFIG_FILE_QUEUE_DATA_POST_RATE_MILLIS_KEY, DEFAULT_CONFIG_QUEUE_DATA_POST_RATE_MILLIS);
-    connectorConfigObject.put(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY, apiConfigObject);
+  /**
+   * Default value for the diagnostic tag update interval (in seconds) in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final long DEFAULT_CONFIG_DIAGNOSTICS_UPDATE_INTERVAL_SECS = 10;
 
-    // Create auth configuration object
+  /**
+   * Default value for the enable metrics HTTP endpoint setting in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final boolean DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED = false;
+
+  /**
+   * Default value for the metrics HTTP endpoint port in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_PORT = 9180;
+
+  /**
+   * Default value for the enable data capture setting in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final boolean DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_ENABLED = false;
+
+  /**
+   * Default value for the data capture file path in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final String DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_FILE_PATH =
+      "/usr/CanaryDataCapture.bin";
+
+  /**
+   * Default value for the maximum data capture file size (in megabytes) in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB = 10;
+
+  /**
+   * Default value for the enable top tags setting in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final boolean DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_ENABLED = false;
+
+  /**
+   * Default value for the top tags report interval (in seconds) in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final long DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS = 300;
+
+  /**
+   * Default value for the number of session shards in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_CONFIG_API_SESSION_SHARD_COUNT = 1;
+
+  /**
+   * Default value for the reorder window (in seconds) in the configuration file. A value of 0
+   * disables reordering.
+   *
+   * @since 1.1.0
+   */
+  public static final long DEFAULT_CONFIG_API_REORDER_WINDOW_SECS = 0;
+
+  /**
+   * Default value for the late data lane enabled setting in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final boolean DEFAULT_CONFIG_API_LATE_DATA_LANE_ENABLED = false;
+
+  /**
+   * Default value for the backfill lane enabled setting in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final boolean DEFAULT_CONFIG_API_BACKFILL_LANE_ENABLED = false;
+
+  /**
+   * Default value for the live lane maximum pending payloads in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_CONFIG_API_LIVE_LANE_MAX_PENDING_PAYLOADS = 1;
+
+  /**
+   * Default value for the weight of the default priority class in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_CONFIG_API_DEFAULT_PRIORITY_WEIGHT = 1;
+
+  /**
+   * Default value for the weight of a priority class in the configuration file priority classes
+   * array.
+   *
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_CONFIG_PRIORITY_CLASS_WEIGHT = 1;
+
+  /**
+   * Prefix of the default name of priority classes in the priority classes array. The (one-based)
+   * index of the priority class is appended to the prefix.
+   *
+   * @since 1.1.0
+   */
+  public static final String DEFAULT_CONFIG_PRIORITY_CLASS_NAME_PREFIX = "PriorityClass";
+
+  /**
+   * Default value for the enable filtering setting of the default tag filter settings in the
+   * configuration file. Tag filter rules are enabled unless specified otherwise.
+   *
+   * @since 1.1.0
+   */
+  public static final boolean DEFAULT_CONFIG_FILTER_ENABLED = false;
+
+  /**
+   * Default value for the absolute deadband of tag filter settings in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final double DEFAULT_CONFIG_FILTER_DEADBAND_ABSOLUTE = 0;
+
+  /**
+   * Default value for the percent deadband of tag filter settings in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final double DEFAULT_CONFIG_FILTER_DEADBAND_PERCENT = 0;
+
+  /**
+   * Default value for the compression deviation of tag filter settings in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final double DEFAULT_CONFIG_FILTER_COMPRESSION_DEVIATION = 0;
+
+  /**
+   * Default value for the maximum silence (in seconds) of tag filter settings in the configuration
+   * file.
+   *
+   * @since 1.1.0
+   */
+  public static final long DEFAULT_CONFIG_FILTER_MAX_SILENCE_SECS = 0;
+
+  /**
+   * Default value for the maximum hold time (in seconds) of compressed data points of tag filter
+   * settings in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final long DEFAULT_CONFIG_FILTER_HOLD_MAX_SECS = 60;
+
+  /**
+   * Default value for the aggregation window length (in seconds) of tag filter settings in the
+   * configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final long DEFAULT_CONFIG_FILTER_AGGREGATION_WINDOW_SECS = 0;
+
+  /**
+   * Default value for the aggregation statistics of tag filter settings in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final String[] DEFAULT_CONFIG_FILTER_AGGREGATION_STATISTICS = {
+    "min", "max", "avg", "count", "last"
+  };
+
+  /**
+   * Default value for the pass on quality change setting of tag filter settings in the
+   * configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final boolean DEFAULT_CONFIG_FILTER_PASS_ON_QUALITY_CHANGE = true;
+
+  /**
+   * Default value for the decimals setting of tag filter settings in the configuration file. A
+   * value of -1 sends float values with full precision.
+   *
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_CONFIG_FILTER_DECIMALS = CanaryTagFilterSettings.FULL_PRECISION;
+
+  /**
+   * Default value for the rate limit (in samples per second) of tag filter settings in the
+   * configuration file. A value of 0 disables rate limiting.
+   *
+   * @since 1.1.0
+   */
+  public static final double DEFAULT_CONFIG_FILTER_RATE_LIMIT_PER_SEC = 0;
+
+  /**
+   * Default value for the rate limit burst (in samples) of tag filter settings in the
+   * configuration file. A value of 0 uses the rate limit.
+   *
+   * @since 1.1.0
+   */
+  public static final double DEFAULT_CONFIG_FILTER_RATE_LIMIT_BURST = 0;
+
+  /**
+   * Default value for the rate limit mode of tag filter settings in the configuration file.
+   *
+   * @since 1.1.0
+   */
+  public static final String DEFAULT_CONFIG_FILTER_RATE_LIMIT_MODE = "drop";
+
+  /**
+   * Default value for the interval (in seconds) between reports of the tags which are rate limited
+   * the most in the configuration file. A value of 0 disables rate limit reports.
+   *
+   * @since 1.1.0
+   */
+  public static final long DEFAULT_CONFIG_FILTER_RATE_LIMIT_REPORT_INTERVAL_SECS = 300;
+
+  /**
+   * Default name of the historian target when the historian targets array is not configured.
+   *
+   * @since 1.1.0
+   */
+  public static final String DEFAULT_CONFIG_HISTORIAN_TARGET_NAME = "Canary";
+
+  /**
+   * Prefix of the default name of historian targets in the historian targets array. The (one-based)
+   * index of the target is appended to the prefix.
+   *
+   * @since 1.1.0
+   */
+  public static final String DEFAULT_CONFIG_HISTORIAN_TARGET_NAME_PREFIX = "Historian";
+
+  // endregion
+
+  /**
+   * Automatically generated value for the API client ID in the configuration file.
+   *
+   * <p>To reduce initial memory usage, this is defaulted to null and populated when required. Once
+   * populated, the same value is then referenced as necessary.
+   *
+   * <p>Additionally, by defaulting to null, this allows the automatically generated client ID to
+   * only be logged once (when the value is first generated).
+   *
+   * @since 1.0.0
+   */
+  public static String autoGeneratedApiClientId = null;
+
+  /**
+   * Constructor for the {@link CanaryConnectorConfig} class.
+   *
+   * @throws ConfigFileException if unable to read/parse an existing configuration file or unable to
+   *     write a new (default) configuration file
+   * @since 1.0.0
+   */
+  public CanaryConnectorConfig() throws ConfigFileException {
+    super(CONFIG_FILE_CONNECTOR_CONFIGURATION_OBJECT_KEY, true);
+  }
+
+  /**
+   * Gets the default configuration object for the connector. This is used to populate the
+   * configuration file with default values if the file does not exist.
+   *
+   * @return default connector configuration object
+   * @throws JSONException for errors parsing JSON
+   * @since 1.0.0
+   */
+  public JSONObject getDefaultConnectorConfigurationObject() throws JSONException {
+
+    // Create connector configuration object
+    JSONObject connectorConfigObject = new JSONObject();
+
+    // Create API configuration object
+    JSONObject apiConfigObject = new JSONObject();
+    apiConfigObject.put(CONFIG_FILE_API_URL_KEY, DEFAULT_CONFIG_API_URL);
+    apiConfigObject.put(CONFIG_FILE_API_SENDER_API_VER_NUM_KEY, DEFAULT_CONFIG_SENDER_API_VERSION);
+    apiConfigObject.put(
+        CONFIG_FILE_API_RECEIVER_API_VER_NUM_KEY, DEFAULT_CONFIG_RECEIVER_API_VERSION);
+    apiConfigObject.put(CONFIG_FILE_API_HISTORY_SERVER_NAME_KEY, DEFAULT_CONFIG_API_HISTORIAN);
+    apiConfigObject.put(CONFIG_FILE_API_CLIENT_ID_KEY, DEFAULT_CONFIG_API_CLIENT_ID);
+    apiConfigObject.put(
+        CONFIG_FILE_API_CLIENT_TIMEOUT_KEY, DEFAULT_CONFIG_API_CLIENT_TIMEOUT_SECONDS);
+    apiConfigObject.put(CONFIG_FILE_API_FILE_SIZE_KEY, DEFAULT_CONFIG_API_CLIENT_FILE_SIZE_MB);
+    apiConfigObject.put(
+        CONFIG_FILE_API_AUTO_WRITE_NO_DATA_KEY, DEFAULT_CONFIG_API_AUTO_WRITE_NO_DATA);
+    apiConfigObject.put(CONFIG_FILE_API_EXTEND_DATA_KEY, DEFAULT_CONFIG_API_EXTEND_DATA);
+    apiConfigObject.put(
+        CONFIG_FILE_API_INSERT_REPLACE_DATA_KEY, DEFAULT_CONFIG_API_INSERT_REPLACE_DATA);
+    apiConfigObject.put(
+        CONFIG_FILE_API_AUTO_CREATE_DATASETS_KEY, DEFAULT_CONFIG_API_AUTO_CREATE_DATASETS);
+    apiConfigObject.put(
+        CONFIG_FILE_QUEUE_DATA_POST_RATE_MILLIS_KEY, DEFAULT_CONFIG_QUEUE_DATA_POST_RATE_MILLIS);
+    apiConfigObject.put(
+        CONFIG_FILE_API_MAX_PENDING_PAYLOADS_KEY, DEFAULT_CONFIG_API_MAX_PENDING_PAYLOADS);
+    apiConfigObject.put(
+        CONFIG_FILE_API_SESSION_SHARD_COUNT_KEY, DEFAULT_CONFIG_API_SESSION_SHARD_COUNT);
+    apiConfigObject.put(
+        CONFIG_FILE_API_REORDER_WINDOW_SECS_KEY, DEFAULT_CONFIG_API_REORDER_WINDOW_SECS);
+    apiConfigObject.put(
+        CONFIG_FILE_API_LATE_DATA_LANE_ENABLED_KEY, DEFAULT_CONFIG_API_LATE_DATA_LANE_ENABLED);
+    apiConfigObject.put(
+        CONFIG_FILE_API_ERROR_SUMMARY_INTERVAL_SECS_KEY,
+        DEFAULT_CONFIG_API_ERROR_SUMMARY_INTERVAL_SECS);
+    JSONObject requestTimeoutsConfigObject = new JSONObject();
+    requestTimeoutsConfigObject.put(
+        CONFIG_FILE_REQUEST_TIMEOUT_AUTH_SECS_KEY, DEFAULT_CONFIG_REQUEST_TIMEOUT_AUTH_SECS);
+    requestTimeoutsConfigObject.put(
+        CONFIG_FILE_REQUEST_TIMEOUT_KEEP_ALIVE_SECS_KEY,
+        DEFAULT_CONFIG_REQUEST_TIMEOUT_KEEP_ALIVE_SECS);
+    requestTimeoutsConfigObject.put(
+        CONFIG_FILE_REQUEST_TIMEOUT_STORE_DATA_SECS_KEY,
+        DEFAULT_CONFIG_REQUEST_TIMEOUT_STORE_DATA_SECS);
+    apiConfigObject.put(CONFIG_FILE_API_REQUEST_TIMEOUTS_KEY, requestTimeoutsConfigObject);
+    connectorConfigObject.put(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY, apiConfigObject);
+
+    // Create auth configuration object
     JSONObject authConfigObject = new JSONObject();
     authConfigObject.put(CONFIG_FILE_AUTH_USERNAME_KEY, DEFAULT_CONFIG_API_USERNAME);
     authConfigObject.put(CONFIG_FILE_AUTH_PASSWORD_KEY, DEFAULT_CONFIG_API_PASSWORD);
     connectorConfigObject.put(CONFIG_FILE_AUTH_CONFIGURATION_OBJECT_KEY, authConfigObject);
 
+    // Create diagnostics configuration object
+    JSONObject diagnosticsConfigObject = new JSONObject();
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_ENABLE_TAGS_KEY, DEFAULT_CONFIG_DIAGNOSTICS_ENABLE_TAGS);
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_TAG_NAME_PREFIX_KEY, DEFAULT_CONFIG_DIAGNOSTICS_TAG_NAME_PREFIX);
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_UPDATE_INTERVAL_SECS_KEY,
+        DEFAULT_CONFIG_DIAGNOSTICS_UPDATE_INTERVAL_SECS);
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED_KEY,
+        DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED);
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_PORT_KEY,
+        DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_PORT);
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_CAPTURE_ENABLED_KEY, DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_ENABLED);
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_CAPTURE_FILE_PATH_KEY,
+        DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_FILE_PATH);
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB_KEY,
+        DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB);
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_ENABLED_KEY, DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_ENABLED);
+    diagnosticsConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS_KEY,
+        DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS);
+    connectorConfigObject.put(
+        CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY, diagnosticsConfigObject);
+
+    // Create tag filter configuration object
+    JSONObject tagDefaultsConfigObject = new JSONObject();
+    tagDefaultsConfigObject.put(CONFIG_FILE_FILTER_ENABLED_KEY, DEFAULT_CONFIG_FILTER_ENABLED);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_DEADBAND_ABSOLUTE_KEY, DEFAULT_CONFIG_FILTER_DEADBAND_ABSOLUTE);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_DEADBAND_PERCENT_KEY, DEFAULT_CONFIG_FILTER_DEADBAND_PERCENT);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_COMPRESSION_DEVIATION_KEY, DEFAULT_CONFIG_FILTER_COMPRESSION_DEVIATION);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_MAX_SILENCE_SECS_KEY, DEFAULT_CONFIG_FILTER_MAX_SILENCE_SECS);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_HOLD_MAX_SECS_KEY, DEFAULT_CONFIG_FILTER_HOLD_MAX_SECS);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_AGGREGATION_WINDOW_SECS_KEY,
+        DEFAULT_CONFIG_FILTER_AGGREGATION_WINDOW_SECS);
+    JSONArray aggregationStatisticsArray = new JSONArray();
+    for (int statisticIndex = 0;
+        statisticIndex < DEFAULT_CONFIG_FILTER_AGGREGATION_STATISTICS.length;
+        statisticIndex++) {
+      aggregationStatisticsArray.put(DEFAULT_CONFIG_FILTER_AGGREGATION_STATISTICS[statisticIndex]);
+    }
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_AGGREGATION_STATISTICS_KEY, aggregationStatisticsArray);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_PASS_ON_QUALITY_CHANGE_KEY,
+        DEFAULT_CONFIG_FILTER_PASS_ON_QUALITY_CHANGE);
+    tagDefaultsConfigObject.put(CONFIG_FILE_FILTER_DECIMALS_KEY, DEFAULT_CONFIG_FILTER_DECIMALS);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_RATE_LIMIT_PER_SEC_KEY, DEFAULT_CONFIG_FILTER_RATE_LIMIT_PER_SEC);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_RATE_LIMIT_BURST_KEY, DEFAULT_CONFIG_FILTER_RATE_LIMIT_BURST);
+    tagDefaultsConfigObject.put(
+        CONFIG_FILE_FILTER_RATE_LIMIT_MODE_KEY, DEFAULT_CONFIG_FILTER_RATE_LIMIT_MODE);
+    JSONObject filterConfigObject = new JSONObject();
+    filterConfigObject.put(CONFIG_FILE_FILTER_TAG_DEFAULTS_KEY, tagDefaultsConfigObject);
+    filterConfigObject.put(CONFIG_FILE_FILTER_TAG_RULES_KEY, new JSONArray());
+    filterConfigObject.put(
+        CONFIG_FILE_FILTER_RATE_LIMIT_REPORT_INTERVAL_SECS_KEY,
+        DEFAULT_CONFIG_FILTER_RATE_LIMIT_REPORT_INTERVAL_SECS);
+    connectorConfigObject.put(CONFIG_FILE_FILTER_CONFIGURATION_OBJECT_KEY, filterConfigObject);
+
     return connectorConfigObject;
   }
 
@@ -740,25 +1499,1100 @@ public class CanaryConnectorConfig extends AbstractConnectorConfig {
   }
 
   /**
-   * Checks the configuration file to determine if required/critical configuration fields have been
-   * loaded and contain acceptable values.
+   * Get the maximum number of pending payloads per historian target from the configuration.
    *
-   * @return {@code true} if the required configuration fields have been loaded and contain
-   *     acceptable values, {@code false} otherwise.
-   * @since 1.0.0
+   * @return maximum number of pending payloads per historian target
+   * @since 1.1.0
    */
-  public boolean checkRequiredConfigLoaded() {
-    boolean allLoaded = true;
-    CanaryConnectorConfig connectorConfig = CanaryConnectorMain.getConnectorConfig();
+  public int getApiMaxPendingPayloads() {
+    int apiMaxPendingPayloads = DEFAULT_CONFIG_API_MAX_PENDING_PAYLOADS;
 
-    if (connectorConfig.getApiUrl().equals(CanaryConnectorConfig.DEFAULT_CONFIG_API_URL)
-        || connectorConfig
-            .getApiUsername()
-            .equals(CanaryConnectorConfig.DEFAULT_CONFIG_API_USERNAME)
-        || connectorConfig
-            .getApiUserPassword()
-            .equals(CanaryConnectorConfig.DEFAULT_CONFIG_API_PASSWORD)) {
-      allLoaded = false;
+    try {
+      if (getConnectorConfigurationObject()
+          .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+          .has(CONFIG_FILE_API_MAX_PENDING_PAYLOADS_KEY)) {
+        apiMaxPendingPayloads =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+                .getInt(CONFIG_FILE_API_MAX_PENDING_PAYLOADS_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_API_MAX_PENDING_PAYLOADS_KEY,
+            String.valueOf(DEFAULT_CONFIG_API_MAX_PENDING_PAYLOADS));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_API_MAX_PENDING_PAYLOADS_KEY,
+          String.valueOf(DEFAULT_CONFIG_API_MAX_PENDING_PAYLOADS),
+          e);
+    }
+
+    return apiMaxPendingPayloads;
+  }
+
+  /**
+   * Get the interval (in seconds) between summaries of errors in Canary API responses from the
+   * configuration. A value of 0 logs errors for every response.
+   *
+   * @return API error summary interval in seconds
+   * @since 1.1.0
+   */
+  public long getApiErrorSummaryIntervalSecs() {
+    long apiErrorSummaryIntervalSecs = DEFAULT_CONFIG_API_ERROR_SUMMARY_INTERVAL_SECS;
+
+    try {
+      if (getConnectorConfigurationObject()
+          .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+          .has(CONFIG_FILE_API_ERROR_SUMMARY_INTERVAL_SECS_KEY)) {
+        apiErrorSummaryIntervalSecs =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+                .getLong(CONFIG_FILE_API_ERROR_SUMMARY_INTERVAL_SECS_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_API_ERROR_SUMMARY_INTERVAL_SECS_KEY,
+            String.valueOf(DEFAULT_CONFIG_API_ERROR_SUMMARY_INTERVAL_SECS));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_API_ERROR_SUMMARY_INTERVAL_SECS_KEY,
+          String.valueOf(DEFAULT_CONFIG_API_ERROR_SUMMARY_INTERVAL_SECS),
+          e);
+    }
+
+    return apiErrorSummaryIntervalSecs;
+  }
+
+  /**
+   * Get the deadlines of each type of Canary API request from the configuration.
+   *
+   * @return API request deadlines
+   * @since 1.1.0
+   */
+  public CanaryApiRequestTimeouts getApiRequestTimeouts() {
+    return new CanaryApiRequestTimeouts(
+        SCTimeUnit.SECONDS.toMillis(
+            getApiRequestTimeoutSecs(
+                CONFIG_FILE_REQUEST_TIMEOUT_AUTH_SECS_KEY,
+                DEFAULT_CONFIG_REQUEST_TIMEOUT_AUTH_SECS)),
+        SCTimeUnit.SECONDS.toMillis(
+            getApiRequestTimeoutSecs(
+                CONFIG_FILE_REQUEST_TIMEOUT_KEEP_ALIVE_SECS_KEY,
+                DEFAULT_CONFIG_REQUEST_TIMEOUT_KEEP_ALIVE_SECS)),
+        SCTimeUnit.SECONDS.toMillis(
+            getApiRequestTimeoutSecs(
+                CONFIG_FILE_REQUEST_TIMEOUT_STORE_DATA_SECS_KEY,
+                DEFAULT_CONFIG_REQUEST_TIMEOUT_STORE_DATA_SECS)));
+  }
+
+  /**
+   * Get the specified request timeout (in seconds) from the request timeouts object of the
+   * configuration.
+   *
+   * @param requestTimeoutKey the key of the request timeout in the request timeouts object
+   * @param defaultRequestTimeoutSecs the default request timeout (in seconds)
+   * @return request timeout in seconds
+   * @since 1.1.0
+   */
+  private long getApiRequestTimeoutSecs(String requestTimeoutKey, long defaultRequestTimeoutSecs) {
+    long requestTimeoutSecs = defaultRequestTimeoutSecs;
+
+    try {
+      JSONObject apiConfigObject =
+          getConnectorConfigurationObject().getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY);
+      if (apiConfigObject.has(CONFIG_FILE_API_REQUEST_TIMEOUTS_KEY)
+          && apiConfigObject
+              .getJSONObject(CONFIG_FILE_API_REQUEST_TIMEOUTS_KEY)
+              .has(requestTimeoutKey)) {
+        requestTimeoutSecs =
+            apiConfigObject
+                .getJSONObject(CONFIG_FILE_API_REQUEST_TIMEOUTS_KEY)
+                .getLong(requestTimeoutKey);
+      } else {
+        logMissingField(requestTimeoutKey, String.valueOf(defaultRequestTimeoutSecs));
+      }
+    } catch (Exception e) {
+      logFailedField(requestTimeoutKey, String.valueOf(defaultRequestTimeoutSecs), e);
+    }
+
+    return requestTimeoutSecs;
+  }
+
+  /**
+   * Get the enable diagnostic tags setting from the configuration.
+   *
+   * @return {@code true} if diagnostic tags are enabled, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean getDiagnosticTagsEnabled() {
+    boolean diagnosticTagsEnabled = DEFAULT_CONFIG_DIAGNOSTICS_ENABLE_TAGS;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_ENABLE_TAGS_KEY)) {
+        diagnosticTagsEnabled =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getBoolean(CONFIG_FILE_DIAGNOSTICS_ENABLE_TAGS_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_ENABLE_TAGS_KEY,
+            String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_ENABLE_TAGS));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_ENABLE_TAGS_KEY,
+          String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_ENABLE_TAGS),
+          e);
+    }
+
+    return diagnosticTagsEnabled;
+  }
+
+  /**
+   * Get the diagnostic tag name prefix from the configuration.
+   *
+   * @return diagnostic tag name prefix
+   * @since 1.1.0
+   */
+  public String getDiagnosticTagNamePrefix() {
+    String diagnosticTagNamePrefix = DEFAULT_CONFIG_DIAGNOSTICS_TAG_NAME_PREFIX;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_TAG_NAME_PREFIX_KEY)) {
+        diagnosticTagNamePrefix =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getString(CONFIG_FILE_DIAGNOSTICS_TAG_NAME_PREFIX_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_TAG_NAME_PREFIX_KEY,
+            DEFAULT_CONFIG_DIAGNOSTICS_TAG_NAME_PREFIX);
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_TAG_NAME_PREFIX_KEY,
+          DEFAULT_CONFIG_DIAGNOSTICS_TAG_NAME_PREFIX,
+          e);
+    }
+
+    return diagnosticTagNamePrefix;
+  }
+
+  /**
+   * Get the diagnostic tag update interval (in seconds) from the configuration.
+   *
+   * @return diagnostic tag update interval in seconds
+   * @since 1.1.0
+   */
+  public long getDiagnosticTagsUpdateIntervalSecs() {
+    long diagnosticTagsUpdateIntervalSecs = DEFAULT_CONFIG_DIAGNOSTICS_UPDATE_INTERVAL_SECS;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_UPDATE_INTERVAL_SECS_KEY)) {
+        diagnosticTagsUpdateIntervalSecs =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getLong(CONFIG_FILE_DIAGNOSTICS_UPDATE_INTERVAL_SECS_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_UPDATE_INTERVAL_SECS_KEY,
+            String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_UPDATE_INTERVAL_SECS));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_UPDATE_INTERVAL_SECS_KEY,
+          String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_UPDATE_INTERVAL_SECS),
+          e);
+    }
+
+    return diagnosticTagsUpdateIntervalSecs;
+  }
+
+  /**
+   * Get the enable metrics HTTP endpoint setting from the configuration.
+   *
+   * @return {@code true} if the metrics HTTP endpoint is enabled, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean getMetricsHttpEndpointEnabled() {
+    boolean metricsHttpEndpointEnabled = DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED_KEY)) {
+        metricsHttpEndpointEnabled =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getBoolean(CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED_KEY,
+            String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED_KEY,
+          String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_ENABLED),
+          e);
+    }
+
+    return metricsHttpEndpointEnabled;
+  }
+
+  /**
+   * Get the metrics HTTP endpoint port from the configuration.
+   *
+   * @return metrics HTTP endpoint port
+   * @since 1.1.0
+   */
+  public int getMetricsHttpEndpointPort() {
+    int metricsHttpEndpointPort = DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_PORT;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_PORT_KEY)) {
+        metricsHttpEndpointPort =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getInt(CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_PORT_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_PORT_KEY,
+            String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_PORT));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_HTTP_ENDPOINT_PORT_KEY,
+          String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_HTTP_ENDPOINT_PORT),
+          e);
+    }
+
+    return metricsHttpEndpointPort;
+  }
+
+  /**
+   * Get the enable data capture setting from the configuration. When enabled, every batch of data
+   * points polled from the historical data queue is captured to a file for later replay.
+   *
+   * @return {@code true} if data capture is enabled, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean getDataCaptureEnabled() {
+    boolean dataCaptureEnabled = DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_ENABLED;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_CAPTURE_ENABLED_KEY)) {
+        dataCaptureEnabled =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getBoolean(CONFIG_FILE_DIAGNOSTICS_CAPTURE_ENABLED_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_CAPTURE_ENABLED_KEY,
+            String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_ENABLED));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_CAPTURE_ENABLED_KEY,
+          String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_ENABLED),
+          e);
+    }
+
+    return dataCaptureEnabled;
+  }
+
+  /**
+   * Get the data capture file path from the configuration.
+   *
+   * @return data capture file path
+   * @since 1.1.0
+   */
+  public String getDataCaptureFilePath() {
+    String dataCaptureFilePath = DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_FILE_PATH;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_CAPTURE_FILE_PATH_KEY)) {
+        dataCaptureFilePath =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getString(CONFIG_FILE_DIAGNOSTICS_CAPTURE_FILE_PATH_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_CAPTURE_FILE_PATH_KEY,
+            DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_FILE_PATH);
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_CAPTURE_FILE_PATH_KEY,
+          DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_FILE_PATH,
+          e);
+    }
+
+    return dataCaptureFilePath;
+  }
+
+  /**
+   * Get the maximum data capture file size (in megabytes) from the configuration. Data capture
+   * stops when the capture file reaches this size.
+   *
+   * @return maximum data capture file size in megabytes
+   * @since 1.1.0
+   */
+  public int getDataCaptureMaxSizeMB() {
+    int dataCaptureMaxSizeMB = DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB_KEY)) {
+        dataCaptureMaxSizeMB =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getInt(CONFIG_FILE_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB_KEY,
+            String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB_KEY,
+          String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_CAPTURE_MAX_SIZE_MB),
+          e);
+    }
+
+    return dataCaptureMaxSizeMB;
+  }
+
+  /**
+   * Get the enable top tags setting from the configuration. When enabled, the tags with the most
+   * polled data points and serialized payload bytes are estimated and reported periodically.
+   *
+   * @return {@code true} if top tags are enabled, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean getTopTagsEnabled() {
+    boolean topTagsEnabled = DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_ENABLED;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_ENABLED_KEY)) {
+        topTagsEnabled =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getBoolean(CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_ENABLED_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_ENABLED_KEY,
+            String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_ENABLED));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_ENABLED_KEY,
+          String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_ENABLED),
+          e);
+    }
+
+    return topTagsEnabled;
+  }
+
+  /**
+   * Get the top tags report interval (in seconds) from the configuration. The top tags are
+   * estimated over each interval, and reported at the end of the interval.
+   *
+   * @return top tags report interval in seconds
+   * @since 1.1.0
+   */
+  public long getTopTagsIntervalSecs() {
+    long topTagsIntervalSecs = DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+          && getConnectorConfigurationObject()
+              .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+              .has(CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS_KEY)) {
+        topTagsIntervalSecs =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_DIAGNOSTICS_CONFIGURATION_OBJECT_KEY)
+                .getLong(CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS_KEY,
+            String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS_KEY,
+          String.valueOf(DEFAULT_CONFIG_DIAGNOSTICS_TOP_TAGS_INTERVAL_SECS),
+          e);
+    }
+
+    return topTagsIntervalSecs;
+  }
+
+  /**
+   * Get the number of session shards from the configuration. Tags are partitioned across this
+   * number of sessions (per historian target), each with its own client ID suffix.
+   *
+   * @return number of session shards
+   * @since 1.1.0
+   */
+  public int getApiSessionShardCount() {
+    int apiSessionShardCount = DEFAULT_CONFIG_API_SESSION_SHARD_COUNT;
+
+    try {
+      if (getConnectorConfigurationObject()
+          .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+          .has(CONFIG_FILE_API_SESSION_SHARD_COUNT_KEY)) {
+        apiSessionShardCount =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+                .getInt(CONFIG_FILE_API_SESSION_SHARD_COUNT_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_API_SESSION_SHARD_COUNT_KEY,
+            String.valueOf(DEFAULT_CONFIG_API_SESSION_SHARD_COUNT));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_API_SESSION_SHARD_COUNT_KEY,
+          String.valueOf(DEFAULT_CONFIG_API_SESSION_SHARD_COUNT),
+          e);
+    }
+
+    // Ensure at least one shard
+    if (apiSessionShardCount < 1) {
+      Logger.LOG_WARN(
+          "Invalid value for "
+              + CONFIG_FILE_API_SESSION_SHARD_COUNT_KEY
+              + ", using default value "
+              + DEFAULT_CONFIG_API_SESSION_SHARD_COUNT
+              + ".");
+      apiSessionShardCount = DEFAULT_CONFIG_API_SESSION_SHARD_COUNT;
+    }
+
+    return apiSessionShardCount;
+  }
+
+  /**
+   * Get the reorder window (in seconds) from the configuration. The data points of each tag are
+   * held for up to this time, and released in order of sample time.
+   *
+   * @return reorder window (in seconds), or 0 if reordering is disabled
+   * @since 1.1.0
+   */
+  public long getApiReorderWindowSecs() {
+    long apiReorderWindowSecs = DEFAULT_CONFIG_API_REORDER_WINDOW_SECS;
+
+    try {
+      if (getConnectorConfigurationObject()
+          .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+          .has(CONFIG_FILE_API_REORDER_WINDOW_SECS_KEY)) {
+        apiReorderWindowSecs =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+                .getLong(CONFIG_FILE_API_REORDER_WINDOW_SECS_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_API_REORDER_WINDOW_SECS_KEY,
+            String.valueOf(DEFAULT_CONFIG_API_REORDER_WINDOW_SECS));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_API_REORDER_WINDOW_SECS_KEY,
+          String.valueOf(DEFAULT_CONFIG_API_REORDER_WINDOW_SECS),
+          e);
+    }
+
+    // Ensure reorder window is not negative
+    if (apiReorderWindowSecs < 0) {
+      Logger.LOG_WARN(
+          "Invalid value for "
+              + CONFIG_FILE_API_REORDER_WINDOW_SECS_KEY
+              + ", using default value "
+              + DEFAULT_CONFIG_API_REORDER_WINDOW_SECS
+              + ".");
+      apiReorderWindowSecs = DEFAULT_CONFIG_API_REORDER_WINDOW_SECS;
+    }
+
+    return apiReorderWindowSecs;
+  }
+
+  /**
+   * Get the late data lane enabled setting from the configuration. If enabled, data points older
+   * than the last sent data point of their tag are sent by separate sessions with insert replace
+   * data enabled.
+   *
+   * @return late data lane enabled setting
+   * @since 1.1.0
+   */
+  public boolean getApiLateDataLaneEnabled() {
+    boolean apiLateDataLaneEnabled = DEFAULT_CONFIG_API_LATE_DATA_LANE_ENABLED;
+
+    try {
+      if (getConnectorConfigurationObject()
+          .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+          .has(CONFIG_FILE_API_LATE_DATA_LANE_ENABLED_KEY)) {
+        apiLateDataLaneEnabled =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+                .getBoolean(CONFIG_FILE_API_LATE_DATA_LANE_ENABLED_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_API_LATE_DATA_LANE_ENABLED_KEY,
+            String.valueOf(DEFAULT_CONFIG_API_LATE_DATA_LANE_ENABLED));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_API_LATE_DATA_LANE_ENABLED_KEY,
+          String.valueOf(DEFAULT_CONFIG_API_LATE_DATA_LANE_ENABLED),
+          e);
+    }
+
+    return apiLateDataLaneEnabled;
+  }
+
+  /**
+   * Get the backfill lane enabled setting from the configuration. If enabled, the payloads of each
+   * Canary target are sent by a live lane, which sends the newest payloads first, and a backfill
+   * lane, which sends older payloads with insert replace data enabled whenever the live lane has
+   * no payloads pending.
+   *
+   * @return backfill lane enabled setting
+   * @since 1.1.0
+   */
+  public boolean getApiBackfillLaneEnabled() {
+    boolean apiBackfillLaneEnabled = DEFAULT_CONFIG_API_BACKFILL_LANE_ENABLED;
+
+    try {
+      if (getConnectorConfigurationObject()
+          .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+          .has(CONFIG_FILE_API_BACKFILL_LANE_ENABLED_KEY)) {
+        apiBackfillLaneEnabled =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+                .getBoolean(CONFIG_FILE_API_BACKFILL_LANE_ENABLED_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_API_BACKFILL_LANE_ENABLED_KEY,
+            String.valueOf(DEFAULT_CONFIG_API_BACKFILL_LANE_ENABLED));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_API_BACKFILL_LANE_ENABLED_KEY,
+          String.valueOf(DEFAULT_CONFIG_API_BACKFILL_LANE_ENABLED),
+          e);
+    }
+
+    return apiBackfillLaneEnabled;
+  }
+
+  /**
+   * Get the live lane maximum pending payloads from the configuration. When more payloads than this
+   * are pending for the live lane of a Canary target, the live lane skips ahead to the newest
+   * payloads and leaves the older payloads to the backfill lane.
+   *
+   * @return live lane maximum pending payloads
+   * @since 1.1.0
+   */
+  public int getApiLiveLaneMaxPendingPayloads() {
+    int apiLiveLaneMaxPendingPayloads = DEFAULT_CONFIG_API_LIVE_LANE_MAX_PENDING_PAYLOADS;
+
+    try {
+      if (getConnectorConfigurationObject()
+          .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+          .has(CONFIG_FILE_API_LIVE_LANE_MAX_PENDING_PAYLOADS_KEY)) {
+        apiLiveLaneMaxPendingPayloads =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+                .getInt(CONFIG_FILE_API_LIVE_LANE_MAX_PENDING_PAYLOADS_KEY);
+      } else {
+        logMissingField(
+            CONFIG_FILE_API_LIVE_LANE_MAX_PENDING_PAYLOADS_KEY,
+            String.valueOf(DEFAULT_CONFIG_API_LIVE_LANE_MAX_PENDING_PAYLOADS));
+      }
+    } catch (Exception e) {
+      logFailedField(
+          CONFIG_FILE_API_LIVE_LANE_MAX_PENDING_PAYLOADS_KEY,
+          String.valueOf(DEFAULT_CONFIG_API_LIVE_LANE_MAX_PENDING_PAYLOADS),
+          e);
+    }
+
+    // Ensure live lane maximum pending payloads is at least 1
+    if (apiLiveLaneMaxPendingPayloads < 1) {
+      Logger.LOG_WARN(
+          "Invalid value for "
+              + CONFIG_FILE_API_LIVE_LANE_MAX_PENDING_PAYLOADS_KEY
+              + ", using default value "
+              + DEFAULT_CONFIG_API_LIVE_LANE_MAX_PENDING_PAYLOADS
+              + ".");
+      apiLiveLaneMaxPendingPayloads = DEFAULT_CONFIG_API_LIVE_LANE_MAX_PENDING_PAYLOADS;
+    }
+
+    return apiLiveLaneMaxPendingPayloads;
+  }
+
+  /**
+   * Get the tag priority classes from the configuration. Each tag is assigned to the first priority
+   * class in the priority classes array which matches it, or to the default priority class if none
+   * match. If the optional priority classes array is not configured, every tag is assigned to the
+   * default priority class.
+   *
+   * @return tag priority classes
+   * @since 1.1.0
+   */
+  public CanaryTagPriorityClasses getTagPriorityClasses() {
+    List priorityClasses = new ArrayList();
+    int defaultPriorityWeight = DEFAULT_CONFIG_API_DEFAULT_PRIORITY_WEIGHT;
+
+    try {
+      JSONObject apiConfigObject =
+          getConnectorConfigurationObject().getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY);
+      if (apiConfigObject.has(CONFIG_FILE_API_PRIORITY_CLASSES_KEY)) {
+        JSONArray priorityClassesArray =
+            apiConfigObject.getJSONArray(CONFIG_FILE_API_PRIORITY_CLASSES_KEY);
+        for (int classIndex = 0; classIndex < priorityClassesArray.length(); classIndex++) {
+          try {
+            priorityClasses.add(
+                createTagPriorityClass(
+                    DEFAULT_CONFIG_PRIORITY_CLASS_NAME_PREFIX + (classIndex + 1),
+                    priorityClassesArray.getJSONObject(classIndex)));
+          } catch (Exception e) {
+            logFailedField(CONFIG_FILE_API_PRIORITY_CLASSES_KEY + "[" + classIndex + "]", e);
+          }
+        }
+      }
+      if (apiConfigObject.has(CONFIG_FILE_API_DEFAULT_PRIORITY_WEIGHT_KEY)) {
+        defaultPriorityWeight = apiConfigObject.getInt(CONFIG_FILE_API_DEFAULT_PRIORITY_WEIGHT_KEY);
+      }
+    } catch (Exception e) {
+      logFailedField(CONFIG_FILE_API_PRIORITY_CLASSES_KEY, e);
+    }
+
+    // Ensure default priority weight is at least 1
+    if (defaultPriorityWeight < 1) {
+      Logger.LOG_WARN(
+          "Invalid value for "
+              + CONFIG_FILE_API_DEFAULT_PRIORITY_WEIGHT_KEY
+              + ", using default value "
+              + DEFAULT_CONFIG_API_DEFAULT_PRIORITY_WEIGHT
+              + ".");
+      defaultPriorityWeight = DEFAULT_CONFIG_API_DEFAULT_PRIORITY_WEIGHT;
+    }
+
+    return new CanaryTagPriorityClasses(priorityClasses, defaultPriorityWeight);
+  }
+
+  /**
+   * Creates a {@link CanaryTagPriorityClass} using the specified priority class configuration
+   * object.
+   *
+   * @param defaultName the name of the priority class if not specified in the configuration object
+   * @param classConfigObject the priority class configuration object
+   * @return the priority class
+   * @throws JSONException for errors reading the priority class configuration object
+   * @throws IllegalArgumentException if the tag group is not A, B, C or D, or the weight is less
+   *     than 1
+   * @since 1.1.0
+   */
+  private CanaryTagPriorityClass createTagPriorityClass(
+      String defaultName, JSONObject classConfigObject) throws JSONException {
+    String name = defaultName;
+    if (classConfigObject.has(CONFIG_FILE_PRIORITY_CLASS_NAME_KEY)) {
+      name = classConfigObject.getString(CONFIG_FILE_PRIORITY_CLASS_NAME_KEY);
+    }
+    int weight = DEFAULT_CONFIG_PRIORITY_CLASS_WEIGHT;
+    if (classConfigObject.has(CONFIG_FILE_PRIORITY_CLASS_WEIGHT_KEY)) {
+      weight = classConfigObject.getInt(CONFIG_FILE_PRIORITY_CLASS_WEIGHT_KEY);
+    }
+    String tagNamePattern = null;
+    if (classConfigObject.has(CONFIG_FILE_PRIORITY_CLASS_TAG_NAME_PATTERN_KEY)) {
+      tagNamePattern = classConfigObject.getString(CONFIG_FILE_PRIORITY_CLASS_TAG_NAME_PATTERN_KEY);
+    }
+    int tagGroupMask = 0;
+    if (classConfigObject.has(CONFIG_FILE_PRIORITY_CLASS_TAG_GROUP_KEY)) {
+      tagGroupMask =
+          CanaryTagGroups.getGroupMask(
+              classConfigObject.getString(CONFIG_FILE_PRIORITY_CLASS_TAG_GROUP_KEY));
+    }
+    return new CanaryTagPriorityClass(name, weight, tagNamePattern, tagGroupMask);
+  }
+
+  /**
+   * Get the list of {@link CanaryHistorianTarget}s which data is sent to from the configuration.
+   *
+   * <p>If the optional historian targets array is not configured, a single target is created from
+   * the API and auth configuration objects. Otherwise, a target is created for each object in the
+   * array. The URL, historian server name, sender API version, username, and user password may be
+   * specified for each target, and default to the values in the API and auth configuration objects
+   * when not specified. All other session settings are shared by all targets.
+   *
+   * @return list of historian targets
+   * @since 1.1.0
+   */
+  public List getHistorianTargets() {
+    List historianTargets = new ArrayList();
+
+    JSONArray historiansArray = null;
+    try {
+      if (getConnectorConfigurationObject()
+          .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+          .has(CONFIG_FILE_API_HISTORIANS_KEY)) {
+        historiansArray =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY)
+                .getJSONArray(CONFIG_FILE_API_HISTORIANS_KEY);
+      }
+    } catch (Exception e) {
+      logFailedField(CONFIG_FILE_API_HISTORIANS_KEY, e);
+    }
+
+    if (historiansArray == null || historiansArray.length() == 0) {
+      try {
+        historianTargets.add(createHistorianTarget(DEFAULT_CONFIG_HISTORIAN_TARGET_NAME, null));
+      } catch (Exception e) {
+        logFailedField(CONFIG_FILE_API_CONFIGURATION_OBJECT_KEY, e);
+      }
+    } else {
+      for (int historianIndex = 0; historianIndex < historiansArray.length(); historianIndex++) {
+        String historianTargetName =
+            DEFAULT_CONFIG_HISTORIAN_TARGET_NAME_PREFIX + (historianIndex + 1);
+        try {
+          historianTargets.add(
+              createHistorianTarget(
+                  historianTargetName, historiansArray.getJSONObject(historianIndex)));
+        } catch (Exception e) {
+          logFailedField(CONFIG_FILE_API_HISTORIANS_KEY + "[" + historianIndex + "]", e);
+        }
+      }
+    }
+
+    return historianTargets;
+  }
+
+  /**
+   * Creates a {@link CanaryHistorianTarget} using the specified historian target configuration
+   * object, falling back to the API and auth configuration objects for any values which are not
+   * specified.
+   *
+   * @param defaultName the name of the target if not specified in the configuration object
+   * @param historianConfigObject the historian target configuration object, or null to use only
+   *     the API and auth configuration objects
+   * @return the historian target
+   * @throws JSONException for errors reading the historian target configuration object
+   * @since 1.1.0
+   */
+  private CanaryHistorianTarget createHistorianTarget(
+      String defaultName, JSONObject historianConfigObject) throws JSONException {
+    String name = defaultName;
+    String apiUrl = getApiUrl();
+    String historianServerName = getApiHistorianServerName();
+    String senderApiVersion = getSenderApiVersion();
+    String username = getApiUsername();
+    String userPassword = getApiUserPassword();
+
+    if (historianConfigObject != null) {
+      if (historianConfigObject.has(CONFIG_FILE_HISTORIAN_NAME_KEY)) {
+        name = historianConfigObject.getString(CONFIG_FILE_HISTORIAN_NAME_KEY);
+      }
+      if (historianConfigObject.has(CONFIG_FILE_API_URL_KEY)) {
+        apiUrl = historianConfigObject.getString(CONFIG_FILE_API_URL_KEY);
+      }
+      if (historianConfigObject.has(CONFIG_FILE_API_HISTORY_SERVER_NAME_KEY)) {
+        historianServerName =
+            historianConfigObject.getString(CONFIG_FILE_API_HISTORY_SERVER_NAME_KEY);
+      }
+      if (historianConfigObject.has(CONFIG_FILE_API_SENDER_API_VER_NUM_KEY)) {
+        senderApiVersion = historianConfigObject.getString(CONFIG_FILE_API_SENDER_API_VER_NUM_KEY);
+      }
+      if (historianConfigObject.has(CONFIG_FILE_AUTH_USERNAME_KEY)) {
+        username = historianConfigObject.getString(CONFIG_FILE_AUTH_USERNAME_KEY);
+      }
+      if (historianConfigObject.has(CONFIG_FILE_AUTH_PASSWORD_KEY)) {
+        userPassword = historianConfigObject.getString(CONFIG_FILE_AUTH_PASSWORD_KEY);
+      }
+    }
+
+    return new CanaryHistorianTarget(
+        name,
+        apiUrl,
+        senderApiVersion,
+        historianServerName,
+        username,
+        userPassword,
+        getApiClientTimeoutSeconds(),
+        getApiClientFileSize(),
+        getApiAutoWriteNoData(),
+        getApiExtendData(),
+        getApiInsertReplaceData(),
+        getApiClientAutoCreateDatasets());
+  }
+
+  /**
+   * Get the tag filter from the configuration. The filter settings of each tag are taken from the
+   * first tag filter rule matching the tag, or the default tag filter settings if no rule matches.
+   * Fields which are not specified in a rule are taken from the default tag filter settings.
+   *
+   * @return tag filter, or null if filtering is not enabled, float values are not rounded and data
+   *     points are not rate limited for any tag
+   * @since 1.1.0
+   */
+  public CanaryTagFilter getTagFilter() {
+    CanaryTagFilterSettings defaultSettings =
+        new CanaryTagFilterSettings(
+            DEFAULT_CONFIG_FILTER_ENABLED,
+            DEFAULT_CONFIG_FILTER_DEADBAND_ABSOLUTE,
+            DEFAULT_CONFIG_FILTER_DEADBAND_PERCENT,
+            DEFAULT_CONFIG_FILTER_COMPRESSION_DEVIATION,
+            DEFAULT_CONFIG_FILTER_MAX_SILENCE_SECS,
+            DEFAULT_CONFIG_FILTER_HOLD_MAX_SECS,
+            DEFAULT_CONFIG_FILTER_AGGREGATION_WINDOW_SECS,
+            CanaryTagStatistics.ALL,
+            DEFAULT_CONFIG_FILTER_DECIMALS,
+            DEFAULT_CONFIG_FILTER_PASS_ON_QUALITY_CHANGE,
+            DEFAULT_CONFIG_FILTER_RATE_LIMIT_PER_SEC,
+            DEFAULT_CONFIG_FILTER_RATE_LIMIT_BURST,
+            CanaryTagFilterSettings.getRateLimitMode(DEFAULT_CONFIG_FILTER_RATE_LIMIT_MODE));
+    List rules = new ArrayList();
+    long rateLimitReportIntervalSecs = DEFAULT_CONFIG_FILTER_RATE_LIMIT_REPORT_INTERVAL_SECS;
+
+    try {
+      if (getConnectorConfigurationObject().has(CONFIG_FILE_FILTER_CONFIGURATION_OBJECT_KEY)) {
+        JSONObject filterConfigObject =
+            getConnectorConfigurationObject()
+                .getJSONObject(CONFIG_FILE_FILTER_CONFIGURATION_OBJECT_KEY);
+        if (filterConfigObject.has(CONFIG_FILE_FILTER_TAG_DEFAULTS_KEY)) {
+          defaultSettings =
+              createTagFilterSettings(
+                  filterConfigObject.getJSONObject(CONFIG_FILE_FILTER_TAG_DEFAULTS_KEY),
+                  defaultSettings.isEnabled(),
+                  defaultSettings);
+        }
+        if (filterConfigObject.has(CONFIG_FILE_FILTER_TAG_RULES_KEY)) {
+          JSONArray rulesArray = filterConfigObject.getJSONArray(CONFIG_FILE_FILTER_TAG_RULES_KEY);
+          for (int ruleIndex = 0; ruleIndex < rulesArray.length(); ruleIndex++) {
+            try {
+              rules.add(createTagFilterRule(rulesArray.getJSONObject(ruleIndex), defaultSettings));
+            } catch (Exception e) {
+              logFailedField(CONFIG_FILE_FILTER_TAG_RULES_KEY + "[" + ruleIndex + "]", e);
+            }
+          }
+        }
+        if (filterConfigObject.has(CONFIG_FILE_FILTER_RATE_LIMIT_REPORT_INTERVAL_SECS_KEY)) {
+          rateLimitReportIntervalSecs =
+              filterConfigObject.getLong(CONFIG_FILE_FILTER_RATE_LIMIT_REPORT_INTERVAL_SECS_KEY);
+        }
+      }
+    } catch (Exception e) {
+      logFailedField(CONFIG_FILE_FILTER_CONFIGURATION_OBJECT_KEY, e);
+    }
+
+    CanaryTagFilter tagFilter = null;
+    if (CanaryTagFilter.isFilterRequired(defaultSettings, rules)) {
+      tagFilter =
+          new CanaryTagFilter(
+              defaultSettings,
+              rules,
+              SCTimeUnit.SECONDS.toMillis(Math.max(0, rateLimitReportIntervalSecs)));
+    }
+    return tagFilter;
+  }
+
+  /**
+   * Creates a {@link CanaryTagFilterRule} using the specified tag filter rule configuration
+   * object. A rule is enabled unless specified otherwise, and any other settings which are not
+   * specified are taken from the default tag filter settings.
+   *
+   * @param ruleConfigObject the tag filter rule configuration object
+   * @param defaultSettings the default tag filter settings
+   * @return the tag filter rule
+   * @throws JSONException for errors reading the tag filter rule configuration object
+   * @throws IllegalArgumentException if the tag group is not A, B, C or D, an aggregation
+   *     statistic is unknown, the number of decimals is greater than the maximum, or the rate
+   *     limit mode is unknown
+   * @since 1.1.0
+   */
+  private CanaryTagFilterRule createTagFilterRule(
+      JSONObject ruleConfigObject, CanaryTagFilterSettings defaultSettings) throws JSONException {
+    String tagNamePattern = null;
+    if (ruleConfigObject.has(CONFIG_FILE_FILTER_TAG_NAME_PATTERN_KEY)) {
+      tagNamePattern = ruleConfigObject.getString(CONFIG_FILE_FILTER_TAG_NAME_PATTERN_KEY);
+    }
+    int tagGroupMask = 0;
+    if (ruleConfigObject.has(CONFIG_FILE_FILTER_TAG_GROUP_KEY)) {
+      tagGroupMask =
+          CanaryTagGroups.getGroupMask(
+              ruleConfigObject.getString(CONFIG_FILE_FILTER_TAG_GROUP_KEY));
+    }
+    final boolean ruleEnabledByDefault = true;
+    return new CanaryTagFilterRule(
+        tagNamePattern,
+        tagGroupMask,
+        createTagFilterSettings(ruleConfigObject, ruleEnabledByDefault, defaultSettings));
+  }
+
+  /**
+   * Creates a {@link CanaryTagFilterSettings} using the specified tag filter settings
+   * configuration object, falling back to the specified settings for any values which are not
+   * specified.
+   *
+   * @param settingsConfigObject the tag filter settings configuration object
+   * @param enabledByDefault the enable filtering setting if not specified
+   * @param fallbackSettings the settings used for other values which are not specified
+   * @return the tag filter settings
+   * @throws JSONException for errors reading the tag filter settings configuration object
+   * @throws IllegalArgumentException if an aggregation statistic is unknown, the number of
+   *     decimals is greater than the maximum, or the rate limit mode is unknown
+   * @since 1.1.0
+   */
+  private static CanaryTagFilterSettings createTagFilterSettings(
+      JSONObject settingsConfigObject,
+      boolean enabledByDefault,
+      CanaryTagFilterSettings fallbackSettings)
+      throws JSONException {
+    boolean enabled = enabledByDefault;
+    double deadbandAbsolute = fallbackSettings.getDeadbandAbsolute();
+    double deadbandPercent = fallbackSettings.getDeadbandPercent();
+    double compressionDeviation = fallbackSettings.getCompressionDeviation();
+    long maxSilenceSecs = fallbackSettings.getMaxSilenceSecs();
+    long holdMaxSecs = fallbackSettings.getHoldMaxSecs();
+    long aggregationWindowSecs = fallbackSettings.getAggregationWindowSecs();
+    int aggregationStatistics = fallbackSettings.getAggregationStatistics();
+    int decimals = fallbackSettings.getDecimals();
+    boolean passOnQualityChange = fallbackSettings.isPassOnQualityChange();
+    double rateLimitPerSec = fallbackSettings.getRateLimitPerSec();
+    double rateLimitBurst = fallbackSettings.getRateLimitBurst();
+    int rateLimitMode = fallbackSettings.getRateLimitMode();
+
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_ENABLED_KEY)) {
+      enabled = settingsConfigObject.getBoolean(CONFIG_FILE_FILTER_ENABLED_KEY);
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_DEADBAND_ABSOLUTE_KEY)) {
+      deadbandAbsolute = settingsConfigObject.getDouble(CONFIG_FILE_FILTER_DEADBAND_ABSOLUTE_KEY);
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_DEADBAND_PERCENT_KEY)) {
+      deadbandPercent = settingsConfigObject.getDouble(CONFIG_FILE_FILTER_DEADBAND_PERCENT_KEY);
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_COMPRESSION_DEVIATION_KEY)) {
+      compressionDeviation =
+          settingsConfigObject.getDouble(CONFIG_FILE_FILTER_COMPRESSION_DEVIATION_KEY);
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_MAX_SILENCE_SECS_KEY)) {
+      maxSilenceSecs = settingsConfigObject.getLong(CONFIG_FILE_FILTER_MAX_SILENCE_SECS_KEY);
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_HOLD_MAX_SECS_KEY)) {
+      holdMaxSecs =
+          Math.max(0, settingsConfigObject.getLong(CONFIG_FILE_FILTER_HOLD_MAX_SECS_KEY));
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_AGGREGATION_WINDOW_SECS_KEY)) {
+      aggregationWindowSecs =
+          settingsConfigObject.getLong(CONFIG_FILE_FILTER_AGGREGATION_WINDOW_SECS_KEY);
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_AGGREGATION_STATISTICS_KEY)) {
+      JSONArray statisticsArray =
+          settingsConfigObject.getJSONArray(CONFIG_FILE_FILTER_AGGREGATION_STATISTICS_KEY);
+      aggregationStatistics = 0;
+      for (int statisticIndex = 0; statisticIndex < statisticsArray.length(); statisticIndex++) {
+        aggregationStatistics |=
+            CanaryTagStatistics.getStatisticMask(statisticsArray.getString(statisticIndex));
+      }
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_PASS_ON_QUALITY_CHANGE_KEY)) {
+      passOnQualityChange =
+          settingsConfigObject.getBoolean(CONFIG_FILE_FILTER_PASS_ON_QUALITY_CHANGE_KEY);
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_DECIMALS_KEY)) {
+      decimals = settingsConfigObject.getInt(CONFIG_FILE_FILTER_DECIMALS_KEY);
+      if (decimals > CanaryDataUtils.TVQ_FLOAT_MAX_DECIMALS) {
+        throw new IllegalArgumentException(
+            "The number of decimals must not be greater than "
+                + CanaryDataUtils.TVQ_FLOAT_MAX_DECIMALS
+                + ".");
+      }
+      if (decimals < 0) {
+        decimals = CanaryTagFilterSettings.FULL_PRECISION;
+      }
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_RATE_LIMIT_PER_SEC_KEY)) {
+      rateLimitPerSec =
+          Math.max(0, settingsConfigObject.getDouble(CONFIG_FILE_FILTER_RATE_LIMIT_PER_SEC_KEY));
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_RATE_LIMIT_BURST_KEY)) {
+      rateLimitBurst =
+          Math.max(0, settingsConfigObject.getDouble(CONFIG_FILE_FILTER_RATE_LIMIT_BURST_KEY));
+    }
+    if (settingsConfigObject.has(CONFIG_FILE_FILTER_RATE_LIMIT_MODE_KEY)) {
+      rateLimitMode =
+          CanaryTagFilterSettings.getRateLimitMode(
+              settingsConfigObject.getString(CONFIG_FILE_FILTER_RATE_LIMIT_MODE_KEY));
+    }
+
+    return new CanaryTagFilterSettings(
+        enabled,
+        deadbandAbsolute,
+        deadbandPercent,
+        compressionDeviation,
+        maxSilenceSecs,
+        holdMaxSecs,
+        aggregationWindowSecs,
+        aggregationStatistics,
+        decimals,
+        passOnQualityChange,
+        rateLimitPerSec,
+        rateLimitBurst,
+        rateLimitMode);
+  }
+
+  /**
+   * Checks the configuration file to determine if required/critical configuration fields have been
+   * loaded and contain acceptable values.
+   *
+   * @return {@code true} if the required configuration fields have been loaded and contain
+   *     acceptable values, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean checkRequiredConfigLoaded() {
+    boolean allLoaded = true;
+    CanaryConnectorConfig connectorConfig = CanaryConnectorMain.getConnectorConfig();
+
+    List historianTargets = connectorConfig.getHistorianTargets();
+    if (historianTargets.isEmpty()) {
+      allLoaded = false;
+    }
+    for (int targetIndex = 0; targetIndex < historianTargets.size(); targetIndex++) {
+      CanaryHistorianTarget historianTarget =
+          (CanaryHistorianTarget) historianTargets.get(targetIndex);
+      if (historianTarget.getApiUrl().equals(CanaryConnectorConfig.DEFAULT_CONFIG_API_URL)
+          || historianTarget
+              .getUsername()
+              .equals(CanaryConnectorConfig.DEFAULT_CONFIG_API_USERNAME)
+          || historianTarget
+              .getUserPassword()
+              .equals(CanaryConnectorConfig.DEFAULT_CONFIG_API_PASSWORD)) {
+        allLoaded = false;
+      }
     }
     return allLoaded;
   }
@@ -4,9 +4,22 @@ import com.hms_networks.americas.sc.extensions.connectors.framework.AbstractConn
 import com.hms_networks.americas.sc.extensions.connectors.framework.AbstractConnectorMain;
 import com.hms_networks.americas.sc.extensions.logging.Logger;
 import com.hms_networks.americas.sc.extensions.system.time.SCTimeSpan;
+import com.hms_networks.americas.sc.extensions.system.time.SCTimeUnit;
+import com.hms_networks.sc.canary.api.CanaryApiRequestTimeouts;
 import com.hms_networks.sc.canary.api.CanaryDataPosterThread;
+import com.hms_networks.sc.canary.api.CanaryHistorianTarget;
 import com.hms_networks.sc.canary.api.SessionManager;
+import com.hms_networks.sc.canary.data.CanaryDataCaptureWriter;
 import com.hms_networks.sc.canary.data.CanaryDataPayloadManager;
+import com.hms_networks.sc.canary.data.CanaryDataPayloadScheduler;
+import com.hms_networks.sc.canary.data.CanaryDataUtils;
+import com.hms_networks.sc.canary.data.CanaryTagPriorityClasses;
+import com.hms_networks.sc.canary.filter.CanaryTagFilter;
+import com.hms_networks.sc.canary.metrics.CanaryDiagnosticTags;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsHttpServer;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +49,30 @@ public class CanaryConnectorMain extends AbstractConnectorMain {
    */
   private static final SCTimeSpan CONNECTOR_CYCLE_TIME = SCTimeSpan.ofSeconds(5);
 
+  /**
+   * Suffix appended to the API client ID of each session shard, followed by the (one-based) shard
+   * number. The suffix is only used when more than one session shard is configured.
+   *
+   * @since 1.1.0
+   */
+  private static final String SESSION_SHARD_CLIENT_ID_SUFFIX = "-S";
+
+  /**
+   * Suffix appended to the API client ID of each late data session, which sends data points older
+   * than the last sent data point of their tag with insert replace data enabled.
+   *
+   * @since 1.1.0
+   */
+  private static final String LATE_DATA_CLIENT_ID_SUFFIX = "-L";
+
+  /**
+   * Suffix appended to the API client ID of each backfill lane session, which sends the payloads
+   * skipped by the live lane with insert replace data enabled.
+   *
+   * @since 1.1.0
+   */
+  private static final String BACKFILL_CLIENT_ID_SUFFIX = "-B";
+
   /**
    * Instance of connector main class.
    *
@@ -51,11 +88,43 @@ public class CanaryConnectorMain extends AbstractConnectorMain {
   private CanaryConnectorConfig connectorConfig = null;
 
   /**
-   * Thread to send data messages to canary
+   * List of threads to send data messages to canary, one for each session shard of each configured
+   * {@link CanaryHistorianTarget}.
    *
-   * @since 1.0.0
+   * @since 1.1.0
+   */
+  private final List dataThreads = new ArrayList();
+
+  /**
+   * Diagnostic tags for monitoring the health and throughput of the connector, or null if
+   * diagnostic tags are disabled.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDiagnosticTags diagnosticTags = null;
+
+  /**
+   * Filter applied to data points before they are added to payloads, or null if no filter is
+   * needed.
+   *
+   * @since 1.1.0
+   */
+  private CanaryTagFilter tagFilter = null;
+
+  /**
+   * HTTP endpoint for scraping connector metrics, or null if the endpoint is disabled.
+   *
+   * @since 1.1.0
    */
-  private CanaryDataPosterThread dataThread = null;
+  private CanaryMetricsHttpServer metricsHttpServer = null;
+
+  /**
+   * Writer for capturing polled data points to a file for later replay, or null if data capture is
+   * disabled.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDataCaptureWriter dataCaptureWriter = null;
 
   /**
    * Constructor for the Canary Connector main class.
@@ -111,18 +180,235 @@ public class CanaryConnectorMain extends AbstractConnectorMain {
   public boolean connectorStartUp() {
     boolean startupSuccess = true;
 
-    // Start data poster thread
+    // Start a data poster thread for each session shard of each historian target
     try {
-      dataThread = new CanaryDataPosterThread();
-      dataThread.start();
+      tagFilter = connectorConfig.getTagFilter();
+      CanaryDataPayloadManager.setTagFilter(tagFilter);
+      if (tagFilter != null) {
+        Logger.LOG_INFO("Filtering data points before they are added to payloads.");
+      }
+      startDataPipeline(
+          connectorConfig.getHistorianTargets(),
+          connectorConfig.getApiClientId(),
+          connectorConfig.getApiSessionShardCount(),
+          connectorConfig.getApiMaxPendingPayloads(),
+          connectorConfig.getApiReorderWindowSecs(),
+          connectorConfig.getApiLateDataLaneEnabled(),
+          connectorConfig.getApiBackfillLaneEnabled(),
+          connectorConfig.getApiLiveLaneMaxPendingPayloads(),
+          connectorConfig.getTagPriorityClasses(),
+          connectorConfig.getQueueDataPostRateMillis(),
+          SCTimeUnit.SECONDS.toMillis(connectorConfig.getApiErrorSummaryIntervalSecs()),
+          connectorConfig.getApiRequestTimeouts());
     } catch (Exception e) {
       startupSuccess = false;
       Logger.LOG_CRITICAL("Unable to start data poster thread.", e);
     }
 
+    // Create diagnostic tags if enabled
+    if (connectorConfig.getDiagnosticTagsEnabled()) {
+      diagnosticTags =
+          new CanaryDiagnosticTags(
+              connectorConfig.getDiagnosticTagNamePrefix(),
+              SCTimeUnit.SECONDS.toMillis(connectorConfig.getDiagnosticTagsUpdateIntervalSecs()));
+      diagnosticTags.initialize();
+    }
+
+    // Start metrics HTTP endpoint if enabled
+    if (connectorConfig.getMetricsHttpEndpointEnabled()) {
+      try {
+        metricsHttpServer =
+            new CanaryMetricsHttpServer(connectorConfig.getMetricsHttpEndpointPort());
+        metricsHttpServer.startServer();
+      } catch (IOException e) {
+        metricsHttpServer = null;
+        Logger.LOG_CRITICAL("Unable to start metrics HTTP endpoint.", e);
+      }
+    }
+
+    // Estimate the tags with the most data points and bytes if enabled
+    if (connectorConfig.getTopTagsEnabled()) {
+      final long topTagsIntervalMillis =
+          SCTimeUnit.SECONDS.toMillis(connectorConfig.getTopTagsIntervalSecs());
+      CanaryMetricsRegistry.TOP_TAGS_BY_DATA_POINTS.enable(topTagsIntervalMillis);
+      CanaryMetricsRegistry.TOP_TAGS_BY_BYTES.enable(topTagsIntervalMillis);
+    }
+
+    // Start capturing polled data points if enabled
+    if (connectorConfig.getDataCaptureEnabled()) {
+      final long bytesPerMegabyte = 1024 * 1024;
+      try {
+        dataCaptureWriter =
+            new CanaryDataCaptureWriter(
+                connectorConfig.getDataCaptureFilePath(),
+                connectorConfig.getDataCaptureMaxSizeMB() * bytesPerMegabyte);
+        dataCaptureWriter.open();
+      } catch (IOException e) {
+        dataCaptureWriter = null;
+        Logger.LOG_CRITICAL("Unable to start capturing polled data points.", e);
+      }
+    }
+
     return startupSuccess;
   }
 
+  /**
+   * Initializes the payload manager and starts a data poster thread for each session shard and lane
+   * of each historian target. This is the data pipeline started by {@link #connectorStartUp()}, and
+   * is public so that the performance harness can start the same pipeline without a configuration
+   * file.
+   *
+   * @param historianTargets the list of {@link CanaryHistorianTarget}s to send payloads to
+   * @param apiClientId the API client ID, suffixed for each session shard and lane
+   * @param shardCount the number of session shards of each historian target
+   * @param maxPendingPayloads the maximum number of pending payloads, or -1 to disable
+   * @param reorderWindowSecs the reorder window (in seconds), or 0 to disable reordering
+   * @param lateDataLaneEnabled {@code true} to send late data points with separate sessions
+   * @param backfillLaneEnabled {@code true} to send backlogged payloads with separate sessions
+   * @param liveLaneMaxPendingPayloads the maximum number of pending payloads of each live lane
+   * @param priorityClasses the priority classes which tags are assigned to
+   * @param postRateMillis the rate (in milliseconds) at which payloads are sent
+   * @param errorSummaryIntervalMillis the interval (in milliseconds) between API error summaries
+   * @param requestTimeouts the deadlines of Canary API requests
+   * @since 1.1.0
+   */
+  public void startDataPipeline(
+      List historianTargets,
+      String apiClientId,
+      int shardCount,
+      int maxPendingPayloads,
+      long reorderWindowSecs,
+      boolean lateDataLaneEnabled,
+      boolean backfillLaneEnabled,
+      int liveLaneMaxPendingPayloads,
+      CanaryTagPriorityClasses priorityClasses,
+      long postRateMillis,
+      long errorSummaryIntervalMillis,
+      CanaryApiRequestTimeouts requestTimeouts) {
+    CanaryDataPayloadManager.initialize(
+        shardCount, maxPendingPayloads, reorderWindowSecs, lateDataLaneEnabled, priorityClasses);
+    if (priorityClasses.getPriorityClassCount() > 1) {
+      Logger.LOG_INFO(
+          "Sending tags in "
+              + priorityClasses.getPriorityClassCount()
+              + " priority classes by weighted fair queuing.");
+    }
+    CanaryDataUtils.setTvqNameClientId(apiClientId);
+    boolean allTargetsExtendData = !historianTargets.isEmpty();
+    for (int targetIndex = 0; targetIndex < historianTargets.size(); targetIndex++) {
+      if (!((CanaryHistorianTarget) historianTargets.get(targetIndex)).getExtendData()) {
+        allTargetsExtendData = false;
+      }
+    }
+    CanaryDataPayloadManager.setCollapseRepeatedStringValues(allTargetsExtendData);
+    if (allTargetsExtendData) {
+      Logger.LOG_INFO("Collapsing repeated string tag values, as Canary extends the last value.");
+    }
+    for (int targetIndex = 0; targetIndex < historianTargets.size(); targetIndex++) {
+      CanaryHistorianTarget historianTarget =
+          (CanaryHistorianTarget) historianTargets.get(targetIndex);
+      CanaryHistorianTarget insertReplaceDataTarget =
+          historianTarget.createInsertReplaceDataTarget();
+      for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+        String sessionClientId = apiClientId;
+        String sessionName = historianTarget.getName();
+        if (shardCount > 1) {
+          sessionClientId += SESSION_SHARD_CLIENT_ID_SUFFIX + (shardIndex + 1);
+          sessionName += SESSION_SHARD_CLIENT_ID_SUFFIX + (shardIndex + 1);
+        }
+        // Start separate live and backfill lane sessions, if enabled
+        if (backfillLaneEnabled) {
+          CanaryDataPayloadScheduler liveScheduler =
+              CanaryDataPayloadManager.createLivePayloadScheduler(
+                  sessionName, shardIndex, liveLaneMaxPendingPayloads);
+          startDataPosterThread(
+              historianTarget,
+              sessionClientId,
+              liveScheduler,
+              postRateMillis,
+              errorSummaryIntervalMillis,
+              requestTimeouts);
+          startDataPosterThread(
+              insertReplaceDataTarget,
+              sessionClientId + BACKFILL_CLIENT_ID_SUFFIX,
+              CanaryDataPayloadManager.createBackfillPayloadScheduler(
+                  sessionName + BACKFILL_CLIENT_ID_SUFFIX, liveScheduler),
+              postRateMillis,
+              errorSummaryIntervalMillis,
+              requestTimeouts);
+        } else {
+          startDataPosterThread(
+              historianTarget,
+              sessionClientId,
+              CanaryDataPayloadManager.createPayloadScheduler(sessionName, shardIndex),
+              postRateMillis,
+              errorSummaryIntervalMillis,
+              requestTimeouts);
+        }
+
+        // Start a separate session for late data points, if enabled
+        if (lateDataLaneEnabled) {
+          final String lateSessionName = sessionName + LATE_DATA_CLIENT_ID_SUFFIX;
+          startDataPosterThread(
+              insertReplaceDataTarget,
+              sessionClientId + LATE_DATA_CLIENT_ID_SUFFIX,
+              new CanaryDataPayloadScheduler(
+                  CanaryDataPayloadManager.createLatePayloadCursor(lateSessionName, shardIndex)),
+              postRateMillis,
+              errorSummaryIntervalMillis,
+              requestTimeouts);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the data poster threads started by {@link #startDataPipeline(List, String, int, int, long,
+   * boolean, boolean, int, CanaryTagPriorityClasses, long, long, CanaryApiRequestTimeouts)}.
+   *
+   * @return the list of {@link CanaryDataPosterThread}s
+   * @since 1.1.0
+   */
+  public List getDataPosterThreads() {
+    return dataThreads;
+  }
+
+  /**
+   * Creates and starts a data poster thread which sends the payloads selected by the specified
+   * scheduler to the specified Canary target, using a new session with the specified client ID.
+   *
+   * @param historianTarget the Canary target to send payloads to
+   * @param sessionClientId the API client ID of the session
+   * @param payloadScheduler the scheduler of the payloads to send, named with the session name
+   * @param postRateMillis the rate (in milliseconds) at which payloads are sent
+   * @param errorSummaryIntervalMillis the interval (in milliseconds) between API error summaries
+   * @param requestTimeouts the deadlines of Canary API requests
+   * @since 1.1.0
+   */
+  private void startDataPosterThread(
+      CanaryHistorianTarget historianTarget,
+      String sessionClientId,
+      CanaryDataPayloadScheduler payloadScheduler,
+      long postRateMillis,
+      long errorSummaryIntervalMillis,
+      CanaryApiRequestTimeouts requestTimeouts) {
+    SessionManager session =
+        new SessionManager(
+            historianTarget, sessionClientId, errorSummaryIntervalMillis, requestTimeouts);
+    CanaryDataPosterThread dataThread =
+        new CanaryDataPosterThread(session, payloadScheduler, postRateMillis);
+    dataThreads.add(dataThread);
+    dataThread.start();
+    Logger.LOG_INFO(
+        "Started data poster thread for Canary target "
+            + payloadScheduler.getName()
+            + " ("
+            + historianTarget.getApiUrl()
+            + ", client ID "
+            + sessionClientId
+            + ").");
+  }
+
   /**
    * Performs processing of data points received from the historical data queue during polling. This
    * method is invoked after data polling has been performed, and data points were successfully
@@ -136,6 +422,9 @@ public class CanaryConnectorMain extends AbstractConnectorMain {
    * @since 1.0.0
    */
   public boolean connectorProcessDataPoints(List dataPoints) throws Exception {
+    if (dataCaptureWriter != null) {
+      dataCaptureWriter.captureDataPoints(dataPoints);
+    }
     return CanaryDataPayloadManager.addDataPointsList(dataPoints);
   }
 
@@ -152,6 +441,9 @@ public class CanaryConnectorMain extends AbstractConnectorMain {
    * @since 1.0.0
    */
   public boolean connectorProcessAggregatedDataPoints(Map dataPoints) throws Exception {
+    if (dataCaptureWriter != null) {
+      dataCaptureWriter.captureAggregatedDataPoints(dataPoints);
+    }
     return CanaryDataPayloadManager.addDataPointsMap(dataPoints);
   }
 
@@ -162,10 +454,64 @@ public class CanaryConnectorMain extends AbstractConnectorMain {
    *
    * <p>Note: This method is always invoked, regardless of whether data polling is enabled or not.
    *
+   * <p>Note: Canary sessions are kept alive by the data poster thread of each historian target, so
+   * that an unreachable target cannot stall the connector main loop.
+   *
    * @since 1.0.0
    */
   public void connectorLoopRun() {
-    SessionManager.sendKeepAliveOrRefreshToken();
+    // Update pending payload metrics and diagnostic tags
+    CanaryDataPayloadManager.updatePendingPayloadMetrics();
+    updateTargetPendingPayloadMetrics();
+    if (diagnosticTags != null) {
+      diagnosticTags.updateIfDue(System.currentTimeMillis());
+    }
+
+    // Report the tags which are rate limited the most, as data points are filtered by this thread
+    if (tagFilter != null) {
+      tagFilter.logRateLimitReportIfDue(System.currentTimeMillis());
+    }
+
+    // Report data points held back by the tag filter, as a later data point may never arrive
+    if (tagFilter != null) {
+      try {
+        CanaryDataPayloadManager.flushTagFilter(
+            SCTimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+      } catch (Exception e) {
+        Logger.LOG_SERIOUS("Unable to add the data points flushed by the tag filter to a payload.");
+        Logger.LOG_EXCEPTION(e);
+      }
+    }
+
+    // Publish the tags with the most data points and bytes
+    CanaryMetricsRegistry.TOP_TAGS_BY_DATA_POINTS.publishIfDue(System.currentTimeMillis());
+    CanaryMetricsRegistry.TOP_TAGS_BY_BYTES.publishIfDue(System.currentTimeMillis());
+  }
+
+  /**
+   * Updates the pending payload metrics of each Canary target from the payload schedulers of its
+   * data poster threads, summing the pending payloads of every session shard and lane of the
+   * target.
+   *
+   * @since 1.1.0
+   */
+  private void updateTargetPendingPayloadMetrics() {
+    for (int threadIndex = 0; threadIndex < dataThreads.size(); threadIndex++) {
+      CanaryDataPosterThread dataThread = (CanaryDataPosterThread) dataThreads.get(threadIndex);
+      dataThread.getTargetMetrics().beginPendingPayloadUpdate();
+    }
+    for (int threadIndex = 0; threadIndex < dataThreads.size(); threadIndex++) {
+      CanaryDataPosterThread dataThread = (CanaryDataPosterThread) dataThreads.get(threadIndex);
+      dataThread
+          .getTargetMetrics()
+          .addPendingPayloads(
+              dataThread.getPayloadScheduler().getPendingPayloadCount(),
+              dataThread.getPayloadScheduler().getOldestPendingPayloadAgeMillis());
+    }
+    for (int threadIndex = 0; threadIndex < dataThreads.size(); threadIndex++) {
+      CanaryDataPosterThread dataThread = (CanaryDataPosterThread) dataThreads.get(threadIndex);
+      dataThread.getTargetMetrics().endPendingPayloadUpdate();
+    }
   }
 
   /**
@@ -179,14 +525,28 @@ public class CanaryConnectorMain extends AbstractConnectorMain {
    * @since 1.0.0
    */
   public boolean connectorShutDown() {
-    // Request data poster thread to stop
-    if (dataThread != null) {
+    // Stop metrics HTTP endpoint
+    if (metricsHttpServer != null) {
+      metricsHttpServer.stopServer();
+    }
+
+    // Stop capturing polled data points
+    if (dataCaptureWriter != null) {
+      dataCaptureWriter.close();
+    }
+
+    // Request data poster threads to stop
+    for (int threadIndex = 0; threadIndex < dataThreads.size(); threadIndex++) {
+      CanaryDataPosterThread dataThread = (CanaryDataPosterThread) dataThreads.get(threadIndex);
       dataThread.quitLoop();
     }
 
     // Revoke session tokens
     if (connectorConfig != null) {
-      SessionManager.revokeTokens();
+      for (int threadIndex = 0; threadIndex < dataThreads.size(); threadIndex++) {
+        CanaryDataPosterThread dataThread = (CanaryDataPosterThread) dataThreads.get(threadIndex);
+        dataThread.getSession().revokeTokens();
+      }
     }
 
     return true;
@@ -204,8 +564,9 @@ public class CanaryConnectorMain extends AbstractConnectorMain {
   public boolean connectorCleanUp() {
     boolean cleanupFinished = true;
 
-    // Stop and join data poster thread
-    if (dataThread != null) {
+    // Stop and join data poster threads
+    for (int threadIndex = 0; threadIndex < dataThreads.size(); threadIndex++) {
+      CanaryDataPosterThread dataThread = (CanaryDataPosterThread) dataThreads.get(threadIndex);
       dataThread.stop();
       try {
         dataThread.join();
@@ -213,6 +574,7 @@ public class CanaryConnectorMain extends AbstractConnectorMain {
         cleanupFinished = false;
         Logger.LOG_CRITICAL("Unable to stop data poster thread.");
       }
+      dataThread.getSession().getRequestExecutor().shutdown();
     }
 
     return cleanupFinished;
@@ -0,0 +1,283 @@
+package com.hms_networks.sc.canary.api;
+
+import com.hms_networks.americas.sc.extensions.logging.Logger;
+import java.util.Arrays;
+
+/**
+ * Class for aggregating Canary API error messages and logging a periodic summary, instead of
+ * logging every error message of every response.
+ *
+ * <p>Error messages are normalized, by replacing numbers and quoted text (such as tag names) with
+ * placeholders, so that errors which only differ by tag are counted together. The normalized
+ * messages are stored in a fixed size open addressing hash table with their counts, first-seen and
+ * last-seen times, and one example message. Errors received after the table is full are only
+ * counted.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryApiErrorAggregator {
+
+  /**
+   * The number of slots in the hash table. This must be a power of two.
+   *
+   * @since 1.1.0
+   */
+  private static final int TABLE_SLOT_COUNT = 64;
+
+  /**
+   * The maximum number of distinct errors stored in the hash table, which limits the load of the
+   * table to 75%.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_DISTINCT_ERRORS = (TABLE_SLOT_COUNT * 3) / 4;
+
+  /**
+   * The placeholder which replaces numbers in normalized error messages.
+   *
+   * @since 1.1.0
+   */
+  private static final char NUMBER_PLACEHOLDER = '#';
+
+  /**
+   * The placeholder which replaces quoted text in normalized error messages.
+   *
+   * @since 1.1.0
+   */
+  private static final char QUOTED_TEXT_PLACEHOLDER = '*';
+
+  /**
+   * The name of the aggregator, included in the summary.
+   *
+   * @since 1.1.0
+   */
+  private final String name;
+
+  /**
+   * The interval (in milliseconds) between summaries. If 0 or less, a summary is logged for every
+   * response.
+   *
+   * @since 1.1.0
+   */
+  private final long summaryIntervalMillis;
+
+  /**
+   * The normalized error message in each slot of the hash table, or null for empty slots.
+   *
+   * @since 1.1.0
+   */
+  private final String[] normalizedMessages = new String[TABLE_SLOT_COUNT];
+
+  /**
+   * The first error message received for each slot of the hash table.
+   *
+   * @since 1.1.0
+   */
+  private final String[] exampleMessages = new String[TABLE_SLOT_COUNT];
+
+  /**
+   * The number of times the error of each slot of the hash table was received.
+   *
+   * @since 1.1.0
+   */
+  private final long[] counts = new long[TABLE_SLOT_COUNT];
+
+  /**
+   * The time (in milliseconds) the error of each slot of the hash table was first received.
+   *
+   * @since 1.1.0
+   */
+  private final long[] firstSeenMillis = new long[TABLE_SLOT_COUNT];
+
+  /**
+   * The time (in milliseconds) the error of each slot of the hash table was last received.
+   *
+   * @since 1.1.0
+   */
+  private final long[] lastSeenMillis = new long[TABLE_SLOT_COUNT];
+
+  /**
+   * The number of distinct errors stored in the hash table.
+   *
+   * @since 1.1.0
+   */
+  private int distinctErrorCount = 0;
+
+  /**
+   * The number of errors which were not stored because the hash table was full.
+   *
+   * @since 1.1.0
+   */
+  private long overflowErrorCount = 0;
+
+  /**
+   * The time (in milliseconds) the current summary interval started.
+   *
+   * @since 1.1.0
+   */
+  private long intervalStartMillis;
+
+  /**
+   * Constructor for a {@link CanaryApiErrorAggregator} with the specified name and summary
+   * interval.
+   *
+   * @param name the name of the aggregator, included in the summary
+   * @param summaryIntervalMillis the interval (in milliseconds) between summaries, or 0 to log a
+   *     summary for every response
+   * @since 1.1.0
+   */
+  public CanaryApiErrorAggregator(String name, long summaryIntervalMillis) {
+    this.name = name;
+    this.summaryIntervalMillis = summaryIntervalMillis;
+    this.intervalStartMillis = System.currentTimeMillis();
+  }
+
+  /**
+   * Records an error message received in a Canary API response.
+   *
+   * @param errorMessage the error message
+   * @param timeMillis the time (in milliseconds) the error message was received
+   * @since 1.1.0
+   */
+  public synchronized void recordError(String errorMessage, long timeMillis) {
+    String normalizedMessage = normalizeMessage(errorMessage);
+    int slot = findSlot(normalizedMessage);
+    if (slot >= 0 && normalizedMessages[slot] != null) {
+      counts[slot]++;
+      lastSeenMillis[slot] = timeMillis;
+    } else if (slot >= 0 && distinctErrorCount < MAX_DISTINCT_ERRORS) {
+      normalizedMessages[slot] = normalizedMessage;
+      exampleMessages[slot] = errorMessage;
+      counts[slot] = 1;
+      firstSeenMillis[slot] = timeMillis;
+      lastSeenMillis[slot] = timeMillis;
+      distinctErrorCount++;
+    } else {
+      overflowErrorCount++;
+    }
+  }
+
+  /**
+   * Logs a summary of the recorded errors and clears them, if the summary interval has elapsed and
+   * any errors have been recorded.
+   *
+   * @param timeMillis the current time (in milliseconds)
+   * @since 1.1.0
+   */
+  public synchronized void logSummaryIfDue(long timeMillis) {
+    if (timeMillis - intervalStartMillis >= summaryIntervalMillis) {
+      if (distinctErrorCount > 0 || overflowErrorCount > 0) {
+        logSummary(timeMillis);
+        clear();
+      }
+      intervalStartMillis = timeMillis;
+    }
+  }
+
+  /**
+   * Logs a summary of the recorded errors.
+   *
+   * @param timeMillis the current time (in milliseconds)
+   * @since 1.1.0
+   */
+  private void logSummary(long timeMillis) {
+    Logger.LOG_CRITICAL(
+        "API error summary for "
+            + name
+            + ": "
+            + distinctErrorCount
+            + " distinct error(s) in the last "
+            + ((timeMillis - intervalStartMillis) / 1000)
+            + "s.");
+    for (int slot = 0; slot < TABLE_SLOT_COUNT; slot++) {
+      if (normalizedMessages[slot] != null) {
+        Logger.LOG_CRITICAL(
+            "API error: "
+                + exampleMessages[slot]
+                + " ("
+                + counts[slot]
+                + " times, first seen "
+                + ((timeMillis - firstSeenMillis[slot]) / 1000)
+                + "s ago, last seen "
+                + ((timeMillis - lastSeenMillis[slot]) / 1000)
+                + "s ago)");
+      }
+    }
+    if (overflowErrorCount > 0) {
+      Logger.LOG_CRITICAL(
+          "API error summary for "
+              + name
+              + " is full, "
+              + overflowErrorCount
+              + " other error(s) were not summarized.");
+    }
+  }
+
+  /**
+   * Clears all recorded errors.
+   *
+   * @since 1.1.0
+   */
+  private void clear() {
+    Arrays.fill(normalizedMessages, null);
+    Arrays.fill(exampleMessages, null);
+    distinctErrorCount = 0;
+    overflowErrorCount = 0;
+  }
+
+  /**
+   * Finds the slot of the hash table which contains the specified normalized message, or the empty
+   * slot where it should be inserted.
+   *
+   * @param normalizedMessage the normalized message to find
+   * @return the slot for the normalized message, or -1 if the table has no empty slots
+   * @since 1.1.0
+   */
+  private int findSlot(String normalizedMessage) {
+    final int slotMask = TABLE_SLOT_COUNT - 1;
+    int hash = normalizedMessage.hashCode();
+    int slot = (hash ^ (hash >>> 16)) & slotMask;
+    int foundSlot = -1;
+    for (int probeCount = 0; probeCount < TABLE_SLOT_COUNT && foundSlot < 0; probeCount++) {
+      if (normalizedMessages[slot] == null || normalizedMessages[slot].equals(normalizedMessage)) {
+        foundSlot = slot;
+      } else {
+        slot = (slot + 1) & slotMask;
+      }
+    }
+    return foundSlot;
+  }
+
+  /**
+   * Normalizes the specified error message by replacing each number with {@link
+   * #NUMBER_PLACEHOLDER} and the text between each pair of quotes with {@link
+   * #QUOTED_TEXT_PLACEHOLDER}.
+   *
+   * @param errorMessage the error message to normalize
+   * @return the normalized error message
+   * @since 1.1.0
+   */
+  static String normalizeMessage(String errorMessage) {
+    StringBuffer normalizedMessage = new StringBuffer(errorMessage.length());
+    int index = 0;
+    while (index < errorMessage.length()) {
+      char c = errorMessage.charAt(index);
+      if (c >= '0' && c <= '9') {
+        normalizedMessage.append(NUMBER_PLACEHOLDER);
+        while (index < errorMessage.length()
+            && errorMessage.charAt(index) >= '0'
+            && errorMessage.charAt(index) <= '9') {
+          index++;
+        }
+      } else if ((c == '\'' || c == '"') && errorMessage.indexOf(c, index + 1) != -1) {
+        normalizedMessage.append(c).append(QUOTED_TEXT_PLACEHOLDER).append(c);
+        index = errorMessage.indexOf(c, index + 1) + 1;
+      } else {
+        normalizedMessage.append(c);
+        index++;
+      }
+    }
+    return normalizedMessage.toString();
+  }
+}
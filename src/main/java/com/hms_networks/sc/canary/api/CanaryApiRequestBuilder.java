@@ -4,7 +4,6 @@ import com.hms_networks.americas.sc.extensions.json.JSONArray;
 import com.hms_networks.americas.sc.extensions.json.JSONObject;
 import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
 import com.hms_networks.americas.sc.extensions.system.time.SCTimeUnit;
-import com.hms_networks.sc.canary.CanaryConnectorMain;
 
 /**
  * Class to create request information for specific Canary API requests.
@@ -172,133 +171,138 @@ public class CanaryApiRequestBuilder {
   /**
    * Get the request to store data to the api.
    *
-   * @param tagData The json object containing all tag data to send
-   * @return the {@link SCHttpPostRequestInfo} object containing the keep alive request
+   * <p>The tag data is provided as an already serialized JSON object string, allowing a single
+   * serialized payload to be shared by requests to multiple Canary targets.
+   *
+   * @param session the session to send the request with
+   * @param tagDataJsonString the serialized JSON object containing all tag data to send
+   * @return the {@link SCHttpPostRequestInfo} object containing the store data request
    * @since 1.0.0
    */
-  public static SCHttpPostRequestInfo getStoreDataRequest(JSONObject tagData) {
+  public static SCHttpPostRequestInfo getStoreDataRequest(
+      SessionManager session, String tagDataJsonString) {
     // force up-to-date tokens before every request
-    SessionManager.sendKeepAliveOrRefreshToken();
-
-    String url = getApiBase() + API_ENDPOINT_STORE_DATA;
-    JSONObject requestBodyJson = new JSONObject();
-    requestBodyJson.putNonNull(JSON_KEY_USER_TOKEN, SessionManager.getCurrentUserToken());
-    requestBodyJson.putNonNull(JSON_KEY_SESSION_TOKEN, SessionManager.getCurrentSessionToken());
-    requestBodyJson.putNonNull(JSON_KEY_TVQS, tagData);
-    return new SCHttpPostRequestInfo(url, HEADERS, requestBodyJson.toString());
+    session.sendKeepAliveOrRefreshToken();
+
+    String url = getApiBase(session) + API_ENDPOINT_STORE_DATA;
+    String requestBody =
+        "{"
+            + JSONObject.quote(JSON_KEY_USER_TOKEN)
+            + ":"
+            + JSONObject.quote(session.getCurrentUserToken())
+            + ","
+            + JSONObject.quote(JSON_KEY_SESSION_TOKEN)
+            + ":"
+            + JSONObject.quote(session.getCurrentSessionToken())
+            + ","
+            + JSONObject.quote(JSON_KEY_TVQS)
+            + ":"
+            + tagDataJsonString
+            + "}";
+    return new SCHttpPostRequestInfo(url, HEADERS, requestBody);
   }
 
   /**
    * Get the request to send a keep alive message to the api.
    *
-   * @param userToken the user token to send with the request
-   * @param sessionToken the session token to send with the request
+   * @param session the session to send the request with
    * @return the {@link SCHttpPostRequestInfo} object containing the keep alive request
    * @since 1.0.0
    */
-  public static SCHttpPostRequestInfo getKeepAliveRequest(String userToken, String sessionToken) {
-    String url = getApiBase() + API_ENDPOINT_KEEP_ALIVE;
+  public static SCHttpPostRequestInfo getKeepAliveRequest(SessionManager session) {
+    String url = getApiBase(session) + API_ENDPOINT_KEEP_ALIVE;
     JSONObject requestBodyJson = new JSONObject();
-    requestBodyJson.putNonNull(JSON_KEY_USER_TOKEN, userToken);
-    requestBodyJson.putNonNull(JSON_KEY_SESSION_TOKEN, sessionToken);
+    requestBodyJson.putNonNull(JSON_KEY_USER_TOKEN, session.getCurrentUserToken());
+    requestBodyJson.putNonNull(JSON_KEY_SESSION_TOKEN, session.getCurrentSessionToken());
     return new SCHttpPostRequestInfo(url, HEADERS, requestBodyJson.toString());
   }
 
   /**
    * Get the request to revoke a session token for the api.
    *
-   * @param userToken the user token to send with the request
-   * @param sessionToken the session token to send with the request
-   * @return the {@link SCHttpPostRequestInfo} object containing the keep alive request
+   * @param session the session to send the request with
+   * @return the {@link SCHttpPostRequestInfo} object containing the revoke session token request
    * @since 1.0.0
    */
-  public static SCHttpPostRequestInfo getRevokeSessionTokenRequest(
-      String userToken, String sessionToken) {
-    String url = getApiBase() + API_ENDPOINT_REVOKE_SESSION_TOKEN;
+  public static SCHttpPostRequestInfo getRevokeSessionTokenRequest(SessionManager session) {
+    String url = getApiBase(session) + API_ENDPOINT_REVOKE_SESSION_TOKEN;
     JSONObject requestBodyJson = new JSONObject();
-    requestBodyJson.putNonNull(JSON_KEY_USER_TOKEN, userToken);
-    requestBodyJson.putNonNull(JSON_KEY_SESSION_TOKEN, sessionToken);
+    requestBodyJson.putNonNull(JSON_KEY_USER_TOKEN, session.getCurrentUserToken());
+    requestBodyJson.putNonNull(JSON_KEY_SESSION_TOKEN, session.getCurrentSessionToken());
     return new SCHttpPostRequestInfo(url, HEADERS, requestBodyJson.toString());
   }
 
   /**
    * Get the request to revoke a user token for the api.
    *
-   * @param userToken the user token to send with the request
-   * @return the {@link SCHttpPostRequestInfo} object containing the keep alive request
+   * @param session the session to send the request with
+   * @return the {@link SCHttpPostRequestInfo} object containing the revoke user token request
    * @since 1.0.0
    */
-  public static SCHttpPostRequestInfo getRevokeUserTokenRequest(String userToken) {
-    String url = getApiBase() + API_ENDPOINT_REVOKE_USER_TOKEN;
+  public static SCHttpPostRequestInfo getRevokeUserTokenRequest(SessionManager session) {
+    String url = getApiBase(session) + API_ENDPOINT_REVOKE_USER_TOKEN;
     JSONObject requestBodyJson = new JSONObject();
-    requestBodyJson.putNonNull(JSON_KEY_USER_TOKEN, userToken);
+    requestBodyJson.putNonNull(JSON_KEY_USER_TOKEN, session.getCurrentUserToken());
     return new SCHttpPostRequestInfo(url, HEADERS, requestBodyJson.toString());
   }
 
   /**
    * Get the request to send a user token request to the api.
    *
+   * @param session the session to send the request with
    * @return the {@link SCHttpPostRequestInfo} object containing the user token request
    * @since 1.0.0
    */
-  public static SCHttpPostRequestInfo getUserTokenRequest() {
-    String url = getApiBase() + API_ENDPOINT_GET_USER_TOKEN;
+  public static SCHttpPostRequestInfo getUserTokenRequest(SessionManager session) {
+    String url = getApiBase(session) + API_ENDPOINT_GET_USER_TOKEN;
     JSONObject requestBodyJson = new JSONObject();
-    requestBodyJson.putNonNull(
-        JSON_KEY_USERNAME, CanaryConnectorMain.getConnectorConfig().getApiUsername());
-    requestBodyJson.putNonNull(
-        JSON_KEY_USER_PASSWORD, CanaryConnectorMain.getConnectorConfig().getApiUserPassword());
+    requestBodyJson.putNonNull(JSON_KEY_USERNAME, session.getTarget().getUsername());
+    requestBodyJson.putNonNull(JSON_KEY_USER_PASSWORD, session.getTarget().getUserPassword());
     return new SCHttpPostRequestInfo(url, HEADERS, requestBodyJson.toString());
   }
 
   /**
    * Get the request to send a session token request to the api.
    *
-   * @param userToken the user token to send with the request
+   * @param session the session to send the request with
    * @return the {@link SCHttpPostRequestInfo} object containing the session token request
    * @since 1.0.0
    */
-  public static SCHttpPostRequestInfo getSessionTokenRequest(String userToken) {
-    String url = getApiBase() + API_ENDPOINT_GET_SESSION_TOKEN;
+  public static SCHttpPostRequestInfo getSessionTokenRequest(SessionManager session) {
+    CanaryHistorianTarget target = session.getTarget();
+    String url = getApiBase(session) + API_ENDPOINT_GET_SESSION_TOKEN;
     JSONObject requestBodyJson = new JSONObject();
-    requestBodyJson.putNonNull(JSON_KEY_USER_TOKEN, userToken);
+    requestBodyJson.putNonNull(JSON_KEY_USER_TOKEN, session.getCurrentUserToken());
     JSONArray historians = new JSONArray();
-    historians.put(CanaryConnectorMain.getConnectorConfig().getApiHistorianServerName());
+    String[] historianNames = target.getHistorianServerNameArray();
+    for (int historianIndex = 0; historianIndex < historianNames.length; historianIndex++) {
+      historians.put(historianNames[historianIndex]);
+    }
     requestBodyJson.putNonNull(JSON_KEY_HISTORIANS, historians);
-    requestBodyJson.putNonNull(
-        JSON_KEY_CLIENT_ID, CanaryConnectorMain.getConnectorConfig().getApiClientId());
+    requestBodyJson.putNonNull(JSON_KEY_CLIENT_ID, session.getClientId());
     JSONObject settings = new JSONObject();
     settings.putNonNull(
-        JSON_KEY_CLIENT_TIMEOUT,
-        SCTimeUnit.SECONDS.toMillis(
-            CanaryConnectorMain.getConnectorConfig().getApiClientTimeoutSeconds()));
-    settings.putNonNull(
-        JSON_KEY_FILE_SIZE, CanaryConnectorMain.getConnectorConfig().getApiClientFileSize());
-    settings.putNonNull(
-        JSON_KEY_AUTO_WRITE_NO_DATA,
-        CanaryConnectorMain.getConnectorConfig().getApiAutoWriteNoData());
-    settings.putNonNull(
-        JSON_KEY_EXTEND_DATA, CanaryConnectorMain.getConnectorConfig().getApiExtendData());
-    settings.putNonNull(
-        JSON_KEY_INSERT_REPLACE_DATA,
-        CanaryConnectorMain.getConnectorConfig().getApiInsertReplaceData());
-    settings.putNonNull(
-        JSON_KEY_AUTO_CREATE_DATASETS,
-        CanaryConnectorMain.getConnectorConfig().getApiClientAutoCreateDatasets());
+        JSON_KEY_CLIENT_TIMEOUT, SCTimeUnit.SECONDS.toMillis(target.getClientTimeoutSeconds()));
+    settings.putNonNull(JSON_KEY_FILE_SIZE, target.getFileSizeMegabytes());
+    settings.putNonNull(JSON_KEY_AUTO_WRITE_NO_DATA, target.getAutoWriteNoData());
+    settings.putNonNull(JSON_KEY_EXTEND_DATA, target.getExtendData());
+    settings.putNonNull(JSON_KEY_INSERT_REPLACE_DATA, target.getInsertReplaceData());
+    settings.putNonNull(JSON_KEY_AUTO_CREATE_DATASETS, target.getAutoCreateDatasets());
     requestBodyJson.putNonNull(JSON_KEY_SETTINGS, settings);
     return new SCHttpPostRequestInfo(url, HEADERS, requestBodyJson.toString());
   }
 
   /**
-   * Get the API base from configuration and handle errors.
+   * Get the API base for the target of the specified session.
    *
+   * @param session the session to get the API base for
    * @return the base URL for all API requests
    * @since 1.0.0
    */
-  private static String getApiBase() {
-    return CanaryConnectorMain.getConnectorConfig().getApiUrl()
+  private static String getApiBase(SessionManager session) {
+    return session.getTarget().getApiUrl()
         + API_PATH
-        + CanaryConnectorMain.getConnectorConfig().getSenderApiVersion()
+        + session.getTarget().getSenderApiVersion()
         + "/";
   }
 }
@@ -0,0 +1,375 @@
+package com.hms_networks.sc.canary.api;
+
+import com.hms_networks.americas.sc.extensions.logging.Logger;
+import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class for executing Canary API requests with a deadline. Requests are performed by a reusable
+ * worker thread while the calling thread waits for up to the deadline. If the deadline passes, the
+ * calling thread is released with a {@link CanaryApiRequestTimeoutException}, and the worker thread
+ * is abandoned. An abandoned worker thread discards the response of its request and exits when the
+ * underlying HTTP request eventually returns.
+ *
+ * <p>The number of abandoned worker threads which may be outstanding at once is limited, so that a
+ * Canary target which never responds cannot exhaust the threads or HTTP resources of the device.
+ * While the limit is reached, new requests fail immediately with a {@link
+ * CanaryApiRequestTimeoutException}.
+ *
+ * <p>A thread cannot be stopped safely while its HTTP request is in progress, so an abandoned
+ * worker thread is only released when its request returns. If the abandoned requests never return,
+ * every later request of the executor fails, and its Canary target receives no data until the
+ * connector is restarted. The executor logs a serious error once when it starts refusing requests,
+ * and an info message when it recovers. The number of abandoned worker threads and of executors
+ * refusing requests are exposed by the {@link CanaryMetricsRegistry#ABANDONED_REQUEST_WORKERS} and
+ * {@link CanaryMetricsRegistry#BLOCKED_REQUEST_EXECUTORS} gauges.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryApiRequestExecutor {
+
+  /**
+   * The maximum number of abandoned worker threads which may be outstanding at once.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_ABANDONED_WORKERS = 2;
+
+  /**
+   * The transport which performs requests using the Ewon HTTP client.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryApiTransport EWON_HTTP_TRANSPORT =
+      new CanaryApiTransport() {
+        public String doRequest(SCHttpPostRequestInfo request) throws Exception {
+          return request.doRequest();
+        }
+      };
+
+  /**
+   * The transport used by all executors to perform requests.
+   *
+   * @since 1.1.0
+   */
+  private static volatile CanaryApiTransport transport = EWON_HTTP_TRANSPORT;
+
+  /**
+   * The name of the executor, used to name worker threads.
+   *
+   * @since 1.1.0
+   */
+  private final String name;
+
+  /**
+   * The current worker thread, or null if no worker thread has been started.
+   *
+   * @since 1.1.0
+   */
+  private Worker worker = null;
+
+  /**
+   * The list of abandoned worker threads which may still be running.
+   *
+   * @since 1.1.0
+   */
+  private final List abandonedWorkers = new ArrayList();
+
+  /**
+   * Boolean indicating whether the executor is refusing requests, because the maximum number of
+   * abandoned worker threads have not yet returned.
+   *
+   * @since 1.1.0
+   */
+  private boolean blocked = false;
+
+  /**
+   * Constructor for a {@link CanaryApiRequestExecutor} with the specified name.
+   *
+   * @param name the name of the executor, used to name worker threads
+   * @since 1.1.0
+   */
+  public CanaryApiRequestExecutor(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Performs the specified request, waiting for up to the specified deadline for it to complete.
+   * If the deadline is 0 or less, the request is performed on the calling thread without a
+   * deadline.
+   *
+   * @param request the request to perform
+   * @param timeoutMillis the deadline (in milliseconds) of the request
+   * @return the response body of the request
+   * @throws CanaryApiRequestTimeoutException if the request did not complete before the deadline,
+   *     or could not be started because too many worker threads have been abandoned
+   * @throws Exception if the request failed
+   * @since 1.1.0
+   */
+  public synchronized String execute(SCHttpPostRequestInfo request, long timeoutMillis)
+      throws Exception {
+    String responseBody;
+    final CanaryApiTransport requestTransport = transport;
+    if (timeoutMillis <= 0) {
+      responseBody = requestTransport.doRequest(request);
+    } else {
+      if (worker == null) {
+        pruneAbandonedWorkers();
+        if (abandonedWorkers.size() >= MAX_ABANDONED_WORKERS) {
+          setBlocked(true);
+          throw new CanaryApiRequestTimeoutException(
+              abandonedWorkers.size()
+                  + " earlier request(s) have not returned after their deadline");
+        }
+        setBlocked(false);
+        worker = new Worker(name);
+        worker.start();
+      }
+
+      try {
+        responseBody = worker.execute(requestTransport, request, timeoutMillis);
+      } catch (CanaryApiRequestTimeoutException e) {
+        abandonedWorkers.add(worker);
+        CanaryMetricsRegistry.ABANDONED_REQUEST_WORKERS.add(1);
+        worker = null;
+        throw e;
+      }
+    }
+    return responseBody;
+  }
+
+  /**
+   * Stops the current worker thread. Abandoned worker threads exit on their own when their request
+   * returns.
+   *
+   * @since 1.1.0
+   */
+  public synchronized void shutdown() {
+    if (worker != null) {
+      worker.abandon();
+      worker = null;
+    }
+  }
+
+  /**
+   * Sets the transport used by all executors to perform requests. This is intended for running
+   * the connector against a local or mock endpoint on a standard JVM, and should be called before
+   * the connector is started.
+   *
+   * @param requestTransport the transport to use, or null to use {@link #EWON_HTTP_TRANSPORT}
+   * @since 1.1.0
+   */
+  public static void setTransport(CanaryApiTransport requestTransport) {
+    transport = requestTransport != null ? requestTransport : EWON_HTTP_TRANSPORT;
+  }
+
+  /**
+   * Removes abandoned worker threads which have exited from the list of abandoned worker threads.
+   *
+   * @since 1.1.0
+   */
+  private void pruneAbandonedWorkers() {
+    for (int workerIndex = abandonedWorkers.size() - 1; workerIndex >= 0; workerIndex--) {
+      Worker abandonedWorker = (Worker) abandonedWorkers.get(workerIndex);
+      if (!abandonedWorker.isAlive()) {
+        abandonedWorkers.remove(workerIndex);
+        CanaryMetricsRegistry.ABANDONED_REQUEST_WORKERS.add(-1);
+      }
+    }
+  }
+
+  /**
+   * Sets a boolean indicating whether the executor is refusing requests, logging and counting each
+   * change of state.
+   *
+   * @param executorBlocked {@code true} if the executor is refusing requests, {@code false}
+   *     otherwise
+   * @since 1.1.0
+   */
+  private void setBlocked(boolean executorBlocked) {
+    if (executorBlocked && !blocked) {
+      CanaryMetricsRegistry.BLOCKED_REQUEST_EXECUTORS.add(1);
+      Logger.LOG_SERIOUS(
+          "Canary API requests of "
+              + name
+              + " are refused because "
+              + abandonedWorkers.size()
+              + " earlier request(s) have not returned after their deadline. Requests resume when"
+              + " one of them returns. Restart the connector if they never return.");
+    } else if (!executorBlocked && blocked) {
+      CanaryMetricsRegistry.BLOCKED_REQUEST_EXECUTORS.add(-1);
+      Logger.LOG_INFO(
+          "Canary API requests of " + name + " resumed, as an abandoned request has returned.");
+    }
+    blocked = executorBlocked;
+  }
+
+  /**
+   * Worker thread which performs one request at a time on behalf of a {@link
+   * CanaryApiRequestExecutor}.
+   *
+   * @since 1.1.0
+   */
+  private static class Worker extends Thread {
+
+    /**
+     * The request to perform, or null if no request is pending.
+     *
+     * @since 1.1.0
+     */
+    private SCHttpPostRequestInfo request = null;
+
+    /**
+     * The transport used to perform the pending request.
+     *
+     * @since 1.1.0
+     */
+    private CanaryApiTransport transport = null;
+
+    /**
+     * The response body of the last completed request.
+     *
+     * @since 1.1.0
+     */
+    private String responseBody = null;
+
+    /**
+     * The exception thrown by the last completed request, or null if it completed normally.
+     *
+     * @since 1.1.0
+     */
+    private Exception requestException = null;
+
+    /**
+     * Boolean indicating whether the last request has completed.
+     *
+     * @since 1.1.0
+     */
+    private boolean requestComplete = false;
+
+    /**
+     * Boolean indicating whether the worker thread has been abandoned, and should exit when its
+     * current request (if any) returns.
+     *
+     * @since 1.1.0
+     */
+    private boolean abandoned = false;
+
+    /**
+     * Constructor for a {@link Worker} with the specified executor name.
+     *
+     * @param executorName the name of the executor which owns the worker thread
+     * @since 1.1.0
+     */
+    Worker(String executorName) {
+      super("CanaryApiRequest-" + executorName);
+      setDaemon(true);
+    }
+
+    /**
+     * Hands the specified request to the worker thread and waits for up to the specified deadline
+     * for it to complete. If the deadline passes, the worker thread is abandoned.
+     *
+     * @param transport the transport used to perform the request
+     * @param request the request to perform
+     * @param timeoutMillis the deadline (in milliseconds) of the request
+     * @return the response body of the request
+     * @throws CanaryApiRequestTimeoutException if the request did not complete before the deadline
+     * @throws Exception if the request failed
+     * @since 1.1.0
+     */
+    synchronized String execute(
+        CanaryApiTransport transport, SCHttpPostRequestInfo request, long timeoutMillis)
+        throws Exception {
+      this.transport = transport;
+      this.request = request;
+      requestComplete = false;
+      responseBody = null;
+      requestException = null;
+      notifyAll();
+
+      final long deadlineMillis = System.currentTimeMillis() + timeoutMillis;
+      long remainingMillis = timeoutMillis;
+      while (!requestComplete && remainingMillis > 0) {
+        try {
+          wait(remainingMillis);
+        } catch (InterruptedException e) {
+          // Treat interruption as reaching the deadline
+          remainingMillis = 0;
+        }
+        if (remainingMillis > 0) {
+          remainingMillis = deadlineMillis - System.currentTimeMillis();
+        }
+      }
+
+      if (!requestComplete) {
+        abandoned = true;
+        throw new CanaryApiRequestTimeoutException(
+            "Request to " + request.getUrl() + " did not complete within " + timeoutMillis + "ms");
+      }
+      if (requestException != null) {
+        throw requestException;
+      }
+      return responseBody;
+    }
+
+    /**
+     * Abandons the worker thread, so that it exits when its current request (if any) returns.
+     *
+     * @since 1.1.0
+     */
+    synchronized void abandon() {
+      abandoned = true;
+      notifyAll();
+    }
+
+    /**
+     * Run function used to perform requests handed to the worker thread until it is abandoned.
+     *
+     * @since 1.1.0
+     */
+    public void run() {
+      boolean running = true;
+      while (running) {
+        SCHttpPostRequestInfo nextRequest = null;
+        CanaryApiTransport nextTransport = null;
+        synchronized (this) {
+          while (request == null && !abandoned) {
+            try {
+              wait();
+            } catch (InterruptedException e) {
+              abandoned = true;
+            }
+          }
+          nextRequest = request;
+          nextTransport = transport;
+        }
+
+        if (nextRequest != null) {
+          String nextResponseBody = null;
+          Exception nextRequestException = null;
+          try {
+            nextResponseBody = nextTransport.doRequest(nextRequest);
+          } catch (Exception e) {
+            nextRequestException = e;
+          }
+
+          synchronized (this) {
+            request = null;
+            responseBody = nextResponseBody;
+            requestException = nextRequestException;
+            requestComplete = true;
+            notifyAll();
+          }
+        }
+
+        synchronized (this) {
+          running = !abandoned;
+        }
+      }
+    }
+  }
+}
@@ -1,7 +1,6 @@
 package com.hms_networks.sc.canary.api;
 
 import com.ewon.ewonitf.EWException;
-import com.hms_networks.americas.sc.extensions.json.JSONArray;
 import com.hms_networks.americas.sc.extensions.json.JSONException;
 import com.hms_networks.americas.sc.extensions.json.JSONObject;
 import com.hms_networks.americas.sc.extensions.json.JSONTokener;
@@ -25,15 +24,25 @@ public class CanaryApiRequestSender {
    * Send and parse an API POST request with the given information.
    *
    * @param request the {@link SCHttpPostRequestInfo} to hold all request information
+   * @param session the session which the request is sent with, and which receives any tokens in
+   *     the response
+   * @param timeoutMillis the deadline (in milliseconds) of the request, or 0 for no deadline
    * @return the status of the request
    * @since 1.0.0
    */
-  public static CanaryApiResponseStatus processRequest(SCHttpPostRequestInfo request) {
+  public static CanaryApiResponseStatus processRequest(
+      SCHttpPostRequestInfo request, SessionManager session, long timeoutMillis) {
     CanaryApiResponseStatus status;
-    String responseBodyString = apiRequest(request);
+    String responseBodyString = apiRequest(request, session, timeoutMillis);
 
-    // Parse response body for useful information
-    status = handleResponseBodyString(responseBodyString, request.getUrl());
+    if (responseBodyString == null) {
+      // Request did not complete before its deadline
+      status = CanaryApiResponseStatus.TIMEOUT;
+      processResponseStatus(status, session);
+    } else {
+      // Parse response body for useful information
+      status = handleResponseBodyString(responseBodyString, request.getUrl(), session);
+    }
 
     // Increment fail request counter if request was not successful
     if (status != CanaryApiResponseStatus.GOOD_REQUEST) {
@@ -45,20 +54,29 @@ public class CanaryApiRequestSender {
   }
 
   /**
-   * Generate valid JSON from a request's response and process the JSON accordingly.
+   * Parse a request's response and process the response accordingly. The response is read with the
+   * {@link CanaryApiResponseScanner}, falling back to the full JSON parser if the response cannot
+   * be scanned.
    *
    * @param responseBodyString the request's response as a string
    * @param url the request URL used to generate the given response body string
+   * @param session the session which the request was sent with
    * @return the status of the request
    */
   private static CanaryApiResponseStatus handleResponseBodyString(
-      String responseBodyString, String url) {
+      String responseBodyString, String url, SessionManager session) {
     CanaryApiResponseStatus status = CanaryApiResponseStatus.UNUSED_STATUS;
     try {
       if (!responseBodyString.equals("")) {
-        JSONTokener jsonTokener = new JSONTokener(responseBodyString);
-        JSONObject responseJson = new JSONObject(jsonTokener);
-        status = processJsonResponse(responseJson, url, status);
+        CanaryApiResponse response = new CanaryApiResponse();
+        if (!CanaryApiResponseScanner.scan(responseBodyString, response)) {
+          Logger.LOG_DEBUG("Unexpected response format from " + url + ", using JSON parser.");
+          response.reset();
+          JSONTokener jsonTokener = new JSONTokener(responseBodyString);
+          JSONObject responseJson = new JSONObject(jsonTokener);
+          response.readJson(responseJson);
+        }
+        status = processResponse(response, url, status, session);
       }
     } catch (JSONException e) {
       Logger.LOG_SERIOUS(
@@ -72,18 +90,27 @@ public class CanaryApiRequestSender {
   }
 
   /**
-   * Send an API POST request with the given information.
+   * Send an API POST request with the given information, using the request executor of the
+   * session to enforce the specified deadline.
    *
    * @param request {@link SCHttpPostRequestInfo} to hold all request information
-   * @return true if the request was successful
+   * @param session the session which the request is sent with
+   * @param timeoutMillis the deadline (in milliseconds) of the request, or 0 for no deadline
+   * @return the response body, an empty string if the request failed, or null if the request did
+   *     not complete before its deadline
    * @since 1.0.0
    */
-  private static String apiRequest(SCHttpPostRequestInfo request) {
+  private static String apiRequest(
+      SCHttpPostRequestInfo request, SessionManager session, long timeoutMillis) {
     String responseBodyString = "";
     String url = request.getUrl();
 
     try {
-      responseBodyString = request.doRequest();
+      responseBodyString = session.getRequestExecutor().execute(request, timeoutMillis);
+    } catch (CanaryApiRequestTimeoutException e) {
+      Logger.LOG_CRITICAL("Deadline exceeded during HTTP request to " + url + ".");
+      Logger.LOG_EXCEPTION(e);
+      responseBodyString = null;
     } catch (EWException e) {
       requestHttpsError(e, "Ewon exception during HTTP request to " + url + ".");
     } catch (IOException e) {
@@ -96,37 +123,43 @@ public class CanaryApiRequestSender {
       requestHttpsError(e, "Connection error during the HTTP request to " + url + ".");
     } catch (SCHttpUnknownException e) {
       requestHttpsError(e, "Unknown exception during the HTTP request to " + url + ".");
+    } catch (Exception e) {
+      requestHttpsError(e, "Unexpected exception during the HTTP request to " + url + ".");
     }
 
     return responseBodyString;
   }
 
   /**
-   * Parse the Canary API response JSON for usable information.
+   * Process the Canary API response for usable information.
    *
-   * @param response the Canary API response JSON
+   * @param response the Canary API response
    * @param connectionUrl the URL that generated the response
+   * @param session the session which the request was sent with
    * @return true if the request was successful
    * @since 1.0.0
    */
-  private static CanaryApiResponseStatus processJsonResponse(
-      JSONObject response, String connectionUrl, CanaryApiResponseStatus messageStatus) {
+  private static CanaryApiResponseStatus processResponse(
+      CanaryApiResponse response,
+      String connectionUrl,
+      CanaryApiResponseStatus messageStatus,
+      SessionManager session) {
 
     try {
       // Check generic response components
-      messageStatus = checkGenericResponseJson(response, messageStatus);
-      processResponseStatus(messageStatus);
+      messageStatus = checkGenericResponse(response, messageStatus, session);
+      processResponseStatus(messageStatus, session);
 
       // Check user token response components
       if (messageStatus == CanaryApiResponseStatus.GOOD_REQUEST) {
-        messageStatus = checkUserTokenResponseJson(response, messageStatus);
-        processResponseStatus(messageStatus);
+        messageStatus = checkUserTokenResponse(response, messageStatus, session);
+        processResponseStatus(messageStatus, session);
       }
 
       // Check session token response components
       if (messageStatus == CanaryApiResponseStatus.GOOD_REQUEST) {
-        messageStatus = checkSessionTokenResponseJson(response, messageStatus);
-        processResponseStatus(messageStatus);
+        messageStatus = checkSessionTokenResponse(response, messageStatus, session);
+        processResponseStatus(messageStatus, session);
       }
 
     } catch (Exception e) {
@@ -142,13 +175,15 @@ public class CanaryApiRequestSender {
    * Determine what actions should be taken according to the response status and take those actions.
    *
    * @param status the {@link CanaryApiResponseStatus} object representing API response status
+   * @param session the session which the request was sent with
    */
-  private static void processResponseStatus(CanaryApiResponseStatus status) {
+  private static void processResponseStatus(
+      CanaryApiResponseStatus status, SessionManager session) {
     if (status == CanaryApiResponseStatus.UNKNOWN_STATUS) {
       Logger.LOG_CRITICAL("Unknown error detected. Request will be resent.");
     } else if (status == CanaryApiResponseStatus.BAD_TOKENS) {
       Logger.LOG_DEBUG("API Session tokens expired, refreshing session tokens.");
-      SessionManager.sendKeepAliveOrRefreshToken();
+      session.sendKeepAliveOrRefreshToken();
     } else if (status == CanaryApiResponseStatus.ERROR) {
       Logger.LOG_CRITICAL("API error detected. Request will be resent.");
     } else if (status == CanaryApiResponseStatus.ERROR_WAIT_FOR_EXPIRE) {
@@ -156,76 +191,49 @@ public class CanaryApiRequestSender {
           "API error detected. Request will be resent after existing sessions expire.");
     } else if (status == CanaryApiResponseStatus.UNKNOWN_ERROR) {
       Logger.LOG_CRITICAL("Unknown error detected. Request will be resent.");
+    } else if (status == CanaryApiResponseStatus.TIMEOUT) {
+      Logger.LOG_CRITICAL("Request deadline exceeded. Request will be resent.");
     }
   }
 
   /**
-   * Parse the response JSON for generic response components.
+   * Parse the response for generic response components. Error messages in the response are
+   * recorded in the error aggregator of the session, which logs a periodic summary of errors.
    *
-   * @param response JSON to read in and parse
+   * @param response the response to parse
+   * @param session the session which the request was sent with
    * @return true if the response indicates success
-   * @throws JSONException on errors reading the JSON object
    * @since 1.0.0
    */
-  private static CanaryApiResponseStatus checkGenericResponseJson(
-      JSONObject response, CanaryApiResponseStatus status) throws JSONException {
-    final String RESPONSE_STATUS_JSON_FIELD_NAME = "statusCode";
-    final String ERROR_JSON_FIELD_NAME = "errors";
-
+  private static CanaryApiResponseStatus checkGenericResponse(
+      CanaryApiResponse response, CanaryApiResponseStatus status, SessionManager session) {
     // Check for message status
-    if (response.has(RESPONSE_STATUS_JSON_FIELD_NAME)) {
-      String statusString = response.getString(RESPONSE_STATUS_JSON_FIELD_NAME);
+    if (response.getStatusCode() != null) {
+      String statusString = response.getStatusCode();
       status = CanaryApiResponseStatus.getStatusFromString(statusString);
       Logger.LOG_DEBUG("Response status: " + statusString);
     }
 
-    // Check for "Errors" field
-    if (response.has(ERROR_JSON_FIELD_NAME)) {
-      // Get the errors array
-      JSONArray responseErrors = response.getJSONArray(ERROR_JSON_FIELD_NAME);
-
-      // Log errors from responseErrors. Duplicate messages should be counted and shown once.
-      if (responseErrors.length() > 0) {
-        // Log the number of errors in the response
-        Logger.LOG_INFO(
-            "The API response contained " + responseErrors.length() + " error message(s).");
-
-        // Get the first error message
-        final int firstErrorIndex = 0;
-        String apiErrorMessage = responseErrors.getString(firstErrorIndex);
-        int apiErrorMessageCount = 1;
+    // Record errors from response. Errors are counted and logged in a periodic summary.
+    if (response.getErrorCount() > 0) {
+      Logger.LOG_DEBUG(
+          "The API response contained " + response.getErrorCount() + " error message(s).");
 
-        // Loop through the rest of the error messages (if any)
-        for (int apiErrorMessageIndex = 1;
-            apiErrorMessageIndex < responseErrors.length();
-            apiErrorMessageIndex++) {
-          String nextApiErrorMessage = responseErrors.getString(apiErrorMessageIndex);
-          // Check if next error msg if the same as current, if so increment count
-          if (nextApiErrorMessage.equals(apiErrorMessage)) {
-            apiErrorMessageCount++;
-          } else {
-            // Check if error message suggests data duplication
-            if (checkApiErrorSuggestsDataDuplication(apiErrorMessage)) {
-              status = CanaryApiResponseStatus.ERROR_WAIT_FOR_EXPIRE;
-            }
-
-            // Log the error message
-            logApiError(apiErrorMessage, apiErrorMessageCount);
-
-            // Update the current error message and count (times seen)
-            apiErrorMessage = nextApiErrorMessage;
-            apiErrorMessageCount = 1;
-          }
-        }
+      final long currentTimeMillis = System.currentTimeMillis();
+      CanaryApiErrorAggregator errorAggregator = session.getErrorAggregator();
+      for (int apiErrorMessageIndex = 0;
+          apiErrorMessageIndex < response.getErrorCount();
+          apiErrorMessageIndex++) {
+        String apiErrorMessage = response.getError(apiErrorMessageIndex);
 
-        // Check the last error message
+        // Check if error message suggests data duplication
         if (checkApiErrorSuggestsDataDuplication(apiErrorMessage)) {
           status = CanaryApiResponseStatus.ERROR_WAIT_FOR_EXPIRE;
         }
 
-        // Log the last error message
-        logApiError(apiErrorMessage, apiErrorMessageCount);
+        errorAggregator.recordError(apiErrorMessage, currentTimeMillis);
       }
+      errorAggregator.logSummaryIfDue(currentTimeMillis);
     }
     return status;
   }
@@ -245,59 +253,36 @@ public class CanaryApiRequestSender {
   }
 
   /**
-   * Log an API error message, including a count if greater than 1.
+   * Parse the response for user token response components.
    *
-   * @param apiErrorMessage the error message to log
-   * @param apiErrorMessageCount the number of times the error message has occurred
-   * @since 1.0.2
-   */
-  private static void logApiError(String apiErrorMessage, int apiErrorMessageCount) {
-    // Log error message, including count if greater than 1
-    if (apiErrorMessageCount > 1) {
-      Logger.LOG_CRITICAL(
-          "API error: " + apiErrorMessage + " (" + apiErrorMessageCount + " times)");
-    } else {
-      Logger.LOG_CRITICAL("API error: " + apiErrorMessage);
-    }
-  }
-
-  /**
-   * Parse the response JSON for user token response components.
-   *
-   * @param response JSON to read in and parse
+   * @param response the response to parse
+   * @param session the session to store the user token in
    * @return true if the response indicates success
-   * @throws JSONException on errors reading the JSON object
    * @since 1.0.0
    */
-  private static CanaryApiResponseStatus checkUserTokenResponseJson(
-      JSONObject response, CanaryApiResponseStatus status) throws JSONException {
-    final String USER_TOKEN_JSON_FIELD_NAME = "userToken";
-
-    // Check for user token field
-    if (response.has(USER_TOKEN_JSON_FIELD_NAME)) {
-      String userToken = response.getString(USER_TOKEN_JSON_FIELD_NAME);
-      SessionManager.setCurrentUserToken(userToken);
+  private static CanaryApiResponseStatus checkUserTokenResponse(
+      CanaryApiResponse response, CanaryApiResponseStatus status, SessionManager session) {
+    // Check for user token
+    if (response.getUserToken() != null) {
+      session.setCurrentUserToken(response.getUserToken());
       status = CanaryApiResponseStatus.GOOD_REQUEST;
     }
     return status;
   }
 
   /**
-   * Parse the response JSON for session response components.
+   * Parse the response for session response components.
    *
-   * @param response JSON to read in and parse
+   * @param response the response to parse
+   * @param session the session to store the session token in
    * @return true if the response indicates success
-   * @throws JSONException on errors reading the JSON object
    * @since 1.0.0
    */
-  private static CanaryApiResponseStatus checkSessionTokenResponseJson(
-      JSONObject response, CanaryApiResponseStatus status) throws JSONException {
-    final String SESSION_TOKEN_JSON_FIELD_NAME = "sessionToken";
-
+  private static CanaryApiResponseStatus checkSessionTokenResponse(
+      CanaryApiResponse response, CanaryApiResponseStatus status, SessionManager session) {
     // Check for session token
-    if (response.has(SESSION_TOKEN_JSON_FIELD_NAME)) {
-      String sessionToken = response.getString(SESSION_TOKEN_JSON_FIELD_NAME);
-      SessionManager.setCurrentSessionToken(sessionToken);
+    if (response.getSessionToken() != null) {
+      session.setCurrentSessionToken(response.getSessionToken());
       status = CanaryApiResponseStatus.GOOD_REQUEST;
     }
     return status;
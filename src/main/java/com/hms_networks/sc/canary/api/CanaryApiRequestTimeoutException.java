@@ -0,0 +1,22 @@
+package com.hms_networks.sc.canary.api;
+
+/**
+ * Exception thrown by the {@link CanaryApiRequestExecutor} when a Canary API request does not
+ * complete before its deadline, or cannot be started because too many earlier requests are still
+ * outstanding after their deadlines.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryApiRequestTimeoutException extends Exception {
+
+  /**
+   * Constructor for a {@link CanaryApiRequestTimeoutException} with the specified message.
+   *
+   * @param message the exception message
+   * @since 1.1.0
+   */
+  public CanaryApiRequestTimeoutException(String message) {
+    super(message);
+  }
+}
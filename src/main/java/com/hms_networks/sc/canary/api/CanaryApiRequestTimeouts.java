@@ -0,0 +1,80 @@
+package com.hms_networks.sc.canary.api;
+
+/**
+ * Class for holding the deadlines (in milliseconds) of each type of Canary API request. A request
+ * which has not completed before its deadline is abandoned and reported with the {@link
+ * CanaryApiResponseStatus#TIMEOUT} status. A deadline of 0 or less disables the deadline for that
+ * type of request.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryApiRequestTimeouts {
+
+  /**
+   * The deadline (in milliseconds) of user token, session token and revoke requests.
+   *
+   * @since 1.1.0
+   */
+  private final long authTimeoutMillis;
+
+  /**
+   * The deadline (in milliseconds) of keep alive requests.
+   *
+   * @since 1.1.0
+   */
+  private final long keepAliveTimeoutMillis;
+
+  /**
+   * The deadline (in milliseconds) of store data requests.
+   *
+   * @since 1.1.0
+   */
+  private final long storeDataTimeoutMillis;
+
+  /**
+   * Constructor for a {@link CanaryApiRequestTimeouts} with the specified deadlines.
+   *
+   * @param authTimeoutMillis the deadline (in milliseconds) of user token, session token and revoke
+   *     requests
+   * @param keepAliveTimeoutMillis the deadline (in milliseconds) of keep alive requests
+   * @param storeDataTimeoutMillis the deadline (in milliseconds) of store data requests
+   * @since 1.1.0
+   */
+  public CanaryApiRequestTimeouts(
+      long authTimeoutMillis, long keepAliveTimeoutMillis, long storeDataTimeoutMillis) {
+    this.authTimeoutMillis = authTimeoutMillis;
+    this.keepAliveTimeoutMillis = keepAliveTimeoutMillis;
+    this.storeDataTimeoutMillis = storeDataTimeoutMillis;
+  }
+
+  /**
+   * Gets the deadline (in milliseconds) of user token, session token and revoke requests.
+   *
+   * @return the auth request deadline (in milliseconds)
+   * @since 1.1.0
+   */
+  public long getAuthTimeoutMillis() {
+    return authTimeoutMillis;
+  }
+
+  /**
+   * Gets the deadline (in milliseconds) of keep alive requests.
+   *
+   * @return the keep alive request deadline (in milliseconds)
+   * @since 1.1.0
+   */
+  public long getKeepAliveTimeoutMillis() {
+    return keepAliveTimeoutMillis;
+  }
+
+  /**
+   * Gets the deadline (in milliseconds) of store data requests.
+   *
+   * @return the store data request deadline (in milliseconds)
+   * @since 1.1.0
+   */
+  public long getStoreDataTimeoutMillis() {
+    return storeDataTimeoutMillis;
+  }
+}
@@ -0,0 +1,206 @@
+package com.hms_networks.sc.canary.api;
+
+import com.hms_networks.americas.sc.extensions.json.JSONArray;
+import com.hms_networks.americas.sc.extensions.json.JSONException;
+import com.hms_networks.americas.sc.extensions.json.JSONObject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class for holding the components of a Canary API response which are used by the connector. A
+ * response is populated by the {@link CanaryApiResponseScanner}, or from a {@link JSONObject} when
+ * the response cannot be scanned.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryApiResponse {
+
+  /**
+   * The name of the response status field in Canary API responses.
+   *
+   * @since 1.1.0
+   */
+  static final String STATUS_CODE_FIELD_NAME = "statusCode";
+
+  /**
+   * The name of the errors array field in Canary API responses.
+   *
+   * @since 1.1.0
+   */
+  static final String ERRORS_FIELD_NAME = "errors";
+
+  /**
+   * The name of the user token field in Canary API responses.
+   *
+   * @since 1.1.0
+   */
+  static final String USER_TOKEN_FIELD_NAME = "userToken";
+
+  /**
+   * The name of the session token field in Canary API responses.
+   *
+   * @since 1.1.0
+   */
+  static final String SESSION_TOKEN_FIELD_NAME = "sessionToken";
+
+  /**
+   * The response status string, or null if not present in the response.
+   *
+   * @since 1.1.0
+   */
+  private String statusCode = null;
+
+  /**
+   * The user token, or null if not present in the response.
+   *
+   * @since 1.1.0
+   */
+  private String userToken = null;
+
+  /**
+   * The session token, or null if not present in the response.
+   *
+   * @since 1.1.0
+   */
+  private String sessionToken = null;
+
+  /**
+   * The list of error message strings in the response, or null if there are none. The list is only
+   * created when the first error message is added.
+   *
+   * @since 1.1.0
+   */
+  private List errors = null;
+
+  /**
+   * Populates the response components from the specified response JSON object.
+   *
+   * @param responseJson the Canary API response JSON
+   * @throws JSONException on errors reading the JSON object
+   * @since 1.1.0
+   */
+  void readJson(JSONObject responseJson) throws JSONException {
+    if (responseJson.has(STATUS_CODE_FIELD_NAME)) {
+      statusCode = responseJson.getString(STATUS_CODE_FIELD_NAME);
+    }
+    if (responseJson.has(USER_TOKEN_FIELD_NAME)) {
+      userToken = responseJson.getString(USER_TOKEN_FIELD_NAME);
+    }
+    if (responseJson.has(SESSION_TOKEN_FIELD_NAME)) {
+      sessionToken = responseJson.getString(SESSION_TOKEN_FIELD_NAME);
+    }
+    if (responseJson.has(ERRORS_FIELD_NAME)) {
+      JSONArray responseErrors = responseJson.getJSONArray(ERRORS_FIELD_NAME);
+      for (int errorIndex = 0; errorIndex < responseErrors.length(); errorIndex++) {
+        addError(responseErrors.getString(errorIndex));
+      }
+    }
+  }
+
+  /**
+   * Clears all response components.
+   *
+   * @since 1.1.0
+   */
+  void reset() {
+    statusCode = null;
+    userToken = null;
+    sessionToken = null;
+    errors = null;
+  }
+
+  /**
+   * Gets the response status string.
+   *
+   * @return the response status string, or null if not present in the response
+   * @since 1.1.0
+   */
+  public String getStatusCode() {
+    return statusCode;
+  }
+
+  /**
+   * Sets the response status string.
+   *
+   * @param statusCode the response status string
+   * @since 1.1.0
+   */
+  void setStatusCode(String statusCode) {
+    this.statusCode = statusCode;
+  }
+
+  /**
+   * Gets the user token.
+   *
+   * @return the user token, or null if not present in the response
+   * @since 1.1.0
+   */
+  public String getUserToken() {
+    return userToken;
+  }
+
+  /**
+   * Sets the user token.
+   *
+   * @param userToken the user token
+   * @since 1.1.0
+   */
+  void setUserToken(String userToken) {
+    this.userToken = userToken;
+  }
+
+  /**
+   * Gets the session token.
+   *
+   * @return the session token, or null if not present in the response
+   * @since 1.1.0
+   */
+  public String getSessionToken() {
+    return sessionToken;
+  }
+
+  /**
+   * Sets the session token.
+   *
+   * @param sessionToken the session token
+   * @since 1.1.0
+   */
+  void setSessionToken(String sessionToken) {
+    this.sessionToken = sessionToken;
+  }
+
+  /**
+   * Gets the number of error messages in the response.
+   *
+   * @return the number of error messages
+   * @since 1.1.0
+   */
+  public int getErrorCount() {
+    return errors != null ? errors.size() : 0;
+  }
+
+  /**
+   * Gets the error message at the specified index.
+   *
+   * @param errorIndex the index of the error message
+   * @return the error message
+   * @since 1.1.0
+   */
+  public String getError(int errorIndex) {
+    return (String) errors.get(errorIndex);
+  }
+
+  /**
+   * Adds an error message to the response.
+   *
+   * @param error the error message to add
+   * @since 1.1.0
+   */
+  void addError(String error) {
+    if (errors == null) {
+      errors = new ArrayList();
+    }
+    errors.add(error);
+  }
+}
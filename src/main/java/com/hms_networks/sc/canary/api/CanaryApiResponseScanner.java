@@ -0,0 +1,309 @@
+package com.hms_networks.sc.canary.api;
+
+/**
+ * Class for scanning Canary API response bodies in a single pass, without building a JSON object
+ * tree. The response status, user token, session token and errors array are read directly into a
+ * {@link CanaryApiResponse}, and all other fields are skipped.
+ *
+ * <p>The scanner only accepts response bodies of the expected shape: a single JSON object where the
+ * fields of interest are strings (or an array of strings for the errors field). Any other response
+ * body is rejected, and should be parsed with the full JSON parser instead.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryApiResponseScanner {
+
+  /**
+   * The maximum nesting depth of skipped values before a response body is rejected.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_SKIPPED_VALUE_DEPTH = 32;
+
+  /**
+   * The response body being scanned.
+   *
+   * @since 1.1.0
+   */
+  private final String json;
+
+  /**
+   * The index of the next character to read in the response body.
+   *
+   * @since 1.1.0
+   */
+  private int position = 0;
+
+  /**
+   * Constructor for a {@link CanaryApiResponseScanner} which scans the specified response body.
+   *
+   * @param json the response body to scan
+   * @since 1.1.0
+   */
+  private CanaryApiResponseScanner(String json) {
+    this.json = json;
+  }
+
+  /**
+   * Scans the specified response body into the specified response. If the response body is
+   * rejected, the response may be partially populated, and should be reset before it is reused.
+   *
+   * @param json the response body to scan
+   * @param response the response to populate
+   * @return {@code true} if the response body was scanned, {@code false} if it was rejected
+   * @since 1.1.0
+   */
+  public static boolean scan(String json, CanaryApiResponse response) {
+    return new CanaryApiResponseScanner(json).scanResponse(response);
+  }
+
+  /**
+   * Scans the response object into the specified response.
+   *
+   * @param response the response to populate
+   * @return {@code true} if the response object was scanned, {@code false} if it was rejected
+   * @since 1.1.0
+   */
+  private boolean scanResponse(CanaryApiResponse response) {
+    boolean valid = consumeToken('{');
+    boolean moreFields = valid && !consumeToken('}');
+    while (valid && moreFields) {
+      String fieldName = readString();
+      valid = fieldName != null && consumeToken(':');
+      if (valid) {
+        if (fieldName.equals(CanaryApiResponse.STATUS_CODE_FIELD_NAME)) {
+          String statusCode = readString();
+          response.setStatusCode(statusCode);
+          valid = statusCode != null;
+        } else if (fieldName.equals(CanaryApiResponse.USER_TOKEN_FIELD_NAME)) {
+          String userToken = readString();
+          response.setUserToken(userToken);
+          valid = userToken != null;
+        } else if (fieldName.equals(CanaryApiResponse.SESSION_TOKEN_FIELD_NAME)) {
+          String sessionToken = readString();
+          response.setSessionToken(sessionToken);
+          valid = sessionToken != null;
+        } else if (fieldName.equals(CanaryApiResponse.ERRORS_FIELD_NAME)) {
+          valid = scanErrors(response);
+        } else {
+          valid = skipValue(0);
+        }
+      }
+
+      // Fields are followed by a comma or the end of the object
+      if (valid) {
+        moreFields = consumeToken(',');
+        valid = moreFields || consumeToken('}');
+      }
+    }
+
+    // Only whitespace may follow the response object
+    if (valid) {
+      skipWhitespace();
+      valid = position == json.length();
+    }
+    return valid;
+  }
+
+  /**
+   * Scans the errors array into the specified response.
+   *
+   * @param response the response to populate
+   * @return {@code true} if the errors array was scanned, {@code false} if it was rejected
+   * @since 1.1.0
+   */
+  private boolean scanErrors(CanaryApiResponse response) {
+    boolean valid = consumeToken('[');
+    boolean moreErrors = valid && !consumeToken(']');
+    while (valid && moreErrors) {
+      String error = readString();
+      valid = error != null;
+      if (valid) {
+        response.addError(error);
+        moreErrors = consumeToken(',');
+        valid = moreErrors || consumeToken(']');
+      }
+    }
+    return valid;
+  }
+
+  /**
+   * Skips the next value of any type.
+   *
+   * @param depth the nesting depth of the value
+   * @return {@code true} if the value was skipped, {@code false} if it was rejected
+   * @since 1.1.0
+   */
+  private boolean skipValue(int depth) {
+    boolean valid = depth < MAX_SKIPPED_VALUE_DEPTH;
+    skipWhitespace();
+    if (valid && position < json.length()) {
+      char c = json.charAt(position);
+      if (c == '"') {
+        valid = readString() != null;
+      } else if (c == '{') {
+        position++;
+        boolean moreFields = !consumeToken('}');
+        while (valid && moreFields) {
+          valid = readString() != null && consumeToken(':') && skipValue(depth + 1);
+          if (valid) {
+            moreFields = consumeToken(',');
+            valid = moreFields || consumeToken('}');
+          }
+        }
+      } else if (c == '[') {
+        position++;
+        boolean moreValues = !consumeToken(']');
+        while (valid && moreValues) {
+          valid = skipValue(depth + 1);
+          if (valid) {
+            moreValues = consumeToken(',');
+            valid = moreValues || consumeToken(']');
+          }
+        }
+      } else {
+        // Skip number, boolean or null literal
+        int literalStart = position;
+        while (position < json.length() && !isLiteralTerminator(json.charAt(position))) {
+          position++;
+        }
+        valid = position > literalStart;
+      }
+    } else {
+      valid = false;
+    }
+    return valid;
+  }
+
+  /**
+   * Reads the next string value, decoding any escape sequences.
+   *
+   * @return the string value, or null if the next value is not a valid string
+   * @since 1.1.0
+   */
+  private String readString() {
+    String value = null;
+    if (consumeToken('"')) {
+      // Fast path for strings without escape sequences
+      int stringStart = position;
+      while (position < json.length()
+          && json.charAt(position) != '"'
+          && json.charAt(position) != '\\'
+          && json.charAt(position) >= ' ') {
+        position++;
+      }
+      if (position < json.length() && json.charAt(position) == '"') {
+        value = json.substring(stringStart, position);
+        position++;
+      } else if (position < json.length() && json.charAt(position) == '\\') {
+        value = readEscapedString(stringStart);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Reads the remainder of a string value which contains escape sequences.
+   *
+   * @param stringStart the index of the first character of the string value
+   * @return the string value, or null if the string value is not valid
+   * @since 1.1.0
+   */
+  private String readEscapedString(int stringStart) {
+    StringBuffer valueBuffer = new StringBuffer(json.substring(stringStart, position));
+    boolean valid = true;
+    boolean closed = false;
+    while (valid && !closed && position < json.length()) {
+      char c = json.charAt(position++);
+      if (c == '"') {
+        closed = true;
+      } else if (c == '\\' && position < json.length()) {
+        char escaped = json.charAt(position++);
+        if (escaped == 'b') {
+          valueBuffer.append('\b');
+        } else if (escaped == 'f') {
+          valueBuffer.append('\f');
+        } else if (escaped == 'n') {
+          valueBuffer.append('\n');
+        } else if (escaped == 'r') {
+          valueBuffer.append('\r');
+        } else if (escaped == 't') {
+          valueBuffer.append('\t');
+        } else if (escaped == 'u') {
+          int codePoint = readHexCodeUnit();
+          valid = codePoint >= 0;
+          valueBuffer.append((char) codePoint);
+        } else if (escaped == '"' || escaped == '\\' || escaped == '/') {
+          valueBuffer.append(escaped);
+        } else {
+          valid = false;
+        }
+      } else if (c >= ' ') {
+        valueBuffer.append(c);
+      } else {
+        valid = false;
+      }
+    }
+    return valid && closed ? valueBuffer.toString() : null;
+  }
+
+  /**
+   * Reads the four hexadecimal digits of a unicode escape sequence.
+   *
+   * @return the UTF-16 code unit of the escape sequence, or -1 if the digits are not valid
+   * @since 1.1.0
+   */
+  private int readHexCodeUnit() {
+    final int hexDigitCount = 4;
+    final int hexRadix = 16;
+    int codeUnit = -1;
+    if (position + hexDigitCount <= json.length()) {
+      codeUnit = 0;
+      for (int i = 0; i < hexDigitCount && codeUnit >= 0; i++) {
+        int digit = Character.digit(json.charAt(position++), hexRadix);
+        codeUnit = digit >= 0 ? (codeUnit * hexRadix) + digit : -1;
+      }
+    }
+    return codeUnit;
+  }
+
+  /**
+   * Skips whitespace and consumes the specified token character, if it is next.
+   *
+   * @param token the token character to consume
+   * @return {@code true} if the token character was consumed, {@code false} otherwise
+   * @since 1.1.0
+   */
+  private boolean consumeToken(char token) {
+    skipWhitespace();
+    boolean consumed = position < json.length() && json.charAt(position) == token;
+    if (consumed) {
+      position++;
+    }
+    return consumed;
+  }
+
+  /**
+   * Skips any whitespace at the current position.
+   *
+   * @since 1.1.0
+   */
+  private void skipWhitespace() {
+    while (position < json.length() && json.charAt(position) <= ' ') {
+      position++;
+    }
+  }
+
+  /**
+   * Gets a boolean indicating whether the specified character ends a number, boolean or null
+   * literal.
+   *
+   * @param c the character to check
+   * @return {@code true} if the character ends a literal, {@code false} otherwise
+   * @since 1.1.0
+   */
+  private static boolean isLiteralTerminator(char c) {
+    return c == ',' || c == '}' || c == ']' || c == ':' || c == '"' || c <= ' ';
+  }
+}
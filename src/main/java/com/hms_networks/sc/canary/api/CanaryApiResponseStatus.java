@@ -62,6 +62,14 @@ public class CanaryApiResponseStatus {
    */
   private static final int ERROR_WAIT_FOR_EXPIRE_INT = 6;
 
+  /**
+   * Static status integer assigned to represent the response status when requests do not complete
+   * before their deadline.
+   *
+   * @since 1.1.0
+   */
+  private static final int TIMEOUT_INT = 7;
+
   /**
    * Static status string that is returned from Canary API requests when the message's status is set
    * to good.
@@ -158,6 +166,15 @@ public class CanaryApiResponseStatus {
   public static final CanaryApiResponseStatus ERROR_WAIT_FOR_EXPIRE =
       new CanaryApiResponseStatus(ERROR_WAIT_FOR_EXPIRE_INT);
 
+  /**
+   * Enum value-like {@link CanaryApiResponseStatus} object representing the response status when
+   * requests do not complete before their deadline. The request may or may not have been processed
+   * by the Canary API.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryApiResponseStatus TIMEOUT = new CanaryApiResponseStatus(TIMEOUT_INT);
+
   /**
    * Enum value-like {@link CanaryApiResponseStatus} object representing the API response status set
    * to an unknown error.
@@ -0,0 +1,25 @@
+package com.hms_networks.sc.canary.api;
+
+import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
+
+/**
+ * Interface for the transport which performs Canary API requests and returns their response body.
+ * The Ewon HTTP client is used by default. Other transports may be installed using {@link
+ * CanaryApiRequestExecutor#setTransport(CanaryApiTransport)}, so that the connector can be run
+ * against a local or mock endpoint on a standard JVM for benchmarks and soak tests.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public interface CanaryApiTransport {
+
+  /**
+   * Performs the specified request and returns its response body.
+   *
+   * @param request the request to perform
+   * @return the response body of the request
+   * @throws Exception if the request failed
+   * @since 1.1.0
+   */
+  String doRequest(SCHttpPostRequestInfo request) throws Exception;
+}
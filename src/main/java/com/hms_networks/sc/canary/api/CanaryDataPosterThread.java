@@ -3,11 +3,20 @@ package com.hms_networks.sc.canary.api;
 import com.hms_networks.americas.sc.extensions.logging.Logger;
 import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
 import com.hms_networks.americas.sc.extensions.system.time.SCTimeUnit;
-import com.hms_networks.sc.canary.CanaryConnectorMain;
-import com.hms_networks.sc.canary.data.CanaryDataPayloadManager;
+import com.hms_networks.sc.canary.data.CanaryDataPayload;
+import com.hms_networks.sc.canary.data.CanaryDataPayloadCursor;
+import com.hms_networks.sc.canary.data.CanaryDataPayloadScheduler;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import com.hms_networks.sc.canary.metrics.CanaryTargetMetrics;
 
 /**
- * Class to manage sending data to the Canary API.
+ * Class to manage sending data to a single Canary target. Each session shard of each Canary target
+ * has its own data poster thread, {@link SessionManager}, and {@link CanaryDataPayloadScheduler},
+ * so that a slow or unreachable target does not stall the delivery of data to other targets.
+ *
+ * <p>The scheduler of a thread reads a {@link CanaryDataPayloadCursor} for each tag priority
+ * class, and selects the payload to send next by weighted fair queuing, so that the payloads of a
+ * high priority class are not sent behind a large backlog of a low priority class.
  *
  * @author HMS Networks, MU Americas Solution Center
  * @since 1.0.0
@@ -22,53 +31,129 @@ public class CanaryDataPosterThread extends Thread {
    */
   private boolean sendDataControl = true;
 
+  /**
+   * The session used to send data to the Canary target.
+   *
+   * @since 1.1.0
+   */
+  private final SessionManager session;
+
+  /**
+   * The scheduler used to read payloads to be sent to the Canary target.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryDataPayloadScheduler payloadScheduler;
+
+  /**
+   * The time (in milliseconds) to sleep between payload posts.
+   *
+   * @since 1.1.0
+   */
+  private final long postRateMillis;
+
+  /**
+   * The metrics of the Canary target, shared by every data poster thread of the target.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTargetMetrics targetMetrics;
+
+  /**
+   * Constructor for a {@link CanaryDataPosterThread} which sends payloads selected by the specified
+   * scheduler using the specified session.
+   *
+   * @param session the session used to send data to the Canary target
+   * @param payloadScheduler the scheduler used to read payloads to be sent to the Canary target
+   * @param postRateMillis the time (in milliseconds) to sleep between payload posts
+   * @since 1.1.0
+   */
+  public CanaryDataPosterThread(
+      SessionManager session, CanaryDataPayloadScheduler payloadScheduler, long postRateMillis) {
+    super("CanaryDataPoster-" + payloadScheduler.getName());
+    this.session = session;
+    this.payloadScheduler = payloadScheduler;
+    this.postRateMillis = postRateMillis;
+    this.targetMetrics = CanaryMetricsRegistry.getTargetMetrics(session.getTarget().getName());
+  }
+
   /**
    * Run function used to continuously send payloads to Canary.
    *
    * @since 1.0.0
    */
   public void run() {
-    // Get thread sleep time from the config
-    final long sleepTimeMs = CanaryConnectorMain.getConnectorConfig().getQueueDataPostRateMillis();
-
     while (sendDataControl) {
 
-      SCHttpPostRequestInfo request = CanaryDataPayloadManager.getNextPayload();
+      CanaryDataPayload payload = payloadScheduler.getNextPayload();
 
       // If there are any payloads to send
-      if (request != null) {
-        Logger.LOG_DEBUG("Sending completed payload to Canary");
-        CanaryApiResponseStatus requestStatus = CanaryApiRequestSender.processRequest(request);
+      if (payload != null) {
+        Logger.LOG_DEBUG(
+            "Sending completed payload to Canary target "
+                + payloadScheduler.getName()
+                + " ("
+                + payloadScheduler.getPendingPayloadCount()
+                + " payload(s) pending, oldest sealed "
+                + payloadScheduler.getOldestPendingPayloadAgeMillis()
+                + "ms ago)");
+        SCHttpPostRequestInfo request =
+            CanaryApiRequestBuilder.getStoreDataRequest(session, payload.getTvqsJsonString());
+        CanaryMetricsRegistry.PAYLOADS_SENT.increment();
+        final long requestStartTimeMillis = System.currentTimeMillis();
+        payload.markSent(requestStartTimeMillis);
+        CanaryApiResponseStatus requestStatus =
+            CanaryApiRequestSender.processRequest(
+                request, session, session.getRequestTimeouts().getStoreDataTimeoutMillis());
+        final long requestRoundTripMillis = System.currentTimeMillis() - requestStartTimeMillis;
+        CanaryMetricsRegistry.STORE_DATA_ROUND_TRIP_MILLIS.record(requestRoundTripMillis);
+        CanaryMetricsRegistry.STORE_DATA_LAST_ROUND_TRIP_MILLIS.set(requestRoundTripMillis);
 
         if (requestStatus == CanaryApiResponseStatus.GOOD_REQUEST) {
-          SessionManager.updateTokenExpiration();
-          boolean removed = CanaryDataPayloadManager.removeNextPayload();
-          if (!removed) {
+          CanaryMetricsRegistry.PAYLOADS_ACKED.increment();
+          recordLagMetrics(payload, System.currentTimeMillis());
+          session.updateTokenExpiration();
+          boolean acknowledged = payloadScheduler.acknowledgePayload();
+          if (!acknowledged) {
             Logger.LOG_WARN("Unable to remove payload from queue");
           }
         } else if (requestStatus == CanaryApiResponseStatus.ERROR_WAIT_FOR_EXPIRE) {
+          CanaryMetricsRegistry.PAYLOADS_RETRIED.increment();
           Logger.LOG_WARN(
-              "Waiting for existing sessions to expire before sending more data to Canary");
+              "Waiting for existing sessions to expire before sending more data to Canary target "
+                  + session.getTarget().getName());
           try {
             final long apiClientTimeoutMillis =
-                SCTimeUnit.SECONDS.toMillis(
-                    CanaryConnectorMain.getConnectorConfig().getApiClientTimeoutSeconds());
-            CanaryConnectorMain.getInstance().setDataPollingBlocked(true);
+                SCTimeUnit.SECONDS.toMillis(session.getTarget().getClientTimeoutSeconds());
             Thread.sleep(apiClientTimeoutMillis);
-            CanaryConnectorMain.getInstance().setDataPollingBlocked(false);
           } catch (InterruptedException e) {
             Logger.LOG_SERIOUS("An error occurred while waiting for existing sessions to expire.");
             Logger.LOG_EXCEPTION(e);
           }
+        } else if (requestStatus == CanaryApiResponseStatus.TIMEOUT) {
+          CanaryMetricsRegistry.PAYLOADS_RETRIED.increment();
+          // The payload may have been stored, but it is resent to ensure it is not lost
+          Logger.LOG_WARN(
+              "Payload to Canary target "
+                  + payloadScheduler.getName()
+                  + " did not complete within its deadline and will be resent.");
         } else {
-          Logger.LOG_WARN("Unable to send payload to Canary");
+          CanaryMetricsRegistry.PAYLOADS_RETRIED.increment();
+          Logger.LOG_WARN(
+              "Unable to send payload to Canary target " + session.getTarget().getName());
         }
+      } else {
+        // Keep the session alive while there is no data to send
+        session.sendKeepAliveOrRefreshToken();
       }
 
+      // Log a summary of API errors if due
+      session.getErrorAggregator().logSummaryIfDue(System.currentTimeMillis());
+
       // thread finished
       Thread.yield();
       try {
-        Thread.sleep(sleepTimeMs);
+        Thread.sleep(postRateMillis);
       } catch (InterruptedException e) {
         Logger.LOG_SERIOUS(
             "An error occurred while sleeping the data poster thread. Data may be posted at a"
@@ -78,6 +163,44 @@ public class CanaryDataPosterThread extends Thread {
     }
   }
 
+  /**
+   * Records the ingestion lag metrics of the specified payload, which has been acknowledged by the
+   * Canary target at the specified time. Lag stages which are unknown for the payload (such as
+   * sample timestamps which could not be parsed) are skipped. The sample to acknowledgement lag is
+   * also recorded in the metrics of the Canary target.
+   *
+   * @param payload the acknowledged payload
+   * @param ackTimeMillis the time (in milliseconds since epoch) the payload was acknowledged
+   * @since 1.1.0
+   */
+  private void recordLagMetrics(CanaryDataPayload payload, long ackTimeMillis) {
+    final long sealTimeMillis = payload.getSealTimeMillis();
+    final long firstEnqueueTimeMillis = payload.getFirstEnqueueTimeMillis();
+    final long firstSendTimeMillis = payload.getFirstSendTimeMillis();
+    final long maxSampleToEnqueueMillis = payload.getMaxSampleToEnqueueMillis();
+
+    if (maxSampleToEnqueueMillis != -1) {
+      CanaryMetricsRegistry.LAG_SAMPLE_TO_ENQUEUE_MILLIS.record(maxSampleToEnqueueMillis);
+    }
+    if (firstEnqueueTimeMillis != -1) {
+      CanaryMetricsRegistry.LAG_ENQUEUE_TO_SEAL_MILLIS.record(
+          sealTimeMillis - firstEnqueueTimeMillis);
+    }
+    if (firstSendTimeMillis != -1) {
+      CanaryMetricsRegistry.LAG_SEAL_TO_FIRST_SEND_MILLIS.record(
+          firstSendTimeMillis - sealTimeMillis);
+    }
+    CanaryMetricsRegistry.LAG_SEAL_TO_ACK_MILLIS.record(ackTimeMillis - sealTimeMillis);
+    if (payload.getMinSampleTimeMillis() != -1) {
+      CanaryMetricsRegistry.LAG_SAMPLE_TO_ACK_MILLIS.record(
+          ackTimeMillis - payload.getMinSampleTimeMillis());
+      targetMetrics.getLagSampleToAckMillis().record(
+          ackTimeMillis - payload.getMinSampleTimeMillis());
+      CanaryMetricsRegistry.LAST_ACKED_SAMPLE_LAG_MILLIS.set(
+          ackTimeMillis - payload.getMaxSampleTimeMillis());
+    }
+  }
+
   /**
    * Control method used to safe shutdown the data poster thread.
    *
@@ -86,4 +209,34 @@ public class CanaryDataPosterThread extends Thread {
   public void quitLoop() {
     sendDataControl = false;
   }
+
+  /**
+   * Gets the session used to send data to the Canary target.
+   *
+   * @return the session used to send data to the Canary target
+   * @since 1.1.0
+   */
+  public SessionManager getSession() {
+    return session;
+  }
+
+  /**
+   * Gets the scheduler used to read payloads to be sent to the Canary target.
+   *
+   * @return the scheduler used to read payloads to be sent to the Canary target
+   * @since 1.1.0
+   */
+  public CanaryDataPayloadScheduler getPayloadScheduler() {
+    return payloadScheduler;
+  }
+
+  /**
+   * Gets the metrics of the Canary target, shared by every data poster thread of the target.
+   *
+   * @return the metrics of the Canary target
+   * @since 1.1.0
+   */
+  public CanaryTargetMetrics getTargetMetrics() {
+    return targetMetrics;
+  }
 }
@@ -0,0 +1,337 @@
+package com.hms_networks.sc.canary.api;
+
+/**
+ * Class representing a single Canary API endpoint and historian (or list of historians) that data
+ * is written to. Each target is given its own {@link SessionManager} and data poster thread, so
+ * that a slow or unreachable target does not stall data delivery to any other target.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryHistorianTarget {
+
+  /**
+   * The separator used between historian names in a historian server name list.
+   *
+   * @since 1.1.0
+   */
+  private static final char HISTORIAN_NAME_SEPARATOR = ',';
+
+  /**
+   * The friendly name of the target, used for logging and metrics.
+   *
+   * @since 1.1.0
+   */
+  private final String name;
+
+  /**
+   * The base URL of the Canary API for the target, including the port number.
+   *
+   * @since 1.1.0
+   */
+  private final String apiUrl;
+
+  /**
+   * The Canary sender API version for the target.
+   *
+   * @since 1.1.0
+   */
+  private final String senderApiVersion;
+
+  /**
+   * The historian server name, or comma separated list of historian server names, for the target.
+   *
+   * @since 1.1.0
+   */
+  private final String historianServerNames;
+
+  /**
+   * The username for authenticating against the Canary API of the target.
+   *
+   * @since 1.1.0
+   */
+  private final String username;
+
+  /**
+   * The user password for authenticating against the Canary API of the target.
+   *
+   * @since 1.1.0
+   */
+  private final String userPassword;
+
+  /**
+   * The session client timeout (in seconds) for sessions with the target.
+   *
+   * @since 1.1.0
+   */
+  private final int clientTimeoutSeconds;
+
+  /**
+   * The historian file size (in megabytes) setting for sessions with the target.
+   *
+   * @since 1.1.0
+   */
+  private final int fileSizeMegabytes;
+
+  /**
+   * The auto write no data setting for sessions with the target.
+   *
+   * @since 1.1.0
+   */
+  private final boolean autoWriteNoData;
+
+  /**
+   * The extend data setting for sessions with the target.
+   *
+   * @since 1.1.0
+   */
+  private final boolean extendData;
+
+  /**
+   * The insert replace data setting for sessions with the target.
+   *
+   * @since 1.1.0
+   */
+  private final boolean insertReplaceData;
+
+  /**
+   * The auto create datasets setting for sessions with the target.
+   *
+   * @since 1.1.0
+   */
+  private final boolean autoCreateDatasets;
+
+  /**
+   * Constructor for a {@link CanaryHistorianTarget} with the specified endpoint and session
+   * settings.
+   *
+   * @param name the friendly name of the target
+   * @param apiUrl the base URL of the Canary API, including the port number
+   * @param senderApiVersion the Canary sender API version
+   * @param historianServerNames the historian server name, or comma separated list of names
+   * @param username the username for authenticating against the Canary API
+   * @param userPassword the user password for authenticating against the Canary API
+   * @param clientTimeoutSeconds the session client timeout (in seconds)
+   * @param fileSizeMegabytes the historian file size (in megabytes)
+   * @param autoWriteNoData the auto write no data session setting
+   * @param extendData the extend data session setting
+   * @param insertReplaceData the insert replace data session setting
+   * @param autoCreateDatasets the auto create datasets session setting
+   * @since 1.1.0
+   */
+  public CanaryHistorianTarget(
+      String name,
+      String apiUrl,
+      String senderApiVersion,
+      String historianServerNames,
+      String username,
+      String userPassword,
+      int clientTimeoutSeconds,
+      int fileSizeMegabytes,
+      boolean autoWriteNoData,
+      boolean extendData,
+      boolean insertReplaceData,
+      boolean autoCreateDatasets) {
+    this.name = name;
+    this.apiUrl = apiUrl;
+    this.senderApiVersion = senderApiVersion;
+    this.historianServerNames = historianServerNames;
+    this.username = username;
+    this.userPassword = userPassword;
+    this.clientTimeoutSeconds = clientTimeoutSeconds;
+    this.fileSizeMegabytes = fileSizeMegabytes;
+    this.autoWriteNoData = autoWriteNoData;
+    this.extendData = extendData;
+    this.insertReplaceData = insertReplaceData;
+    this.autoCreateDatasets = autoCreateDatasets;
+  }
+
+  /**
+   * Gets the friendly name of the target.
+   *
+   * @return the friendly name of the target
+   * @since 1.1.0
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the base URL of the Canary API for the target.
+   *
+   * @return the base URL of the Canary API
+   * @since 1.1.0
+   */
+  public String getApiUrl() {
+    return apiUrl;
+  }
+
+  /**
+   * Gets the Canary sender API version for the target.
+   *
+   * @return the Canary sender API version
+   * @since 1.1.0
+   */
+  public String getSenderApiVersion() {
+    return senderApiVersion;
+  }
+
+  /**
+   * Gets the historian server name, or comma separated list of historian server names, for the
+   * target.
+   *
+   * @return the historian server name(s)
+   * @since 1.1.0
+   */
+  public String getHistorianServerNames() {
+    return historianServerNames;
+  }
+
+  /**
+   * Gets the historian server names for the target as an array, with surrounding whitespace
+   * removed from each name. Empty names are ignored.
+   *
+   * @return the historian server names as an array
+   * @since 1.1.0
+   */
+  public String[] getHistorianServerNameArray() {
+    // Count names to size the array
+    int nameCount = 1;
+    for (int i = 0; i < historianServerNames.length(); i++) {
+      if (historianServerNames.charAt(i) == HISTORIAN_NAME_SEPARATOR) {
+        nameCount++;
+      }
+    }
+
+    // Split names on separator
+    String[] names = new String[nameCount];
+    int namesFound = 0;
+    int nameStartIndex = 0;
+    while (nameStartIndex <= historianServerNames.length()) {
+      int nameEndIndex = historianServerNames.indexOf(HISTORIAN_NAME_SEPARATOR, nameStartIndex);
+      if (nameEndIndex == -1) {
+        nameEndIndex = historianServerNames.length();
+      }
+      String historianName = historianServerNames.substring(nameStartIndex, nameEndIndex).trim();
+      if (historianName.length() > 0) {
+        names[namesFound++] = historianName;
+      }
+      nameStartIndex = nameEndIndex + 1;
+    }
+
+    // Trim array if empty names were skipped
+    if (namesFound != names.length) {
+      String[] trimmedNames = new String[namesFound];
+      System.arraycopy(names, 0, trimmedNames, 0, namesFound);
+      names = trimmedNames;
+    }
+    return names;
+  }
+
+  /**
+   * Gets the username for authenticating against the Canary API of the target.
+   *
+   * @return the username
+   * @since 1.1.0
+   */
+  public String getUsername() {
+    return username;
+  }
+
+  /**
+   * Gets the user password for authenticating against the Canary API of the target.
+   *
+   * @return the user password
+   * @since 1.1.0
+   */
+  public String getUserPassword() {
+    return userPassword;
+  }
+
+  /**
+   * Gets the session client timeout (in seconds) for sessions with the target.
+   *
+   * @return the session client timeout (in seconds)
+   * @since 1.1.0
+   */
+  public int getClientTimeoutSeconds() {
+    return clientTimeoutSeconds;
+  }
+
+  /**
+   * Gets the historian file size (in megabytes) setting for sessions with the target.
+   *
+   * @return the historian file size (in megabytes)
+   * @since 1.1.0
+   */
+  public int getFileSizeMegabytes() {
+    return fileSizeMegabytes;
+  }
+
+  /**
+   * Gets the auto write no data setting for sessions with the target.
+   *
+   * @return the auto write no data setting
+   * @since 1.1.0
+   */
+  public boolean getAutoWriteNoData() {
+    return autoWriteNoData;
+  }
+
+  /**
+   * Gets the extend data setting for sessions with the target.
+   *
+   * @return the extend data setting
+   * @since 1.1.0
+   */
+  public boolean getExtendData() {
+    return extendData;
+  }
+
+  /**
+   * Gets the insert replace data setting for sessions with the target.
+   *
+   * @return the insert replace data setting
+   * @since 1.1.0
+   */
+  public boolean getInsertReplaceData() {
+    return insertReplaceData;
+  }
+
+  /**
+   * Gets the auto create datasets setting for sessions with the target.
+   *
+   * @return the auto create datasets setting
+   * @since 1.1.0
+   */
+  public boolean getAutoCreateDatasets() {
+    return autoCreateDatasets;
+  }
+
+  /**
+   * Creates a copy of the target for sending data points which may be older than the last sent data
+   * point of their tag, such as late data points or backfilled payloads. Insert replace data is
+   * enabled, so that older data points are inserted instead of being rejected, and extend data is
+   * disabled, so that the value of an older data point is not extended past newer data points.
+   *
+   * @return the insert replace data target
+   * @since 1.1.0
+   */
+  public CanaryHistorianTarget createInsertReplaceDataTarget() {
+    final boolean copyExtendData = false;
+    final boolean copyInsertReplaceData = true;
+    return new CanaryHistorianTarget(
+        name,
+        apiUrl,
+        senderApiVersion,
+        historianServerNames,
+        username,
+        userPassword,
+        clientTimeoutSeconds,
+        fileSizeMegabytes,
+        autoWriteNoData,
+        copyExtendData,
+        copyInsertReplaceData,
+        autoCreateDatasets);
+  }
+}
@@ -2,10 +2,10 @@ package com.hms_networks.sc.canary.api;
 
 import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
 import com.hms_networks.americas.sc.extensions.system.time.SCTimeUnit;
-import com.hms_networks.sc.canary.CanaryConnectorMain;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
 
 /**
- * Class to manage Canary API tokens.
+ * Class to manage Canary API tokens for a single session with a {@link CanaryHistorianTarget}.
  *
  * @author HMS Networks, MU Americas Solution Center
  * @since 1.0.0
@@ -13,25 +13,66 @@ import com.hms_networks.sc.canary.CanaryConnectorMain;
 public class SessionManager {
 
   /** Token for the current or last used canary api session */
-  private static String currentSessionToken = "";
+  private String currentSessionToken = "";
 
   /** Token for the current or last used canary api user */
-  private static String currentUserToken = "";
+  private String currentUserToken = "";
 
   /** Each successful request or keep alive will refresh this value */
-  private static long sessionTokenLastKeepAliveExpirationMillis = -1;
+  private long sessionTokenLastKeepAliveExpirationMillis = -1;
 
   /** Send the keep alive this many milliseconds before the session token expires */
   private static final int BEFORE_EXPIRE_REFRESH_DURATION_MILLIS = 8000;
 
+  /** The Canary API endpoint and historian(s) that this session is opened with */
+  private final CanaryHistorianTarget target;
+
+  /** The client ID used to open sessions with the Canary API */
+  private final String clientId;
+
+  /** The aggregator for errors in Canary API responses received by this session */
+  private final CanaryApiErrorAggregator errorAggregator;
+
+  /** The deadlines of each type of Canary API request sent by this session */
+  private final CanaryApiRequestTimeouts requestTimeouts;
+
+  /** The executor which performs Canary API requests for this session within their deadlines */
+  private final CanaryApiRequestExecutor requestExecutor;
+
+  /**
+   * Constructor for a {@link SessionManager} which manages the session tokens for the specified
+   * target and client ID.
+   *
+   * @param target the Canary API endpoint and historian(s) to open sessions with
+   * @param clientId the client ID to open sessions with
+   * @param errorSummaryIntervalMillis the interval (in milliseconds) between summaries of errors
+   *     in Canary API responses, or 0 to log errors for every response
+   * @param requestTimeouts the deadlines of each type of Canary API request
+   * @since 1.1.0
+   */
+  public SessionManager(
+      CanaryHistorianTarget target,
+      String clientId,
+      long errorSummaryIntervalMillis,
+      CanaryApiRequestTimeouts requestTimeouts) {
+    this.target = target;
+    this.clientId = clientId;
+    this.errorAggregator =
+        new CanaryApiErrorAggregator(
+            target.getName() + " (" + clientId + ")", errorSummaryIntervalMillis);
+    this.requestTimeouts = requestTimeouts;
+    this.requestExecutor = new CanaryApiRequestExecutor(clientId);
+  }
+
   /**
    * This method should be called to refresh the Canary API tokens before the last token has
    * expired.
    *
    * @since 1.0.0
    */
-  public static void sendKeepAliveOrRefreshToken() {
+  public synchronized void sendKeepAliveOrRefreshToken() {
     if (millisToSessionExpires() <= 0) {
+      CanaryMetricsRegistry.SESSION_REFRESHES.increment();
       getUserToken();
       getSessionToken();
     } else if (millisToSessionExpires() < BEFORE_EXPIRE_REFRESH_DURATION_MILLIS) {
@@ -44,7 +85,7 @@ public class SessionManager {
    *
    * @since 1.0.0
    */
-  public static void revokeTokens() {
+  public void revokeTokens() {
     revokeSessionToken();
     revokeUserToken();
   }
@@ -56,19 +97,28 @@ public class SessionManager {
    * @return number of milliseconds until the current session has expired
    * @since 1.0.0
    */
-  private static long millisToSessionExpires() {
+  private long millisToSessionExpires() {
     return sessionTokenLastKeepAliveExpirationMillis - System.currentTimeMillis();
   }
 
+  /**
+   * Invalidates the current session, so that new tokens are requested before the next request. This
+   * is used when an auth or keep alive request does not complete before its deadline, as the state
+   * of the session is then unknown.
+   *
+   * @since 1.1.0
+   */
+  private void invalidateSession() {
+    sessionTokenLastKeepAliveExpirationMillis = -1;
+  }
+
   /**
    * Set the token expiration time in milliseconds.
    *
    * @since 1.0.0
    */
-  public static void updateTokenExpiration() {
-    long sessionTimeoutMS =
-        SCTimeUnit.SECONDS.toMillis(
-            CanaryConnectorMain.getConnectorConfig().getApiClientTimeoutSeconds());
+  public void updateTokenExpiration() {
+    long sessionTimeoutMS = SCTimeUnit.SECONDS.toMillis(target.getClientTimeoutSeconds());
     sessionTokenLastKeepAliveExpirationMillis = System.currentTimeMillis() + sessionTimeoutMS;
   }
 
@@ -77,12 +127,16 @@ public class SessionManager {
    *
    * @since 1.0.0
    */
-  private static void sendKeepAlive() {
-    SCHttpPostRequestInfo request =
-        CanaryApiRequestBuilder.getKeepAliveRequest(
-            getCurrentUserToken(), getCurrentSessionToken());
+  private void sendKeepAlive() {
+    SCHttpPostRequestInfo request = CanaryApiRequestBuilder.getKeepAliveRequest(this);
+    CanaryMetricsRegistry.KEEP_ALIVE_REQUESTS.increment();
     updateTokenExpiration();
-    CanaryApiRequestSender.processRequest(request);
+    CanaryApiResponseStatus status =
+        CanaryApiRequestSender.processRequest(
+            request, this, requestTimeouts.getKeepAliveTimeoutMillis());
+    if (status == CanaryApiResponseStatus.TIMEOUT) {
+      invalidateSession();
+    }
   }
 
   /**
@@ -90,9 +144,15 @@ public class SessionManager {
    *
    * @since 1.0.0
    */
-  private static void getUserToken() {
-    SCHttpPostRequestInfo request = CanaryApiRequestBuilder.getUserTokenRequest();
-    CanaryApiRequestSender.processRequest(request);
+  private void getUserToken() {
+    SCHttpPostRequestInfo request = CanaryApiRequestBuilder.getUserTokenRequest(this);
+    CanaryMetricsRegistry.AUTH_REQUESTS.increment();
+    CanaryApiResponseStatus status =
+        CanaryApiRequestSender.processRequest(
+            request, this, requestTimeouts.getAuthTimeoutMillis());
+    if (status == CanaryApiResponseStatus.TIMEOUT) {
+      invalidateSession();
+    }
   }
 
   /**
@@ -100,11 +160,16 @@ public class SessionManager {
    *
    * @since 1.0.0
    */
-  private static void getSessionToken() {
-    SCHttpPostRequestInfo request =
-        CanaryApiRequestBuilder.getSessionTokenRequest(getCurrentUserToken());
+  private void getSessionToken() {
+    SCHttpPostRequestInfo request = CanaryApiRequestBuilder.getSessionTokenRequest(this);
+    CanaryMetricsRegistry.AUTH_REQUESTS.increment();
     updateTokenExpiration();
-    CanaryApiRequestSender.processRequest(request);
+    CanaryApiResponseStatus status =
+        CanaryApiRequestSender.processRequest(
+            request, this, requestTimeouts.getAuthTimeoutMillis());
+    if (status == CanaryApiResponseStatus.TIMEOUT) {
+      invalidateSession();
+    }
   }
 
   /**
@@ -112,10 +177,10 @@ public class SessionManager {
    *
    * @since 1.0.0
    */
-  private static synchronized void revokeUserToken() {
-    SCHttpPostRequestInfo request =
-        CanaryApiRequestBuilder.getRevokeUserTokenRequest(currentUserToken);
-    CanaryApiRequestSender.processRequest(request);
+  private synchronized void revokeUserToken() {
+    SCHttpPostRequestInfo request = CanaryApiRequestBuilder.getRevokeUserTokenRequest(this);
+    CanaryMetricsRegistry.AUTH_REQUESTS.increment();
+    CanaryApiRequestSender.processRequest(request, this, requestTimeouts.getAuthTimeoutMillis());
   }
 
   /**
@@ -123,10 +188,10 @@ public class SessionManager {
    *
    * @since 1.0.0
    */
-  private static synchronized void revokeSessionToken() {
-    SCHttpPostRequestInfo request =
-        CanaryApiRequestBuilder.getRevokeSessionTokenRequest(currentUserToken, currentSessionToken);
-    CanaryApiRequestSender.processRequest(request);
+  private synchronized void revokeSessionToken() {
+    SCHttpPostRequestInfo request = CanaryApiRequestBuilder.getRevokeSessionTokenRequest(this);
+    CanaryMetricsRegistry.AUTH_REQUESTS.increment();
+    CanaryApiRequestSender.processRequest(request, this, requestTimeouts.getAuthTimeoutMillis());
   }
 
   /**
@@ -135,7 +200,7 @@ public class SessionManager {
    * @param sessionToken the last used session token to set
    * @since 1.0.0
    */
-  public static synchronized void setCurrentSessionToken(String sessionToken) {
+  public synchronized void setCurrentSessionToken(String sessionToken) {
     currentSessionToken = sessionToken;
   }
 
@@ -145,7 +210,7 @@ public class SessionManager {
    * @param userToken the last used user token to set
    * @since 1.0.0
    */
-  public static synchronized void setCurrentUserToken(String userToken) {
+  public synchronized void setCurrentUserToken(String userToken) {
     currentUserToken = userToken;
   }
 
@@ -155,7 +220,7 @@ public class SessionManager {
    * @return last used user token for the Canary API
    * @since 1.0.0
    */
-  public static synchronized String getCurrentUserToken() {
+  public synchronized String getCurrentUserToken() {
     return currentUserToken;
   }
 
@@ -165,7 +230,57 @@ public class SessionManager {
    * @return last used session token for the Canary API
    * @since 1.0.0
    */
-  public static synchronized String getCurrentSessionToken() {
+  public synchronized String getCurrentSessionToken() {
     return currentSessionToken;
   }
+
+  /**
+   * Get the Canary API endpoint and historian(s) that this session is opened with.
+   *
+   * @return the target of this session
+   * @since 1.1.0
+   */
+  public CanaryHistorianTarget getTarget() {
+    return target;
+  }
+
+  /**
+   * Get the aggregator for errors in Canary API responses received by this session.
+   *
+   * @return the error aggregator of this session
+   * @since 1.1.0
+   */
+  public CanaryApiErrorAggregator getErrorAggregator() {
+    return errorAggregator;
+  }
+
+  /**
+   * Get the deadlines of each type of Canary API request sent by this session.
+   *
+   * @return the request deadlines of this session
+   * @since 1.1.0
+   */
+  public CanaryApiRequestTimeouts getRequestTimeouts() {
+    return requestTimeouts;
+  }
+
+  /**
+   * Get the executor which performs Canary API requests for this session within their deadlines.
+   *
+   * @return the request executor of this session
+   * @since 1.1.0
+   */
+  public CanaryApiRequestExecutor getRequestExecutor() {
+    return requestExecutor;
+  }
+
+  /**
+   * Get the client ID used to open sessions with the Canary API.
+   *
+   * @return the client ID of this session
+   * @since 1.1.0
+   */
+  public String getClientId() {
+    return clientId;
+  }
 }
@@ -0,0 +1,113 @@
+package com.hms_networks.sc.canary.data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for a batch of data points read from a capture file by a {@link CanaryDataCaptureReader}.
+ * A batch holds either a list of data points, or a map of aggregated data points, as they were
+ * polled from the historical data queue.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryDataCaptureBatch {
+
+  /**
+   * The time (in milliseconds since epoch) at which the batch was captured.
+   *
+   * @since 1.1.0
+   */
+  private final long captureTimeMillis;
+
+  /**
+   * The list of data points, or null if the batch is aggregated.
+   *
+   * @since 1.1.0
+   */
+  private final List dataPoints;
+
+  /**
+   * The map of aggregation {@link java.util.Date} to list of data points, or null if the batch is
+   * not aggregated.
+   *
+   * @since 1.1.0
+   */
+  private final Map aggregatedDataPoints;
+
+  /**
+   * The number of data points in the batch.
+   *
+   * @since 1.1.0
+   */
+  private final int dataPointCount;
+
+  /**
+   * Constructor for a {@link CanaryDataCaptureBatch}.
+   *
+   * @param captureTimeMillis the time (in milliseconds since epoch) at which the batch was captured
+   * @param dataPoints the list of data points, or null if the batch is aggregated
+   * @param aggregatedDataPoints the map of aggregated data points, or null if the batch is not
+   *     aggregated
+   * @param dataPointCount the number of data points in the batch
+   * @since 1.1.0
+   */
+  CanaryDataCaptureBatch(
+      long captureTimeMillis, List dataPoints, Map aggregatedDataPoints, int dataPointCount) {
+    this.captureTimeMillis = captureTimeMillis;
+    this.dataPoints = dataPoints;
+    this.aggregatedDataPoints = aggregatedDataPoints;
+    this.dataPointCount = dataPointCount;
+  }
+
+  /**
+   * Gets the time (in milliseconds since epoch) at which the batch was captured.
+   *
+   * @return the capture time (in milliseconds since epoch)
+   * @since 1.1.0
+   */
+  public long getCaptureTimeMillis() {
+    return captureTimeMillis;
+  }
+
+  /**
+   * Gets a boolean indicating whether the batch holds aggregated data points.
+   *
+   * @return {@code true} if the batch is aggregated, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean isAggregated() {
+    return aggregatedDataPoints != null;
+  }
+
+  /**
+   * Gets the list of data points of a batch which is not aggregated.
+   *
+   * @return the list of data points, or null if the batch is aggregated
+   * @since 1.1.0
+   */
+  public List getDataPoints() {
+    return dataPoints;
+  }
+
+  /**
+   * Gets the map of aggregation {@link java.util.Date} to list of data points of an aggregated
+   * batch.
+   *
+   * @return the map of aggregated data points, or null if the batch is not aggregated
+   * @since 1.1.0
+   */
+  public Map getAggregatedDataPoints() {
+    return aggregatedDataPoints;
+  }
+
+  /**
+   * Gets the number of data points in the batch.
+   *
+   * @return the number of data points
+   * @since 1.1.0
+   */
+  public int getDataPointCount() {
+    return dataPointCount;
+  }
+}
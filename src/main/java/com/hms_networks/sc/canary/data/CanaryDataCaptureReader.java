@@ -0,0 +1,277 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointBoolean;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointDword;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointFloat;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointInteger;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointIntegerMappedString;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointString;
+import com.hms_networks.americas.sc.extensions.datapoint.DataQuality;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class for reading the batches of data points written to a capture file by a {@link
+ * CanaryDataCaptureWriter}, so that they can be replayed through the connector pipeline.
+ *
+ * <p>The timestamps of the data points read can be shifted by a fixed offset, so that captured
+ * traffic can be replayed as if it was polled now.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryDataCaptureReader {
+
+  /**
+   * The input stream of the capture file.
+   *
+   * @since 1.1.0
+   */
+  private final DataInputStream inputStream;
+
+  /**
+   * The list of captured tags, indexed by tag index.
+   *
+   * @since 1.1.0
+   */
+  private final List tags = new ArrayList();
+
+  /**
+   * The time (in milliseconds since epoch) at which capturing started.
+   *
+   * @since 1.1.0
+   */
+  private final long captureStartTimeMillis;
+
+  /**
+   * The offset (in seconds) added to the timestamp of each data point read.
+   *
+   * @since 1.1.0
+   */
+  private long timeStampOffsetSeconds = 0;
+
+  /**
+   * Constructor for a {@link CanaryDataCaptureReader} which reads from the specified input stream,
+   * and reads the file header.
+   *
+   * @param inputStream the input stream of the capture file
+   * @throws IOException if the file header cannot be read, or is not a supported capture file
+   * @since 1.1.0
+   */
+  public CanaryDataCaptureReader(InputStream inputStream) throws IOException {
+    this.inputStream = new DataInputStream(new BufferedInputStream(inputStream));
+    if (this.inputStream.readInt() != CanaryDataCaptureWriter.FILE_MAGIC) {
+      throw new IOException("Not a data capture file.");
+    }
+    final int fileVersion = this.inputStream.readUnsignedShort();
+    if (fileVersion != CanaryDataCaptureWriter.FILE_VERSION) {
+      throw new IOException("Unsupported data capture file version " + fileVersion + ".");
+    }
+    captureStartTimeMillis = this.inputStream.readLong();
+  }
+
+  /**
+   * Gets the time (in milliseconds since epoch) at which capturing started.
+   *
+   * @return the capture start time (in milliseconds since epoch)
+   * @since 1.1.0
+   */
+  public long getCaptureStartTimeMillis() {
+    return captureStartTimeMillis;
+  }
+
+  /**
+   * Sets the offset (in seconds) added to the timestamp of each data point read.
+   *
+   * @param timeStampOffsetSeconds the timestamp offset (in seconds)
+   * @since 1.1.0
+   */
+  public void setTimeStampOffsetSeconds(long timeStampOffsetSeconds) {
+    this.timeStampOffsetSeconds = timeStampOffsetSeconds;
+  }
+
+  /**
+   * Reads the next batch of data points. A batch which was only partially written, because the
+   * device stopped while capturing, is treated as the end of the file.
+   *
+   * @return the next batch, or null at the end of the file
+   * @throws IOException if the batch cannot be read, or the file is corrupt
+   * @since 1.1.0
+   */
+  public CanaryDataCaptureBatch readBatch() throws IOException {
+    CanaryDataCaptureBatch batch = null;
+    try {
+      final int recordType = inputStream.read();
+      if (recordType >= 0) {
+        final long captureTimeMillis = inputStream.readLong();
+        final int groupCount = inputStream.readInt();
+        int dataPointCount = 0;
+        if (recordType == CanaryDataCaptureWriter.RECORD_TYPE_LIST) {
+          inputStream.readLong();
+          List dataPoints = readDataPoints();
+          dataPointCount = dataPoints.size();
+          batch = new CanaryDataCaptureBatch(captureTimeMillis, dataPoints, null, dataPointCount);
+        } else if (recordType == CanaryDataCaptureWriter.RECORD_TYPE_AGGREGATED) {
+          Map aggregatedDataPoints = new TreeMap();
+          for (int groupIndex = 0; groupIndex < groupCount; groupIndex++) {
+            final long aggregationTimeMillis = inputStream.readLong();
+            List dataPoints = readDataPoints();
+            dataPointCount += dataPoints.size();
+            aggregatedDataPoints.put(new Date(aggregationTimeMillis), dataPoints);
+          }
+          batch =
+              new CanaryDataCaptureBatch(
+                  captureTimeMillis, null, aggregatedDataPoints, dataPointCount);
+        } else {
+          throw new IOException("Unknown data capture record type " + recordType + ".");
+        }
+      }
+    } catch (EOFException e) {
+      // Partially written batch at the end of the file
+      batch = null;
+    }
+    return batch;
+  }
+
+  /**
+   * Closes the capture file.
+   *
+   * @throws IOException if the capture file cannot be closed
+   * @since 1.1.0
+   */
+  public void close() throws IOException {
+    inputStream.close();
+  }
+
+  /**
+   * Reads a group of data points.
+   *
+   * @return the list of data points
+   * @throws IOException if the data points cannot be read
+   * @since 1.1.0
+   */
+  private List readDataPoints() throws IOException {
+    final int dataPointCount = inputStream.readInt();
+    List dataPoints = new ArrayList(dataPointCount);
+    for (int i = 0; i < dataPointCount; i++) {
+      dataPoints.add(readDataPoint());
+    }
+    return dataPoints;
+  }
+
+  /**
+   * Reads a data point, including the name, ID and unit of its tag if it is the first data point
+   * of the tag.
+   *
+   * @return the data point
+   * @throws IOException if the data point cannot be read
+   * @since 1.1.0
+   */
+  private DataPoint readDataPoint() throws IOException {
+    final byte dataPointType = inputStream.readByte();
+    final int tagIndex = inputStream.readInt();
+    CapturedTag tag;
+    if (tagIndex == tags.size()) {
+      tag = new CapturedTag(inputStream.readUTF(), inputStream.readInt(), inputStream.readUTF());
+      tags.add(tag);
+    } else if (tagIndex >= 0 && tagIndex < tags.size()) {
+      tag = (CapturedTag) tags.get(tagIndex);
+    } else {
+      throw new IOException("Invalid tag index " + tagIndex + " in data capture file.");
+    }
+
+    final DataQuality quality = DataQuality.fromRawInt(inputStream.readByte());
+    final String timeStamp = String.valueOf(inputStream.readLong() + timeStampOffsetSeconds);
+
+    DataPoint dataPoint;
+    switch (dataPointType) {
+      case CanaryDataCaptureWriter.DATA_POINT_TYPE_BOOLEAN:
+        dataPoint =
+            new DataPointBoolean(
+                tag.name, tag.id, tag.unit, inputStream.readBoolean(), timeStamp, quality);
+        break;
+      case CanaryDataCaptureWriter.DATA_POINT_TYPE_DWORD:
+        dataPoint =
+            new DataPointDword(
+                tag.name, tag.id, tag.unit, inputStream.readLong(), timeStamp, quality);
+        break;
+      case CanaryDataCaptureWriter.DATA_POINT_TYPE_FLOAT:
+        dataPoint =
+            new DataPointFloat(
+                tag.name, tag.id, tag.unit, inputStream.readFloat(), timeStamp, quality);
+        break;
+      case CanaryDataCaptureWriter.DATA_POINT_TYPE_INTEGER:
+        dataPoint =
+            new DataPointInteger(
+                tag.name, tag.id, tag.unit, inputStream.readInt(), timeStamp, quality);
+        break;
+      case CanaryDataCaptureWriter.DATA_POINT_TYPE_INTEGER_MAPPED_STRING:
+        final int integerValue = inputStream.readInt();
+        final String enumString = inputStream.readUTF();
+        dataPoint =
+            new DataPointIntegerMappedString(
+                tag.name, tag.id, tag.unit, integerValue, enumString, timeStamp, quality);
+        break;
+      case CanaryDataCaptureWriter.DATA_POINT_TYPE_STRING:
+        dataPoint =
+            new DataPointString(
+                tag.name, tag.id, tag.unit, inputStream.readUTF(), timeStamp, quality);
+        break;
+      default:
+        throw new IOException("Unknown data point type " + dataPointType + ".");
+    }
+    return dataPoint;
+  }
+
+  /**
+   * Class for the name, ID and unit of a tag in a capture file.
+   *
+   * @since 1.1.0
+   */
+  private static class CapturedTag {
+
+    /**
+     * The tag name.
+     *
+     * @since 1.1.0
+     */
+    final String name;
+
+    /**
+     * The tag ID.
+     *
+     * @since 1.1.0
+     */
+    final int id;
+
+    /**
+     * The tag unit.
+     *
+     * @since 1.1.0
+     */
+    final String unit;
+
+    /**
+     * Constructor for a {@link CapturedTag}.
+     *
+     * @param name the tag name
+     * @param id the tag ID
+     * @param unit the tag unit
+     * @since 1.1.0
+     */
+    CapturedTag(String name, int id, String unit) {
+      this.name = name;
+      this.id = id;
+      this.unit = unit;
+    }
+  }
+}
@@ -0,0 +1,364 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointBoolean;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointDword;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointFloat;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointInteger;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointIntegerMappedString;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointString;
+import com.hms_networks.americas.sc.extensions.logging.Logger;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for capturing the batches of data points polled from the historical data queue to a
+ * compact binary file, so that real traffic can later be replayed through the connector pipeline
+ * with a {@link CanaryDataCaptureReader}.
+ *
+ * <p>The file starts with a header of {@link #FILE_MAGIC}, {@link #FILE_VERSION} and the capture
+ * start time, followed by one record per batch. Each record contains the capture time and one or
+ * more groups of data points (one group for a list batch, or one group per aggregation time for an
+ * aggregated batch). Each data point is written as its type, tag index, quality, timestamp and
+ * value. The name, ID and unit of a tag are only written with its first data point, which is
+ * assigned the next tag index.
+ *
+ * <p>Capturing never interrupts data processing. If the file cannot be written, or reaches its
+ * maximum size, capturing stops and the file is closed.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryDataCaptureWriter {
+
+  /**
+   * The magic number at the start of a capture file ("CCDC").
+   *
+   * @since 1.1.0
+   */
+  public static final int FILE_MAGIC = 0x43434443;
+
+  /**
+   * The version of the capture file format.
+   *
+   * @since 1.1.0
+   */
+  public static final int FILE_VERSION = 1;
+
+  /**
+   * The record type of a batch of data points from a list.
+   *
+   * @since 1.1.0
+   */
+  static final byte RECORD_TYPE_LIST = 1;
+
+  /**
+   * The record type of a batch of aggregated data points from a map.
+   *
+   * @since 1.1.0
+   */
+  static final byte RECORD_TYPE_AGGREGATED = 2;
+
+  /**
+   * The data point type of {@link DataPointBoolean} values.
+   *
+   * @since 1.1.0
+   */
+  static final byte DATA_POINT_TYPE_BOOLEAN = 1;
+
+  /**
+   * The data point type of {@link DataPointDword} values.
+   *
+   * @since 1.1.0
+   */
+  static final byte DATA_POINT_TYPE_DWORD = 2;
+
+  /**
+   * The data point type of {@link DataPointFloat} values.
+   *
+   * @since 1.1.0
+   */
+  static final byte DATA_POINT_TYPE_FLOAT = 3;
+
+  /**
+   * The data point type of {@link DataPointInteger} values.
+   *
+   * @since 1.1.0
+   */
+  static final byte DATA_POINT_TYPE_INTEGER = 4;
+
+  /**
+   * The data point type of {@link DataPointIntegerMappedString} values.
+   *
+   * @since 1.1.0
+   */
+  static final byte DATA_POINT_TYPE_INTEGER_MAPPED_STRING = 5;
+
+  /**
+   * The data point type of {@link DataPointString} values.
+   *
+   * @since 1.1.0
+   */
+  static final byte DATA_POINT_TYPE_STRING = 6;
+
+  /**
+   * The aggregation time written for the single group of a list batch.
+   *
+   * @since 1.1.0
+   */
+  static final long NO_AGGREGATION_TIME = -1;
+
+  /**
+   * The path of the capture file.
+   *
+   * @since 1.1.0
+   */
+  private final String filePath;
+
+  /**
+   * The maximum size (in bytes) of the capture file.
+   *
+   * @since 1.1.0
+   */
+  private final long maxFileSizeBytes;
+
+  /**
+   * Map of tag names to their {@link Integer} tag index in the capture file.
+   *
+   * @since 1.1.0
+   */
+  private final Map tagIndexes = new HashMap();
+
+  /**
+   * The output stream of the capture file, or null if capturing has stopped.
+   *
+   * @since 1.1.0
+   */
+  private DataOutputStream outputStream = null;
+
+  /**
+   * The number of batches captured.
+   *
+   * @since 1.1.0
+   */
+  private long batchesCaptured = 0;
+
+  /**
+   * Constructor for a {@link CanaryDataCaptureWriter} which writes to the specified file.
+   *
+   * @param filePath the path of the capture file
+   * @param maxFileSizeBytes the maximum size (in bytes) of the capture file
+   * @since 1.1.0
+   */
+  public CanaryDataCaptureWriter(String filePath, long maxFileSizeBytes) {
+    this.filePath = filePath;
+    this.maxFileSizeBytes = maxFileSizeBytes;
+  }
+
+  /**
+   * Creates (or replaces) the capture file and writes the file header.
+   *
+   * @throws IOException if the capture file cannot be created
+   * @since 1.1.0
+   */
+  public synchronized void open() throws IOException {
+    outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath)));
+    outputStream.writeInt(FILE_MAGIC);
+    outputStream.writeShort(FILE_VERSION);
+    outputStream.writeLong(System.currentTimeMillis());
+    outputStream.flush();
+    Logger.LOG_INFO("Started capturing polled data points to " + filePath + ".");
+  }
+
+  /**
+   * Gets a boolean indicating whether data points are being captured.
+   *
+   * @return {@code true} if data points are being captured, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public synchronized boolean isCapturing() {
+    return outputStream != null;
+  }
+
+  /**
+   * Captures a batch of data points polled from the historical data queue.
+   *
+   * @param dataPoints the list of data points
+   * @since 1.1.0
+   */
+  public synchronized void captureDataPoints(List dataPoints) {
+    if (outputStream != null) {
+      try {
+        outputStream.writeByte(RECORD_TYPE_LIST);
+        outputStream.writeLong(System.currentTimeMillis());
+        outputStream.writeInt(1);
+        writeGroup(NO_AGGREGATION_TIME, dataPoints);
+        finishBatch();
+      } catch (IOException e) {
+        stopCapturing("Unable to write to data capture file " + filePath + ".", e);
+      }
+    }
+  }
+
+  /**
+   * Captures a batch of aggregated data points polled from the historical data queue.
+   *
+   * @param dataPoints the map of aggregation {@link Date} to list of data points
+   * @since 1.1.0
+   */
+  public synchronized void captureAggregatedDataPoints(Map dataPoints) {
+    if (outputStream != null) {
+      try {
+        outputStream.writeByte(RECORD_TYPE_AGGREGATED);
+        outputStream.writeLong(System.currentTimeMillis());
+        outputStream.writeInt(dataPoints.size());
+        Iterator entryIterator = dataPoints.entrySet().iterator();
+        while (entryIterator.hasNext()) {
+          Map.Entry entry = (Map.Entry) entryIterator.next();
+          writeGroup(((Date) entry.getKey()).getTime(), (List) entry.getValue());
+        }
+        finishBatch();
+      } catch (IOException e) {
+        stopCapturing("Unable to write to data capture file " + filePath + ".", e);
+      }
+    }
+  }
+
+  /**
+   * Stops capturing and closes the capture file.
+   *
+   * @since 1.1.0
+   */
+  public synchronized void close() {
+    if (outputStream != null) {
+      try {
+        outputStream.close();
+      } catch (IOException e) {
+        Logger.LOG_WARN("Unable to close data capture file " + filePath + ".");
+        Logger.LOG_EXCEPTION(e);
+      }
+      outputStream = null;
+      Logger.LOG_INFO(
+          "Stopped capturing polled data points after " + batchesCaptured + " batch(es).");
+    }
+  }
+
+  /**
+   * Flushes a captured batch to the capture file, and stops capturing if the capture file has
+   * reached its maximum size.
+   *
+   * @throws IOException if the batch cannot be flushed
+   * @since 1.1.0
+   */
+  private void finishBatch() throws IOException {
+    outputStream.flush();
+    batchesCaptured++;
+    if (outputStream.size() >= maxFileSizeBytes) {
+      Logger.LOG_INFO("Data capture file " + filePath + " has reached its maximum size.");
+      close();
+    }
+  }
+
+  /**
+   * Writes a group of data points with the specified aggregation time.
+   *
+   * @param aggregationTimeMillis the aggregation time (in milliseconds), or {@link
+   *     #NO_AGGREGATION_TIME} for a list batch
+   * @param dataPoints the list of data points
+   * @throws IOException if the group cannot be written
+   * @since 1.1.0
+   */
+  private void writeGroup(long aggregationTimeMillis, List dataPoints) throws IOException {
+    outputStream.writeLong(aggregationTimeMillis);
+    outputStream.writeInt(dataPoints.size());
+    for (int i = 0; i < dataPoints.size(); i++) {
+      writeDataPoint((DataPoint) dataPoints.get(i));
+    }
+  }
+
+  /**
+   * Writes a data point, including the name, ID and unit of its tag if it is the first data point
+   * of the tag.
+   *
+   * @param dataPoint the data point
+   * @throws IOException if the data point cannot be written
+   * @since 1.1.0
+   */
+  private void writeDataPoint(DataPoint dataPoint) throws IOException {
+    long timeStampSeconds;
+    try {
+      timeStampSeconds = Long.parseLong(dataPoint.getTimeStamp());
+    } catch (NumberFormatException e) {
+      throw new IOException("Invalid data point time stamp: " + dataPoint.getTimeStamp());
+    }
+
+    if (dataPoint instanceof DataPointBoolean) {
+      outputStream.writeByte(DATA_POINT_TYPE_BOOLEAN);
+    } else if (dataPoint instanceof DataPointDword) {
+      outputStream.writeByte(DATA_POINT_TYPE_DWORD);
+    } else if (dataPoint instanceof DataPointFloat) {
+      outputStream.writeByte(DATA_POINT_TYPE_FLOAT);
+    } else if (dataPoint instanceof DataPointInteger) {
+      outputStream.writeByte(DATA_POINT_TYPE_INTEGER);
+    } else if (dataPoint instanceof DataPointIntegerMappedString) {
+      outputStream.writeByte(DATA_POINT_TYPE_INTEGER_MAPPED_STRING);
+    } else {
+      // Unknown types are captured as strings, as they are sent to Canary
+      outputStream.writeByte(DATA_POINT_TYPE_STRING);
+    }
+
+    Integer tagIndex = (Integer) tagIndexes.get(dataPoint.getTagName());
+    if (tagIndex != null) {
+      outputStream.writeInt(tagIndex.intValue());
+    } else {
+      final int newTagIndex = tagIndexes.size();
+      tagIndexes.put(dataPoint.getTagName(), new Integer(newTagIndex));
+      outputStream.writeInt(newTagIndex);
+      outputStream.writeUTF(dataPoint.getTagName());
+      outputStream.writeInt(dataPoint.getTagId());
+      outputStream.writeUTF(dataPoint.getTagUnit() != null ? dataPoint.getTagUnit() : "");
+    }
+
+    outputStream.writeByte(dataPoint.getQuality().getRawDataQuality());
+    outputStream.writeLong(timeStampSeconds);
+
+    if (dataPoint instanceof DataPointBoolean) {
+      outputStream.writeBoolean(((DataPointBoolean) dataPoint).getValue());
+    } else if (dataPoint instanceof DataPointDword) {
+      outputStream.writeLong(((DataPointDword) dataPoint).getValue());
+    } else if (dataPoint instanceof DataPointFloat) {
+      outputStream.writeFloat(((DataPointFloat) dataPoint).getValue());
+    } else if (dataPoint instanceof DataPointInteger) {
+      outputStream.writeInt(((DataPointInteger) dataPoint).getValue());
+    } else if (dataPoint instanceof DataPointIntegerMappedString) {
+      DataPointIntegerMappedString mappedStringDataPoint =
+          (DataPointIntegerMappedString) dataPoint;
+      outputStream.writeInt(mappedStringDataPoint.getIntegerValue());
+      outputStream.writeUTF(mappedStringDataPoint.getValue());
+    } else if (dataPoint instanceof DataPointString) {
+      outputStream.writeUTF(((DataPointString) dataPoint).getValue());
+    } else {
+      outputStream.writeUTF(dataPoint.getValueString());
+    }
+  }
+
+  /**
+   * Stops capturing after an error, and closes the capture file.
+   *
+   * @param message the message to log
+   * @param e the exception which caused the error
+   * @since 1.1.0
+   */
+  private void stopCapturing(String message, Exception e) {
+    Logger.LOG_WARN(message);
+    Logger.LOG_EXCEPTION(e);
+    close();
+  }
+}
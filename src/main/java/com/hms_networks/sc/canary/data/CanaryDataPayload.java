@@ -10,14 +10,17 @@ import com.hms_networks.americas.sc.extensions.datapoint.DataPointString;
 import com.hms_networks.americas.sc.extensions.json.JSONArray;
 import com.hms_networks.americas.sc.extensions.json.JSONObject;
 import com.hms_networks.americas.sc.extensions.logging.Logger;
-import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
 import com.hms_networks.americas.sc.extensions.system.time.SCTimeUtils;
-import com.hms_networks.sc.canary.api.CanaryApiRequestBuilder;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
 import java.util.Date;
 
 /**
  * Class for building and managing Canary data payloads (/storeData endpoint) in JSON format.
  *
+ * <p>A payload is open for new data points until it is sealed using {@link #seal()}. When sealed,
+ * the tvqs of the payload are serialized once, and the serialized string is shared by all requests
+ * which send the payload to a Canary target.
+ *
  * @since 1.0.0
  * @author HMS Networks, MU Americas Solution Center
  */
@@ -39,6 +42,29 @@ public class CanaryDataPayload {
    */
   private static final int MAX_TVQS = -1;
 
+  /**
+   * The number of punctuation characters of a serialized tvq, which are the brackets of the tvq
+   * array, the quotes of the timestamp, the separators between the timestamp, value and quality,
+   * and the separator before the next tvq.
+   *
+   * @since 1.1.0
+   */
+  private static final int TVQ_PUNCTUATION_LENGTH = 7;
+
+  /**
+   * The estimated number of significant digits of a float value serialized at full precision.
+   *
+   * @since 1.1.0
+   */
+  private static final int FLOAT_SIGNIFICANT_DIGITS = 8;
+
+  /**
+   * The smallest magnitude of a float value which is serialized in exponent notation.
+   *
+   * @since 1.1.0
+   */
+  private static final float FLOAT_EXPONENT_NOTATION_MIN_VALUE = 1.0E7f;
+
   /**
    * Instance counter for the number of data points added to the payload.
    *
@@ -47,18 +73,114 @@ public class CanaryDataPayload {
   private int dataPointsAdded = 0;
 
   /**
-   * Instance JSON object for storing the tvqs of the payload.
+   * Instance JSON object for storing the tvqs of the payload. This is released (set to null) when
+   * the payload is sealed.
    *
    * @since 1.0.0
    */
-  private final JSONObject tvqsJson = new JSONObject();
+  private JSONObject tvqsJson = new JSONObject();
+
+  /**
+   * Instance serialized JSON string of the tvqs of the payload. This is null until the payload is
+   * sealed.
+   *
+   * @since 1.1.0
+   */
+  private String sealedTvqsJsonString = null;
+
+  /**
+   * Instance size (in bytes) of the serialized JSON string of the tvqs of the payload, once encoded
+   * as UTF-8. This is 0 until the payload is sealed.
+   *
+   * @since 1.1.0
+   */
+  private int sealedTvqsJsonSizeBytes = 0;
+
+  /**
+   * Instance time (in milliseconds since epoch) that the payload was sealed, or -1 if the payload
+   * has not been sealed.
+   *
+   * @since 1.1.0
+   */
+  private long sealTimeMillis = -1;
+
+  /**
+   * Instance time (in milliseconds since epoch) that the first data point was added to the
+   * payload, or -1 if no data points have been added.
+   *
+   * @since 1.1.0
+   */
+  private long firstEnqueueTimeMillis = -1;
+
+  /**
+   * Instance sample timestamp (in milliseconds since epoch) of the oldest data point in the
+   * payload, or -1 if no data points with a known sample timestamp have been added.
+   *
+   * @since 1.1.0
+   */
+  private long minSampleTimeMillis = -1;
+
+  /**
+   * Instance sample timestamp (in milliseconds since epoch) of the newest data point in the
+   * payload, or -1 if no data points with a known sample timestamp have been added.
+   *
+   * @since 1.1.0
+   */
+  private long maxSampleTimeMillis = -1;
+
+  /**
+   * Instance maximum time (in milliseconds) between the sample timestamp of a data point and the
+   * time it was added to the payload, or -1 if no data points with a known sample timestamp have
+   * been added.
+   *
+   * @since 1.1.0
+   */
+  private long maxSampleToEnqueueMillis = -1;
+
+  /**
+   * Instance time (in milliseconds since epoch) that the payload was first sent to a Canary
+   * target, or -1 if the payload has not been sent.
+   *
+   * @since 1.1.0
+   */
+  private long firstSendTimeMillis = -1;
+
+  /**
+   * Instance dictionary of the values of string and mapped string tags, or null if values are
+   * added as they are.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagValueDictionary valueDictionary;
+
+  /**
+   * Constructor for a {@link CanaryDataPayload} which adds the values of string and mapped string
+   * tags as they are.
+   *
+   * @since 1.0.0
+   */
+  public CanaryDataPayload() {
+    this(null);
+  }
+
+  /**
+   * Constructor for a {@link CanaryDataPayload} which adds the dictionary instance of the values of
+   * string and mapped string tags, so that repeated values share a single string.
+   *
+   * @param valueDictionary the dictionary of tag values, or null to add values as they are
+   * @since 1.1.0
+   */
+  public CanaryDataPayload(CanaryTagValueDictionary valueDictionary) {
+    this.valueDictionary = valueDictionary;
+  }
 
   /**
    * Adds the specified data point to the payload using the data point's timestamp as the tvq
    * timestamp.
    *
    * <p>The data point's timestamp is converted to an ISO 8601 formatted string using the {@link
-   * SCTimeUtils#getIso8601FormattedTimestampForDataPoint(DataPoint)} method.
+   * SCTimeUtils#getIso8601FormattedTimestampForDataPoint(DataPoint)} method, through the {@link
+   * CanaryTimestampCache} so that each second is only formatted once.
    *
    * @param dataPoint the data point to add
    * @see SCTimeUtils#getIso8601FormattedTimestampForDataPoint(DataPoint)
@@ -68,7 +190,7 @@ public class CanaryDataPayload {
    * @since 1.0.0
    */
   public synchronized boolean addDataPoint(DataPoint dataPoint) throws Exception {
-    return addDataPoint(dataPoint, SCTimeUtils.getIso8601FormattedTimestampForDataPoint(dataPoint));
+    return addDataPoint(dataPoint, CanaryTimestampCache.getIso8601FormattedTimestamp(dataPoint));
   }
 
   /**
@@ -95,6 +217,25 @@ public class CanaryDataPayload {
    */
   public synchronized boolean addDataPoint(DataPoint dataPoint, String timestampDateTimeString)
       throws Exception {
+    final int fullPrecision = -1;
+    return addDataPoint(dataPoint, timestampDateTimeString, fullPrecision);
+  }
+
+  /**
+   * Adds the specified data point to the payload using the specified timestamp as the tvq
+   * timestamp, rounding float values to the specified number of decimals.
+   *
+   * @param dataPoint the data point to add
+   * @param timestampDateTimeString the timestamp to use for the tvq timestamp
+   * @param decimals the number of decimals to round float values to, or a negative number for full
+   *     precision
+   * @return {@code true} if the data point was added successfully, {@code false} otherwise
+   * @throws Exception if an error occurs while adding the data point
+   * @see CanaryDataUtils#getTvqFloatValue(float, int)
+   * @since 1.1.0
+   */
+  public synchronized boolean addDataPoint(
+      DataPoint dataPoint, String timestampDateTimeString, int decimals) throws Exception {
     // Create flag to track the success of adding data point
     boolean success = false;
 
@@ -112,30 +253,53 @@ public class CanaryDataPayload {
         // Add tag time stamp line
         tvqDataPoint.put(timestampDateTimeString);
 
-        // Add tag value line
+        // Add tag value line, and find the length of the serialized value
+        int valueLength;
         if (dataPoint instanceof DataPointBoolean) {
-          tvqDataPoint.put(((DataPointBoolean) dataPoint).getValue());
+          final boolean value = ((DataPointBoolean) dataPoint).getValue();
+          tvqDataPoint.put(value);
+          valueLength = String.valueOf(value).length();
         } else if (dataPoint instanceof DataPointDword) {
-          tvqDataPoint.put(((DataPointDword) dataPoint).getValue());
+          final long value = ((DataPointDword) dataPoint).getValue();
+          tvqDataPoint.put(value);
+          valueLength = getSerializedIntegerLength(value);
         } else if (dataPoint instanceof DataPointFloat) {
-          tvqDataPoint.put(((DataPointFloat) dataPoint).getValue());
+          final float value = ((DataPointFloat) dataPoint).getValue();
+          tvqDataPoint.put(CanaryDataUtils.getTvqFloatValue(value, decimals));
+          valueLength = getSerializedFloatLength(value, decimals);
         } else if (dataPoint instanceof DataPointInteger) {
-          tvqDataPoint.put(((DataPointInteger) dataPoint).getValue());
-        } else if (dataPoint instanceof DataPointIntegerMappedString) {
-          tvqDataPoint.put(((DataPointIntegerMappedString) dataPoint).getValue());
-        } else if (dataPoint instanceof DataPointString) {
-          tvqDataPoint.put(((DataPointString) dataPoint).getValue());
+          final int value = ((DataPointInteger) dataPoint).getValue();
+          tvqDataPoint.put(value);
+          valueLength = getSerializedIntegerLength(value);
+        } else if (dataPoint instanceof DataPointIntegerMappedString
+            || dataPoint instanceof DataPointString) {
+          final String value = getStringTvqValue(dataPoint);
+          tvqDataPoint.put(value);
+          valueLength = value.length() + 2;
         } else {
-          tvqDataPoint.put(dataPoint.getValueString());
+          final String value = dataPoint.getValueString();
+          tvqDataPoint.put(value);
+          valueLength = value.length() + 2;
           Logger.LOG_WARN("Unable to detect data point value type! String format will be used.");
         }
 
         // Add tag quality line
-        tvqDataPoint.put(CanaryDataUtils.getTvqQualityForDataQuality(dataPoint.getQuality()));
+        final int quality = CanaryDataUtils.getTvqQualityForDataQuality(dataPoint.getQuality());
+        tvqDataPoint.put(quality);
 
         // Add tvq to payload
         tvqsJson.getJSONArray(tvqName).put(tvqDataPoint);
 
+        // Count the serialized bytes of the tvq, from its parts, for the top tags by bytes
+        if (CanaryMetricsRegistry.TOP_TAGS_BY_BYTES.isEnabled()) {
+          CanaryMetricsRegistry.TOP_TAGS_BY_BYTES.add(
+              dataPoint.getTagName(),
+              TVQ_PUNCTUATION_LENGTH
+                  + timestampDateTimeString.length()
+                  + valueLength
+                  + getSerializedIntegerLength(quality));
+        }
+
         // Set success flag
         success = true;
       } catch (Exception e) {
@@ -144,15 +308,129 @@ public class CanaryDataPayload {
       }
     }
 
-    // Increment the data points added counter if the data point was added successfully
+    // Increment the data points added counter and track sample times if added successfully
     if (success) {
       dataPointsAdded++;
+      trackSampleTime(dataPoint);
     }
 
     // Return the success flag
     return success;
   }
 
+  /**
+   * Gets the number of characters of the specified integer value when serialized, without
+   * allocating a string.
+   *
+   * @param value the integer value
+   * @return the number of characters of the serialized value, including the sign
+   * @since 1.1.0
+   */
+  private static int getSerializedIntegerLength(long value) {
+    int length = value < 0 ? 2 : 1;
+    long remainingValue = value / 10;
+    while (remainingValue != 0) {
+      length++;
+      remainingValue /= 10;
+    }
+    return length;
+  }
+
+  /**
+   * Gets the estimated number of characters of the specified float value when serialized as a tvq
+   * value with the specified number of decimals, without allocating a string. The estimate is
+   * exact for the integer part, and assumes all decimals are used, so trailing zeros which are not
+   * serialized are counted.
+   *
+   * @param value the float value
+   * @param decimals the number of decimals the value is rounded to, or a negative number for full
+   *     precision
+   * @return the estimated number of characters of the serialized value
+   * @since 1.1.0
+   */
+  private static int getSerializedFloatLength(float value, int decimals) {
+    int length = value < 0 ? 1 : 0;
+    if (Math.abs(value) >= FLOAT_EXPONENT_NOTATION_MIN_VALUE) {
+      // Serialized as the significant digits, decimal point and a two digit exponent
+      length += FLOAT_SIGNIFICANT_DIGITS + 4;
+    } else {
+      final int integerDigits = getSerializedIntegerLength((long) Math.abs(value));
+      final int fractionDigits =
+          decimals >= 0 ? decimals : Math.max(1, FLOAT_SIGNIFICANT_DIGITS - integerDigits);
+      length += integerDigits;
+      length += fractionDigits > 0 ? fractionDigits + 1 : 0;
+    }
+    return length;
+  }
+
+  /**
+   * Gets the TVQ value of the specified string or mapped string data point, using the dictionary
+   * instance of the value if the payload has a value dictionary.
+   *
+   * @param dataPoint the string or mapped string data point
+   * @return the TVQ value
+   * @since 1.1.0
+   */
+  private String getStringTvqValue(DataPoint dataPoint) {
+    String stringValue = CanaryTagValueDictionary.getStringValue(dataPoint);
+    if (valueDictionary != null) {
+      stringValue = valueDictionary.getValue(dataPoint.getTagName(), stringValue);
+    }
+    return stringValue;
+  }
+
+  /**
+   * Updates the enqueue and sample time tracking of the payload with the specified data point,
+   * which has just been added to the payload. The sample timestamp of the data point is used even
+   * if the data point was added with a different tvq timestamp, so that the lag of the original
+   * sample is measured.
+   *
+   * @param dataPoint the data point which has been added
+   * @since 1.1.0
+   */
+  private void trackSampleTime(DataPoint dataPoint) {
+    final long enqueueTimeMillis = System.currentTimeMillis();
+    if (firstEnqueueTimeMillis == -1) {
+      firstEnqueueTimeMillis = enqueueTimeMillis;
+    }
+
+    final long sampleTimeMillis = getSampleTimeMillis(dataPoint);
+    if (sampleTimeMillis != -1) {
+      if (minSampleTimeMillis == -1 || sampleTimeMillis < minSampleTimeMillis) {
+        minSampleTimeMillis = sampleTimeMillis;
+      }
+      if (sampleTimeMillis > maxSampleTimeMillis) {
+        maxSampleTimeMillis = sampleTimeMillis;
+      }
+      final long sampleToEnqueueMillis = enqueueTimeMillis - sampleTimeMillis;
+      if (sampleToEnqueueMillis > maxSampleToEnqueueMillis) {
+        maxSampleToEnqueueMillis = sampleToEnqueueMillis;
+      }
+    }
+  }
+
+  /**
+   * Gets the sample timestamp (in milliseconds since epoch) of the specified data point. Data point
+   * timestamps are stored as a string of seconds since epoch.
+   *
+   * @param dataPoint the data point
+   * @return the sample timestamp of the data point, or -1 if it is missing or invalid
+   * @since 1.1.0
+   */
+  private static long getSampleTimeMillis(DataPoint dataPoint) {
+    long sampleTimeMillis = -1;
+    final String timeStamp = dataPoint.getTimeStamp();
+    if (timeStamp != null) {
+      try {
+        sampleTimeMillis = Long.parseLong(timeStamp) * 1000;
+      } catch (NumberFormatException e) {
+        Logger.LOG_DEBUG(
+            "Unable to parse data point timestamp " + timeStamp + " for lag tracking.");
+      }
+    }
+    return sampleTimeMillis;
+  }
+
   /**
    * Gets a boolean indicating whether the payload has reached the maximum number of data points.
    *
@@ -172,7 +450,20 @@ public class CanaryDataPayload {
    * @since 1.0.0
    */
   public synchronized boolean isMaxTvqs() {
-    return MAX_TVQS > 0 && tvqsJson.length() >= MAX_TVQS;
+    return MAX_TVQS > 0 && !isSealed() && tvqsJson.length() >= MAX_TVQS;
+  }
+
+  /**
+   * Gets a boolean indicating whether the specified number of data points fits within the maximum
+   * number of data points of the payload. The tvqs of the data points are not checked.
+   *
+   * @param dataPointCount the number of data points to check
+   * @return {@code true} if the data points fit in the payload, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public synchronized boolean canAddDataPointCount(int dataPointCount) {
+    return !isSealed()
+        && (MAX_DATA_POINTS <= 0 || dataPointsAdded + dataPointCount <= MAX_DATA_POINTS);
   }
 
   /**
@@ -189,7 +480,8 @@ public class CanaryDataPayload {
    * @since 1.0.0
    */
   public synchronized boolean canAddDataPoint(DataPoint dataPoint) {
-    return !isMaxDataPoints()
+    return !isSealed()
+        && !isMaxDataPoints()
         && canAddTvq(CanaryDataUtils.getTvqNameForTagName(dataPoint.getTagName()));
   }
 
@@ -208,19 +500,178 @@ public class CanaryDataPayload {
    */
   public synchronized boolean canAddTvq(String tvqName) {
     // Return if max tvqs has been reached and tvq already exists in payload
-    return !isMaxTvqs() || tvqsJson.has(tvqName);
+    return !isSealed() && (!isMaxTvqs() || tvqsJson.has(tvqName));
   }
 
   /**
-   * Gets the payload as a built {@link SCHttpPostRequestInfo} object for sending to Canary.
+   * Gets the number of data points which have been added to the payload.
    *
-   * <p>The payload is built as a {@link SCHttpPostRequestInfo} object using the {@link
-   * CanaryApiRequestBuilder#getStoreDataRequest(JSONObject)} method.
+   * @return the number of data points in the payload
+   * @since 1.1.0
+   */
+  public synchronized int getDataPointCount() {
+    return dataPointsAdded;
+  }
+
+  /**
+   * Seals the payload. Once sealed, no more data points can be added to the payload, and the tvqs
+   * of the payload are serialized to a JSON string which is available using {@link
+   * #getTvqsJsonString()}. Sealing a payload which is already sealed has no effect.
    *
-   * @return the payload as a built {@link SCHttpPostRequestInfo} object
-   * @since 1.0.0
+   * @since 1.1.0
+   */
+  public synchronized void seal() {
+    if (!isSealed()) {
+      sealedTvqsJsonString = tvqsJson.toString();
+      sealedTvqsJsonSizeBytes = getUtf8SizeBytes(sealedTvqsJsonString);
+      tvqsJson = null;
+      sealTimeMillis = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Gets a boolean indicating whether the payload has been sealed.
+   *
+   * @return {@code true} if the payload has been sealed, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public synchronized boolean isSealed() {
+    return sealTimeMillis != -1;
+  }
+
+  /**
+   * Gets the time (in milliseconds since epoch) that the payload was sealed.
+   *
+   * @return the time that the payload was sealed, or -1 if the payload has not been sealed
+   * @since 1.1.0
+   */
+  public synchronized long getSealTimeMillis() {
+    return sealTimeMillis;
+  }
+
+  /**
+   * Gets the serialized JSON string of the payload tvqs, for use with the {@link
+   * com.hms_networks.sc.canary.api.CanaryApiRequestBuilder#getStoreDataRequest(
+   * com.hms_networks.sc.canary.api.SessionManager, String)} method.
+   *
+   * @return the serialized JSON string of the payload tvqs, or null if the payload has not been
+   *     sealed
+   * @since 1.1.0
+   */
+  public synchronized String getTvqsJsonString() {
+    return sealedTvqsJsonString;
+  }
+
+  /**
+   * Gets the size (in bytes) of the serialized JSON string of the payload tvqs, once encoded as
+   * UTF-8 to be sent to Canary.
+   *
+   * @return the size of the serialized JSON string of the payload tvqs (in bytes), or 0 if the
+   *     payload has not been sealed
+   * @since 1.1.0
+   */
+  public synchronized int getTvqsJsonSizeBytes() {
+    return sealedTvqsJsonSizeBytes;
+  }
+
+  /**
+   * Gets the size (in bytes) of the specified string once encoded as UTF-8. The size is counted
+   * from the characters of the string, so that the string does not need to be encoded.
+   *
+   * @param string the string to get the encoded size of
+   * @return the size of the string encoded as UTF-8 (in bytes)
+   * @since 1.1.0
+   */
+  static int getUtf8SizeBytes(String string) {
+    final int length = string.length();
+    int sizeBytes = 0;
+    for (int i = 0; i < length; i++) {
+      final char c = string.charAt(i);
+      if (c < 0x80) {
+        sizeBytes += 1;
+      } else if (c < 0x800) {
+        sizeBytes += 2;
+      } else if (c >= '\uD800'
+          && c <= '\uDBFF'
+          && i + 1 < length
+          && string.charAt(i + 1) >= '\uDC00'
+          && string.charAt(i + 1) <= '\uDFFF') {
+        // A surrogate pair is encoded as a single four byte code point
+        sizeBytes += 4;
+        i++;
+      } else {
+        sizeBytes += 3;
+      }
+    }
+    return sizeBytes;
+  }
+
+  /**
+   * Gets the time (in milliseconds since epoch) that the first data point was added to the payload.
+   *
+   * @return the time that the first data point was added, or -1 if no data points have been added
+   * @since 1.1.0
+   */
+  public synchronized long getFirstEnqueueTimeMillis() {
+    return firstEnqueueTimeMillis;
+  }
+
+  /**
+   * Gets the sample timestamp (in milliseconds since epoch) of the oldest data point in the
+   * payload.
+   *
+   * @return the oldest sample timestamp, or -1 if no data points with a known sample timestamp
+   *     have been added
+   * @since 1.1.0
+   */
+  public synchronized long getMinSampleTimeMillis() {
+    return minSampleTimeMillis;
+  }
+
+  /**
+   * Gets the sample timestamp (in milliseconds since epoch) of the newest data point in the
+   * payload.
+   *
+   * @return the newest sample timestamp, or -1 if no data points with a known sample timestamp
+   *     have been added
+   * @since 1.1.0
+   */
+  public synchronized long getMaxSampleTimeMillis() {
+    return maxSampleTimeMillis;
+  }
+
+  /**
+   * Gets the maximum time (in milliseconds) between the sample timestamp of a data point in the
+   * payload and the time it was added to the payload.
+   *
+   * @return the maximum sample to enqueue time, or -1 if no data points with a known sample
+   *     timestamp have been added
+   * @since 1.1.0
+   */
+  public synchronized long getMaxSampleToEnqueueMillis() {
+    return maxSampleToEnqueueMillis;
+  }
+
+  /**
+   * Records that the payload is being sent to a Canary target at the specified time. Only the
+   * first send of the payload (to any target) is recorded.
+   *
+   * @param sendTimeMillis the time (in milliseconds since epoch) that the payload is being sent
+   * @since 1.1.0
+   */
+  public synchronized void markSent(long sendTimeMillis) {
+    if (firstSendTimeMillis == -1) {
+      firstSendTimeMillis = sendTimeMillis;
+    }
+  }
+
+  /**
+   * Gets the time (in milliseconds since epoch) that the payload was first sent to a Canary target.
+   *
+   * @return the time that the payload was first sent, or -1 if the payload has not been sent
+   * @since 1.1.0
    */
-  public synchronized SCHttpPostRequestInfo getPayload() {
-    return CanaryApiRequestBuilder.getStoreDataRequest(tvqsJson);
+  public synchronized long getFirstSendTimeMillis() {
+    return firstSendTimeMillis;
   }
 }
@@ -0,0 +1,337 @@
+package com.hms_networks.sc.canary.data;
+
+import java.util.LinkedList;
+
+/**
+ * Class for tracking the position of a single consumer, such as the data poster thread of a Canary
+ * target, in a {@link CanaryDataPayloadStream}.
+ *
+ * <p>Each consumer of a stream is given its own cursor, so that each consumer sends and
+ * acknowledges sealed payloads at its own pace.
+ *
+ * <p>A consumer may instead be given a pair of lane cursors, which split its pending payloads into
+ * a live lane and a backfill lane. The live lane always sends the newest payloads, skipping ahead
+ * if more than its maximum number of payloads are pending, and the backfill lane sends the skipped
+ * payloads, oldest first, whenever the live lane has no payloads pending. The backfill cursor
+ * keeps the ranges of payloads skipped by the live lane, and tracks the oldest payload not yet sent
+ * by either lane, so that payloads are retained, dropped and reported as back pressure for the pair
+ * exactly as for a single cursor.
+ *
+ * @since 1.1.0
+ * @author HMS Networks, MU Americas Solution Center
+ */
+public class CanaryDataPayloadCursor {
+
+  /**
+   * The lane of a cursor which sends all pending payloads of its consumer, in order.
+   *
+   * @since 1.1.0
+   */
+  public static final int LANE_ALL = 0;
+
+  /**
+   * The lane of a cursor which sends the newest pending payloads of its consumer.
+   *
+   * @since 1.1.0
+   */
+  public static final int LANE_LIVE = 1;
+
+  /**
+   * The lane of a cursor which sends the pending payloads of its consumer skipped by the live lane,
+   * oldest first.
+   *
+   * @since 1.1.0
+   */
+  public static final int LANE_BACKFILL = 2;
+
+  /**
+   * The friendly name of the cursor, used for logging.
+   *
+   * @since 1.1.0
+   */
+  private final String name;
+
+  /**
+   * The stream which the cursor reads payloads from.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryDataPayloadStream stream;
+
+  /**
+   * The lane of the cursor. One of {@link #LANE_ALL}, {@link #LANE_LIVE} or {@link #LANE_BACKFILL}.
+   *
+   * @since 1.1.0
+   */
+  private final int lane;
+
+  /**
+   * The cursor of the other lane of the same consumer, or null if the cursor is not a lane cursor.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDataPayloadCursor pairedCursor = null;
+
+  /**
+   * The maximum number of payloads which may be pending for a live lane cursor before it skips
+   * ahead to the newest payloads.
+   *
+   * @since 1.1.0
+   */
+  private int liveLaneMaxPendingPayloads = 1;
+
+  /**
+   * The ranges of payloads skipped by the live lane which have not been sent by a backfill lane
+   * cursor, oldest first. Each range is an array of the first sequence number of the range and the
+   * sequence number after the range.
+   *
+   * @since 1.1.0
+   */
+  private final LinkedList skippedRanges = new LinkedList();
+
+  /**
+   * The sequence number of the next sealed payload to be sent by the consumer of the cursor.
+   *
+   * @since 1.1.0
+   */
+  private long nextSequenceNumber;
+
+  /**
+   * The number of payloads which were dropped for the consumer of the cursor because it fell too
+   * far behind the other consumers of the stream.
+   *
+   * @since 1.1.0
+   */
+  private long droppedPayloadCount = 0;
+
+  /**
+   * Constructor for a {@link CanaryDataPayloadCursor} with the specified name, reading the
+   * specified stream starting at the specified sequence number.
+   *
+   * @param name the friendly name of the cursor
+   * @param stream the stream which the cursor reads payloads from
+   * @param nextSequenceNumber the sequence number of the first payload to send
+   * @since 1.1.0
+   */
+  CanaryDataPayloadCursor(String name, CanaryDataPayloadStream stream, long nextSequenceNumber) {
+    this(name, stream, nextSequenceNumber, LANE_ALL);
+  }
+
+  /**
+   * Constructor for a {@link CanaryDataPayloadCursor} of the specified lane with the specified
+   * name, reading the specified stream starting at the specified sequence number.
+   *
+   * @param name the friendly name of the cursor
+   * @param stream the stream which the cursor reads payloads from
+   * @param nextSequenceNumber the sequence number of the first payload to send
+   * @param lane the lane of the cursor
+   * @since 1.1.0
+   */
+  CanaryDataPayloadCursor(
+      String name, CanaryDataPayloadStream stream, long nextSequenceNumber, int lane) {
+    this.name = name;
+    this.stream = stream;
+    this.nextSequenceNumber = nextSequenceNumber;
+    this.lane = lane;
+  }
+
+  /**
+   * Gets the friendly name of the cursor.
+   *
+   * @return the friendly name of the cursor
+   * @since 1.1.0
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the stream which the cursor reads payloads from.
+   *
+   * @return the stream of the cursor
+   * @since 1.1.0
+   */
+  public CanaryDataPayloadStream getStream() {
+    return stream;
+  }
+
+  /**
+   * Gets the lane of the cursor.
+   *
+   * @return one of {@link #LANE_ALL}, {@link #LANE_LIVE} or {@link #LANE_BACKFILL}
+   * @since 1.1.0
+   */
+  public int getLane() {
+    return lane;
+  }
+
+  /**
+   * Gets the cursor of the other lane of the same consumer.
+   *
+   * @return the backfill cursor of a live cursor, the live cursor of a backfill cursor, or null if
+   *     the cursor is not a lane cursor
+   * @since 1.1.0
+   */
+  public CanaryDataPayloadCursor getPairedCursor() {
+    return pairedCursor;
+  }
+
+  /**
+   * Pairs the specified live and backfill lane cursors of the same consumer.
+   *
+   * @param liveCursor the live lane cursor
+   * @param backfillCursor the backfill lane cursor
+   * @param liveLaneMaxPendingPayloads the maximum number of payloads which may be pending for the
+   *     live lane before it skips ahead to the newest payloads
+   * @since 1.1.0
+   */
+  static void pair(
+      CanaryDataPayloadCursor liveCursor,
+      CanaryDataPayloadCursor backfillCursor,
+      int liveLaneMaxPendingPayloads) {
+    liveCursor.pairedCursor = backfillCursor;
+    liveCursor.liveLaneMaxPendingPayloads = liveLaneMaxPendingPayloads;
+    backfillCursor.pairedCursor = liveCursor;
+  }
+
+  /**
+   * Gets the maximum number of payloads which may be pending for a live lane cursor before it skips
+   * ahead to the newest payloads.
+   *
+   * @return the maximum number of pending live payloads
+   * @since 1.1.0
+   */
+  int getLiveLaneMaxPendingPayloads() {
+    return liveLaneMaxPendingPayloads;
+  }
+
+  /**
+   * Gets the number of payloads which were dropped for the consumer of the cursor because it fell
+   * too far behind the other consumers of the stream.
+   *
+   * @return the number of dropped payloads
+   * @since 1.1.0
+   */
+  public synchronized long getDroppedPayloadCount() {
+    return droppedPayloadCount;
+  }
+
+  /**
+   * Gets the sequence number of the next sealed payload to be sent by the consumer of the cursor.
+   *
+   * @return the sequence number of the next payload
+   * @since 1.1.0
+   */
+  synchronized long getNextSequenceNumber() {
+    return nextSequenceNumber;
+  }
+
+  /**
+   * Advances the cursor by the specified number of payloads.
+   *
+   * @param payloadCount the number of payloads to advance by
+   * @since 1.1.0
+   */
+  synchronized void advance(long payloadCount) {
+    nextSequenceNumber += payloadCount;
+  }
+
+  /**
+   * Advances the cursor by the specified number of payloads, which are dropped instead of sent.
+   *
+   * <p>For a backfill lane cursor, the dropped payloads may include payloads between its skipped
+   * ranges which have already been sent by the live lane. Only the skipped payloads, and the
+   * payloads not yet sent by the live lane, are counted as dropped.
+   *
+   * @param payloadCount the number of payloads to advance by
+   * @return the number of payloads counted as dropped
+   * @since 1.1.0
+   */
+  synchronized long drop(long payloadCount) {
+    final long endSequenceNumber = nextSequenceNumber + payloadCount;
+    long droppedCount = payloadCount;
+    if (lane == LANE_BACKFILL) {
+      droppedCount =
+          getSkippedPayloadCount(endSequenceNumber)
+              + Math.max(0, endSequenceNumber - pairedCursor.getNextSequenceNumber());
+    }
+    nextSequenceNumber = endSequenceNumber;
+    droppedPayloadCount += droppedCount;
+    return droppedCount;
+  }
+
+  /**
+   * Moves the cursor forward to the specified sequence number, if it is behind it. Payloads which
+   * are passed over are not counted as dropped.
+   *
+   * @param sequenceNumber the sequence number to move the cursor to
+   * @since 1.1.0
+   */
+  synchronized void advanceTo(long sequenceNumber) {
+    nextSequenceNumber = Math.max(nextSequenceNumber, sequenceNumber);
+  }
+
+  /**
+   * Adds a range of payloads skipped by the live lane to a backfill lane cursor.
+   *
+   * @param firstSequenceNumber the sequence number of the first skipped payload
+   * @param endSequenceNumber the sequence number after the last skipped payload
+   * @since 1.1.0
+   */
+  synchronized void addSkippedRange(long firstSequenceNumber, long endSequenceNumber) {
+    skippedRanges.add(new long[] {firstSequenceNumber, endSequenceNumber});
+  }
+
+  /**
+   * Gets the number of payloads skipped by the live lane which have not been sent by a backfill
+   * lane cursor.
+   *
+   * @return the number of skipped payloads pending
+   * @since 1.1.0
+   */
+  synchronized int getSkippedPayloadCount() {
+    return getSkippedPayloadCount(Long.MAX_VALUE);
+  }
+
+  /**
+   * Gets the number of payloads skipped by the live lane which have not been sent by a backfill
+   * lane cursor, and come before the specified sequence number.
+   *
+   * @param endSequenceNumber the sequence number after the last payload to count
+   * @return the number of skipped payloads pending before the sequence number
+   * @since 1.1.0
+   */
+  private int getSkippedPayloadCount(long endSequenceNumber) {
+    long skippedPayloadCount = 0;
+    for (int rangeIndex = 0; rangeIndex < skippedRanges.size(); rangeIndex++) {
+      long[] skippedRange = (long[]) skippedRanges.get(rangeIndex);
+      skippedPayloadCount +=
+          Math.max(
+              0,
+              Math.min(skippedRange[1], endSequenceNumber)
+                  - Math.max(skippedRange[0], nextSequenceNumber));
+    }
+    return (int) skippedPayloadCount;
+  }
+
+  /**
+   * Moves a backfill lane cursor to the oldest payload which has not been sent by either lane,
+   * removing skipped ranges which have been sent (or dropped). If no skipped payloads are pending,
+   * the cursor is moved to the next payload of the live lane.
+   *
+   * @param liveNextSequenceNumber the sequence number of the next payload of the live lane
+   * @since 1.1.0
+   */
+  synchronized void updateSkippedRanges(long liveNextSequenceNumber) {
+    while (!skippedRanges.isEmpty()
+        && ((long[]) skippedRanges.getFirst())[1] <= nextSequenceNumber) {
+      skippedRanges.removeFirst();
+    }
+
+    if (skippedRanges.isEmpty()) {
+      nextSequenceNumber = liveNextSequenceNumber;
+    } else {
+      nextSequenceNumber = Math.max(nextSequenceNumber, ((long[]) skippedRanges.getFirst())[0]);
+    }
+  }
+}
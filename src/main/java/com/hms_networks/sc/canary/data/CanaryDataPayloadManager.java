@@ -1,11 +1,14 @@
 package com.hms_networks.sc.canary.data;
 
 import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
-import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
-import com.hms_networks.americas.sc.extensions.system.time.SCTimeUtils;
+import com.hms_networks.sc.canary.CanaryConnectorMain;
+import com.hms_networks.sc.canary.filter.CanaryTagFilter;
+import com.hms_networks.sc.canary.filter.CanaryTagFilterResult;
+import com.hms_networks.sc.canary.filter.CanaryTagFilterSettings;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -13,17 +16,130 @@ import java.util.Map;
  * Class for creating and storing Canary data payloads ({@link CanaryDataPayload}s) to be sent to
  * the Canary API.
  *
+ * <p>Tags are partitioned across one or more shards using a {@link CanaryTagShardRing}, and the
+ * payloads of each shard are built in a separate {@link CanaryDataPayloadStream}. Each stream is
+ * read by a data poster thread for each Canary target, through its own {@link
+ * CanaryDataPayloadCursor}. All data points of a tag are therefore sent in order by a single
+ * session, while the shards are sent to Canary in parallel.
+ *
+ * <p>Tags may also be assigned to {@link CanaryTagPriorityClasses}, in which case each priority
+ * class of each shard has its own stream. A data poster thread reads the streams of every priority
+ * class of its shard through a {@link CanaryDataPayloadScheduler}, which shares the capacity of the
+ * thread between the priority classes by their weights.
+ *
  * @since 1.0.0
  * @author HMS Networks, MU Americas Solution Center
  */
 public class CanaryDataPayloadManager {
 
   /**
-   * List of data payloads pending to be sent to the Canary API.
+   * The default maximum number of sealed payloads which may be pending for a Canary target.
    *
-   * @since 1.0.0
+   * @since 1.1.0
+   */
+  public static final int DEFAULT_MAX_PENDING_PAYLOADS = 50;
+
+  /**
+   * Streams of data payloads pending to be sent to the Canary API, one for each priority class of
+   * each shard. The stream of a priority class and shard is at the index of the priority class
+   * times the number of shards, plus the index of the shard.
+   *
+   * @since 1.1.0
+   */
+  private static CanaryDataPayloadStream[] dataPayloadStreams = {
+    new CanaryDataPayloadStream(DEFAULT_MAX_PENDING_PAYLOADS)
+  };
+
+  /**
+   * Consistent hash ring used to assign tags to shards.
+   *
+   * @since 1.1.0
+   */
+  private static CanaryTagShardRing tagShardRing = new CanaryTagShardRing(1);
+
+  /**
+   * The priority classes which tags are assigned to.
+   *
+   * @since 1.1.0
    */
-  public static LinkedList dataPayloadsPending = new LinkedList();
+  private static CanaryTagPriorityClasses tagPriorityClasses = createDefaultPriorityClasses();
+
+  /**
+   * Batches of data points to be added to the stream of each priority class of each shard, reused
+   * for each list of data points.
+   *
+   * @since 1.1.0
+   */
+  private static CanaryDataPointBatch[] shardBatches = {new CanaryDataPointBatch()};
+
+  /**
+   * Streams of late data payloads pending to be sent to the Canary API by sessions with insert
+   * replace data enabled, one for each shard, or an empty array if the late data lane is disabled.
+   *
+   * @since 1.1.0
+   */
+  private static CanaryDataPayloadStream[] latePayloadStreams = new CanaryDataPayloadStream[0];
+
+  /**
+   * Batches of late data points to be added to the late stream of each shard, reused for each list
+   * of data points.
+   *
+   * @since 1.1.0
+   */
+  private static CanaryDataPointBatch[] lateShardBatches = new CanaryDataPointBatch[0];
+
+  /**
+   * Buffer which releases the data points of each tag in order of sample time, or null if data
+   * points are added in the order they are polled.
+   *
+   * @since 1.1.0
+   */
+  private static CanaryTagReorderBuffer tagReorderBuffer = null;
+
+  /**
+   * Batch of data points released by the reorder buffer, reused for each list of data points.
+   *
+   * @since 1.1.0
+   */
+  private static final CanaryDataPointBatch releasedBatch = new CanaryDataPointBatch();
+
+  /**
+   * Batch of late data points reported by the reorder buffer, reused for each list of data points.
+   *
+   * @since 1.1.0
+   */
+  private static final CanaryDataPointBatch lateBatch = new CanaryDataPointBatch();
+
+  /**
+   * Boolean tracking whether data polling has been blocked due to back pressure from the payload
+   * stream.
+   *
+   * @since 1.1.0
+   */
+  private static boolean dataPollingBlockedByBackPressure = false;
+
+  /**
+   * Filter applied to data points before they are added to a payload, or null to add every data
+   * point.
+   *
+   * @since 1.1.0
+   */
+  private static CanaryTagFilter tagFilter = null;
+
+  /**
+   * The result of filtering a data point with the tag filter, reused for each data point.
+   *
+   * @since 1.1.0
+   */
+  private static final CanaryTagFilterResult tagFilterResult = new CanaryTagFilterResult();
+
+  /**
+   * Boolean indicating whether string and mapped string data points which repeat the last value
+   * and quality of their tag are collapsed, rather than added to a payload.
+   *
+   * @since 1.1.0
+   */
+  private static boolean collapseRepeatedStringValues = false;
 
   /**
    * Adds the specified {@link List} of {@link DataPoint}s to a pending data payload, multiple
@@ -34,59 +150,175 @@ public class CanaryDataPayloadManager {
    * timestamps to a single timestamp. If this parameter is null, the timestamp of each data point
    * will be used.
    *
+   * <p>The data points are first filtered and sorted into a {@link CanaryDataPointBatch} for each
+   * shard, and each batch is then added to the stream of its shard under a single acquisition of
+   * the stream lock.
+   *
    * @param dataPoints list of data points to add
    * @param dataPointTimestampOverride timestamp to use for all data points or null to use data
    *     point timestamps
+   * @param keepBatchesTogether {@code true} to seal the open payload of a shard before its batch if
+   *     it cannot fit the whole batch, so that a time slice is not split across payloads
    * @return {@code true} if all data points were added to a payload, {@code false} otherwise
    * @throws Exception if an error occurs while adding the data points
    * @since 1.0.0
    */
-  private static boolean addDataPointsList(List dataPoints, String dataPointTimestampOverride)
+  private static boolean addDataPointsList(
+      List dataPoints, String dataPointTimestampOverride, boolean keepBatchesTogether)
       throws Exception {
-    // Create boolean to track whether all data points were added
-    boolean allDataPointsAdded = true;
-
-    // Loop through data points
+    // Sort data points into the batch of their shard, in order of sample time if reordering
     for (int dataPointIndex = 0; dataPointIndex < dataPoints.size(); dataPointIndex++) {
       DataPoint dataPoint = (DataPoint) dataPoints.get(dataPointIndex);
+      if (CanaryMetricsRegistry.TOP_TAGS_BY_DATA_POINTS.isEnabled()) {
+        CanaryMetricsRegistry.TOP_TAGS_BY_DATA_POINTS.add(dataPoint.getTagName(), 1);
+      }
+      if (tagReorderBuffer != null) {
+        tagReorderBuffer.add(
+            dataPoint,
+            dataPointTimestampOverride,
+            releasedBatch,
+            latePayloadStreams.length > 0 ? lateBatch : releasedBatch);
+      } else {
+        filterToShardBatch(dataPoint, dataPointTimestampOverride);
+      }
+    }
+    if (tagReorderBuffer != null) {
+      tagReorderBuffer.release(releasedBatch);
+      for (int releasedIndex = 0; releasedIndex < releasedBatch.size(); releasedIndex++) {
+        filterToShardBatch(
+            releasedBatch.getDataPoint(releasedIndex),
+            releasedBatch.getTimestampOverride(releasedIndex));
+      }
+      releasedBatch.clear();
 
-      // Check if data point can be added to an existing payload
-      boolean dataPointAdded = false;
-      for (int pendingPayloadIndex = 0;
-          pendingPayloadIndex < dataPayloadsPending.size();
-          pendingPayloadIndex++) {
-        CanaryDataPayload dataPayload =
-            (CanaryDataPayload) dataPayloadsPending.get(pendingPayloadIndex);
-        // Attempt to add data point to existing payload
-        if (dataPointTimestampOverride != null) {
-          dataPointAdded = dataPayload.addDataPoint(dataPoint, dataPointTimestampOverride);
-        } else {
-          dataPointAdded = dataPayload.addDataPoint(dataPoint);
-        }
+      // Late data points bypass the filter, as they are older than the filter state of their tag
+      for (int lateIndex = 0; lateIndex < lateBatch.size(); lateIndex++) {
+        final DataPoint lateDataPoint = lateBatch.getDataPoint(lateIndex);
+        lateShardBatches[tagShardRing.getShardIndex(lateDataPoint.getTagName())].add(
+            lateDataPoint,
+            lateBatch.getTimestampOverride(lateIndex),
+            CanaryTagFilterSettings.FULL_PRECISION);
+      }
+      lateBatch.clear();
+    }
 
-        // Break out of loop if added successfully
-        if (dataPointAdded) {
-          break;
-        }
+    // Add the batch of each shard to its stream
+    boolean allDataPointsAdded =
+        addShardBatches(shardBatches, dataPayloadStreams, keepBatchesTogether);
+    final boolean keepLateBatchesTogether = false;
+    if (!addShardBatches(lateShardBatches, latePayloadStreams, keepLateBatchesTogether)) {
+      allDataPointsAdded = false;
+    }
+    return allDataPointsAdded;
+  }
+
+  /**
+   * Filters the specified {@link DataPoint} with the tag filter, if any, and adds the data points
+   * to report to the batch of their shard.
+   *
+   * @param dataPoint data point to add
+   * @param dataPointTimestampOverride timestamp to use for the data point or null to use the data
+   *     point timestamp
+   * @since 1.1.0
+   */
+  private static void filterToShardBatch(DataPoint dataPoint, String dataPointTimestampOverride) {
+    if (tagFilter != null) {
+      // Add the data points reported by the tag filter, which may include held data points
+      tagFilterResult.clear();
+      tagFilter.filter(dataPoint, dataPointTimestampOverride, tagFilterResult);
+      for (int resultIndex = 0; resultIndex < tagFilterResult.size(); resultIndex++) {
+        addToShardBatch(
+            tagFilterResult.getDataPoint(resultIndex),
+            tagFilterResult.getTimestampOverride(resultIndex),
+            tagFilterResult.getDecimals(resultIndex));
       }
+    } else {
+      addToShardBatch(
+          dataPoint, dataPointTimestampOverride, CanaryTagFilterSettings.FULL_PRECISION);
+    }
+  }
 
-      // Add data point to new payload if it could not be added to an existing payload
-      if (!dataPointAdded) {
-        CanaryDataPayload dataPayload = new CanaryDataPayload();
-        if (dataPointTimestampOverride != null) {
-          dataPointAdded = dataPayload.addDataPoint(dataPoint, dataPointTimestampOverride);
-        } else {
-          dataPointAdded = dataPayload.addDataPoint(dataPoint);
+  /**
+   * Flushes the tag filter, if any, adding the data points which it reports without waiting for a
+   * later data point of their tag to the streams of their shards. This must be called periodically
+   * by the thread which adds data points, as Ewon tags are logged on change and a data point held
+   * back by the filter would otherwise wait indefinitely for a later data point of its tag.
+   *
+   * @param timeSeconds the current time (in seconds since epoch)
+   * @return {@code true} if all data points were added to a payload, {@code false} otherwise
+   * @throws Exception if an error occurs while adding the data points
+   * @since 1.1.0
+   */
+  public static boolean flushTagFilter(long timeSeconds) throws Exception {
+    boolean allDataPointsAdded = true;
+    if (tagFilter != null) {
+      tagFilterResult.clear();
+      tagFilter.flush(timeSeconds, tagFilterResult);
+      if (tagFilterResult.size() > 0) {
+        for (int resultIndex = 0; resultIndex < tagFilterResult.size(); resultIndex++) {
+          addToShardBatch(
+              tagFilterResult.getDataPoint(resultIndex),
+              tagFilterResult.getTimestampOverride(resultIndex),
+              tagFilterResult.getDecimals(resultIndex));
         }
-        dataPayloadsPending.add(dataPayload);
+        final boolean keepBatchesTogether = false;
+        allDataPointsAdded =
+            addShardBatches(shardBatches, dataPayloadStreams, keepBatchesTogether);
+        updateDataPollingBlocked();
       }
+    }
+    return allDataPointsAdded;
+  }
 
-      // Check if data point was ultimately added
-      if (!dataPointAdded) {
-        allDataPointsAdded = false;
+  /**
+   * Adds the specified {@link DataPoint} to the batch of its priority class and shard.
+   *
+   * @param dataPoint data point to add
+   * @param dataPointTimestampOverride timestamp to use for the data point or null to use the data
+   *     point timestamp
+   * @param decimals the number of decimals to round float values to, or {@link
+   *     CanaryTagFilterSettings#FULL_PRECISION}
+   * @since 1.1.0
+   */
+  private static void addToShardBatch(
+      DataPoint dataPoint, String dataPointTimestampOverride, int decimals) {
+    final String tagName = dataPoint.getTagName();
+    final int streamIndex =
+        tagPriorityClasses.getPriorityClassIndex(tagName) * tagShardRing.getShardCount()
+            + tagShardRing.getShardIndex(tagName);
+    shardBatches[streamIndex].add(dataPoint, dataPointTimestampOverride, decimals);
+  }
+
+  /**
+   * Adds each of the specified batches to the specified stream at the same index, and clears the
+   * batches.
+   *
+   * @param batches the batches to add
+   * @param streams the stream of each batch
+   * @param keepBatchesTogether {@code true} to seal the open payload of a shard before its batch if
+   *     it cannot fit the whole batch
+   * @return {@code true} if all data points were added to a payload, {@code false} otherwise
+   * @throws Exception if an error occurs while adding the data points
+   * @since 1.1.0
+   */
+  private static boolean addShardBatches(
+      CanaryDataPointBatch[] batches,
+      CanaryDataPayloadStream[] streams,
+      boolean keepBatchesTogether)
+      throws Exception {
+    boolean allDataPointsAdded = true;
+    for (int streamIndex = 0; streamIndex < batches.length; streamIndex++) {
+      CanaryDataPointBatch batch = batches[streamIndex];
+      if (batch.size() > 0) {
+        try {
+          if (!streams[streamIndex].addDataPointBatch(batch, keepBatchesTogether)) {
+            allDataPointsAdded = false;
+          }
+        } finally {
+          batch.clear();
+        }
       }
     }
-
     return allDataPointsAdded;
   }
 
@@ -103,7 +335,11 @@ public class CanaryDataPayloadManager {
    */
   public static boolean addDataPointsList(List dataPoints) throws Exception {
     final String dataPointTimestampOverride = null;
-    return addDataPointsList(dataPoints, dataPointTimestampOverride);
+    final boolean keepBatchesTogether = false;
+    boolean allDataPointsAdded =
+        addDataPointsList(dataPoints, dataPointTimestampOverride, keepBatchesTogether);
+    updateDataPollingBlocked();
+    return allDataPointsAdded;
   }
 
   /**
@@ -111,7 +347,10 @@ public class CanaryDataPayloadManager {
    * payloads, or a new payload, as necessary.
    *
    * <p>This method uses the aggregated timestamp for each list of data points, as specified by the
-   * key of the map.
+   * key of the map. The time slices are added in order of their aggregated timestamps, each with
+   * its timestamp formatted once, or taken from the {@link CanaryTimestampCache} if the same second
+   * was formatted recently. The data points of a time slice are added to the stream of each shard
+   * as a single batch, which starts a new payload if the open payload cannot fit it.
    *
    * @param dataPoints map of data points to add
    * @return {@code true} if all data points were added to a payload, {@code false} otherwise
@@ -122,63 +361,456 @@ public class CanaryDataPayloadManager {
     // Create boolean to track whether all data points were added
     boolean allDataPointsAdded = true;
 
-    // Iterate through map keys (aggregated timestamps)
-    Iterator iterator = dataPoints.keySet().iterator();
-    while (iterator.hasNext()) {
+    // Sort map keys (aggregated timestamps), as the map is not ordered
+    Object[] timestamps = dataPoints.keySet().toArray();
+    Arrays.sort(timestamps);
+
+    final boolean keepBatchesTogether = true;
+    for (int timestampIndex = 0; timestampIndex < timestamps.length; timestampIndex++) {
       // Get timestamp as Date and ISO 8601 formatted string
-      Date timestamp = (Date) iterator.next();
+      Date timestamp = (Date) timestamps[timestampIndex];
       String timestampIso8601FormattedString =
-          SCTimeUtils.getIso8601FormattedTimestampForDate(timestamp);
+          CanaryTimestampCache.getIso8601FormattedTimestamp(timestamp);
 
       // Get list of data points for timestamp
       List dataPointsForTimeStamp = (List) dataPoints.get(timestamp);
 
       // Add data points to payload
       boolean dataPointsAdded =
-          addDataPointsList(dataPointsForTimeStamp, timestampIso8601FormattedString);
+          addDataPointsList(
+              dataPointsForTimeStamp, timestampIso8601FormattedString, keepBatchesTogether);
       if (!dataPointsAdded) {
         allDataPointsAdded = false;
       }
     }
+
+    updateDataPollingBlocked();
     return allDataPointsAdded;
   }
 
   /**
-   * Gets the {@link SCHttpPostRequestInfo} of the next payload to be sent to the Canary API. This
-   * method returns the {@link SCHttpPostRequestInfo} of the next payload to be sent to the Canary
-   * API, or null if no payloads are pending.
+   * Initializes the payload streams of the payload manager, with the specified reorder window and
+   * late data lane. This method must be called before any data points are added, and before any
+   * payload cursors are created.
    *
-   * @return the {@link SCHttpPostRequestInfo} of next payload to be sent to the Canary API, or null
-   *     if no payloads are pending
-   * @since 1.0.0
+   * <p>If the reorder window is greater than 0, the data points of each tag are held for up to the
+   * reorder window, and released in order of sample time. If the late data lane is enabled, data
+   * points older than the last released data point of their tag are added to a separate late
+   * stream for each shard, to be sent by sessions with insert replace data enabled. Otherwise, late
+   * data points are added in the order they are polled.
+   *
+   * @param shardCount the number of shards to partition tags across
+   * @param maxPendingPayloads the maximum number of pending payloads, or -1 to disable
+   * @param reorderWindowSecs the reorder window (in seconds), or 0 to disable reordering
+   * @param lateDataLaneEnabled {@code true} to add late data points to separate late streams
+   * @since 1.1.0
+   */
+  public static synchronized void initialize(
+      int shardCount, int maxPendingPayloads, long reorderWindowSecs, boolean lateDataLaneEnabled) {
+    initialize(
+        shardCount,
+        maxPendingPayloads,
+        reorderWindowSecs,
+        lateDataLaneEnabled,
+        createDefaultPriorityClasses());
+  }
+
+  /**
+   * Initializes the payload streams of the payload manager, with the specified reorder window,
+   * late data lane and tag priority classes. This method must be called before any data points are
+   * added, and before any payload cursors are created.
+   *
+   * <p>Each priority class of each shard is given its own stream, so that the maximum number of
+   * pending payloads applies to each priority class separately, and a backlog of one priority
+   * class does not delay the payloads of another.
+   *
+   * @param shardCount the number of shards to partition tags across
+   * @param maxPendingPayloads the maximum number of pending payloads, or -1 to disable
+   * @param reorderWindowSecs the reorder window (in seconds), or 0 to disable reordering
+   * @param lateDataLaneEnabled {@code true} to add late data points to separate late streams
+   * @param priorityClasses the priority classes which tags are assigned to
+   * @since 1.1.0
+   */
+  public static synchronized void initialize(
+      int shardCount,
+      int maxPendingPayloads,
+      long reorderWindowSecs,
+      boolean lateDataLaneEnabled,
+      CanaryTagPriorityClasses priorityClasses) {
+    tagShardRing = new CanaryTagShardRing(shardCount);
+    tagPriorityClasses = priorityClasses;
+    final int streamCount = priorityClasses.getPriorityClassCount() * shardCount;
+    dataPayloadStreams = createPayloadStreams(streamCount, maxPendingPayloads);
+    shardBatches = createBatches(streamCount);
+    for (int streamIndex = 0; streamIndex < streamCount; streamIndex++) {
+      dataPayloadStreams[streamIndex].setCollapseRepeatedStringValues(
+          collapseRepeatedStringValues);
+    }
+
+    final int lateStreamCount = lateDataLaneEnabled ? shardCount : 0;
+    latePayloadStreams = createPayloadStreams(lateStreamCount, maxPendingPayloads);
+    lateShardBatches = createBatches(lateStreamCount);
+
+    tagReorderBuffer = null;
+    if (reorderWindowSecs > 0 || lateDataLaneEnabled) {
+      tagReorderBuffer = new CanaryTagReorderBuffer(reorderWindowSecs);
+    }
+  }
+
+  /**
+   * Creates the priority classes used when no priority classes are configured, which assign every
+   * tag to the default priority class.
+   *
+   * @return the default priority classes
+   * @since 1.1.0
+   */
+  private static CanaryTagPriorityClasses createDefaultPriorityClasses() {
+    final int defaultWeight = 1;
+    return new CanaryTagPriorityClasses(new ArrayList(), defaultWeight);
+  }
+
+  /**
+   * Creates the specified number of payload streams.
+   *
+   * @param streamCount the number of streams
+   * @param maxPendingPayloads the maximum number of pending payloads, or -1 to disable
+   * @return the array of payload streams
+   * @since 1.1.0
+   */
+  private static CanaryDataPayloadStream[] createPayloadStreams(
+      int streamCount, int maxPendingPayloads) {
+    CanaryDataPayloadStream[] streams = new CanaryDataPayloadStream[streamCount];
+    for (int streamIndex = 0; streamIndex < streamCount; streamIndex++) {
+      streams[streamIndex] = new CanaryDataPayloadStream(maxPendingPayloads);
+    }
+    return streams;
+  }
+
+  /**
+   * Creates the specified number of data point batches.
+   *
+   * @param batchCount the number of batches
+   * @return the array of data point batches
+   * @since 1.1.0
+   */
+  private static CanaryDataPointBatch[] createBatches(int batchCount) {
+    CanaryDataPointBatch[] batches = new CanaryDataPointBatch[batchCount];
+    for (int batchIndex = 0; batchIndex < batchCount; batchIndex++) {
+      batches[batchIndex] = new CanaryDataPointBatch();
+    }
+    return batches;
+  }
+
+  /**
+   * Sets the filter applied to data points before they are added to a payload. Data points which
+   * are filtered out are counted, but are not added to any payload.
+   *
+   * @param filter the tag filter, or null to add every data point
+   * @since 1.1.0
+   */
+  public static synchronized void setTagFilter(CanaryTagFilter filter) {
+    tagFilter = filter;
+  }
+
+  /**
+   * Sets a boolean indicating whether string and mapped string data points which repeat the last
+   * value and quality of their tag are collapsed, rather than added to a payload. This must only be
+   * enabled if every Canary target has extend data enabled, so that Canary carries the last value
+   * of each tag forward in place of the collapsed data points.
+   *
+   * @param collapseRepeatedValues {@code true} to collapse repeated string values
+   * @since 1.1.0
    */
-  public static SCHttpPostRequestInfo getNextPayload() {
-    SCHttpPostRequestInfo nextPayload = null;
-    if (!dataPayloadsPending.isEmpty()) {
-      CanaryDataPayload dataPayload = (CanaryDataPayload) dataPayloadsPending.getFirst();
-      nextPayload = dataPayload.getPayload();
+  public static synchronized void setCollapseRepeatedStringValues(boolean collapseRepeatedValues) {
+    collapseRepeatedStringValues = collapseRepeatedValues;
+    for (int streamIndex = 0; streamIndex < dataPayloadStreams.length; streamIndex++) {
+      dataPayloadStreams[streamIndex].setCollapseRepeatedStringValues(collapseRepeatedValues);
     }
-    return nextPayload;
   }
 
   /**
-   * Removes the next payload to be sent to the Canary API. This method removes the next payload to
-   * be sent to the Canary API, and returns true if a payload was removed, or false if no payloads
-   * are pending.
+   * Gets the number of shards which tags are partitioned across.
    *
-   * <p>This method does not return the payload that was removed. The payload {@link
-   * SCHttpPostRequestInfo} can be retrieved using the {@link #getNextPayload()} method before
-   * calling this method.
+   * @return the number of shards
+   * @since 1.1.0
+   */
+  public static int getShardCount() {
+    return tagShardRing.getShardCount();
+  }
+
+  /**
+   * Creates a new {@link CanaryDataPayloadScheduler} for reading the payloads of every priority
+   * class of the specified shard to be sent to a Canary target. A cursor is created for each
+   * priority class, and weighted by the weight of the priority class.
+   *
+   * @param name the friendly name of the scheduler and its cursors
+   * @param shardIndex the index of the shard to read payloads of
+   * @return the new scheduler
+   * @since 1.1.0
+   */
+  public static CanaryDataPayloadScheduler createPayloadScheduler(String name, int shardIndex) {
+    final int classCount = tagPriorityClasses.getPriorityClassCount();
+    CanaryDataPayloadCursor[] cursors = new CanaryDataPayloadCursor[classCount];
+    for (int classIndex = 0; classIndex < classCount; classIndex++) {
+      cursors[classIndex] =
+          getPayloadStream(classIndex, shardIndex)
+              .createCursor(getPriorityClassCursorName(name, classIndex));
+    }
+    return new CanaryDataPayloadScheduler(name, cursors, getPriorityClassWeights());
+  }
+
+  /**
+   * Creates a new {@link CanaryDataPayloadScheduler} for reading the payloads of every priority
+   * class of the specified shard to be sent to a Canary target by a live lane. A pair of live and
+   * backfill lane cursors is created for each priority class, and the backfill lane cursors can be
+   * scheduled using {@link #createBackfillPayloadScheduler(String, CanaryDataPayloadScheduler)}.
+   *
+   * <p>The live lane sends the newest payloads first, and the backfill lane sends the payloads
+   * skipped by the live lane whenever the live lane has no payloads pending.
+   *
+   * @param name the friendly name of the live lane scheduler and its cursors
+   * @param shardIndex the index of the shard to read payloads of
+   * @param liveLaneMaxPendingPayloads the maximum number of payloads which may be pending for the
+   *     live lane of a priority class before it skips ahead to the newest payloads
+   * @return the new live lane scheduler
+   * @since 1.1.0
+   */
+  public static CanaryDataPayloadScheduler createLivePayloadScheduler(
+      String name, int shardIndex, int liveLaneMaxPendingPayloads) {
+    final int classCount = tagPriorityClasses.getPriorityClassCount();
+    CanaryDataPayloadCursor[] cursors = new CanaryDataPayloadCursor[classCount];
+    for (int classIndex = 0; classIndex < classCount; classIndex++) {
+      final String cursorName = getPriorityClassCursorName(name, classIndex);
+      cursors[classIndex] =
+          getPayloadStream(classIndex, shardIndex)
+              .createLaneCursors(cursorName, cursorName, liveLaneMaxPendingPayloads);
+    }
+    return new CanaryDataPayloadScheduler(name, cursors, getPriorityClassWeights());
+  }
+
+  /**
+   * Creates a new {@link CanaryDataPayloadScheduler} for reading the payloads skipped by the live
+   * lane cursors of the specified live lane scheduler, to be sent to a Canary target by a backfill
+   * lane.
+   *
+   * @param name the friendly name of the backfill lane scheduler
+   * @param liveScheduler the live lane scheduler
+   * @return the new backfill lane scheduler
+   * @since 1.1.0
+   */
+  public static CanaryDataPayloadScheduler createBackfillPayloadScheduler(
+      String name, CanaryDataPayloadScheduler liveScheduler) {
+    final int cursorCount = liveScheduler.getCursorCount();
+    CanaryDataPayloadCursor[] cursors = new CanaryDataPayloadCursor[cursorCount];
+    int[] weights = new int[cursorCount];
+    for (int cursorIndex = 0; cursorIndex < cursorCount; cursorIndex++) {
+      cursors[cursorIndex] = liveScheduler.getCursor(cursorIndex).getPairedCursor();
+      weights[cursorIndex] = liveScheduler.getWeight(cursorIndex);
+    }
+    return new CanaryDataPayloadScheduler(name, cursors, weights);
+  }
+
+  /**
+   * Gets the payload stream of the specified priority class and shard.
+   *
+   * @param classIndex the index of the priority class
+   * @param shardIndex the index of the shard
+   * @return the payload stream
+   * @since 1.1.0
+   */
+  private static CanaryDataPayloadStream getPayloadStream(int classIndex, int shardIndex) {
+    return dataPayloadStreams[classIndex * tagShardRing.getShardCount() + shardIndex];
+  }
+
+  /**
+   * Gets the name of the cursor of the specified priority class, which is the specified name
+   * followed by the name of the priority class if priority classes are configured.
    *
-   * @return {@code true} if a payload was removed, or {@code false} if no payloads are pending
+   * @param name the friendly name of the scheduler
+   * @param classIndex the index of the priority class
+   * @return the name of the cursor
+   * @since 1.1.0
+   */
+  private static String getPriorityClassCursorName(String name, int classIndex) {
+    String cursorName = name;
+    if (tagPriorityClasses.getPriorityClassCount() > 1) {
+      cursorName += " (" + tagPriorityClasses.getPriorityClass(classIndex).getName() + ")";
+    }
+    return cursorName;
+  }
+
+  /**
+   * Gets the weight of each priority class.
+   *
+   * @return the weights of the priority classes, in order of priority class index
+   * @since 1.1.0
+   */
+  private static int[] getPriorityClassWeights() {
+    int[] weights = new int[tagPriorityClasses.getPriorityClassCount()];
+    for (int classIndex = 0; classIndex < weights.length; classIndex++) {
+      weights[classIndex] = tagPriorityClasses.getPriorityClass(classIndex).getWeight();
+    }
+    return weights;
+  }
+
+  /**
+   * Creates a new {@link CanaryDataPayloadCursor} for reading late payloads of the specified shard
+   * to be sent to a Canary target by a session with insert replace data enabled. The late data
+   * lane must be enabled when the payload manager is initialized.
+   *
+   * @param name the friendly name of the cursor
+   * @param shardIndex the index of the shard to read late payloads of
+   * @return the new cursor
+   * @since 1.1.0
+   */
+  public static CanaryDataPayloadCursor createLatePayloadCursor(String name, int shardIndex) {
+    return latePayloadStreams[shardIndex].createCursor(name);
+  }
+
+  /**
+   * Gets the next sealed payload to be sent to the Canary API for the specified cursor, or null if
+   * no payloads are pending.
+   *
+   * @param cursor the cursor to get the next payload for
+   * @return the next payload to be sent to the Canary API, or null if no payloads are pending
    * @since 1.0.0
    */
-  public static boolean removeNextPayload() {
-    boolean removed = false;
-    if (!dataPayloadsPending.isEmpty()) {
-      dataPayloadsPending.removeFirst();
-      removed = true;
+  public static CanaryDataPayload getNextPayload(CanaryDataPayloadCursor cursor) {
+    return cursor.getStream().getNextPayload(cursor);
+  }
+
+  /**
+   * Acknowledges the next payload for the specified cursor, indicating that it has been sent to the
+   * Canary API. This method returns true if a payload was acknowledged, or false if no payloads are
+   * pending.
+   *
+   * <p>The payload can be retrieved using the {@link #getNextPayload(CanaryDataPayloadCursor)}
+   * method before calling this method.
+   *
+   * @param cursor the cursor to acknowledge the next payload for
+   * @return {@code true} if a payload was acknowledged, or {@code false} if no payloads are pending
+   * @since 1.1.0
+   */
+  public static boolean acknowledgeNextPayload(CanaryDataPayloadCursor cursor) {
+    boolean acknowledged = cursor.getStream().acknowledgePayload(cursor);
+    updateDataPollingBlocked();
+    return acknowledged;
+  }
+
+  /**
+   * Gets the number of sealed payloads pending to be sent for the specified cursor.
+   *
+   * @param cursor the cursor to get the number of pending payloads for
+   * @return the number of pending payloads
+   * @since 1.1.0
+   */
+  public static int getPendingPayloadCount(CanaryDataPayloadCursor cursor) {
+    return cursor.getStream().getPendingPayloadCount(cursor);
+  }
+
+  /**
+   * Gets the time (in milliseconds) since the oldest payload pending for the specified cursor was
+   * sealed.
+   *
+   * @param cursor the cursor to get the oldest pending payload age for
+   * @return the age of the oldest pending payload (in milliseconds), or 0 if no payloads are
+   *     pending
+   * @since 1.1.0
+   */
+  public static long getOldestPendingPayloadAgeMillis(CanaryDataPayloadCursor cursor) {
+    return cursor.getStream().getOldestPendingPayloadAgeMillis(cursor);
+  }
+
+  /**
+   * Updates the pending payload count and oldest pending payload age metrics in the {@link
+   * CanaryMetricsRegistry} from the current state of the payload streams, including the metrics of
+   * the live and backfill lanes.
+   *
+   * @since 1.1.0
+   */
+  public static void updatePendingPayloadMetrics() {
+    final CanaryDataPayloadStream[] streams = dataPayloadStreams;
+    final CanaryDataPayloadStream[] lateStreams = latePayloadStreams;
+    long pendingPayloadCount = 0;
+    long oldestPendingPayloadAgeMillis = 0;
+    for (int streamIndex = 0; streamIndex < streams.length; streamIndex++) {
+      pendingPayloadCount += streams[streamIndex].getMaxPendingPayloadCount();
+      oldestPendingPayloadAgeMillis =
+          Math.max(
+              oldestPendingPayloadAgeMillis,
+              streams[streamIndex].getMaxOldestPendingPayloadAgeMillis());
+    }
+    for (int shardIndex = 0; shardIndex < lateStreams.length; shardIndex++) {
+      pendingPayloadCount += lateStreams[shardIndex].getMaxPendingPayloadCount();
+      oldestPendingPayloadAgeMillis =
+          Math.max(
+              oldestPendingPayloadAgeMillis,
+              lateStreams[shardIndex].getMaxOldestPendingPayloadAgeMillis());
+    }
+    CanaryMetricsRegistry.PENDING_PAYLOADS.set(pendingPayloadCount);
+    CanaryMetricsRegistry.OLDEST_PENDING_PAYLOAD_AGE_MILLIS.set(oldestPendingPayloadAgeMillis);
+
+    long livePendingPayloadCount = 0;
+    long liveOldestPendingPayloadAgeMillis = 0;
+    long backfillPendingPayloadCount = 0;
+    long backfillOldestPendingPayloadAgeMillis = 0;
+    for (int streamIndex = 0; streamIndex < streams.length; streamIndex++) {
+      CanaryDataPayloadStream stream = streams[streamIndex];
+      livePendingPayloadCount +=
+          stream.getMaxPendingPayloadCount(CanaryDataPayloadCursor.LANE_LIVE);
+      liveOldestPendingPayloadAgeMillis =
+          Math.max(
+              liveOldestPendingPayloadAgeMillis,
+              stream.getMaxOldestPendingPayloadAgeMillis(CanaryDataPayloadCursor.LANE_LIVE));
+      backfillPendingPayloadCount +=
+          stream.getMaxPendingPayloadCount(CanaryDataPayloadCursor.LANE_BACKFILL);
+      backfillOldestPendingPayloadAgeMillis =
+          Math.max(
+              backfillOldestPendingPayloadAgeMillis,
+              stream.getMaxOldestPendingPayloadAgeMillis(CanaryDataPayloadCursor.LANE_BACKFILL));
+    }
+    CanaryMetricsRegistry.LIVE_PENDING_PAYLOADS.set(livePendingPayloadCount);
+    CanaryMetricsRegistry.LIVE_OLDEST_PENDING_PAYLOAD_AGE_MILLIS.set(
+        liveOldestPendingPayloadAgeMillis);
+    CanaryMetricsRegistry.BACKFILL_PENDING_PAYLOADS.set(backfillPendingPayloadCount);
+    CanaryMetricsRegistry.BACKFILL_OLDEST_PENDING_PAYLOAD_AGE_MILLIS.set(
+        backfillOldestPendingPayloadAgeMillis);
+  }
+
+  /**
+   * Gets a boolean indicating whether any payload stream reports back pressure, meaning that no
+   * Canary target of that stream is keeping up and data polling should be blocked.
+   *
+   * @return {@code true} if back pressure is active, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public static synchronized boolean isBackPressureActive() {
+    boolean backPressureActive = false;
+    for (int streamIndex = 0; streamIndex < dataPayloadStreams.length; streamIndex++) {
+      if (dataPayloadStreams[streamIndex].isBackPressureActive()) {
+        backPressureActive = true;
+      }
+    }
+    for (int shardIndex = 0; shardIndex < latePayloadStreams.length; shardIndex++) {
+      if (latePayloadStreams[shardIndex].isBackPressureActive()) {
+        backPressureActive = true;
+      }
+    }
+    return backPressureActive;
+  }
+
+  /**
+   * Blocks or unblocks data polling according to the back pressure of the payload streams. Data
+   * polling is blocked if any stream reports back pressure.
+   *
+   * @since 1.1.0
+   */
+  private static synchronized void updateDataPollingBlocked() {
+    final boolean backPressureActive = isBackPressureActive();
+    if (backPressureActive != dataPollingBlockedByBackPressure
+        && CanaryConnectorMain.getInstance() != null) {
+      CanaryConnectorMain.getInstance().setDataPollingBlocked(backPressureActive);
+      dataPollingBlockedByBackPressure = backPressureActive;
     }
-    return removed;
   }
 }
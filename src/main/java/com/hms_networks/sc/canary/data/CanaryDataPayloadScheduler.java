@@ -0,0 +1,233 @@
+package com.hms_networks.sc.canary.data;
+
+/**
+ * Class for scheduling the payloads of one or more {@link CanaryDataPayloadCursor}s to be sent by a
+ * single data poster thread, one cursor for each tag priority class. Cursors are scheduled by
+ * weighted fair queuing: each payload is given a virtual finish time of its start time plus its
+ * size divided by the weight of its cursor, and the pending payload with the earliest virtual
+ * finish time is sent next. Each cursor is therefore given a share of the capacity of the thread
+ * in proportion to its weight, and a payload of a cursor which has been idle is sent ahead of a
+ * large backlog of other cursors.
+ *
+ * <p>A scheduler is only used by the data poster thread which owns it, and is not thread safe.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryDataPayloadScheduler {
+
+  /**
+   * The scale applied to the size of a payload before it is divided by the weight of its cursor,
+   * so that small differences in weight are not lost to integer division.
+   *
+   * @since 1.1.0
+   */
+  private static final long VIRTUAL_TIME_SCALE = 1000;
+
+  /**
+   * The friendly name of the scheduler, used for logging.
+   *
+   * @since 1.1.0
+   */
+  private final String name;
+
+  /**
+   * The cursors which payloads are scheduled from.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryDataPayloadCursor[] cursors;
+
+  /**
+   * The relative weight of each cursor.
+   *
+   * @since 1.1.0
+   */
+  private final int[] weights;
+
+  /**
+   * The virtual finish time of the last payload sent from each cursor.
+   *
+   * @since 1.1.0
+   */
+  private final long[] lastFinishTimes;
+
+  /**
+   * The virtual time of the scheduler, which is the virtual start time of the last payload sent.
+   *
+   * @since 1.1.0
+   */
+  private long virtualTime = 0;
+
+  /**
+   * The index of the cursor of the payload returned by the last call to {@link #getNextPayload()},
+   * or -1 if no payload was returned.
+   *
+   * @since 1.1.0
+   */
+  private int selectedCursorIndex = -1;
+
+  /**
+   * The virtual start time of the payload returned by the last call to {@link #getNextPayload()}.
+   *
+   * @since 1.1.0
+   */
+  private long selectedStartTime = 0;
+
+  /**
+   * The virtual finish time of the payload returned by the last call to {@link #getNextPayload()}.
+   *
+   * @since 1.1.0
+   */
+  private long selectedFinishTime = 0;
+
+  /**
+   * Constructor for a {@link CanaryDataPayloadScheduler} which sends the payloads of a single
+   * cursor, named with the name of the cursor.
+   *
+   * @param cursor the cursor which payloads are sent from
+   * @since 1.1.0
+   */
+  public CanaryDataPayloadScheduler(CanaryDataPayloadCursor cursor) {
+    this(cursor.getName(), new CanaryDataPayloadCursor[] {cursor}, new int[] {1});
+  }
+
+  /**
+   * Constructor for a {@link CanaryDataPayloadScheduler} which schedules the payloads of the
+   * specified cursors with the specified weights.
+   *
+   * @param name the friendly name of the scheduler
+   * @param cursors the cursors which payloads are scheduled from
+   * @param weights the relative weight of each cursor, at least 1
+   * @since 1.1.0
+   */
+  public CanaryDataPayloadScheduler(String name, CanaryDataPayloadCursor[] cursors, int[] weights) {
+    this.name = name;
+    this.cursors = cursors;
+    this.weights = weights;
+    this.lastFinishTimes = new long[cursors.length];
+  }
+
+  /**
+   * Gets the friendly name of the scheduler.
+   *
+   * @return the friendly name of the scheduler
+   * @since 1.1.0
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the number of cursors which payloads are scheduled from.
+   *
+   * @return the number of cursors
+   * @since 1.1.0
+   */
+  public int getCursorCount() {
+    return cursors.length;
+  }
+
+  /**
+   * Gets the cursor at the specified index.
+   *
+   * @param cursorIndex the index of the cursor
+   * @return the cursor
+   * @since 1.1.0
+   */
+  public CanaryDataPayloadCursor getCursor(int cursorIndex) {
+    return cursors[cursorIndex];
+  }
+
+  /**
+   * Gets the relative weight of the cursor at the specified index.
+   *
+   * @param cursorIndex the index of the cursor
+   * @return the weight of the cursor
+   * @since 1.1.0
+   */
+  public int getWeight(int cursorIndex) {
+    return weights[cursorIndex];
+  }
+
+  /**
+   * Gets the next payload to be sent, which is the pending payload of any cursor with the earliest
+   * virtual finish time. Ties are broken in favor of the cursor which comes first.
+   *
+   * @return the next payload to be sent, or null if no payloads are pending
+   * @since 1.1.0
+   */
+  public CanaryDataPayload getNextPayload() {
+    CanaryDataPayload selectedPayload = null;
+    selectedCursorIndex = -1;
+    for (int cursorIndex = 0; cursorIndex < cursors.length; cursorIndex++) {
+      CanaryDataPayload payload = CanaryDataPayloadManager.getNextPayload(cursors[cursorIndex]);
+      if (payload != null) {
+        final long startTime = Math.max(virtualTime, lastFinishTimes[cursorIndex]);
+        final long finishTime =
+            startTime
+                + payload.getTvqsJsonString().length() * VIRTUAL_TIME_SCALE / weights[cursorIndex];
+        if (selectedPayload == null || finishTime < selectedFinishTime) {
+          selectedPayload = payload;
+          selectedCursorIndex = cursorIndex;
+          selectedStartTime = startTime;
+          selectedFinishTime = finishTime;
+        }
+      }
+    }
+    return selectedPayload;
+  }
+
+  /**
+   * Acknowledges the payload returned by the last call to {@link #getNextPayload()}, indicating
+   * that it has been sent, and advances the virtual time of the scheduler.
+   *
+   * @return {@code true} if a payload was acknowledged, or {@code false} if no payload was returned
+   *     or it could not be acknowledged
+   * @since 1.1.0
+   */
+  public boolean acknowledgePayload() {
+    boolean acknowledged = false;
+    if (selectedCursorIndex >= 0) {
+      acknowledged = CanaryDataPayloadManager.acknowledgeNextPayload(cursors[selectedCursorIndex]);
+      if (acknowledged) {
+        lastFinishTimes[selectedCursorIndex] = selectedFinishTime;
+        virtualTime = selectedStartTime;
+      }
+      selectedCursorIndex = -1;
+    }
+    return acknowledged;
+  }
+
+  /**
+   * Gets the number of payloads pending to be sent for all cursors.
+   *
+   * @return the number of pending payloads
+   * @since 1.1.0
+   */
+  public int getPendingPayloadCount() {
+    int pendingPayloadCount = 0;
+    for (int cursorIndex = 0; cursorIndex < cursors.length; cursorIndex++) {
+      pendingPayloadCount += CanaryDataPayloadManager.getPendingPayloadCount(cursors[cursorIndex]);
+    }
+    return pendingPayloadCount;
+  }
+
+  /**
+   * Gets the time (in milliseconds) since the oldest payload pending for any cursor was sealed.
+   *
+   * @return the age of the oldest pending payload (in milliseconds), or 0 if no payloads are
+   *     pending
+   * @since 1.1.0
+   */
+  public long getOldestPendingPayloadAgeMillis() {
+    long oldestPendingPayloadAgeMillis = 0;
+    for (int cursorIndex = 0; cursorIndex < cursors.length; cursorIndex++) {
+      oldestPendingPayloadAgeMillis =
+          Math.max(
+              oldestPendingPayloadAgeMillis,
+              CanaryDataPayloadManager.getOldestPendingPayloadAgeMillis(cursors[cursorIndex]));
+    }
+    return oldestPendingPayloadAgeMillis;
+  }
+}
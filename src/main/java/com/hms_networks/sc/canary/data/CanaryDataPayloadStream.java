@@ -0,0 +1,616 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.logging.Logger;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Class for building a stream of sealed {@link CanaryDataPayload}s which is shared by one or more
+ * consumers. Data points are added to a single open payload, which is sealed and appended to the
+ * stream when it is full, or when a consumer has no other payloads pending.
+ *
+ * <p>Each consumer reads the stream through its own {@link CanaryDataPayloadCursor}. A sealed
+ * payload is retained until all consumers have acknowledged it. If a consumer falls more than the
+ * configured maximum number of pending payloads behind while another consumer is keeping up, the
+ * oldest payloads are dropped for the lagging consumer so that it does not stall the others. If no
+ * consumer is keeping up, the stream reports back pressure instead, so that data can be retained by
+ * the historical data queue until the consumers recover.
+ *
+ * <p>A consumer may also read the stream through a pair of live and backfill lane cursors, so that
+ * the newest payloads are sent first after an outage while the skipped payloads are sent with the
+ * remaining capacity of the consumer. See {@link CanaryDataPayloadCursor}.
+ *
+ * @since 1.1.0
+ * @author HMS Networks, MU Americas Solution Center
+ */
+public class CanaryDataPayloadStream {
+
+  /**
+   * The dictionary of the values of string and mapped string tags of the stream, shared by all
+   * payloads of the stream.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagValueDictionary valueDictionary = new CanaryTagValueDictionary();
+
+  /**
+   * The open payload which data points are added to.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDataPayload openPayload = new CanaryDataPayload(valueDictionary);
+
+  /**
+   * The list of sealed payloads which have not been acknowledged by all consumers.
+   *
+   * @since 1.1.0
+   */
+  private final LinkedList sealedPayloads = new LinkedList();
+
+  /**
+   * The sequence number of the first payload in {@link #sealedPayloads}.
+   *
+   * @since 1.1.0
+   */
+  private long firstSealedSequenceNumber = 0;
+
+  /**
+   * The list of {@link CanaryDataPayloadCursor}s of the consumers of the stream.
+   *
+   * @since 1.1.0
+   */
+  private final List cursors = new ArrayList();
+
+  /**
+   * The maximum number of sealed payloads which may be pending for a consumer.
+   *
+   * @since 1.1.0
+   */
+  private int maxPendingPayloads;
+
+  /**
+   * Boolean indicating whether string and mapped string data points which repeat the last value
+   * and quality of their tag are collapsed, rather than added to a payload.
+   *
+   * @since 1.1.0
+   */
+  private boolean collapseRepeatedStringValues = false;
+
+  /**
+   * Constructor for a {@link CanaryDataPayloadStream} with the specified maximum number of pending
+   * payloads per consumer.
+   *
+   * @param maxPendingPayloads the maximum number of sealed payloads which may be pending for a
+   *     consumer
+   * @since 1.1.0
+   */
+  public CanaryDataPayloadStream(int maxPendingPayloads) {
+    this.maxPendingPayloads = maxPendingPayloads;
+  }
+
+  /**
+   * Sets the maximum number of sealed payloads which may be pending for a consumer.
+   *
+   * @param maxPendingPayloads the maximum number of pending payloads
+   * @since 1.1.0
+   */
+  public synchronized void setMaxPendingPayloads(int maxPendingPayloads) {
+    this.maxPendingPayloads = maxPendingPayloads;
+  }
+
+  /**
+   * Sets a boolean indicating whether string and mapped string data points which repeat the last
+   * value and quality of their tag are collapsed, rather than added to a payload. This must only be
+   * enabled if every consumer extends the last value of each tag until a new value is received
+   * (extend data), so that collapsed data points do not change the data stored by Canary. As the
+   * last values are shared by every consumer, they are cleared when payloads are dropped for any
+   * consumer, so that the next value of each tag reaches a consumer which may have missed it.
+   *
+   * @param collapseRepeatedValues {@code true} to collapse repeated string values
+   * @since 1.1.0
+   */
+  public synchronized void setCollapseRepeatedStringValues(boolean collapseRepeatedValues) {
+    collapseRepeatedStringValues = collapseRepeatedValues;
+  }
+
+  /**
+   * Gets a boolean indicating whether the specified data point is a string or mapped string data
+   * point which repeats the last value and quality added for its tag, and can be collapsed instead
+   * of being added to a payload.
+   *
+   * @param dataPoint the data point
+   * @return {@code true} if the data point can be collapsed, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public synchronized boolean isRepeatedStringValue(DataPoint dataPoint) {
+    boolean repeatedStringValue = false;
+    if (collapseRepeatedStringValues) {
+      final String stringValue = CanaryTagValueDictionary.getStringValue(dataPoint);
+      repeatedStringValue =
+          stringValue != null
+              && valueDictionary.isLastValue(
+                  dataPoint.getTagName(), stringValue, dataPoint.getQuality());
+    }
+    return repeatedStringValue;
+  }
+
+  /**
+   * Creates a new cursor for a consumer of the stream. The cursor starts at the next payload to be
+   * sealed.
+   *
+   * @param name the friendly name of the cursor
+   * @return the new cursor
+   * @since 1.1.0
+   */
+  public synchronized CanaryDataPayloadCursor createCursor(String name) {
+    CanaryDataPayloadCursor cursor =
+        new CanaryDataPayloadCursor(name, this, getEndSequenceNumber());
+    cursors.add(cursor);
+    return cursor;
+  }
+
+  /**
+   * Creates a new pair of live and backfill lane cursors for a consumer of the stream. Both
+   * cursors start at the next payload to be sealed. The backfill cursor can be retrieved using
+   * {@link CanaryDataPayloadCursor#getPairedCursor()} of the returned live cursor.
+   *
+   * @param liveName the friendly name of the live lane cursor
+   * @param backfillName the friendly name of the backfill lane cursor
+   * @param liveLaneMaxPendingPayloads the maximum number of payloads which may be pending for the
+   *     live lane before it skips ahead to the newest payloads
+   * @return the new live lane cursor
+   * @since 1.1.0
+   */
+  public synchronized CanaryDataPayloadCursor createLaneCursors(
+      String liveName, String backfillName, int liveLaneMaxPendingPayloads) {
+    CanaryDataPayloadCursor liveCursor =
+        new CanaryDataPayloadCursor(
+            liveName, this, getEndSequenceNumber(), CanaryDataPayloadCursor.LANE_LIVE);
+    CanaryDataPayloadCursor backfillCursor =
+        new CanaryDataPayloadCursor(
+            backfillName, this, getEndSequenceNumber(), CanaryDataPayloadCursor.LANE_BACKFILL);
+    CanaryDataPayloadCursor.pair(liveCursor, backfillCursor, liveLaneMaxPendingPayloads);
+
+    // Only the backfill cursor tracks the oldest payload not yet sent by the consumer
+    cursors.add(backfillCursor);
+    return liveCursor;
+  }
+
+  /**
+   * Adds the specified data point to the open payload of the stream. If the open payload cannot
+   * accept the data point, it is sealed and a new open payload is created.
+   *
+   * @param dataPoint the data point to add
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @return {@code true} if the data point was added, {@code false} otherwise
+   * @throws Exception if an error occurs while adding the data point
+   * @since 1.1.0
+   */
+  public synchronized boolean addDataPoint(DataPoint dataPoint, String timestampOverride)
+      throws Exception {
+    final int fullPrecision = -1;
+    return addDataPoint(dataPoint, timestampOverride, fullPrecision);
+  }
+
+  /**
+   * Adds the specified data point to the open payload of the stream, rounding float values to the
+   * specified number of decimals. If the open payload cannot accept the data point, it is sealed
+   * and a new open payload is created.
+   *
+   * @param dataPoint the data point to add
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @param decimals the number of decimals to round float values to, or a negative number for full
+   *     precision
+   * @return {@code true} if the data point was added, {@code false} otherwise
+   * @throws Exception if an error occurs while adding the data point
+   * @since 1.1.0
+   */
+  public synchronized boolean addDataPoint(
+      DataPoint dataPoint, String timestampOverride, int decimals) throws Exception {
+    if (!openPayload.canAddDataPoint(dataPoint)) {
+      sealOpenPayload();
+    }
+
+    final String timestampDateTimeString =
+        timestampOverride != null
+            ? timestampOverride
+            : CanaryTimestampCache.getIso8601FormattedTimestamp(dataPoint);
+    final boolean dataPointAdded =
+        openPayload.addDataPoint(dataPoint, timestampDateTimeString, decimals);
+    final String stringValue = CanaryTagValueDictionary.getStringValue(dataPoint);
+    if (dataPointAdded && stringValue != null) {
+      valueDictionary.setLastValue(dataPoint.getTagName(), stringValue, dataPoint.getQuality());
+    }
+    return dataPointAdded;
+  }
+
+  /**
+   * Adds the data points of the specified batch to the open payload of the stream in order, under a
+   * single acquisition of the stream lock. Repeated string values are collapsed if enabled, and
+   * the added, rejected and collapsed data points are counted in the {@link
+   * CanaryMetricsRegistry}.
+   *
+   * <p>If the batch is to be kept together, and the open payload cannot fit the whole batch, the
+   * open payload is sealed before the batch is added, so that the batch starts a new payload
+   * instead of being split across two payloads.
+   *
+   * @param batch the batch of data points to add
+   * @param keepBatchTogether {@code true} to seal the open payload before the batch if it cannot
+   *     fit the whole batch
+   * @return {@code true} if all data points were added or collapsed, {@code false} otherwise
+   * @throws Exception if an error occurs while adding a data point
+   * @since 1.1.0
+   */
+  public synchronized boolean addDataPointBatch(
+      CanaryDataPointBatch batch, boolean keepBatchTogether) throws Exception {
+    if (keepBatchTogether
+        && openPayload.getDataPointCount() > 0
+        && !openPayload.canAddDataPointCount(batch.size())) {
+      sealOpenPayload();
+    }
+
+    int addedCount = 0;
+    int rejectedCount = 0;
+    int collapsedCount = 0;
+    for (int batchIndex = 0; batchIndex < batch.size(); batchIndex++) {
+      final DataPoint dataPoint = batch.getDataPoint(batchIndex);
+      if (isRepeatedStringValue(dataPoint)) {
+        collapsedCount++;
+      } else if (addDataPoint(
+          dataPoint, batch.getTimestampOverride(batchIndex), batch.getDecimals(batchIndex))) {
+        addedCount++;
+      } else {
+        rejectedCount++;
+      }
+    }
+
+    CanaryMetricsRegistry.POINTS_ACCEPTED.add(addedCount);
+    CanaryMetricsRegistry.PENDING_POINTS.add(addedCount);
+    CanaryMetricsRegistry.POINTS_REJECTED.add(rejectedCount);
+    CanaryMetricsRegistry.POINTS_FILTERED.add(collapsedCount);
+    return rejectedCount == 0;
+  }
+
+  /**
+   * Seals the open payload and appends it to the stream, if it contains any data points.
+   *
+   * @since 1.1.0
+   */
+  public synchronized void sealOpenPayload() {
+    if (openPayload.getDataPointCount() > 0) {
+      openPayload.seal();
+      final int payloadSizeBytes = openPayload.getTvqsJsonSizeBytes();
+      CanaryMetricsRegistry.PAYLOADS_SEALED.increment();
+      CanaryMetricsRegistry.PAYLOAD_SIZE_BYTES.record(payloadSizeBytes);
+      CanaryMetricsRegistry.PENDING_BYTES.add(payloadSizeBytes);
+      sealedPayloads.add(openPayload);
+      openPayload = new CanaryDataPayload(valueDictionary);
+      enforceMaxPendingPayloads();
+    }
+  }
+
+  /**
+   * Gets the next sealed payload to be sent by the consumer of the specified cursor. If there are
+   * no sealed payloads pending for the consumer, the open payload is sealed and returned (if it
+   * contains any data points).
+   *
+   * <p>A live lane cursor first skips ahead to the newest payloads if more than its maximum number
+   * of payloads are pending, leaving the skipped payloads to its backfill lane. A backfill lane
+   * cursor only returns a payload while its live lane has no payloads pending, and never seals the
+   * open payload.
+   *
+   * @param cursor the cursor of the consumer
+   * @return the next sealed payload for the consumer, or null if no payloads are pending
+   * @since 1.1.0
+   */
+  public synchronized CanaryDataPayload getNextPayload(CanaryDataPayloadCursor cursor) {
+    final int lane = cursor.getLane();
+    if (lane != CanaryDataPayloadCursor.LANE_BACKFILL && getPendingPayloadCount(cursor) == 0) {
+      sealOpenPayload();
+    }
+
+    if (lane == CanaryDataPayloadCursor.LANE_LIVE) {
+      int skippedPayloadCount =
+          getPendingPayloadCount(cursor) - cursor.getLiveLaneMaxPendingPayloads();
+      if (skippedPayloadCount > 0) {
+        final long firstSkippedSequenceNumber = cursor.getNextSequenceNumber();
+        cursor.advance(skippedPayloadCount);
+        cursor
+            .getPairedCursor()
+            .addSkippedRange(firstSkippedSequenceNumber, cursor.getNextSequenceNumber());
+        cursor.getPairedCursor().updateSkippedRanges(cursor.getNextSequenceNumber());
+      }
+    }
+
+    final boolean laneMaySend =
+        lane != CanaryDataPayloadCursor.LANE_BACKFILL
+            || getPendingPayloadCount(cursor.getPairedCursor()) == 0;
+    CanaryDataPayload nextPayload = null;
+    if (laneMaySend && getPendingPayloadCount(cursor) > 0) {
+      int payloadIndex = (int) (cursor.getNextSequenceNumber() - firstSealedSequenceNumber);
+      nextPayload = (CanaryDataPayload) sealedPayloads.get(payloadIndex);
+    }
+    return nextPayload;
+  }
+
+  /**
+   * Acknowledges the next sealed payload for the consumer of the specified cursor, indicating that
+   * it has been sent, and advances the cursor. Payloads which have been acknowledged by all
+   * consumers are released.
+   *
+   * <p>Acknowledging a payload of a live or backfill lane cursor also updates the skipped ranges of
+   * the backfill lane, so that the backfill cursor stays at the oldest payload not yet sent by
+   * either lane.
+   *
+   * @param cursor the cursor of the consumer
+   * @return {@code true} if a payload was acknowledged, or {@code false} if no payloads are pending
+   * @since 1.1.0
+   */
+  public synchronized boolean acknowledgePayload(CanaryDataPayloadCursor cursor) {
+    boolean acknowledged = false;
+    if (getPendingPayloadCount(cursor) > 0) {
+      cursor.advance(1);
+      if (cursor.getLane() == CanaryDataPayloadCursor.LANE_LIVE) {
+        cursor.getPairedCursor().updateSkippedRanges(cursor.getNextSequenceNumber());
+      } else if (cursor.getLane() == CanaryDataPayloadCursor.LANE_BACKFILL) {
+        cursor.updateSkippedRanges(cursor.getPairedCursor().getNextSequenceNumber());
+      }
+      releaseAcknowledgedPayloads();
+      acknowledged = true;
+    }
+    return acknowledged;
+  }
+
+  /**
+   * Gets the number of sealed payloads pending for the consumer of the specified cursor. For a
+   * backfill lane cursor, only the payloads skipped by its live lane are counted.
+   *
+   * @param cursor the cursor of the consumer
+   * @return the number of pending payloads
+   * @since 1.1.0
+   */
+  public synchronized int getPendingPayloadCount(CanaryDataPayloadCursor cursor) {
+    int pendingPayloadCount;
+    if (cursor.getLane() == CanaryDataPayloadCursor.LANE_BACKFILL) {
+      pendingPayloadCount = cursor.getSkippedPayloadCount();
+    } else {
+      pendingPayloadCount = getRetainedPayloadCount(cursor);
+    }
+    return pendingPayloadCount;
+  }
+
+  /**
+   * Gets the time (in milliseconds) since the oldest sealed payload pending for the consumer of the
+   * specified cursor was sealed.
+   *
+   * @param cursor the cursor of the consumer
+   * @return the age of the oldest pending payload (in milliseconds), or 0 if no payloads are
+   *     pending
+   * @since 1.1.0
+   */
+  public synchronized long getOldestPendingPayloadAgeMillis(CanaryDataPayloadCursor cursor) {
+    long oldestPendingPayloadAgeMillis = 0;
+    if (getPendingPayloadCount(cursor) > 0) {
+      int payloadIndex = (int) (cursor.getNextSequenceNumber() - firstSealedSequenceNumber);
+      CanaryDataPayload payload = (CanaryDataPayload) sealedPayloads.get(payloadIndex);
+      oldestPendingPayloadAgeMillis = System.currentTimeMillis() - payload.getSealTimeMillis();
+    }
+    return oldestPendingPayloadAgeMillis;
+  }
+
+  /**
+   * Gets the highest number of sealed payloads pending for any consumer of the stream.
+   *
+   * @return the number of pending payloads of the consumer furthest behind
+   * @since 1.1.0
+   */
+  public synchronized int getMaxPendingPayloadCount() {
+    return getTrailPendingPayloadCount();
+  }
+
+  /**
+   * Gets the time (in milliseconds) since the oldest sealed payload pending for any consumer of the
+   * stream was sealed.
+   *
+   * @return the age of the oldest pending payload (in milliseconds), or 0 if no payloads are
+   *     pending
+   * @since 1.1.0
+   */
+  public synchronized long getMaxOldestPendingPayloadAgeMillis() {
+    long oldestPendingPayloadAgeMillis = 0;
+    if (getTrailPendingPayloadCount() > 0) {
+      int payloadIndex = sealedPayloads.size() - getTrailPendingPayloadCount();
+      CanaryDataPayload payload = (CanaryDataPayload) sealedPayloads.get(payloadIndex);
+      oldestPendingPayloadAgeMillis = System.currentTimeMillis() - payload.getSealTimeMillis();
+    }
+    return oldestPendingPayloadAgeMillis;
+  }
+
+  /**
+   * Gets the highest number of sealed payloads pending for any lane cursor of the specified lane.
+   *
+   * @param lane the lane, {@link CanaryDataPayloadCursor#LANE_LIVE} or {@link
+   *     CanaryDataPayloadCursor#LANE_BACKFILL}
+   * @return the number of pending payloads of the lane furthest behind, or 0 if there are no lane
+   *     cursors
+   * @since 1.1.0
+   */
+  public synchronized int getMaxPendingPayloadCount(int lane) {
+    int maxPendingPayloadCount = 0;
+    for (int cursorIndex = 0; cursorIndex < cursors.size(); cursorIndex++) {
+      CanaryDataPayloadCursor cursor =
+          getLaneCursor((CanaryDataPayloadCursor) cursors.get(cursorIndex), lane);
+      if (cursor != null) {
+        maxPendingPayloadCount = Math.max(maxPendingPayloadCount, getPendingPayloadCount(cursor));
+      }
+    }
+    return maxPendingPayloadCount;
+  }
+
+  /**
+   * Gets the time (in milliseconds) since the oldest sealed payload pending for any lane cursor of
+   * the specified lane was sealed.
+   *
+   * @param lane the lane, {@link CanaryDataPayloadCursor#LANE_LIVE} or {@link
+   *     CanaryDataPayloadCursor#LANE_BACKFILL}
+   * @return the age of the oldest pending payload of the lane (in milliseconds), or 0 if no
+   *     payloads are pending
+   * @since 1.1.0
+   */
+  public synchronized long getMaxOldestPendingPayloadAgeMillis(int lane) {
+    long oldestPendingPayloadAgeMillis = 0;
+    for (int cursorIndex = 0; cursorIndex < cursors.size(); cursorIndex++) {
+      CanaryDataPayloadCursor cursor =
+          getLaneCursor((CanaryDataPayloadCursor) cursors.get(cursorIndex), lane);
+      if (cursor != null) {
+        oldestPendingPayloadAgeMillis =
+            Math.max(oldestPendingPayloadAgeMillis, getOldestPendingPayloadAgeMillis(cursor));
+      }
+    }
+    return oldestPendingPayloadAgeMillis;
+  }
+
+  /**
+   * Gets a boolean indicating whether no consumer of the stream is keeping up, and data should be
+   * retained elsewhere until the consumers recover.
+   *
+   * @return {@code true} if the lead consumer has reached the maximum number of pending payloads,
+   *     {@code false} otherwise
+   * @since 1.1.0
+   */
+  public synchronized boolean isBackPressureActive() {
+    return maxPendingPayloads > 0 && getLeadPendingPayloadCount() >= maxPendingPayloads;
+  }
+
+  /**
+   * Gets the sequence number which will be assigned to the next payload sealed.
+   *
+   * @return the next sequence number
+   * @since 1.1.0
+   */
+  private long getEndSequenceNumber() {
+    return firstSealedSequenceNumber + sealedPayloads.size();
+  }
+
+  /**
+   * Gets the number of sealed payloads retained for the consumer of the specified cursor, which is
+   * every payload from the next payload of the cursor to the end of the stream. For a backfill lane
+   * cursor, this includes the payloads pending for its live lane.
+   *
+   * @param cursor the cursor of the consumer
+   * @return the number of retained payloads
+   * @since 1.1.0
+   */
+  private int getRetainedPayloadCount(CanaryDataPayloadCursor cursor) {
+    return (int) (getEndSequenceNumber() - cursor.getNextSequenceNumber());
+  }
+
+  /**
+   * Gets the cursor of the specified lane for the consumer of the specified cursor.
+   *
+   * @param cursor the cursor of the consumer
+   * @param lane the lane
+   * @return the cursor of the lane, or null if the consumer has no cursor of the lane
+   * @since 1.1.0
+   */
+  private CanaryDataPayloadCursor getLaneCursor(CanaryDataPayloadCursor cursor, int lane) {
+    CanaryDataPayloadCursor laneCursor = null;
+    if (cursor.getLane() == lane) {
+      laneCursor = cursor;
+    } else if (cursor.getPairedCursor() != null && cursor.getPairedCursor().getLane() == lane) {
+      laneCursor = cursor.getPairedCursor();
+    }
+    return laneCursor;
+  }
+
+  /**
+   * Gets the lowest number of pending payloads of all consumers. If there are no consumers, the
+   * number of sealed payloads is returned.
+   *
+   * @return the lowest number of pending payloads of all consumers
+   * @since 1.1.0
+   */
+  private int getLeadPendingPayloadCount() {
+    int leadPendingPayloadCount = sealedPayloads.size();
+    for (int cursorIndex = 0; cursorIndex < cursors.size(); cursorIndex++) {
+      CanaryDataPayloadCursor cursor = (CanaryDataPayloadCursor) cursors.get(cursorIndex);
+      leadPendingPayloadCount = Math.min(leadPendingPayloadCount, getRetainedPayloadCount(cursor));
+    }
+    return leadPendingPayloadCount;
+  }
+
+  /**
+   * Drops the oldest payloads for consumers which have exceeded the maximum number of pending
+   * payloads, as long as another consumer is keeping up.
+   *
+   * @since 1.1.0
+   */
+  private void enforceMaxPendingPayloads() {
+    if (maxPendingPayloads > 0 && getLeadPendingPayloadCount() < maxPendingPayloads) {
+      for (int cursorIndex = 0; cursorIndex < cursors.size(); cursorIndex++) {
+        CanaryDataPayloadCursor cursor = (CanaryDataPayloadCursor) cursors.get(cursorIndex);
+        int excessPayloadCount = getRetainedPayloadCount(cursor) - maxPendingPayloads;
+        if (excessPayloadCount > 0) {
+          final long droppedPayloadCount = cursor.drop(excessPayloadCount);
+          if (droppedPayloadCount > 0) {
+            // Repeated string values were collapsed against values the consumer may not have
+            // received, so add the next value of each tag even if it is repeated
+            valueDictionary.clearLastValues();
+          }
+          if (cursor.getPairedCursor() != null) {
+            cursor.getPairedCursor().advanceTo(cursor.getNextSequenceNumber());
+            cursor.updateSkippedRanges(cursor.getPairedCursor().getNextSequenceNumber());
+          }
+          Logger.LOG_SERIOUS(
+              "Dropped "
+                  + droppedPayloadCount
+                  + " pending payload(s) for "
+                  + cursor.getName()
+                  + " because it is more than "
+                  + maxPendingPayloads
+                  + " payload(s) behind. Total dropped: "
+                  + cursor.getDroppedPayloadCount());
+        }
+      }
+      releaseAcknowledgedPayloads();
+    }
+  }
+
+  /**
+   * Releases sealed payloads which have been acknowledged (or dropped) by all consumers.
+   *
+   * @since 1.1.0
+   */
+  private void releaseAcknowledgedPayloads() {
+    if (!cursors.isEmpty()) {
+      int releasablePayloadCount = sealedPayloads.size() - getTrailPendingPayloadCount();
+      for (int i = 0; i < releasablePayloadCount; i++) {
+        CanaryDataPayload releasedPayload = (CanaryDataPayload) sealedPayloads.removeFirst();
+        firstSealedSequenceNumber++;
+        CanaryMetricsRegistry.PENDING_POINTS.add(-releasedPayload.getDataPointCount());
+        CanaryMetricsRegistry.PENDING_BYTES.add(-releasedPayload.getTvqsJsonSizeBytes());
+      }
+    }
+  }
+
+  /**
+   * Gets the highest number of pending payloads of all consumers.
+   *
+   * @return the highest number of pending payloads of all consumers
+   * @since 1.1.0
+   */
+  private int getTrailPendingPayloadCount() {
+    int trailPendingPayloadCount = 0;
+    for (int cursorIndex = 0; cursorIndex < cursors.size(); cursorIndex++) {
+      CanaryDataPayloadCursor cursor = (CanaryDataPayloadCursor) cursors.get(cursorIndex);
+      trailPendingPayloadCount =
+          Math.max(trailPendingPayloadCount, getRetainedPayloadCount(cursor));
+    }
+    return trailPendingPayloadCount;
+  }
+}
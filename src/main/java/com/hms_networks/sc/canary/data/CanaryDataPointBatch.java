@@ -0,0 +1,123 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class for a batch of data points to be added to a {@link CanaryDataPayloadStream} under a single
+ * acquisition of its lock. Each data point is kept with the timestamp override and number of
+ * decimals it is to be added with. One instance is reused for each shard by clearing it after its
+ * data points have been added.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryDataPointBatch {
+
+  /**
+   * The initial capacity of the array of decimals.
+   *
+   * @since 1.1.0
+   */
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * The list of {@link DataPoint}s of the batch.
+   *
+   * @since 1.1.0
+   */
+  private final List dataPoints = new ArrayList();
+
+  /**
+   * The list of timestamp overrides of the data points, with null entries for data points which use
+   * their own timestamp.
+   *
+   * @since 1.1.0
+   */
+  private final List timestampOverrides = new ArrayList();
+
+  /**
+   * The number of decimals which the float values of each data point are rounded to.
+   *
+   * @since 1.1.0
+   */
+  private int[] decimals = new int[INITIAL_CAPACITY];
+
+  /**
+   * Adds a data point to the batch.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @param dataPointDecimals the number of decimals to round float values to, or a negative number
+   *     for full precision
+   * @since 1.1.0
+   */
+  public void add(DataPoint dataPoint, String timestampOverride, int dataPointDecimals) {
+    final int index = dataPoints.size();
+    if (index == decimals.length) {
+      int[] grownDecimals = new int[decimals.length * 2];
+      System.arraycopy(decimals, 0, grownDecimals, 0, decimals.length);
+      decimals = grownDecimals;
+    }
+    dataPoints.add(dataPoint);
+    timestampOverrides.add(timestampOverride);
+    decimals[index] = dataPointDecimals;
+  }
+
+  /**
+   * Removes all data points from the batch.
+   *
+   * @since 1.1.0
+   */
+  public void clear() {
+    dataPoints.clear();
+    timestampOverrides.clear();
+  }
+
+  /**
+   * Gets the number of data points in the batch.
+   *
+   * @return the number of data points
+   * @since 1.1.0
+   */
+  public int size() {
+    return dataPoints.size();
+  }
+
+  /**
+   * Gets the data point at the specified index.
+   *
+   * @param index the index of the data point
+   * @return the data point
+   * @since 1.1.0
+   */
+  public DataPoint getDataPoint(int index) {
+    return (DataPoint) dataPoints.get(index);
+  }
+
+  /**
+   * Gets the timestamp override of the data point at the specified index.
+   *
+   * @param index the index of the data point
+   * @return the ISO 8601 timestamp to use for the data point, or null to use the data point
+   *     timestamp
+   * @since 1.1.0
+   */
+  public String getTimestampOverride(int index) {
+    return (String) timestampOverrides.get(index);
+  }
+
+  /**
+   * Gets the number of decimals of the data point at the specified index.
+   *
+   * @param index the index of the data point
+   * @return the number of decimals to round float values to, or a negative number for full
+   *     precision
+   * @since 1.1.0
+   */
+  public int getDecimals(int index) {
+    return decimals[index];
+  }
+}
@@ -33,6 +33,49 @@ public class CanaryDataUtils {
    */
   private static final int TVQ_DATA_QUALITY_BAD = 0;
 
+  /**
+   * The maximum number of decimals which float TVQ values can be rounded to.
+   *
+   * @since 1.1.0
+   */
+  public static final int TVQ_FLOAT_MAX_DECIMALS = 9;
+
+  /**
+   * The scale (10 to the power of the number of decimals) for each number of decimals of float TVQ
+   * values.
+   *
+   * @since 1.1.0
+   */
+  private static final double[] TVQ_FLOAT_DECIMAL_SCALES = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9
+  };
+
+  /**
+   * The largest scaled float TVQ value which is rounded. Larger values have no fraction digits at
+   * float precision, and are kept as a float.
+   *
+   * @since 1.1.0
+   */
+  private static final double TVQ_FLOAT_MAX_ROUNDED_SCALED_VALUE = 1e15;
+
+  /**
+   * The prefix of TVQ names (the API client ID followed by a period), or null if not yet set.
+   *
+   * @since 1.1.0
+   */
+  private static String tvqNamePrefix = null;
+
+  /**
+   * Sets the API client ID used as the prefix of TVQ names. If not set, the API client ID is read
+   * from the connector configuration when the first TVQ name is requested.
+   *
+   * @param apiClientId the API client ID
+   * @since 1.1.0
+   */
+  public static void setTvqNameClientId(String apiClientId) {
+    tvqNamePrefix = apiClientId + ".";
+  }
+
   /**
    * Gets the TVQ name for the specified tag name.
    *
@@ -41,7 +84,43 @@ public class CanaryDataUtils {
    * @since 1.0.0
    */
   public static String getTvqNameForTagName(String tagName) {
-    return CanaryConnectorMain.getConnectorConfig().getApiClientId() + "." + tagName;
+    String prefix = tvqNamePrefix;
+    if (prefix == null) {
+      setTvqNameClientId(CanaryConnectorMain.getConnectorConfig().getApiClientId());
+      prefix = tvqNamePrefix;
+    }
+    return prefix + tagName;
+  }
+
+  /**
+   * Gets the TVQ value for the specified float value, rounded to the specified number of decimals.
+   *
+   * <p>With full precision, the value is kept as a {@link Float}, so that it is serialized with
+   * the shortest number of digits which identifies the float value (for example "21.4"), instead
+   * of the digits of the float value widened to a double (for example "21.399999618530273"). When
+   * rounded, the value is a {@link Double} of the nearest decimal, which is serialized with only
+   * the digits needed (for example "21.4" rather than "21.400").
+   *
+   * @param value the float value
+   * @param decimals the number of decimals to round to, from 0 to {@link #TVQ_FLOAT_MAX_DECIMALS},
+   *     or a negative number for full precision
+   * @return the TVQ value
+   * @since 1.1.0
+   */
+  public static Number getTvqFloatValue(float value, int decimals) {
+    Number tvqValue;
+    if (decimals < 0 || Float.isNaN(value) || Float.isInfinite(value)) {
+      tvqValue = new Float(value);
+    } else {
+      final double scale = TVQ_FLOAT_DECIMAL_SCALES[Math.min(decimals, TVQ_FLOAT_MAX_DECIMALS)];
+      final double scaledValue = value * scale;
+      if (Math.abs(scaledValue) < TVQ_FLOAT_MAX_ROUNDED_SCALED_VALUE) {
+        tvqValue = new Double(Math.round(scaledValue) / scale);
+      } else {
+        tvqValue = new Float(value);
+      }
+    }
+    return tvqValue;
   }
 
   /**
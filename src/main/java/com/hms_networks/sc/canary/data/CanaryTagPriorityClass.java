@@ -0,0 +1,112 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.sc.canary.filter.CanaryTagFilterRule;
+import com.hms_networks.sc.canary.filter.CanaryTagGroups;
+
+/**
+ * Class for a tag priority class, which assigns the tags matching a tag name pattern and/or an Ewon
+ * tag group to a separate payload stream, sent with the specified relative weight. Tag name
+ * patterns may contain the wildcards {@code *} (any sequence of characters) and {@code ?} (any
+ * single character).
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagPriorityClass {
+
+  /**
+   * The name of the priority class, used for logging.
+   *
+   * @since 1.1.0
+   */
+  private final String name;
+
+  /**
+   * The relative weight of the priority class when scheduling payloads to send.
+   *
+   * @since 1.1.0
+   */
+  private final int weight;
+
+  /**
+   * The tag name pattern of the priority class, or null to match any tag name.
+   *
+   * @since 1.1.0
+   */
+  private final String tagNamePattern;
+
+  /**
+   * The bit mask of the tag groups of the priority class (see {@link CanaryTagGroups}), or 0 to
+   * match any tag group. A tag matches if it belongs to any of the tag groups.
+   *
+   * @since 1.1.0
+   */
+  private final int tagGroupMask;
+
+  /**
+   * Constructor for a {@link CanaryTagPriorityClass}.
+   *
+   * @param name the name of the priority class
+   * @param weight the relative weight of the priority class, at least 1
+   * @param tagNamePattern the tag name pattern, or null to match any tag name
+   * @param tagGroupMask the bit mask of the tag groups, or 0 to match any tag group
+   * @throws IllegalArgumentException if the weight is less than 1
+   * @since 1.1.0
+   */
+  public CanaryTagPriorityClass(String name, int weight, String tagNamePattern, int tagGroupMask) {
+    if (weight < 1) {
+      throw new IllegalArgumentException(
+          "The weight of priority class " + name + " must be at least 1.");
+    }
+    this.name = name;
+    this.weight = weight;
+    this.tagNamePattern = tagNamePattern;
+    this.tagGroupMask = tagGroupMask;
+  }
+
+  /**
+   * Gets the name of the priority class.
+   *
+   * @return the name of the priority class
+   * @since 1.1.0
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the relative weight of the priority class when scheduling payloads to send.
+   *
+   * @return the weight of the priority class
+   * @since 1.1.0
+   */
+  public int getWeight() {
+    return weight;
+  }
+
+  /**
+   * Gets a boolean indicating whether the priority class matches tags by tag group, so that the
+   * tag groups of a tag must be read to match it.
+   *
+   * @return {@code true} if the priority class matches by tag group, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean requiresTagGroups() {
+    return tagGroupMask != 0;
+  }
+
+  /**
+   * Gets a boolean indicating whether the priority class matches the specified tag.
+   *
+   * @param tagName the name of the tag
+   * @param tagGroups the bit mask of the tag groups of the tag, only used if {@link
+   *     #requiresTagGroups()} is {@code true}
+   * @return {@code true} if the priority class matches the tag, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean matchesTag(String tagName, int tagGroups) {
+    boolean groupMatches = tagGroupMask == 0 || (tagGroups & tagGroupMask) != 0;
+    return groupMatches
+        && (tagNamePattern == null || CanaryTagFilterRule.matchesPattern(tagNamePattern, tagName));
+  }
+}
@@ -0,0 +1,136 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.sc.canary.filter.CanaryTagGroups;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for assigning tags to {@link CanaryTagPriorityClass}es. Each tag is assigned to the first
+ * configured priority class which matches it, or to the default priority class if none match. The
+ * default priority class is always the last priority class. The priority class of each tag is
+ * resolved once and kept in a map, so that the tag groups of a tag are only read once.
+ *
+ * <p>This class is not thread safe, and is used by the connector main thread only.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagPriorityClasses {
+
+  /**
+   * The name of the default priority class, which tags matching no configured priority class are
+   * assigned to.
+   *
+   * @since 1.1.0
+   */
+  public static final String DEFAULT_PRIORITY_CLASS_NAME = "Default";
+
+  /**
+   * The priority classes, in order of precedence, followed by the default priority class.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagPriorityClass[] priorityClasses;
+
+  /**
+   * Boolean indicating whether any priority class matches by tag group.
+   *
+   * @since 1.1.0
+   */
+  private final boolean priorityClassesRequireTagGroups;
+
+  /**
+   * Map of tag names to the index of the priority class of the tag.
+   *
+   * @since 1.1.0
+   */
+  private final Map priorityClassIndexesByTagName = new HashMap();
+
+  /**
+   * Constructor for a {@link CanaryTagPriorityClasses} with the specified priority classes and
+   * default priority class weight.
+   *
+   * @param priorityClasses the list of {@link CanaryTagPriorityClass}es, in order of precedence
+   * @param defaultWeight the relative weight of the default priority class, at least 1
+   * @since 1.1.0
+   */
+  public CanaryTagPriorityClasses(List priorityClasses, int defaultWeight) {
+    final String matchAnyTagNamePattern = null;
+    final int matchAnyTagGroupMask = 0;
+    this.priorityClasses = new CanaryTagPriorityClass[priorityClasses.size() + 1];
+    boolean requireTagGroups = false;
+    for (int classIndex = 0; classIndex < priorityClasses.size(); classIndex++) {
+      this.priorityClasses[classIndex] = (CanaryTagPriorityClass) priorityClasses.get(classIndex);
+      requireTagGroups |= this.priorityClasses[classIndex].requiresTagGroups();
+    }
+    this.priorityClasses[priorityClasses.size()] =
+        new CanaryTagPriorityClass(
+            DEFAULT_PRIORITY_CLASS_NAME,
+            defaultWeight,
+            matchAnyTagNamePattern,
+            matchAnyTagGroupMask);
+    this.priorityClassesRequireTagGroups = requireTagGroups;
+  }
+
+  /**
+   * Gets the number of priority classes, including the default priority class.
+   *
+   * @return the number of priority classes
+   * @since 1.1.0
+   */
+  public int getPriorityClassCount() {
+    return priorityClasses.length;
+  }
+
+  /**
+   * Gets the priority class at the specified index.
+   *
+   * @param classIndex the index of the priority class
+   * @return the priority class
+   * @since 1.1.0
+   */
+  public CanaryTagPriorityClass getPriorityClass(int classIndex) {
+    return priorityClasses[classIndex];
+  }
+
+  /**
+   * Gets the index of the priority class of the specified tag, resolving it if the tag has not
+   * been seen before.
+   *
+   * @param tagName the name of the tag
+   * @return the index of the priority class of the tag
+   * @since 1.1.0
+   */
+  public int getPriorityClassIndex(String tagName) {
+    int classIndex = 0;
+    if (priorityClasses.length > 1) {
+      Integer knownClassIndex = (Integer) priorityClassIndexesByTagName.get(tagName);
+      if (knownClassIndex == null) {
+        knownClassIndex = new Integer(resolvePriorityClassIndex(tagName));
+        priorityClassIndexesByTagName.put(tagName, knownClassIndex);
+      }
+      classIndex = knownClassIndex.intValue();
+    }
+    return classIndex;
+  }
+
+  /**
+   * Resolves the index of the priority class of the specified tag, from the first matching
+   * priority class. The default priority class matches every tag. The tag groups of the tag are
+   * only read if a priority class matches by tag group.
+   *
+   * @param tagName the name of the tag
+   * @return the index of the priority class of the tag
+   * @since 1.1.0
+   */
+  private int resolvePriorityClassIndex(String tagName) {
+    final int tagGroups =
+        priorityClassesRequireTagGroups ? CanaryTagGroups.readTagGroups(tagName) : 0;
+    int classIndex = 0;
+    while (!priorityClasses[classIndex].matchesTag(tagName, tagGroups)) {
+      classIndex++;
+    }
+    return classIndex;
+  }
+}
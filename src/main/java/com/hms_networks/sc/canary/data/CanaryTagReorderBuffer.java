@@ -0,0 +1,266 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.sc.canary.filter.CanaryFilterUtils;
+import com.hms_networks.sc.canary.filter.CanaryTagFilterSettings;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class for a bounded per-tag buffer which releases the data points of each tag in order of sample
+ * time. Data points of a tag may be polled out of order, for example after a catch-up of historical
+ * data, and Canary either rejects data points older than the last data point of a tag or has to
+ * insert them, which is slow on the historian.
+ *
+ * <p>Each data point is held until the newest sample time polled for any tag is more than the
+ * reorder window past its sample time, so that data points of a tag which arrive up to the reorder
+ * window late are released in order. The number of data points held for each tag is limited, and
+ * the oldest data point of a tag is released early when the limit is reached. With a reorder
+ * window of 0, data points are released as they arrive. A data point polled live is the newest
+ * polled, so every live data point is held for the full reorder window, which is added to the
+ * latency of live data.
+ *
+ * <p>Data points with a sample time before the last released data point of their tag can no
+ * longer be released in order. They are reported as late instead, so that they can be sent
+ * separately by a session with insert replace data enabled.
+ *
+ * <p>A reorder buffer is not thread safe, and is only used by the {@link CanaryDataPayloadManager}
+ * while adding polled data points.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagReorderBuffer {
+
+  /**
+   * The maximum number of data points held for each tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_HELD_DATA_POINTS_PER_TAG = 32;
+
+  /**
+   * The reorder window (in seconds).
+   *
+   * @since 1.1.0
+   */
+  private final long reorderWindowSecs;
+
+  /**
+   * Map of tag names to the {@link TagOrder} of the tag.
+   *
+   * @since 1.1.0
+   */
+  private final Map tagOrdersByTagName = new HashMap();
+
+  /**
+   * The set of {@link TagOrder}s which hold one or more data points.
+   *
+   * @since 1.1.0
+   */
+  private final Set heldTagOrders = new HashSet();
+
+  /**
+   * The newest sample time (in seconds since epoch) of any data point added to the buffer, or -1
+   * if none.
+   *
+   * @since 1.1.0
+   */
+  private long newestSampleTimeSeconds = -1;
+
+  /**
+   * Constructor for a {@link CanaryTagReorderBuffer} with the specified reorder window.
+   *
+   * @param reorderWindowSecs the reorder window (in seconds), or 0 to release data points as they
+   *     arrive
+   * @since 1.1.0
+   */
+  public CanaryTagReorderBuffer(long reorderWindowSecs) {
+    this.reorderWindowSecs = reorderWindowSecs;
+  }
+
+  /**
+   * Adds the specified data point to the buffer. A data point with an invalid timestamp is released
+   * immediately, and a data point older than the last released data point of its tag is added to
+   * the specified late batch.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @param releasedBatch the batch to add released data points to
+   * @param lateBatch the batch to add late data points to
+   * @since 1.1.0
+   */
+  public void add(
+      DataPoint dataPoint,
+      String timestampOverride,
+      CanaryDataPointBatch releasedBatch,
+      CanaryDataPointBatch lateBatch) {
+    final long sampleTimeSeconds = CanaryFilterUtils.getSampleTimeSeconds(dataPoint);
+    if (sampleTimeSeconds == CanaryFilterUtils.INVALID_SAMPLE_TIME) {
+      releasedBatch.add(dataPoint, timestampOverride, CanaryTagFilterSettings.FULL_PRECISION);
+    } else {
+      TagOrder tagOrder = getTagOrder(dataPoint.getTagName());
+      if (sampleTimeSeconds < tagOrder.lastReleasedSeconds) {
+        CanaryMetricsRegistry.POINTS_LATE.increment();
+        lateBatch.add(dataPoint, timestampOverride, CanaryTagFilterSettings.FULL_PRECISION);
+      } else if (reorderWindowSecs == 0) {
+        tagOrder.lastReleasedSeconds = sampleTimeSeconds;
+        releasedBatch.add(dataPoint, timestampOverride, CanaryTagFilterSettings.FULL_PRECISION);
+      } else {
+        tagOrder.hold(new HeldDataPoint(dataPoint, timestampOverride, sampleTimeSeconds));
+        heldTagOrders.add(tagOrder);
+        CanaryMetricsRegistry.REORDER_HELD_POINTS.add(1);
+        if (tagOrder.heldDataPoints.size() > MAX_HELD_DATA_POINTS_PER_TAG) {
+          tagOrder.releaseOldest(releasedBatch);
+        }
+      }
+      newestSampleTimeSeconds = Math.max(newestSampleTimeSeconds, sampleTimeSeconds);
+    }
+  }
+
+  /**
+   * Releases the held data points of every tag which are more than the reorder window older than
+   * the newest sample time added to the buffer, in order of sample time for each tag.
+   *
+   * @param releasedBatch the batch to add released data points to
+   * @since 1.1.0
+   */
+  public void release(CanaryDataPointBatch releasedBatch) {
+    final long releaseSampleTimeSeconds = newestSampleTimeSeconds - reorderWindowSecs;
+    Iterator iterator = heldTagOrders.iterator();
+    while (iterator.hasNext()) {
+      TagOrder tagOrder = (TagOrder) iterator.next();
+      while (!tagOrder.heldDataPoints.isEmpty()
+          && ((HeldDataPoint) tagOrder.heldDataPoints.get(0)).sampleTimeSeconds
+              <= releaseSampleTimeSeconds) {
+        tagOrder.releaseOldest(releasedBatch);
+      }
+      if (tagOrder.heldDataPoints.isEmpty()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Gets the {@link TagOrder} of the specified tag, creating it if it does not exist.
+   *
+   * @param tagName the name of the tag
+   * @return the order of the tag
+   * @since 1.1.0
+   */
+  private TagOrder getTagOrder(String tagName) {
+    TagOrder tagOrder = (TagOrder) tagOrdersByTagName.get(tagName);
+    if (tagOrder == null) {
+      tagOrder = new TagOrder();
+      tagOrdersByTagName.put(tagName, tagOrder);
+    }
+    return tagOrder;
+  }
+
+  /**
+   * Class for the held data points and last released sample time of a single tag.
+   *
+   * @since 1.1.0
+   */
+  private static class TagOrder {
+
+    /**
+     * The list of {@link HeldDataPoint}s of the tag, in order of sample time.
+     *
+     * @since 1.1.0
+     */
+    private final List heldDataPoints = new ArrayList();
+
+    /**
+     * The sample time (in seconds since epoch) of the last released data point of the tag, or -1
+     * if none.
+     *
+     * @since 1.1.0
+     */
+    private long lastReleasedSeconds = -1;
+
+    /**
+     * Holds the specified data point, after any held data points with the same or an earlier
+     * sample time.
+     *
+     * @param heldDataPoint the data point to hold
+     * @since 1.1.0
+     */
+    private void hold(HeldDataPoint heldDataPoint) {
+      int insertIndex = heldDataPoints.size();
+      while (insertIndex > 0
+          && ((HeldDataPoint) heldDataPoints.get(insertIndex - 1)).sampleTimeSeconds
+              > heldDataPoint.sampleTimeSeconds) {
+        insertIndex--;
+      }
+      heldDataPoints.add(insertIndex, heldDataPoint);
+    }
+
+    /**
+     * Releases the oldest held data point of the tag to the specified batch.
+     *
+     * @param releasedBatch the batch to add the released data point to
+     * @since 1.1.0
+     */
+    private void releaseOldest(CanaryDataPointBatch releasedBatch) {
+      HeldDataPoint heldDataPoint = (HeldDataPoint) heldDataPoints.remove(0);
+      lastReleasedSeconds = heldDataPoint.sampleTimeSeconds;
+      releasedBatch.add(
+          heldDataPoint.dataPoint,
+          heldDataPoint.timestampOverride,
+          CanaryTagFilterSettings.FULL_PRECISION);
+      CanaryMetricsRegistry.REORDER_HELD_POINTS.add(-1);
+    }
+  }
+
+  /**
+   * Class for a data point held by the buffer, with its timestamp override and sample time.
+   *
+   * @since 1.1.0
+   */
+  private static class HeldDataPoint {
+
+    /**
+     * The data point.
+     *
+     * @since 1.1.0
+     */
+    final DataPoint dataPoint;
+
+    /**
+     * The ISO 8601 timestamp to use for the data point, or null to use the data point timestamp.
+     *
+     * @since 1.1.0
+     */
+    final String timestampOverride;
+
+    /**
+     * The sample time (in seconds since epoch) of the data point.
+     *
+     * @since 1.1.0
+     */
+    final long sampleTimeSeconds;
+
+    /**
+     * Constructor for a {@link HeldDataPoint}.
+     *
+     * @param dataPoint the data point
+     * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use
+     *     the data point timestamp
+     * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+     * @since 1.1.0
+     */
+    HeldDataPoint(DataPoint dataPoint, String timestampOverride, long sampleTimeSeconds) {
+      this.dataPoint = dataPoint;
+      this.timestampOverride = timestampOverride;
+      this.sampleTimeSeconds = sampleTimeSeconds;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.hms_networks.sc.canary.data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class for partitioning tags across a number of shards using a consistent hash ring. Each shard
+ * is placed on the ring at a number of virtual node positions, and each tag is assigned to the
+ * shard of the first virtual node at or after the hash of its tag name. Changing the number of
+ * shards therefore only moves a proportional fraction of tags to a different shard.
+ *
+ * <p>The shard of each tag is cached after it is first calculated, so that tags are only hashed
+ * once.
+ *
+ * @since 1.1.0
+ * @author HMS Networks, MU Americas Solution Center
+ */
+public class CanaryTagShardRing {
+
+  /**
+   * The number of virtual node positions for each shard on the ring.
+   *
+   * @since 1.1.0
+   */
+  private static final int VIRTUAL_NODES_PER_SHARD = 64;
+
+  /**
+   * The FNV-1a 32-bit hash offset basis.
+   *
+   * @since 1.1.0
+   */
+  private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+
+  /**
+   * The FNV-1a 32-bit hash prime.
+   *
+   * @since 1.1.0
+   */
+  private static final int FNV_PRIME = 0x01000193;
+
+  /**
+   * The number of shards on the ring.
+   *
+   * @since 1.1.0
+   */
+  private final int shardCount;
+
+  /**
+   * The sorted hash positions of all virtual nodes on the ring.
+   *
+   * @since 1.1.0
+   */
+  private final int[] ringPositions;
+
+  /**
+   * The shard index of the virtual node at the same index in {@link #ringPositions}.
+   *
+   * @since 1.1.0
+   */
+  private final int[] ringShards;
+
+  /**
+   * Cache of the shard index (as an {@link Integer}) of each tag name that has been looked up.
+   *
+   * @since 1.1.0
+   */
+  private final Map tagShardCache = new HashMap();
+
+  /**
+   * Constructor for a {@link CanaryTagShardRing} with the specified number of shards.
+   *
+   * @param shardCount the number of shards
+   * @throws IllegalArgumentException if the number of shards is less than 1
+   * @since 1.1.0
+   */
+  public CanaryTagShardRing(int shardCount) {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("Invalid shard count: " + shardCount);
+    }
+    this.shardCount = shardCount;
+
+    // Calculate virtual node positions, packed with shard index for sorting
+    final int virtualNodeCount = shardCount * VIRTUAL_NODES_PER_SHARD;
+    long[] virtualNodes = new long[virtualNodeCount];
+    for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+      for (int nodeIndex = 0; nodeIndex < VIRTUAL_NODES_PER_SHARD; nodeIndex++) {
+        int position = hash("shard-" + shardIndex + "#" + nodeIndex);
+        virtualNodes[shardIndex * VIRTUAL_NODES_PER_SHARD + nodeIndex] =
+            ((long) position << 32) | shardIndex;
+      }
+    }
+    Arrays.sort(virtualNodes);
+
+    // Unpack sorted virtual nodes
+    ringPositions = new int[virtualNodeCount];
+    ringShards = new int[virtualNodeCount];
+    for (int i = 0; i < virtualNodeCount; i++) {
+      ringPositions[i] = (int) (virtualNodes[i] >> 32);
+      ringShards[i] = (int) (virtualNodes[i] & 0xFFFFFFFFL);
+    }
+  }
+
+  /**
+   * Gets the number of shards on the ring.
+   *
+   * @return the number of shards
+   * @since 1.1.0
+   */
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  /**
+   * Gets the shard index for the specified tag name.
+   *
+   * @param tagName the tag name
+   * @return the shard index for the tag name, from 0 to the number of shards minus 1
+   * @since 1.1.0
+   */
+  public synchronized int getShardIndex(String tagName) {
+    int shardIndex = 0;
+    if (shardCount > 1) {
+      Integer cachedShardIndex = (Integer) tagShardCache.get(tagName);
+      if (cachedShardIndex != null) {
+        shardIndex = cachedShardIndex.intValue();
+      } else {
+        shardIndex = findShardIndex(hash(tagName));
+        tagShardCache.put(tagName, new Integer(shardIndex));
+      }
+    }
+    return shardIndex;
+  }
+
+  /**
+   * Finds the shard of the first virtual node at or after the specified hash on the ring, wrapping
+   * around to the first virtual node if necessary.
+   *
+   * @param hash the hash to find the shard for
+   * @return the shard index for the hash
+   * @since 1.1.0
+   */
+  private int findShardIndex(int hash) {
+    int searchIndex = Arrays.binarySearch(ringPositions, hash);
+    if (searchIndex < 0) {
+      // Convert insertion point to index of next virtual node
+      searchIndex = -(searchIndex + 1);
+    }
+    if (searchIndex >= ringPositions.length) {
+      searchIndex = 0;
+    }
+    return ringShards[searchIndex];
+  }
+
+  /**
+   * Calculates the FNV-1a 32-bit hash of the specified string.
+   *
+   * @param value the string to hash
+   * @return the hash of the string
+   * @since 1.1.0
+   */
+  static int hash(String value) {
+    int hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      hash ^= (c & 0xFF);
+      hash *= FNV_PRIME;
+      hash ^= (c >>> 8);
+      hash *= FNV_PRIME;
+    }
+    return hash;
+  }
+}
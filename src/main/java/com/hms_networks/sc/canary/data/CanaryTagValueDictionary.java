@@ -0,0 +1,180 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointIntegerMappedString;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointString;
+import com.hms_networks.americas.sc.extensions.datapoint.DataQuality;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Class for a per-tag dictionary of the values of string and mapped string tags. String tags
+ * typically switch between a small set of states (for example "RUNNING" and "STOPPED"), and the
+ * same values are repeated for every sample of the tag. Each distinct value of a tag is kept once
+ * in its dictionary, and every payload refers to that single string instance, so that pending
+ * payloads do not hold a separate copy of the value for every sample.
+ *
+ * <p>The dictionary also tracks the last value and quality added to a payload for each tag, so
+ * that consecutive identical samples can be recognized. The number of values kept for each tag is
+ * limited, so that tags with free-form text values do not grow the dictionary without bound. The
+ * last values are shared by every consumer of the stream, so they are cleared whenever payloads are
+ * dropped for a consumer, which may then not have received them.
+ *
+ * <p>A dictionary is not thread safe, and is owned by a single {@link CanaryDataPayloadStream}
+ * which only accesses it while synchronized.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagValueDictionary {
+
+  /**
+   * The maximum number of distinct values kept for each tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_VALUES_PER_TAG = 64;
+
+  /**
+   * Map of tag names to the {@link TagValues} of the tag.
+   *
+   * @since 1.1.0
+   */
+  private final Map tagValuesByTagName = new HashMap();
+
+  /**
+   * Gets the string value of the specified data point, if it is a string or mapped string data
+   * point.
+   *
+   * @param dataPoint the data point
+   * @return the string value of the data point, or null if it is not a string or mapped string
+   *     data point
+   * @since 1.1.0
+   */
+  public static String getStringValue(DataPoint dataPoint) {
+    String stringValue = null;
+    if (dataPoint instanceof DataPointIntegerMappedString) {
+      stringValue = ((DataPointIntegerMappedString) dataPoint).getValue();
+    } else if (dataPoint instanceof DataPointString) {
+      stringValue = ((DataPointString) dataPoint).getValue();
+    }
+    return stringValue;
+  }
+
+  /**
+   * Gets the dictionary instance of the specified value of the specified tag, adding the value to
+   * the dictionary of the tag if it has not been seen before and the dictionary is not full.
+   *
+   * @param tagName the name of the tag
+   * @param value the value
+   * @return the dictionary instance of the value, or the specified value if the dictionary of the
+   *     tag is full
+   * @since 1.1.0
+   */
+  public String getValue(String tagName, String value) {
+    String dictionaryValue = value;
+    if (value != null) {
+      TagValues tagValues = getTagValues(tagName);
+      String knownValue = (String) tagValues.values.get(value);
+      if (knownValue != null) {
+        dictionaryValue = knownValue;
+      } else if (tagValues.values.size() < MAX_VALUES_PER_TAG) {
+        tagValues.values.put(value, value);
+      }
+    }
+    return dictionaryValue;
+  }
+
+  /**
+   * Gets a boolean indicating whether the specified value and quality are the same as the last
+   * value and quality added to a payload for the specified tag.
+   *
+   * @param tagName the name of the tag
+   * @param value the value
+   * @param quality the quality
+   * @return {@code true} if the value and quality are repeated, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean isLastValue(String tagName, String value, DataQuality quality) {
+    TagValues tagValues = (TagValues) tagValuesByTagName.get(tagName);
+    return tagValues != null
+        && tagValues.lastValue != null
+        && tagValues.lastValue.equals(value)
+        && tagValues.lastQuality.equals(quality);
+  }
+
+  /**
+   * Sets the last value and quality added to a payload for the specified tag.
+   *
+   * @param tagName the name of the tag
+   * @param value the value
+   * @param quality the quality
+   * @since 1.1.0
+   */
+  public void setLastValue(String tagName, String value, DataQuality quality) {
+    TagValues tagValues = getTagValues(tagName);
+    tagValues.lastValue = getValue(tagName, value);
+    tagValues.lastQuality = quality;
+  }
+
+  /**
+   * Clears the last value and quality of every tag, so that the next value of each tag is added to
+   * a payload even if it repeats the last value.
+   *
+   * @since 1.1.0
+   */
+  public void clearLastValues() {
+    Iterator iterator = tagValuesByTagName.values().iterator();
+    while (iterator.hasNext()) {
+      TagValues tagValues = (TagValues) iterator.next();
+      tagValues.lastValue = null;
+      tagValues.lastQuality = null;
+    }
+  }
+
+  /**
+   * Gets the {@link TagValues} of the specified tag, creating it if it does not exist.
+   *
+   * @param tagName the name of the tag
+   * @return the values of the tag
+   * @since 1.1.0
+   */
+  private TagValues getTagValues(String tagName) {
+    TagValues tagValues = (TagValues) tagValuesByTagName.get(tagName);
+    if (tagValues == null) {
+      tagValues = new TagValues();
+      tagValuesByTagName.put(tagName, tagValues);
+    }
+    return tagValues;
+  }
+
+  /**
+   * Class for the dictionary values and last value of a single tag.
+   *
+   * @since 1.1.0
+   */
+  private static class TagValues {
+
+    /**
+     * Map of each distinct value of the tag to its dictionary instance.
+     *
+     * @since 1.1.0
+     */
+    private final Map values = new HashMap();
+
+    /**
+     * The last value added to a payload for the tag, or null if none.
+     *
+     * @since 1.1.0
+     */
+    private String lastValue = null;
+
+    /**
+     * The quality of the last value added to a payload for the tag, or null if none.
+     *
+     * @since 1.1.0
+     */
+    private DataQuality lastQuality = null;
+  }
+}
@@ -0,0 +1,157 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.system.time.SCTimeUtils;
+import java.util.Date;
+
+/**
+ * Class for caching the ISO 8601 formatted timestamps of data points by second. Data point
+ * timestamps have a resolution of one second, so every data point sampled in the same second has
+ * the same formatted timestamp. The formatted timestamp of each second is created once using
+ * {@link SCTimeUtils#getIso8601FormattedTimestampForDataPoint(DataPoint)}, or {@link
+ * SCTimeUtils#getIso8601FormattedTimestampForDate(Date)} for the aggregated timestamps of time
+ * slices, and the same string is used for every data point and time slice of that second, instead
+ * of formatting a new date-time string for each of them.
+ *
+ * <p>A poll of the historical data queue returns the data points of each tag in turn, so that the
+ * same range of seconds is repeated for every tag. The cache is therefore direct-mapped by second,
+ * with enough entries to hold every second of a typical poll.
+ *
+ * <p>Cached timestamps are keyed only by the second since epoch, not by the local time offset which
+ * {@link SCTimeUtils} applies when formatting them. They are therefore only valid while that offset
+ * stays fixed. The connector does not change the offset after startup, so entries are never
+ * invalidated.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTimestampCache {
+
+  /**
+   * The number of entries in the cache. Must be a power of two.
+   *
+   * @since 1.1.0
+   */
+  private static final int CACHE_SIZE = 256;
+
+  /**
+   * The mask applied to a second to get its entry index in the cache.
+   *
+   * @since 1.1.0
+   */
+  private static final int CACHE_INDEX_MASK = CACHE_SIZE - 1;
+
+  /**
+   * The second (since epoch) of each cache entry, or -1 if the entry is empty.
+   *
+   * @since 1.1.0
+   */
+  private static final long[] cachedSeconds = createEmptyCachedSeconds();
+
+  /**
+   * The ISO 8601 formatted timestamp of each cache entry.
+   *
+   * @since 1.1.0
+   */
+  private static final String[] cachedTimestamps = new String[CACHE_SIZE];
+
+  /**
+   * Gets the ISO 8601 formatted timestamp of the specified data point, formatting it only if no
+   * data point or date of the same second has been formatted recently.
+   *
+   * @param dataPoint the data point
+   * @return the ISO 8601 formatted timestamp of the data point
+   * @throws Exception if the timestamp of the data point cannot be formatted
+   * @since 1.1.0
+   */
+  public static synchronized String getIso8601FormattedTimestamp(DataPoint dataPoint)
+      throws Exception {
+    long seconds;
+    try {
+      seconds = Long.parseLong(dataPoint.getTimeStamp());
+    } catch (NumberFormatException e) {
+      seconds = -1;
+    }
+
+    String formattedTimestamp;
+    if (seconds < 0) {
+      // Not cacheable, format without the cache
+      formattedTimestamp = SCTimeUtils.getIso8601FormattedTimestampForDataPoint(dataPoint);
+    } else {
+      formattedTimestamp = getCachedTimestamp(seconds);
+      if (formattedTimestamp == null) {
+        formattedTimestamp = SCTimeUtils.getIso8601FormattedTimestampForDataPoint(dataPoint);
+        putCachedTimestamp(seconds, formattedTimestamp);
+      }
+    }
+    return formattedTimestamp;
+  }
+
+  /**
+   * Gets the ISO 8601 formatted timestamp of the specified date, such as the aggregated timestamp
+   * of a time slice of data points, formatting it only if no data point or date of the same second
+   * has been formatted recently.
+   *
+   * @param date the date
+   * @return the ISO 8601 formatted timestamp of the date
+   * @since 1.1.0
+   */
+  public static synchronized String getIso8601FormattedTimestamp(Date date) {
+    final long millisPerSecond = 1000;
+    final long timeMillis = date.getTime();
+
+    String formattedTimestamp;
+    if (timeMillis < 0 || timeMillis % millisPerSecond != 0) {
+      // Not a whole second, format without the cache
+      formattedTimestamp = SCTimeUtils.getIso8601FormattedTimestampForDate(date);
+    } else {
+      final long seconds = timeMillis / millisPerSecond;
+      formattedTimestamp = getCachedTimestamp(seconds);
+      if (formattedTimestamp == null) {
+        formattedTimestamp = SCTimeUtils.getIso8601FormattedTimestampForDate(date);
+        putCachedTimestamp(seconds, formattedTimestamp);
+      }
+    }
+    return formattedTimestamp;
+  }
+
+  /**
+   * Gets the cached ISO 8601 formatted timestamp of the specified second.
+   *
+   * @param seconds the second (since epoch)
+   * @return the formatted timestamp of the second, or null if it is not cached
+   * @since 1.1.0
+   */
+  private static String getCachedTimestamp(long seconds) {
+    final int cacheIndex = (int) (seconds & CACHE_INDEX_MASK);
+    return cachedSeconds[cacheIndex] == seconds ? cachedTimestamps[cacheIndex] : null;
+  }
+
+  /**
+   * Caches the ISO 8601 formatted timestamp of the specified second, replacing the entry of any
+   * other second with the same entry index.
+   *
+   * @param seconds the second (since epoch)
+   * @param formattedTimestamp the formatted timestamp of the second
+   * @since 1.1.0
+   */
+  private static void putCachedTimestamp(long seconds, String formattedTimestamp) {
+    final int cacheIndex = (int) (seconds & CACHE_INDEX_MASK);
+    cachedSeconds[cacheIndex] = seconds;
+    cachedTimestamps[cacheIndex] = formattedTimestamp;
+  }
+
+  /**
+   * Creates the array of cache entry seconds, with every entry empty.
+   *
+   * @return the array of cache entry seconds
+   * @since 1.1.0
+   */
+  private static long[] createEmptyCachedSeconds() {
+    long[] emptyCachedSeconds = new long[CACHE_SIZE];
+    for (int cacheIndex = 0; cacheIndex < CACHE_SIZE; cacheIndex++) {
+      emptyCachedSeconds[cacheIndex] = -1;
+    }
+    return emptyCachedSeconds;
+  }
+}
@@ -0,0 +1,91 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+
+/**
+ * Filter stage which replaces the samples of numeric tags with statistics of fixed windows of
+ * sample time. Windows are aligned to multiples of the window length since epoch, and a window is
+ * closed when the first sample of a later window of its tag arrives, or when the stage is flushed
+ * at a time after the end of the window. The {@link CanaryTagFilter} flushes the stage at the
+ * newest sample time polled for any tag, so that the statistics reported for a sequence of samples
+ * do not depend on when they are polled, and historical data polled while catching up produces the
+ * same statistics as data polled live.
+ *
+ * <p>When a window is closed, each configured statistic is reported as a separate data point,
+ * named with the name of the statistic appended to the tag name and timestamped with the start of
+ * the window. Samples are not reported themselves. A sample with a sample time before the open
+ * window, or before the end of the last closed window, is added to the open window or the window
+ * after the last closed window, so that the statistics of a window are never reported twice.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryAggregationFilterStage implements CanaryTagFilterStage {
+
+  /**
+   * Filters the specified data point, adding it to the open window of its tag and adding the
+   * statistics of the previous window to the specified result if the data point closes it.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @param tagState the filter state of the tag of the data point
+   * @param result the result to add the statistics of a closed window to
+   * @since 1.1.0
+   */
+  public void filter(
+      DataPoint dataPoint,
+      String timestampOverride,
+      long sampleTimeSeconds,
+      CanaryTagState tagState,
+      CanaryTagFilterResult result) {
+    final CanaryTagFilterSettings settings = tagState.getSettings();
+    final long windowSecs = settings.getAggregationWindowSecs();
+    final long windowStartSeconds = sampleTimeSeconds - (sampleTimeSeconds % windowSecs);
+
+    final CanaryTagWindow window = tagState.getWindow();
+    if (!window.isOpen()) {
+      window.open(Math.max(windowStartSeconds, window.getClosedWindowEndSeconds()));
+    } else if (windowStartSeconds > window.getWindowStartSeconds()) {
+      close(tagState, result);
+      window.open(windowStartSeconds);
+    }
+
+    window.addSample(dataPoint);
+    CanaryMetricsRegistry.POINTS_FILTERED.increment();
+  }
+
+  /**
+   * Flushes the filter state of the specified tag, closing the open window of the tag and adding
+   * its statistics to the specified result if the window ends at or before the specified time.
+   *
+   * @param timeSeconds the time (in seconds since epoch) to flush the state of the tag at
+   * @param tagState the filter state of the tag
+   * @param result the result to add the statistics of a closed window to
+   * @since 1.1.0
+   */
+  public void flush(long timeSeconds, CanaryTagState tagState, CanaryTagFilterResult result) {
+    final CanaryTagWindow window = tagState.getWindow();
+    if (window.isOpen()
+        && timeSeconds
+            >= window.getWindowStartSeconds() + tagState.getSettings().getAggregationWindowSecs()) {
+      close(tagState, result);
+    }
+  }
+
+  /**
+   * Closes the open window of the specified tag, adding its statistics to the specified result.
+   *
+   * @param tagState the filter state of the tag
+   * @param result the result to add the statistics of the window to
+   * @since 1.1.0
+   */
+  private static void close(CanaryTagState tagState, CanaryTagFilterResult result) {
+    final CanaryTagFilterSettings settings = tagState.getSettings();
+    final CanaryTagWindow window = tagState.getWindow();
+    window.addStatistics(tagState.getTagName(), settings.getAggregationStatistics(), result);
+    window.close(window.getWindowStartSeconds() + settings.getAggregationWindowSecs());
+  }
+}
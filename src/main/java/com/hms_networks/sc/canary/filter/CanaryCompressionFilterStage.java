@@ -0,0 +1,221 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointFloat;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointInteger;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+
+/**
+ * Filter stage which compresses analog tags using the swinging door trending algorithm. Only the
+ * data points needed to reconstruct the trend of the tag, by linear interpolation between reported
+ * data points, to within the compression deviation are reported.
+ *
+ * <p>Two doors are swung from the last reported data point, narrowed by each data point received
+ * since so that the upper door passes above it, and the lower door below it, by the compression
+ * deviation. The newest data point is held back, and replaces the held data point while the line
+ * to it from the last reported data point lies between the doors, as every data point dropped is
+ * then within the compression deviation of that line. Otherwise, the held data point is reported,
+ * and the doors are swung again from it. Only one data point is held per tag, so the state of the
+ * stage is constant in size.
+ *
+ * <p>The held data point and the data point received are reported immediately if its quality
+ * changed (when enabled), the maximum silence has elapsed since the last reported data point, or
+ * its value is not a number. Data points with a sample time not after the last reported data point
+ * are only reported if they differ from it by more than the compression deviation.
+ *
+ * <p>Ewon tags are logged on change, so a later data point of a tag which would report the held
+ * data point may never arrive. When the stage is flushed, the held data point is reported if the
+ * maximum hold time has elapsed since its sample time, or the maximum silence has elapsed since the
+ * last reported data point, so that a step change of a tag is not held back indefinitely.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryCompressionFilterStage implements CanaryTagFilterStage {
+
+  /**
+   * Gets a boolean indicating whether the specified data point is of a type compressed by this
+   * stage. Data points of other types are filtered by the {@link CanaryDeadbandFilterStage}.
+   *
+   * @param dataPoint the data point
+   * @return {@code true} if the data point is a float or integer data point, {@code false}
+   *     otherwise
+   * @since 1.1.0
+   */
+  public static boolean isCompressible(DataPoint dataPoint) {
+    return dataPoint instanceof DataPointFloat || dataPoint instanceof DataPointInteger;
+  }
+
+  /**
+   * Filters the specified data point, adding the held data point and the data point to the
+   * specified result as they are reported.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @param tagState the filter state of the tag of the data point
+   * @param result the result to add the reported data points to
+   * @since 1.1.0
+   */
+  public void filter(
+      DataPoint dataPoint,
+      String timestampOverride,
+      long sampleTimeSeconds,
+      CanaryTagState tagState,
+      CanaryTagFilterResult result) {
+    final CanaryTagFilterSettings settings = tagState.getSettings();
+    final double deviation = settings.getCompressionDeviation();
+    final int quality = dataPoint.getQuality().getRawDataQuality();
+    final double value = CanaryFilterUtils.getNumericValue(dataPoint);
+    final double reportedValue = tagState.getLastReportedNumericValue();
+    final long reportedTimeSeconds = tagState.getLastReportedTimeSeconds();
+
+    if (!tagState.isReported()
+        || (settings.isPassOnQualityChange() && quality != tagState.getLastReportedQuality())
+        || (settings.getMaxSilenceSecs() > 0
+            && sampleTimeSeconds - reportedTimeSeconds >= settings.getMaxSilenceSecs())) {
+      reportHeld(tagState, result);
+      report(dataPoint, timestampOverride, value, quality, sampleTimeSeconds, tagState, result);
+    } else if (Double.isNaN(value)
+        || Double.isNaN(reportedValue)
+        || sampleTimeSeconds <= reportedTimeSeconds) {
+      // No slope can be calculated, compare with the last reported value only
+      if (tagState.getHeldDataPoint() == null
+          && isWithinDeviation(value, reportedValue, deviation)) {
+        CanaryMetricsRegistry.POINTS_FILTERED.increment();
+      } else {
+        reportHeld(tagState, result);
+        report(dataPoint, timestampOverride, value, quality, sampleTimeSeconds, tagState, result);
+      }
+    } else {
+      final long elapsedSeconds = sampleTimeSeconds - reportedTimeSeconds;
+      final double slope = (value - reportedValue) / elapsedSeconds;
+      final double upperSlope = (value + deviation - reportedValue) / elapsedSeconds;
+      final double lowerSlope = (value - deviation - reportedValue) / elapsedSeconds;
+
+      if (tagState.getHeldDataPoint() == null) {
+        tagState.hold(
+            dataPoint, timestampOverride, value, sampleTimeSeconds, upperSlope, lowerSlope);
+      } else if (slope <= tagState.getUpperDoorSlope() && slope >= tagState.getLowerDoorSlope()) {
+        // Line to the data point is between the doors, drop the held data point
+        CanaryMetricsRegistry.POINTS_FILTERED.increment();
+        tagState.hold(
+            dataPoint,
+            timestampOverride,
+            value,
+            sampleTimeSeconds,
+            Math.min(upperSlope, tagState.getUpperDoorSlope()),
+            Math.max(lowerSlope, tagState.getLowerDoorSlope()));
+      } else {
+        // Line to the data point is outside the doors, report the held data point and swing the
+        // doors from it
+        final double heldValue = tagState.getHeldNumericValue();
+        final long heldTimeSeconds = tagState.getHeldTimeSeconds();
+        reportHeld(tagState, result);
+        if (sampleTimeSeconds <= heldTimeSeconds) {
+          report(
+              dataPoint, timestampOverride, value, quality, sampleTimeSeconds, tagState, result);
+        } else {
+          final long heldElapsedSeconds = sampleTimeSeconds - heldTimeSeconds;
+          tagState.hold(
+              dataPoint,
+              timestampOverride,
+              value,
+              sampleTimeSeconds,
+              (value + deviation - heldValue) / heldElapsedSeconds,
+              (value - deviation - heldValue) / heldElapsedSeconds);
+        }
+      }
+    }
+  }
+
+  /**
+   * Flushes the filter state of the specified tag, reporting the held data point if the maximum
+   * hold time has elapsed since its sample time, or the maximum silence has elapsed since the last
+   * reported data point, at the specified time.
+   *
+   * @param timeSeconds the time (in seconds since epoch) to flush the state of the tag at
+   * @param tagState the filter state of the tag
+   * @param result the result to add the held data point to if it is reported
+   * @since 1.1.0
+   */
+  public void flush(long timeSeconds, CanaryTagState tagState, CanaryTagFilterResult result) {
+    final CanaryTagFilterSettings settings = tagState.getSettings();
+    if (tagState.getHeldDataPoint() != null
+        && ((settings.getHoldMaxSecs() > 0
+                && timeSeconds - tagState.getHeldTimeSeconds() >= settings.getHoldMaxSecs())
+            || (settings.getMaxSilenceSecs() > 0
+                && timeSeconds - tagState.getLastReportedTimeSeconds()
+                    >= settings.getMaxSilenceSecs()))) {
+      reportHeld(tagState, result);
+    }
+  }
+
+  /**
+   * Gets a boolean indicating whether a value is within the compression deviation of the last
+   * reported value. A value which is not a number is only within the deviation of another value
+   * which is not a number.
+   *
+   * @param value the value
+   * @param reportedValue the last reported value
+   * @param deviation the compression deviation
+   * @return {@code true} if the value is within the deviation, {@code false} otherwise
+   * @since 1.1.0
+   */
+  private static boolean isWithinDeviation(double value, double reportedValue, double deviation) {
+    boolean withinDeviation;
+    if (Double.isNaN(value) || Double.isNaN(reportedValue)) {
+      withinDeviation = Double.isNaN(value) && Double.isNaN(reportedValue);
+    } else {
+      withinDeviation = Math.abs(value - reportedValue) <= deviation;
+    }
+    return withinDeviation;
+  }
+
+  /**
+   * Reports the held data point of the tag, if any, as the last reported data point.
+   *
+   * @param tagState the filter state of the tag
+   * @param result the result to add the held data point to
+   * @since 1.1.0
+   */
+  private static void reportHeld(CanaryTagState tagState, CanaryTagFilterResult result) {
+    final DataPoint heldDataPoint = tagState.getHeldDataPoint();
+    if (heldDataPoint != null) {
+      final String nonNumericValue = null;
+      tagState.recordReported(
+          tagState.getHeldNumericValue(),
+          nonNumericValue,
+          heldDataPoint.getQuality().getRawDataQuality(),
+          tagState.getHeldTimeSeconds());
+      result.add(heldDataPoint, tagState.getHeldTimestampOverride());
+      tagState.clearHeld();
+    }
+  }
+
+  /**
+   * Reports the specified data point as the last reported data point.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the timestamp override of the data point
+   * @param value the numeric value of the data point
+   * @param quality the raw quality of the data point
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @param tagState the filter state of the tag
+   * @param result the result to add the data point to
+   * @since 1.1.0
+   */
+  private static void report(
+      DataPoint dataPoint,
+      String timestampOverride,
+      double value,
+      int quality,
+      long sampleTimeSeconds,
+      CanaryTagState tagState,
+      CanaryTagFilterResult result) {
+    final String nonNumericValue = null;
+    tagState.recordReported(value, nonNumericValue, quality, sampleTimeSeconds);
+    result.add(dataPoint, timestampOverride);
+  }
+}
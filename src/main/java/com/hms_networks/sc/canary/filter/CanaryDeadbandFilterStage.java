@@ -0,0 +1,117 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+
+/**
+ * Filter stage which reports data points by exception. A data point is reported if it is the
+ * first data point of its tag, if its quality changed (when enabled), if the maximum silence has
+ * elapsed since the last reported data point, or if its value changed from the last reported
+ * value.
+ *
+ * <p>A numeric value has changed when it differs from the last reported value by more than the
+ * deadband, which is the larger of the absolute deadband and the percent deadband of the last
+ * reported value. With no deadband configured, any change of value is reported. Non-numeric
+ * values are reported on any change.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryDeadbandFilterStage implements CanaryTagFilterStage {
+
+  /**
+   * The divisor to convert a percent to a fraction.
+   *
+   * @since 1.1.0
+   */
+  private static final double PERCENT_DIVISOR = 100.0;
+
+  /**
+   * Filters the specified data point, adding it to the specified result if it is reported.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @param tagState the filter state of the tag of the data point
+   * @param result the result to add the data point to if it is reported
+   * @since 1.1.0
+   */
+  public void filter(
+      DataPoint dataPoint,
+      String timestampOverride,
+      long sampleTimeSeconds,
+      CanaryTagState tagState,
+      CanaryTagFilterResult result) {
+    final CanaryTagFilterSettings settings = tagState.getSettings();
+    final int quality = dataPoint.getQuality().getRawDataQuality();
+    final boolean numeric = CanaryFilterUtils.isNumeric(dataPoint);
+    final double numericValue = numeric ? CanaryFilterUtils.getNumericValue(dataPoint) : Double.NaN;
+    final String stringValue = numeric ? null : dataPoint.getValueString();
+
+    boolean report;
+    if (!tagState.isReported()) {
+      report = true;
+    } else if (settings.isPassOnQualityChange() && quality != tagState.getLastReportedQuality()) {
+      report = true;
+    } else if (settings.getMaxSilenceSecs() > 0
+        && sampleTimeSeconds - tagState.getLastReportedTimeSeconds()
+            >= settings.getMaxSilenceSecs()) {
+      report = true;
+    } else if (numeric) {
+      report = isOutsideDeadband(numericValue, tagState.getLastReportedNumericValue(), settings);
+    } else {
+      report =
+          stringValue == null
+              ? tagState.getLastReportedStringValue() != null
+              : !stringValue.equals(tagState.getLastReportedStringValue());
+    }
+
+    if (report) {
+      tagState.recordReported(numericValue, stringValue, quality, sampleTimeSeconds);
+      result.add(dataPoint, timestampOverride);
+    } else {
+      CanaryMetricsRegistry.POINTS_FILTERED.increment();
+    }
+  }
+
+  /**
+   * Flushes the filter state of the specified tag. This stage does not hold back data points, so
+   * no data points are reported.
+   *
+   * @param timeSeconds the time (in seconds since epoch) to flush the state of the tag at
+   * @param tagState the filter state of the tag
+   * @param result the result to add the reported data points to
+   * @since 1.1.0
+   */
+  public void flush(long timeSeconds, CanaryTagState tagState, CanaryTagFilterResult result) {
+    // Data points are reported or dropped as they are filtered, none are held
+  }
+
+  /**
+   * Gets a boolean indicating whether a numeric value is outside the deadband of the last reported
+   * value.
+   *
+   * @param value the value
+   * @param lastReportedValue the last reported value
+   * @param settings the filter settings of the tag
+   * @return {@code true} if the value is outside the deadband, {@code false} otherwise
+   * @since 1.1.0
+   */
+  private static boolean isOutsideDeadband(
+      double value, double lastReportedValue, CanaryTagFilterSettings settings) {
+    boolean outsideDeadband;
+    if (Double.isNaN(value) || Double.isNaN(lastReportedValue)) {
+      // Report a change to or from NaN, but not NaN repeated
+      outsideDeadband = Double.isNaN(value) != Double.isNaN(lastReportedValue);
+    } else {
+      final double change = Math.abs(value - lastReportedValue);
+      final double deadband =
+          Math.max(
+              settings.getDeadbandAbsolute(),
+              Math.abs(lastReportedValue) * settings.getDeadbandPercent() / PERCENT_DIVISOR);
+      outsideDeadband = deadband > 0 ? change > deadband : change != 0;
+    }
+    return outsideDeadband;
+  }
+}
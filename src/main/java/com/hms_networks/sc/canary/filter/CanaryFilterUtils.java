@@ -0,0 +1,86 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointBoolean;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointDword;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointFloat;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointInteger;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointIntegerMappedString;
+
+/**
+ * Class containing utility methods for the Flexy Canary Connector {@code filter} package.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ * @see com.hms_networks.sc.canary.filter
+ */
+public class CanaryFilterUtils {
+
+  /**
+   * Value returned by {@link #getSampleTimeSeconds(DataPoint)} for a data point with an invalid
+   * timestamp.
+   *
+   * @since 1.1.0
+   */
+  public static final long INVALID_SAMPLE_TIME = -1;
+
+  /**
+   * Gets a boolean indicating whether the specified data point has a numeric value. Boolean values
+   * are numeric (0 or 1), and integer mapped string values are compared by their integer value.
+   *
+   * @param dataPoint the data point
+   * @return {@code true} if the data point has a numeric value, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public static boolean isNumeric(DataPoint dataPoint) {
+    return dataPoint instanceof DataPointFloat
+        || dataPoint instanceof DataPointInteger
+        || dataPoint instanceof DataPointDword
+        || dataPoint instanceof DataPointBoolean
+        || dataPoint instanceof DataPointIntegerMappedString;
+  }
+
+  /**
+   * Gets the numeric value of the specified data point.
+   *
+   * @param dataPoint the data point
+   * @return the numeric value, or {@link Double#NaN} if the data point does not have a numeric
+   *     value
+   * @since 1.1.0
+   */
+  public static double getNumericValue(DataPoint dataPoint) {
+    double numericValue;
+    if (dataPoint instanceof DataPointFloat) {
+      numericValue = ((DataPointFloat) dataPoint).getValue();
+    } else if (dataPoint instanceof DataPointInteger) {
+      numericValue = ((DataPointInteger) dataPoint).getValue();
+    } else if (dataPoint instanceof DataPointDword) {
+      numericValue = ((DataPointDword) dataPoint).getValue();
+    } else if (dataPoint instanceof DataPointBoolean) {
+      numericValue = ((DataPointBoolean) dataPoint).getValue() ? 1 : 0;
+    } else if (dataPoint instanceof DataPointIntegerMappedString) {
+      numericValue = ((DataPointIntegerMappedString) dataPoint).getIntegerValue();
+    } else {
+      numericValue = Double.NaN;
+    }
+    return numericValue;
+  }
+
+  /**
+   * Gets the sample time (in seconds since epoch) of the specified data point.
+   *
+   * @param dataPoint the data point
+   * @return the sample time (in seconds since epoch), or {@link #INVALID_SAMPLE_TIME} if the
+   *     timestamp of the data point is invalid
+   * @since 1.1.0
+   */
+  public static long getSampleTimeSeconds(DataPoint dataPoint) {
+    long sampleTimeSeconds;
+    try {
+      sampleTimeSeconds = Long.parseLong(dataPoint.getTimeStamp());
+    } catch (NumberFormatException e) {
+      sampleTimeSeconds = INVALID_SAMPLE_TIME;
+    }
+    return sampleTimeSeconds;
+  }
+}
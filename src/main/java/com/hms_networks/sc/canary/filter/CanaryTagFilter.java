@@ -0,0 +1,414 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.logging.Logger;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for filtering polled data points before they are added to a payload. The filter settings
+ * of each tag are resolved once, from the first matching {@link CanaryTagFilterRule} or the
+ * default settings, and kept with the filter state of the tag in a {@link CanaryTagState}. The
+ * state of every tag is held in a single map, so that each data point is filtered in constant
+ * time.
+ *
+ * <p>Data points of tags with filtering enabled are passed to the {@link
+ * CanaryAggregationFilterStage} if aggregation is enabled for the tag and the data point is
+ * numeric, to the {@link CanaryCompressionFilterStage} if compression is enabled for the tag and
+ * the data point is of a compressed type, or to the {@link CanaryDeadbandFilterStage} otherwise.
+ *
+ * <p>Before any stage, the data points of tags with a rate limit are limited by the {@link
+ * CanaryTagRateBucket} of the tag, whether or not filtering is enabled, so that a single tag
+ * logged far faster than intended cannot fill payloads on its own. The tags which are limited the
+ * most are reported periodically, so that their logging can be corrected on the Ewon.
+ *
+ * <p>The filter is flushed periodically, so that data points held back by a stage are reported
+ * even if no later data point of their tag arrives. Aggregation windows are closed by the newest
+ * sample time filtered for any tag, which is polled in order across tags while catching up, or by
+ * the current time once no newer sample has been filtered for a window length, as every tag may be
+ * silent.
+ *
+ * <p>This class is not thread safe, and is used by the connector main thread only.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagFilter {
+
+  /**
+   * The maximum number of tags listed in a rate limit report.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_RATE_LIMIT_REPORT_TAGS = 10;
+
+  /**
+   * The filter settings of tags which do not match any rule.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagFilterSettings defaultSettings;
+
+  /**
+   * The rules of the filter, in order of precedence.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagFilterRule[] rules;
+
+  /**
+   * Boolean indicating whether any rule matches by tag group.
+   *
+   * @since 1.1.0
+   */
+  private final boolean rulesRequireTagGroups;
+
+  /**
+   * The stage which filters data points by deadband.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagFilterStage deadbandStage = new CanaryDeadbandFilterStage();
+
+  /**
+   * The stage which filters data points by swinging door compression.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagFilterStage compressionStage = new CanaryCompressionFilterStage();
+
+  /**
+   * The stage which replaces data points by windowed statistics.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagFilterStage aggregationStage = new CanaryAggregationFilterStage();
+
+  /**
+   * Map of tag names to their {@link CanaryTagState}.
+   *
+   * @since 1.1.0
+   */
+  private final Map tagStates = new HashMap();
+
+  /**
+   * The interval (in milliseconds) between rate limit reports, or 0 to disable rate limit reports.
+   *
+   * @since 1.1.0
+   */
+  private final long rateLimitReportIntervalMillis;
+
+  /**
+   * The time (in milliseconds) the current rate limit report interval started.
+   *
+   * @since 1.1.0
+   */
+  private long rateLimitReportIntervalStartMillis;
+
+  /**
+   * The newest sample time (in seconds since epoch) of the data points filtered, or {@link
+   * CanaryFilterUtils#INVALID_SAMPLE_TIME} if no data point with a valid timestamp was filtered.
+   *
+   * @since 1.1.0
+   */
+  private long newestSampleTimeSeconds = CanaryFilterUtils.INVALID_SAMPLE_TIME;
+
+  /**
+   * The newest sample time (in seconds since epoch) of the data points filtered at the last flush.
+   *
+   * @since 1.1.0
+   */
+  private long flushedNewestSampleTimeSeconds = CanaryFilterUtils.INVALID_SAMPLE_TIME;
+
+  /**
+   * The time (in seconds since epoch) of the first flush since the newest sample time last
+   * changed, or -1 before the first flush.
+   *
+   * @since 1.1.0
+   */
+  private long newestSampleTimeFlushSeconds = -1;
+
+  /**
+   * Constructor for a {@link CanaryTagFilter} with the specified default settings, rules and rate
+   * limit report interval.
+   *
+   * @param defaultSettings the filter settings of tags which do not match any rule
+   * @param rules the list of {@link CanaryTagFilterRule}s, in order of precedence
+   * @param rateLimitReportIntervalMillis the interval (in milliseconds) between reports of the tags
+   *     which are rate limited the most, or 0 to disable rate limit reports
+   * @since 1.1.0
+   */
+  public CanaryTagFilter(
+      CanaryTagFilterSettings defaultSettings, List rules, long rateLimitReportIntervalMillis) {
+    this.defaultSettings = defaultSettings;
+    this.rateLimitReportIntervalMillis = rateLimitReportIntervalMillis;
+    this.rateLimitReportIntervalStartMillis = System.currentTimeMillis();
+    this.rules = (CanaryTagFilterRule[]) rules.toArray(new CanaryTagFilterRule[rules.size()]);
+    boolean requireTagGroups = false;
+    for (int ruleIndex = 0; ruleIndex < this.rules.length; ruleIndex++) {
+      requireTagGroups |= this.rules[ruleIndex].requiresTagGroups();
+    }
+    this.rulesRequireTagGroups = requireTagGroups;
+  }
+
+  /**
+   * Gets a boolean indicating whether filtering is enabled, float values are rounded, or data
+   * points are rate limited, for any tag by the specified default settings and rules. If not, no
+   * filter is needed.
+   *
+   * @param defaultSettings the filter settings of tags which do not match any rule
+   * @param rules the list of {@link CanaryTagFilterRule}s
+   * @return {@code true} if a filter is needed, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public static boolean isFilterRequired(CanaryTagFilterSettings defaultSettings, List rules) {
+    boolean filterRequired = isFilterRequired(defaultSettings);
+    for (int ruleIndex = 0; !filterRequired && ruleIndex < rules.size(); ruleIndex++) {
+      filterRequired =
+          isFilterRequired(((CanaryTagFilterRule) rules.get(ruleIndex)).getSettings());
+    }
+    return filterRequired;
+  }
+
+  /**
+   * Gets a boolean indicating whether the specified filter settings enable filtering, round float
+   * values or limit the rate of data points.
+   *
+   * @param settings the filter settings
+   * @return {@code true} if a filter is needed for the settings, {@code false} otherwise
+   * @since 1.1.0
+   */
+  private static boolean isFilterRequired(CanaryTagFilterSettings settings) {
+    return settings.isEnabled()
+        || settings.getDecimals() != CanaryTagFilterSettings.FULL_PRECISION
+        || settings.getRateLimitPerSec() > 0;
+  }
+
+  /**
+   * Filters the specified data point, adding the data points to report to the specified result in
+   * order, and setting the number of decimals of the tag on the result. Data points above the rate
+   * limit of their tag are never reported. Otherwise, data points of tags with filtering disabled,
+   * and data points with an invalid timestamp, are always reported.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @param result the result to add the data points to report to
+   * @since 1.1.0
+   */
+  public void filter(DataPoint dataPoint, String timestampOverride, CanaryTagFilterResult result) {
+    final CanaryTagState tagState = getTagState(dataPoint.getTagName());
+    final CanaryTagFilterSettings settings = tagState.getSettings();
+    final long sampleTimeSeconds = CanaryFilterUtils.getSampleTimeSeconds(dataPoint);
+    result.setDecimals(settings.getDecimals());
+    if (sampleTimeSeconds > newestSampleTimeSeconds) {
+      newestSampleTimeSeconds = sampleTimeSeconds;
+    }
+    if (settings.getRateLimitPerSec() > 0
+        && sampleTimeSeconds != CanaryFilterUtils.INVALID_SAMPLE_TIME
+        && !tagState.getRateBucket().tryPass(settings, sampleTimeSeconds)) {
+      CanaryMetricsRegistry.POINTS_RATE_LIMITED.increment();
+    } else if (!settings.isEnabled()
+        || sampleTimeSeconds == CanaryFilterUtils.INVALID_SAMPLE_TIME) {
+      result.add(dataPoint, timestampOverride);
+    } else if (settings.getAggregationWindowSecs() > 0 && CanaryFilterUtils.isNumeric(dataPoint)) {
+      aggregationStage.filter(dataPoint, timestampOverride, sampleTimeSeconds, tagState, result);
+    } else if (settings.getCompressionDeviation() > 0
+        && CanaryCompressionFilterStage.isCompressible(dataPoint)) {
+      compressionStage.filter(dataPoint, timestampOverride, sampleTimeSeconds, tagState, result);
+    } else {
+      deadbandStage.filter(dataPoint, timestampOverride, sampleTimeSeconds, tagState, result);
+    }
+  }
+
+  /**
+   * Flushes the filter state of every tag with filtering enabled, adding the data points which the
+   * stages of the tag report without waiting for a later data point of the tag to the specified
+   * result, each with the number of decimals of its tag. This is called periodically by the
+   * connector main loop, as Ewon tags are logged on change and a later data point of a tag may
+   * never arrive.
+   *
+   * @param timeSeconds the current time (in seconds since epoch)
+   * @param result the result to add the reported data points to
+   * @since 1.1.0
+   */
+  public void flush(long timeSeconds, CanaryTagFilterResult result) {
+    if (newestSampleTimeFlushSeconds == -1
+        || newestSampleTimeSeconds != flushedNewestSampleTimeSeconds) {
+      flushedNewestSampleTimeSeconds = newestSampleTimeSeconds;
+      newestSampleTimeFlushSeconds = timeSeconds;
+    }
+
+    Iterator iterator = tagStates.values().iterator();
+    while (iterator.hasNext()) {
+      CanaryTagState tagState = (CanaryTagState) iterator.next();
+      final CanaryTagFilterSettings settings = tagState.getSettings();
+      if (settings.isEnabled()) {
+        result.setDecimals(settings.getDecimals());
+        if (settings.getAggregationWindowSecs() > 0) {
+          aggregationStage.flush(
+              getWindowCloseTimeSeconds(timeSeconds, settings.getAggregationWindowSecs()),
+              tagState,
+              result);
+        }
+        if (settings.getCompressionDeviation() > 0) {
+          compressionStage.flush(timeSeconds, tagState, result);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the time (in seconds since epoch) which aggregation windows of the specified length are
+   * closed at when flushed at the specified time. This is the newest sample time filtered, no later
+   * than the current time, or the current time if no newer sample has been filtered for a window
+   * length.
+   *
+   * @param timeSeconds the current time (in seconds since epoch)
+   * @param windowSecs the length (in seconds) of the aggregation windows
+   * @return the time (in seconds since epoch) to close aggregation windows at
+   * @since 1.1.0
+   */
+  private long getWindowCloseTimeSeconds(long timeSeconds, long windowSecs) {
+    long closeTimeSeconds;
+    if (timeSeconds - newestSampleTimeFlushSeconds >= windowSecs) {
+      closeTimeSeconds = timeSeconds;
+    } else {
+      closeTimeSeconds = Math.min(newestSampleTimeSeconds, timeSeconds);
+    }
+    return closeTimeSeconds;
+  }
+
+  /**
+   * Gets the number of tags with filter state.
+   *
+   * @return the number of tags
+   * @since 1.1.0
+   */
+  public int getTagCount() {
+    return tagStates.size();
+  }
+
+  /**
+   * Logs a report of the tags which were rate limited the most since the last report, if the rate
+   * limit report interval has elapsed and any data points were rate limited.
+   *
+   * @param timeMillis the current time (in milliseconds)
+   * @since 1.1.0
+   */
+  public void logRateLimitReportIfDue(long timeMillis) {
+    if (rateLimitReportIntervalMillis > 0
+        && timeMillis - rateLimitReportIntervalStartMillis >= rateLimitReportIntervalMillis) {
+      logRateLimitReport(timeMillis);
+      rateLimitReportIntervalStartMillis = timeMillis;
+    }
+  }
+
+  /**
+   * Logs a report of the tags which were rate limited the most since the last report, and clears
+   * the rate limit report counts of every tag.
+   *
+   * @param timeMillis the current time (in milliseconds)
+   * @since 1.1.0
+   */
+  private void logRateLimitReport(long timeMillis) {
+    final String[] reportTagNames = new String[MAX_RATE_LIMIT_REPORT_TAGS];
+    final long[] reportLimitedCounts = new long[MAX_RATE_LIMIT_REPORT_TAGS];
+    final long[] reportSampleCounts = new long[MAX_RATE_LIMIT_REPORT_TAGS];
+    int reportTagCount = 0;
+    int limitedTagCount = 0;
+    long limitedCount = 0;
+
+    // Keep the tags with the most limited data points, in descending order
+    Iterator iterator = tagStates.values().iterator();
+    while (iterator.hasNext()) {
+      CanaryTagState tagState = (CanaryTagState) iterator.next();
+      if (tagState.getSettings().getRateLimitPerSec() > 0) {
+        CanaryTagRateBucket rateBucket = tagState.getRateBucket();
+        final long tagLimitedCount = rateBucket.getReportLimitedCount();
+        if (tagLimitedCount > 0) {
+          limitedTagCount++;
+          limitedCount += tagLimitedCount;
+          int insertIndex = reportTagCount;
+          while (insertIndex > 0 && tagLimitedCount > reportLimitedCounts[insertIndex - 1]) {
+            insertIndex--;
+          }
+          if (insertIndex < MAX_RATE_LIMIT_REPORT_TAGS) {
+            final int shiftCount =
+                Math.min(reportTagCount, MAX_RATE_LIMIT_REPORT_TAGS - 1) - insertIndex;
+            System.arraycopy(
+                reportTagNames, insertIndex, reportTagNames, insertIndex + 1, shiftCount);
+            System.arraycopy(
+                reportLimitedCounts, insertIndex, reportLimitedCounts, insertIndex + 1, shiftCount);
+            System.arraycopy(
+                reportSampleCounts, insertIndex, reportSampleCounts, insertIndex + 1, shiftCount);
+            reportTagNames[insertIndex] = tagState.getTagName();
+            reportLimitedCounts[insertIndex] = tagLimitedCount;
+            reportSampleCounts[insertIndex] = rateBucket.getReportSampleCount();
+            reportTagCount = Math.min(reportTagCount + 1, MAX_RATE_LIMIT_REPORT_TAGS);
+          }
+        }
+        rateBucket.clearReportCounts();
+      }
+    }
+
+    if (limitedTagCount > 0) {
+      Logger.LOG_WARN(
+          "Rate limited "
+              + limitedCount
+              + " data point(s) of "
+              + limitedTagCount
+              + " tag(s) in the last "
+              + ((timeMillis - rateLimitReportIntervalStartMillis) / 1000)
+              + "s. Check the logging settings of the following tag(s) on the Ewon.");
+      for (int reportIndex = 0; reportIndex < reportTagCount; reportIndex++) {
+        Logger.LOG_WARN(
+            "Rate limited tag "
+                + reportTagNames[reportIndex]
+                + ": "
+                + reportLimitedCounts[reportIndex]
+                + " of "
+                + reportSampleCounts[reportIndex]
+                + " data point(s) limited.");
+      }
+    }
+  }
+
+  /**
+   * Gets the filter state of the specified tag, creating it with the filter settings resolved for
+   * the tag if it does not exist.
+   *
+   * @param tagName the name of the tag
+   * @return the filter state of the tag
+   * @since 1.1.0
+   */
+  private CanaryTagState getTagState(String tagName) {
+    CanaryTagState tagState = (CanaryTagState) tagStates.get(tagName);
+    if (tagState == null) {
+      tagState = new CanaryTagState(tagName, resolveSettings(tagName));
+      tagStates.put(tagName, tagState);
+    }
+    return tagState;
+  }
+
+  /**
+   * Resolves the filter settings of the specified tag, from the first matching rule or the
+   * default settings. The tag groups of the tag are only read if a rule matches by tag group.
+   *
+   * @param tagName the name of the tag
+   * @return the filter settings of the tag
+   * @since 1.1.0
+   */
+  private CanaryTagFilterSettings resolveSettings(String tagName) {
+    final int tagGroups = rulesRequireTagGroups ? CanaryTagGroups.readTagGroups(tagName) : 0;
+    for (int ruleIndex = 0; ruleIndex < rules.length; ruleIndex++) {
+      if (rules[ruleIndex].matchesTag(tagName, tagGroups)) {
+        return rules[ruleIndex].getSettings();
+      }
+    }
+    return defaultSettings;
+  }
+}
@@ -0,0 +1,150 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class for the data points reported by the {@link CanaryTagFilter} for a polled data point, or by
+ * a flush of the filter, in the order they are to be added to a payload. Filtering a data point may
+ * report none, one or more data points, as a filter stage may hold back a data point of a tag and
+ * report it with a later data point of the tag.
+ *
+ * <p>Each reported data point is kept with the timestamp override it was polled with, so that a
+ * held back data point is added to a payload with its own timestamp, and with the number of
+ * decimals of its tag. One instance is reused for every data point by clearing it before
+ * filtering.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagFilterResult {
+
+  /**
+   * The initial number of reported data points which the result can hold without growing.
+   *
+   * @since 1.1.0
+   */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * The list of reported {@link DataPoint}s.
+   *
+   * @since 1.1.0
+   */
+  private final List dataPoints = new ArrayList();
+
+  /**
+   * The list of timestamp overrides of the reported data points, with null entries for data points
+   * which use their own timestamp.
+   *
+   * @since 1.1.0
+   */
+  private final List timestampOverrides = new ArrayList();
+
+  /**
+   * The number of decimals which the float values of reported data points are rounded to, for data
+   * points added from now on.
+   *
+   * @since 1.1.0
+   */
+  private int decimals = CanaryTagFilterSettings.FULL_PRECISION;
+
+  /**
+   * The number of decimals which the float value of each reported data point is rounded to, in
+   * order of the reported data points.
+   *
+   * @since 1.1.0
+   */
+  private int[] dataPointDecimals = new int[INITIAL_CAPACITY];
+
+  /**
+   * Adds a reported data point, rounded to the number of decimals set by {@link
+   * #setDecimals(int)}.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @since 1.1.0
+   */
+  public void add(DataPoint dataPoint, String timestampOverride) {
+    final int index = dataPoints.size();
+    if (index == dataPointDecimals.length) {
+      int[] grownDataPointDecimals = new int[dataPointDecimals.length * 2];
+      System.arraycopy(dataPointDecimals, 0, grownDataPointDecimals, 0, index);
+      dataPointDecimals = grownDataPointDecimals;
+    }
+    dataPointDecimals[index] = decimals;
+    dataPoints.add(dataPoint);
+    timestampOverrides.add(timestampOverride);
+  }
+
+  /**
+   * Removes all reported data points, and resets the number of decimals to full precision.
+   *
+   * @since 1.1.0
+   */
+  public void clear() {
+    dataPoints.clear();
+    timestampOverrides.clear();
+    decimals = CanaryTagFilterSettings.FULL_PRECISION;
+  }
+
+  /**
+   * Sets the number of decimals which the float values of the reported data points added from now
+   * on are rounded to. The data points reported for a polled data point belong to the same tag,
+   * and are rounded alike, but a flush may report the data points of several tags.
+   *
+   * @param reportedDecimals the number of decimals, or {@link
+   *     CanaryTagFilterSettings#FULL_PRECISION}
+   * @since 1.1.0
+   */
+  public void setDecimals(int reportedDecimals) {
+    decimals = reportedDecimals;
+  }
+
+  /**
+   * Gets the number of decimals which the float value of the reported data point at the specified
+   * index is rounded to.
+   *
+   * @param index the index of the reported data point
+   * @return the number of decimals, or {@link CanaryTagFilterSettings#FULL_PRECISION}
+   * @since 1.1.0
+   */
+  public int getDecimals(int index) {
+    return dataPointDecimals[index];
+  }
+
+  /**
+   * Gets the number of reported data points.
+   *
+   * @return the number of reported data points
+   * @since 1.1.0
+   */
+  public int size() {
+    return dataPoints.size();
+  }
+
+  /**
+   * Gets the reported data point at the specified index.
+   *
+   * @param index the index of the reported data point
+   * @return the data point
+   * @since 1.1.0
+   */
+  public DataPoint getDataPoint(int index) {
+    return (DataPoint) dataPoints.get(index);
+  }
+
+  /**
+   * Gets the timestamp override of the reported data point at the specified index.
+   *
+   * @param index the index of the reported data point
+   * @return the ISO 8601 timestamp to use for the data point, or null to use the data point
+   *     timestamp
+   * @since 1.1.0
+   */
+  public String getTimestampOverride(int index) {
+    return (String) timestampOverrides.get(index);
+  }
+}
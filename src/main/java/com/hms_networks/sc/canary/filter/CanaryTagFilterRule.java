@@ -0,0 +1,137 @@
+package com.hms_networks.sc.canary.filter;
+
+/**
+ * Class for a tag filter rule, which applies filter settings to the tags matching a tag name
+ * pattern and/or an Ewon tag group. Tag name patterns may contain the wildcards {@code *} (any
+ * sequence of characters) and {@code ?} (any single character).
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagFilterRule {
+
+  /**
+   * The wildcard matching any sequence of characters in a tag name pattern.
+   *
+   * @since 1.1.0
+   */
+  private static final char WILDCARD_ANY_SEQUENCE = '*';
+
+  /**
+   * The wildcard matching any single character in a tag name pattern.
+   *
+   * @since 1.1.0
+   */
+  private static final char WILDCARD_ANY_CHARACTER = '?';
+
+  /**
+   * The tag name pattern of the rule, or null to match any tag name.
+   *
+   * @since 1.1.0
+   */
+  private final String tagNamePattern;
+
+  /**
+   * The bit mask of the tag groups of the rule (see {@link CanaryTagGroups}), or 0 to match any
+   * tag group. A tag matches if it belongs to any of the tag groups.
+   *
+   * @since 1.1.0
+   */
+  private final int tagGroupMask;
+
+  /**
+   * The filter settings applied to matching tags.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagFilterSettings settings;
+
+  /**
+   * Constructor for a {@link CanaryTagFilterRule}.
+   *
+   * @param tagNamePattern the tag name pattern, or null to match any tag name
+   * @param tagGroupMask the bit mask of the tag groups, or 0 to match any tag group
+   * @param settings the filter settings applied to matching tags
+   * @since 1.1.0
+   */
+  public CanaryTagFilterRule(
+      String tagNamePattern, int tagGroupMask, CanaryTagFilterSettings settings) {
+    this.tagNamePattern = tagNamePattern;
+    this.tagGroupMask = tagGroupMask;
+    this.settings = settings;
+  }
+
+  /**
+   * Gets a boolean indicating whether the rule matches tags by tag group, so that the tag groups
+   * of a tag must be read to match it.
+   *
+   * @return {@code true} if the rule matches by tag group, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean requiresTagGroups() {
+    return tagGroupMask != 0;
+  }
+
+  /**
+   * Gets a boolean indicating whether the rule matches the specified tag.
+   *
+   * @param tagName the name of the tag
+   * @param tagGroups the bit mask of the tag groups of the tag, only used if {@link
+   *     #requiresTagGroups()} is {@code true}
+   * @return {@code true} if the rule matches the tag, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean matchesTag(String tagName, int tagGroups) {
+    boolean groupMatches = tagGroupMask == 0 || (tagGroups & tagGroupMask) != 0;
+    return groupMatches && (tagNamePattern == null || matchesPattern(tagNamePattern, tagName));
+  }
+
+  /**
+   * Gets the filter settings applied to matching tags.
+   *
+   * @return the filter settings
+   * @since 1.1.0
+   */
+  public CanaryTagFilterSettings getSettings() {
+    return settings;
+  }
+
+  /**
+   * Gets a boolean indicating whether the specified tag name matches a tag name pattern. The
+   * pattern is matched in linear time, by backtracking only to the last {@code *} wildcard.
+   *
+   * @param pattern the tag name pattern
+   * @param tagName the tag name
+   * @return {@code true} if the tag name matches the pattern, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public static boolean matchesPattern(String pattern, String tagName) {
+    int patternIndex = 0;
+    int tagNameIndex = 0;
+    int lastSequenceWildcardIndex = -1;
+    int lastSequenceMatchIndex = 0;
+    while (tagNameIndex < tagName.length()) {
+      if (patternIndex < pattern.length()
+          && (pattern.charAt(patternIndex) == WILDCARD_ANY_CHARACTER
+              || pattern.charAt(patternIndex) == tagName.charAt(tagNameIndex))) {
+        patternIndex++;
+        tagNameIndex++;
+      } else if (patternIndex < pattern.length()
+          && pattern.charAt(patternIndex) == WILDCARD_ANY_SEQUENCE) {
+        lastSequenceWildcardIndex = patternIndex++;
+        lastSequenceMatchIndex = tagNameIndex;
+      } else if (lastSequenceWildcardIndex >= 0) {
+        // Extend the sequence matched by the last * wildcard by one character
+        patternIndex = lastSequenceWildcardIndex + 1;
+        tagNameIndex = ++lastSequenceMatchIndex;
+      } else {
+        return false;
+      }
+    }
+    while (patternIndex < pattern.length()
+        && pattern.charAt(patternIndex) == WILDCARD_ANY_SEQUENCE) {
+      patternIndex++;
+    }
+    return patternIndex == pattern.length();
+  }
+}
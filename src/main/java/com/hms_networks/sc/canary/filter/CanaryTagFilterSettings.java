@@ -0,0 +1,353 @@
+package com.hms_networks.sc.canary.filter;
+
+/**
+ * Class for holding the filter settings of a tag, or group of tags. The settings control which
+ * polled data points of a tag are reported to Canary, and which are filtered out before being
+ * added to a payload.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagFilterSettings {
+
+  /**
+   * The number of decimals of float values which are sent with full precision.
+   *
+   * @since 1.1.0
+   */
+  public static final int FULL_PRECISION = -1;
+
+  /**
+   * The rate limit mode which drops the samples of a tag once its token bucket is empty.
+   *
+   * @since 1.1.0
+   */
+  public static final int RATE_LIMIT_MODE_DROP = 0;
+
+  /**
+   * The rate limit mode which passes every Nth sample of a tag, spreading the passed samples evenly
+   * over each second, with N chosen from the sample rate of the tag in the previous second.
+   *
+   * @since 1.1.0
+   */
+  public static final int RATE_LIMIT_MODE_DECIMATE = 1;
+
+  /**
+   * The names of the rate limit modes, indexed by mode.
+   *
+   * @since 1.1.0
+   */
+  private static final String[] RATE_LIMIT_MODE_NAMES = {"drop", "decimate"};
+
+  /**
+   * Boolean indicating whether data points are filtered. If {@code false}, every data point is
+   * reported.
+   *
+   * @since 1.1.0
+   */
+  private final boolean enabled;
+
+  /**
+   * The absolute deadband of numeric values, or 0 to disable.
+   *
+   * @since 1.1.0
+   */
+  private final double deadbandAbsolute;
+
+  /**
+   * The deadband of numeric values, as a percent of the last reported value, or 0 to disable.
+   *
+   * @since 1.1.0
+   */
+  private final double deadbandPercent;
+
+  /**
+   * The compression deviation of float and integer values, or 0 to disable compression.
+   *
+   * @since 1.1.0
+   */
+  private final double compressionDeviation;
+
+  /**
+   * The maximum time (in seconds) between reported data points, or 0 to disable.
+   *
+   * @since 1.1.0
+   */
+  private final long maxSilenceSecs;
+
+  /**
+   * The maximum time (in seconds) a data point is held back by the compression stage before it is
+   * reported, or 0 to hold data points until a later data point of the tag arrives.
+   *
+   * @since 1.1.0
+   */
+  private final long holdMaxSecs;
+
+  /**
+   * The length (in seconds) of the aggregation windows of numeric values, or 0 to disable
+   * aggregation.
+   *
+   * @since 1.1.0
+   */
+  private final long aggregationWindowSecs;
+
+  /**
+   * The bit mask of the {@link CanaryTagStatistics} reported for each aggregation window.
+   *
+   * @since 1.1.0
+   */
+  private final int aggregationStatistics;
+
+  /**
+   * The number of decimals which float values are rounded to, or {@link #FULL_PRECISION}.
+   *
+   * @since 1.1.0
+   */
+  private final int decimals;
+
+  /**
+   * Boolean indicating whether a data point is always reported when its quality differs from the
+   * last reported data point.
+   *
+   * @since 1.1.0
+   */
+  private final boolean passOnQualityChange;
+
+  /**
+   * The maximum sustained number of samples per second reported for the tag, or 0 to disable rate
+   * limiting.
+   *
+   * @since 1.1.0
+   */
+  private final double rateLimitPerSec;
+
+  /**
+   * The maximum number of samples reported for the tag in a burst above the rate limit, or 0 to
+   * use the rate limit.
+   *
+   * @since 1.1.0
+   */
+  private final double rateLimitBurst;
+
+  /**
+   * The rate limit mode, {@link #RATE_LIMIT_MODE_DROP} or {@link #RATE_LIMIT_MODE_DECIMATE}.
+   *
+   * @since 1.1.0
+   */
+  private final int rateLimitMode;
+
+  /**
+   * Constructor for a {@link CanaryTagFilterSettings}.
+   *
+   * @param enabled {@code true} to filter data points, {@code false} to report every data point
+   * @param deadbandAbsolute the absolute deadband of numeric values, or 0 to disable
+   * @param deadbandPercent the deadband of numeric values as a percent of the last reported value,
+   *     or 0 to disable
+   * @param compressionDeviation the compression deviation of float and integer values, or 0 to
+   *     disable compression
+   * @param maxSilenceSecs the maximum time (in seconds) between reported data points, or 0 to
+   *     disable
+   * @param holdMaxSecs the maximum time (in seconds) a data point is held back by the compression
+   *     stage, or 0 to disable
+   * @param aggregationWindowSecs the length (in seconds) of the aggregation windows of numeric
+   *     values, or 0 to disable aggregation
+   * @param aggregationStatistics the bit mask of the {@link CanaryTagStatistics} reported for each
+   *     aggregation window
+   * @param decimals the number of decimals which float values are rounded to, or {@link
+   *     #FULL_PRECISION}
+   * @param passOnQualityChange {@code true} to always report a data point when its quality
+   *     changes, {@code false} otherwise
+   * @param rateLimitPerSec the maximum sustained number of samples per second reported for the
+   *     tag, or 0 to disable rate limiting
+   * @param rateLimitBurst the maximum number of samples reported for the tag in a burst above the
+   *     rate limit, or 0 to use the rate limit
+   * @param rateLimitMode the rate limit mode, {@link #RATE_LIMIT_MODE_DROP} or {@link
+   *     #RATE_LIMIT_MODE_DECIMATE}
+   * @since 1.1.0
+   */
+  public CanaryTagFilterSettings(
+      boolean enabled,
+      double deadbandAbsolute,
+      double deadbandPercent,
+      double compressionDeviation,
+      long maxSilenceSecs,
+      long holdMaxSecs,
+      long aggregationWindowSecs,
+      int aggregationStatistics,
+      int decimals,
+      boolean passOnQualityChange,
+      double rateLimitPerSec,
+      double rateLimitBurst,
+      int rateLimitMode) {
+    this.enabled = enabled;
+    this.deadbandAbsolute = deadbandAbsolute;
+    this.deadbandPercent = deadbandPercent;
+    this.compressionDeviation = compressionDeviation;
+    this.maxSilenceSecs = maxSilenceSecs;
+    this.holdMaxSecs = holdMaxSecs;
+    this.aggregationWindowSecs = aggregationWindowSecs;
+    this.aggregationStatistics = aggregationStatistics;
+    this.decimals = decimals;
+    this.passOnQualityChange = passOnQualityChange;
+    this.rateLimitPerSec = rateLimitPerSec;
+    this.rateLimitBurst = rateLimitBurst;
+    this.rateLimitMode = rateLimitMode;
+  }
+
+  /**
+   * Gets the rate limit mode with the specified name.
+   *
+   * @param rateLimitModeName the name of the rate limit mode, "drop" or "decimate"
+   * @return the rate limit mode
+   * @throws IllegalArgumentException if the rate limit mode name is unknown
+   * @since 1.1.0
+   */
+  public static int getRateLimitMode(String rateLimitModeName) {
+    for (int mode = 0; mode < RATE_LIMIT_MODE_NAMES.length; mode++) {
+      if (RATE_LIMIT_MODE_NAMES[mode].equalsIgnoreCase(rateLimitModeName)) {
+        return mode;
+      }
+    }
+    throw new IllegalArgumentException("Unknown rate limit mode " + rateLimitModeName + ".");
+  }
+
+  /**
+   * Gets a boolean indicating whether data points are filtered.
+   *
+   * @return {@code true} if data points are filtered, {@code false} if every data point is
+   *     reported
+   * @since 1.1.0
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Gets the absolute deadband of numeric values.
+   *
+   * @return the absolute deadband, or 0 if disabled
+   * @since 1.1.0
+   */
+  public double getDeadbandAbsolute() {
+    return deadbandAbsolute;
+  }
+
+  /**
+   * Gets the deadband of numeric values, as a percent of the last reported value.
+   *
+   * @return the percent deadband, or 0 if disabled
+   * @since 1.1.0
+   */
+  public double getDeadbandPercent() {
+    return deadbandPercent;
+  }
+
+  /**
+   * Gets the compression deviation of float and integer values. When compression is enabled, it
+   * replaces the deadbands of float and integer values.
+   *
+   * @return the compression deviation, or 0 if disabled
+   * @since 1.1.0
+   */
+  public double getCompressionDeviation() {
+    return compressionDeviation;
+  }
+
+  /**
+   * Gets the maximum time (in seconds) between reported data points.
+   *
+   * @return the maximum silence (in seconds), or 0 if disabled
+   * @since 1.1.0
+   */
+  public long getMaxSilenceSecs() {
+    return maxSilenceSecs;
+  }
+
+  /**
+   * Gets the maximum time (in seconds) a data point is held back by the compression stage before
+   * it is reported, even if no later data point of the tag arrives.
+   *
+   * @return the maximum hold time (in seconds), or 0 if disabled
+   * @since 1.1.0
+   */
+  public long getHoldMaxSecs() {
+    return holdMaxSecs;
+  }
+
+  /**
+   * Gets the length (in seconds) of the aggregation windows of numeric values. When aggregation is
+   * enabled, it replaces the deadbands and compression of numeric values.
+   *
+   * @return the aggregation window length (in seconds), or 0 if disabled
+   * @since 1.1.0
+   */
+  public long getAggregationWindowSecs() {
+    return aggregationWindowSecs;
+  }
+
+  /**
+   * Gets the bit mask of the {@link CanaryTagStatistics} reported for each aggregation window.
+   *
+   * @return the aggregation statistics bit mask
+   * @since 1.1.0
+   */
+  public int getAggregationStatistics() {
+    return aggregationStatistics;
+  }
+
+  /**
+   * Gets the number of decimals which float values are rounded to. Rounding applies to every
+   * reported data point of the tag, whether or not filtering is enabled.
+   *
+   * @return the number of decimals, or {@link #FULL_PRECISION}
+   * @since 1.1.0
+   */
+  public int getDecimals() {
+    return decimals;
+  }
+
+  /**
+   * Gets a boolean indicating whether a data point is always reported when its quality differs
+   * from the last reported data point.
+   *
+   * @return {@code true} if quality changes are always reported, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean isPassOnQualityChange() {
+    return passOnQualityChange;
+  }
+
+  /**
+   * Gets the maximum sustained number of samples per second reported for the tag. Rate limiting
+   * applies to every data point of the tag, whether or not filtering is enabled, and is measured by
+   * sample time so that a backlog of historical data is limited the same way as live data.
+   *
+   * @return the rate limit (in samples per second), or 0 if disabled
+   * @since 1.1.0
+   */
+  public double getRateLimitPerSec() {
+    return rateLimitPerSec;
+  }
+
+  /**
+   * Gets the maximum number of samples reported for the tag in a burst above the rate limit. The
+   * capacity of the token bucket of the tag is the greater of the burst and the rate limit, and is
+   * at least 1.
+   *
+   * @return the rate limit burst (in samples), or 0 to use the rate limit
+   * @since 1.1.0
+   */
+  public double getRateLimitBurst() {
+    return rateLimitBurst;
+  }
+
+  /**
+   * Gets the rate limit mode.
+   *
+   * @return {@link #RATE_LIMIT_MODE_DROP} or {@link #RATE_LIMIT_MODE_DECIMATE}
+   * @since 1.1.0
+   */
+  public int getRateLimitMode() {
+    return rateLimitMode;
+  }
+}
@@ -0,0 +1,46 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+
+/**
+ * Interface for a stage of the {@link CanaryTagFilter}. Each data point of a tag with filtering
+ * enabled is passed to one stage, which adds the data points to report to a {@link
+ * CanaryTagFilterResult}. A stage may report the data point, drop it, or hold it back in the
+ * {@link CanaryTagState} of the tag to be reported with a later data point of the tag, or when the
+ * stage is flushed.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public interface CanaryTagFilterStage {
+
+  /**
+   * Filters the specified data point, adding any data points to report to the specified result.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use the
+   *     data point timestamp
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @param tagState the filter state of the tag of the data point
+   * @param result the result to add the data points to report to
+   * @since 1.1.0
+   */
+  void filter(
+      DataPoint dataPoint,
+      String timestampOverride,
+      long sampleTimeSeconds,
+      CanaryTagState tagState,
+      CanaryTagFilterResult result);
+
+  /**
+   * Flushes the filter state of the specified tag, adding any data points held back by the stage
+   * which must be reported without waiting for a later data point of the tag to the specified
+   * result. Ewon tags are logged on change, so a later data point of a tag may never arrive.
+   *
+   * @param timeSeconds the time (in seconds since epoch) to flush the state of the tag at
+   * @param tagState the filter state of the tag
+   * @param result the result to add the reported data points to
+   * @since 1.1.0
+   */
+  void flush(long timeSeconds, CanaryTagState tagState, CanaryTagFilterResult result);
+}
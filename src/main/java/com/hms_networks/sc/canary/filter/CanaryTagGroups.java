@@ -0,0 +1,106 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.ewon.ewonitf.EWException;
+import com.ewon.ewonitf.SysControlBlock;
+import com.hms_networks.americas.sc.extensions.logging.Logger;
+
+/**
+ * Utility class for reading the Ewon tag groups (A, B, C and D) which a tag belongs to. Tag groups
+ * are represented as a bit mask of {@link #GROUP_A}, {@link #GROUP_B}, {@link #GROUP_C} and {@link
+ * #GROUP_D}.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagGroups {
+
+  /**
+   * Bit mask of Ewon tag group A.
+   *
+   * @since 1.1.0
+   */
+  public static final int GROUP_A = 1;
+
+  /**
+   * Bit mask of Ewon tag group B.
+   *
+   * @since 1.1.0
+   */
+  public static final int GROUP_B = 2;
+
+  /**
+   * Bit mask of Ewon tag group C.
+   *
+   * @since 1.1.0
+   */
+  public static final int GROUP_C = 4;
+
+  /**
+   * Bit mask of Ewon tag group D.
+   *
+   * @since 1.1.0
+   */
+  public static final int GROUP_D = 8;
+
+  /**
+   * The names of the tag groups, in order of their bit masks.
+   *
+   * @since 1.1.0
+   */
+  private static final String[] GROUP_NAMES = {"A", "B", "C", "D"};
+
+  /**
+   * The prefix of the tag configuration item of each tag group, followed by the group name.
+   *
+   * @since 1.1.0
+   */
+  private static final String GROUP_ITEM_PREFIX = "IVGroup";
+
+  /**
+   * The tag configuration item value of a tag which belongs to a group.
+   *
+   * @since 1.1.0
+   */
+  private static final String GROUP_ITEM_MEMBER_VALUE = "1";
+
+  /**
+   * Gets the bit mask of the tag group with the specified name.
+   *
+   * @param groupName the name of the tag group (A, B, C or D)
+   * @return the bit mask of the tag group
+   * @throws IllegalArgumentException if the group name is not A, B, C or D
+   * @since 1.1.0
+   */
+  public static int getGroupMask(String groupName) {
+    for (int groupIndex = 0; groupIndex < GROUP_NAMES.length; groupIndex++) {
+      if (GROUP_NAMES[groupIndex].equalsIgnoreCase(groupName.trim())) {
+        return 1 << groupIndex;
+      }
+    }
+    throw new IllegalArgumentException("Unknown tag group " + groupName + ".");
+  }
+
+  /**
+   * Reads the tag groups which the specified tag belongs to from the Ewon tag configuration.
+   *
+   * @param tagName the name of the tag
+   * @return the bit mask of the tag groups of the tag, or 0 if they cannot be read
+   * @since 1.1.0
+   */
+  public static int readTagGroups(String tagName) {
+    int tagGroups = 0;
+    try {
+      SysControlBlock tagBlock = new SysControlBlock(SysControlBlock.TAG, tagName);
+      for (int groupIndex = 0; groupIndex < GROUP_NAMES.length; groupIndex++) {
+        String groupItemValue = tagBlock.getItem(GROUP_ITEM_PREFIX + GROUP_NAMES[groupIndex]);
+        if (GROUP_ITEM_MEMBER_VALUE.equals(groupItemValue)) {
+          tagGroups |= 1 << groupIndex;
+        }
+      }
+    } catch (EWException e) {
+      Logger.LOG_WARN("Unable to read the tag groups of tag " + tagName + ".");
+      Logger.LOG_EXCEPTION(e);
+    }
+    return tagGroups;
+  }
+}
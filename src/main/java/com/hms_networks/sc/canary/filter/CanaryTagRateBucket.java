@@ -0,0 +1,147 @@
+package com.hms_networks.sc.canary.filter;
+
+/**
+ * Class for the token bucket which limits the rate of the samples of a tag. The bucket is refilled
+ * at the rate limit of the tag, measured by sample time, up to the greater of the rate limit and
+ * burst of the tag, and each sample which is passed takes one token from the bucket. Sample times
+ * have a resolution of one second, so the bucket is refilled once for each new second of samples.
+ *
+ * <p>In {@link CanaryTagFilterSettings#RATE_LIMIT_MODE_DECIMATE} mode, only every Nth sample of a
+ * second is passed, with N chosen so that the number of samples of the tag in the previous second
+ * fits within the rate limit. This spreads the passed samples over the second, instead of passing
+ * the first samples of each second and dropping the remainder.
+ *
+ * <p>The bucket also counts the samples and limited samples of the tag since the last rate limit
+ * report, so that the tags which are limited the most can be reported.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagRateBucket {
+
+  /**
+   * The number of tokens in the bucket.
+   *
+   * @since 1.1.0
+   */
+  private double tokens = 0;
+
+  /**
+   * The newest sample time (in seconds since epoch) of the tag, or -1 if no sample has been seen.
+   *
+   * @since 1.1.0
+   */
+  private long newestSampleTimeSeconds = -1;
+
+  /**
+   * The number of samples of the tag with the newest sample time.
+   *
+   * @since 1.1.0
+   */
+  private int newestSecondSampleCount = 0;
+
+  /**
+   * The number of samples of the tag in the second before the newest sample time.
+   *
+   * @since 1.1.0
+   */
+  private int previousSecondSampleCount = 0;
+
+  /**
+   * The number of samples of the tag since the last rate limit report.
+   *
+   * @since 1.1.0
+   */
+  private long reportSampleCount = 0;
+
+  /**
+   * The number of limited samples of the tag since the last rate limit report.
+   *
+   * @since 1.1.0
+   */
+  private long reportLimitedCount = 0;
+
+  /**
+   * Takes a token from the bucket for a sample of the tag with the specified sample time, if the
+   * sample is within the rate limit of the specified settings.
+   *
+   * @param settings the filter settings of the tag
+   * @param sampleTimeSeconds the sample time (in seconds since epoch)
+   * @return {@code true} if the sample is within the rate limit and is passed, {@code false} if
+   *     the sample is limited
+   * @since 1.1.0
+   */
+  public boolean tryPass(CanaryTagFilterSettings settings, long sampleTimeSeconds) {
+    final double rateLimitPerSec = settings.getRateLimitPerSec();
+    final double capacity = Math.max(settings.getRateLimitBurst(), Math.max(1, rateLimitPerSec));
+    if (newestSampleTimeSeconds < 0) {
+      tokens = capacity;
+      newestSampleTimeSeconds = sampleTimeSeconds;
+    } else if (sampleTimeSeconds > newestSampleTimeSeconds) {
+      tokens =
+          Math.min(
+              capacity, tokens + rateLimitPerSec * (sampleTimeSeconds - newestSampleTimeSeconds));
+      previousSecondSampleCount = newestSecondSampleCount;
+      newestSecondSampleCount = 0;
+      newestSampleTimeSeconds = sampleTimeSeconds;
+    }
+
+    // Samples older than the newest sample time are counted with the newest second
+    final int sampleIndex = newestSecondSampleCount;
+    newestSecondSampleCount++;
+    boolean passed = tokens >= 1;
+    if (passed
+        && settings.getRateLimitMode() == CanaryTagFilterSettings.RATE_LIMIT_MODE_DECIMATE) {
+      passed = sampleIndex % getDecimationInterval(rateLimitPerSec) == 0;
+    }
+    if (passed) {
+      tokens--;
+    } else {
+      reportLimitedCount++;
+    }
+    reportSampleCount++;
+    return passed;
+  }
+
+  /**
+   * Gets the number of samples of the tag since the last rate limit report.
+   *
+   * @return the number of samples
+   * @since 1.1.0
+   */
+  public long getReportSampleCount() {
+    return reportSampleCount;
+  }
+
+  /**
+   * Gets the number of limited samples of the tag since the last rate limit report.
+   *
+   * @return the number of limited samples
+   * @since 1.1.0
+   */
+  public long getReportLimitedCount() {
+    return reportLimitedCount;
+  }
+
+  /**
+   * Clears the sample counts of the tag after a rate limit report.
+   *
+   * @since 1.1.0
+   */
+  public void clearReportCounts() {
+    reportSampleCount = 0;
+    reportLimitedCount = 0;
+  }
+
+  /**
+   * Gets the decimation interval N of the tag, where every Nth sample of a second is passed, from
+   * the number of samples of the tag in the previous second.
+   *
+   * @param rateLimitPerSec the rate limit (in samples per second)
+   * @return the decimation interval, at least 1
+   * @since 1.1.0
+   */
+  private int getDecimationInterval(double rateLimitPerSec) {
+    return Math.max(1, (int) Math.ceil(previousSecondSampleCount / rateLimitPerSec));
+  }
+}
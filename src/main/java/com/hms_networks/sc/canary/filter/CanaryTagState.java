@@ -0,0 +1,345 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+
+/**
+ * Class for the filter state of a single tag. One instance is kept per tag by the {@link
+ * CanaryTagFilter}, holding the filter settings resolved for the tag and the state of each filter
+ * stage, so that each data point is filtered in constant time.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagState {
+
+  /**
+   * The name of the tag.
+   *
+   * @since 1.1.0
+   */
+  private final String tagName;
+
+  /**
+   * The filter settings resolved for the tag.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryTagFilterSettings settings;
+
+  /**
+   * Boolean indicating whether a data point of the tag has been reported.
+   *
+   * @since 1.1.0
+   */
+  private boolean reported = false;
+
+  /**
+   * The numeric value of the last reported data point, or {@link Double#NaN} if not numeric.
+   *
+   * @since 1.1.0
+   */
+  private double lastReportedNumericValue = Double.NaN;
+
+  /**
+   * The string value of the last reported data point, or null if numeric.
+   *
+   * @since 1.1.0
+   */
+  private String lastReportedStringValue = null;
+
+  /**
+   * The raw quality of the last reported data point.
+   *
+   * @since 1.1.0
+   */
+  private int lastReportedQuality = 0;
+
+  /**
+   * The sample time (in seconds since epoch) of the last reported data point.
+   *
+   * @since 1.1.0
+   */
+  private long lastReportedTimeSeconds = 0;
+
+  /**
+   * The data point held back by the compression stage, or null if no data point is held.
+   *
+   * @since 1.1.0
+   */
+  private DataPoint heldDataPoint = null;
+
+  /**
+   * The timestamp override of the held data point, or null if it uses its own timestamp.
+   *
+   * @since 1.1.0
+   */
+  private String heldTimestampOverride = null;
+
+  /**
+   * The numeric value of the held data point.
+   *
+   * @since 1.1.0
+   */
+  private double heldNumericValue = Double.NaN;
+
+  /**
+   * The sample time (in seconds since epoch) of the held data point.
+   *
+   * @since 1.1.0
+   */
+  private long heldTimeSeconds = 0;
+
+  /**
+   * The slope (per second) of the upper door of the compression stage, from the last reported data
+   * point.
+   *
+   * @since 1.1.0
+   */
+  private double upperDoorSlope = 0;
+
+  /**
+   * The slope (per second) of the lower door of the compression stage, from the last reported data
+   * point.
+   *
+   * @since 1.1.0
+   */
+  private double lowerDoorSlope = 0;
+
+  /**
+   * The open aggregation window of the tag, or null if the tag has not been aggregated.
+   *
+   * @since 1.1.0
+   */
+  private CanaryTagWindow window = null;
+
+  /**
+   * The rate limit token bucket of the tag, or null if the tag has not been rate limited.
+   *
+   * @since 1.1.0
+   */
+  private CanaryTagRateBucket rateBucket = null;
+
+  /**
+   * Constructor for a {@link CanaryTagState} with the specified filter settings.
+   *
+   * @param tagName the name of the tag
+   * @param settings the filter settings resolved for the tag
+   * @since 1.1.0
+   */
+  public CanaryTagState(String tagName, CanaryTagFilterSettings settings) {
+    this.tagName = tagName;
+    this.settings = settings;
+  }
+
+  /**
+   * Gets the name of the tag.
+   *
+   * @return the tag name
+   * @since 1.1.0
+   */
+  public String getTagName() {
+    return tagName;
+  }
+
+  /**
+   * Gets the filter settings resolved for the tag.
+   *
+   * @return the filter settings
+   * @since 1.1.0
+   */
+  public CanaryTagFilterSettings getSettings() {
+    return settings;
+  }
+
+  /**
+   * Gets a boolean indicating whether a data point of the tag has been reported.
+   *
+   * @return {@code true} if a data point has been reported, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean isReported() {
+    return reported;
+  }
+
+  /**
+   * Gets the numeric value of the last reported data point.
+   *
+   * @return the last reported numeric value, or {@link Double#NaN} if not numeric
+   * @since 1.1.0
+   */
+  public double getLastReportedNumericValue() {
+    return lastReportedNumericValue;
+  }
+
+  /**
+   * Gets the string value of the last reported data point.
+   *
+   * @return the last reported string value, or null if numeric
+   * @since 1.1.0
+   */
+  public String getLastReportedStringValue() {
+    return lastReportedStringValue;
+  }
+
+  /**
+   * Gets the raw quality of the last reported data point.
+   *
+   * @return the last reported raw quality
+   * @since 1.1.0
+   */
+  public int getLastReportedQuality() {
+    return lastReportedQuality;
+  }
+
+  /**
+   * Gets the sample time (in seconds since epoch) of the last reported data point.
+   *
+   * @return the last reported sample time (in seconds since epoch)
+   * @since 1.1.0
+   */
+  public long getLastReportedTimeSeconds() {
+    return lastReportedTimeSeconds;
+  }
+
+  /**
+   * Gets the data point held back by the compression stage.
+   *
+   * @return the held data point, or null if no data point is held
+   * @since 1.1.0
+   */
+  public DataPoint getHeldDataPoint() {
+    return heldDataPoint;
+  }
+
+  /**
+   * Gets the timestamp override of the held data point.
+   *
+   * @return the ISO 8601 timestamp to use for the held data point, or null to use its own
+   *     timestamp
+   * @since 1.1.0
+   */
+  public String getHeldTimestampOverride() {
+    return heldTimestampOverride;
+  }
+
+  /**
+   * Gets the numeric value of the held data point.
+   *
+   * @return the held numeric value
+   * @since 1.1.0
+   */
+  public double getHeldNumericValue() {
+    return heldNumericValue;
+  }
+
+  /**
+   * Gets the sample time (in seconds since epoch) of the held data point.
+   *
+   * @return the held sample time (in seconds since epoch)
+   * @since 1.1.0
+   */
+  public long getHeldTimeSeconds() {
+    return heldTimeSeconds;
+  }
+
+  /**
+   * Gets the slope (per second) of the upper door of the compression stage.
+   *
+   * @return the upper door slope
+   * @since 1.1.0
+   */
+  public double getUpperDoorSlope() {
+    return upperDoorSlope;
+  }
+
+  /**
+   * Gets the slope (per second) of the lower door of the compression stage.
+   *
+   * @return the lower door slope
+   * @since 1.1.0
+   */
+  public double getLowerDoorSlope() {
+    return lowerDoorSlope;
+  }
+
+  /**
+   * Holds back a data point of the tag in the compression stage, replacing any held data point.
+   *
+   * @param dataPoint the data point
+   * @param timestampOverride the ISO 8601 timestamp to use for the data point, or null to use its
+   *     own timestamp
+   * @param numericValue the numeric value
+   * @param timeSeconds the sample time (in seconds since epoch)
+   * @param upperSlope the slope (per second) of the upper door
+   * @param lowerSlope the slope (per second) of the lower door
+   * @since 1.1.0
+   */
+  public void hold(
+      DataPoint dataPoint,
+      String timestampOverride,
+      double numericValue,
+      long timeSeconds,
+      double upperSlope,
+      double lowerSlope) {
+    heldDataPoint = dataPoint;
+    heldTimestampOverride = timestampOverride;
+    heldNumericValue = numericValue;
+    heldTimeSeconds = timeSeconds;
+    upperDoorSlope = upperSlope;
+    lowerDoorSlope = lowerSlope;
+  }
+
+  /**
+   * Clears the data point held back by the compression stage.
+   *
+   * @since 1.1.0
+   */
+  public void clearHeld() {
+    heldDataPoint = null;
+    heldTimestampOverride = null;
+  }
+
+  /**
+   * Gets the aggregation window of the tag, creating it if the tag has not been aggregated.
+   *
+   * @return the aggregation window
+   * @since 1.1.0
+   */
+  public CanaryTagWindow getWindow() {
+    if (window == null) {
+      window = new CanaryTagWindow();
+    }
+    return window;
+  }
+
+  /**
+   * Gets the rate limit token bucket of the tag, creating it if the tag has not been rate limited.
+   *
+   * @return the rate limit token bucket
+   * @since 1.1.0
+   */
+  public CanaryTagRateBucket getRateBucket() {
+    if (rateBucket == null) {
+      rateBucket = new CanaryTagRateBucket();
+    }
+    return rateBucket;
+  }
+
+  /**
+   * Records a reported data point of the tag.
+   *
+   * @param numericValue the numeric value, or {@link Double#NaN} if not numeric
+   * @param stringValue the string value, or null if numeric
+   * @param quality the raw quality
+   * @param timeSeconds the sample time (in seconds since epoch)
+   * @since 1.1.0
+   */
+  public void recordReported(
+      double numericValue, String stringValue, int quality, long timeSeconds) {
+    reported = true;
+    lastReportedNumericValue = numericValue;
+    lastReportedStringValue = stringValue;
+    lastReportedQuality = quality;
+    lastReportedTimeSeconds = timeSeconds;
+  }
+}
@@ -0,0 +1,104 @@
+package com.hms_networks.sc.canary.filter;
+
+/**
+ * Utility class for the statistics reported for each window of an aggregated tag. Statistics are
+ * represented as a bit mask of {@link #MIN}, {@link #MAX}, {@link #AVG}, {@link #COUNT} and {@link
+ * #LAST}, and each statistic is reported as a separate TVQ, named with the name of the statistic
+ * appended to the tag name.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagStatistics {
+
+  /**
+   * Bit mask of the minimum value statistic.
+   *
+   * @since 1.1.0
+   */
+  public static final int MIN = 1;
+
+  /**
+   * Bit mask of the maximum value statistic.
+   *
+   * @since 1.1.0
+   */
+  public static final int MAX = 2;
+
+  /**
+   * Bit mask of the average value statistic.
+   *
+   * @since 1.1.0
+   */
+  public static final int AVG = 4;
+
+  /**
+   * Bit mask of the sample count statistic.
+   *
+   * @since 1.1.0
+   */
+  public static final int COUNT = 8;
+
+  /**
+   * Bit mask of the last value statistic.
+   *
+   * @since 1.1.0
+   */
+  public static final int LAST = 16;
+
+  /**
+   * Bit mask of all statistics.
+   *
+   * @since 1.1.0
+   */
+  public static final int ALL = MIN | MAX | AVG | COUNT | LAST;
+
+  /**
+   * The names of the statistics, in order of their bit masks.
+   *
+   * @since 1.1.0
+   */
+  private static final String[] STATISTIC_NAMES = {"min", "max", "avg", "count", "last"};
+
+  /**
+   * The separator between the tag name and the statistic name in the TVQ name of a statistic.
+   *
+   * @since 1.1.0
+   */
+  private static final String STATISTIC_NAME_SEPARATOR = ".";
+
+  /**
+   * Gets the bit mask of the statistic with the specified name.
+   *
+   * @param statisticName the name of the statistic (min, max, avg, count or last)
+   * @return the bit mask of the statistic
+   * @throws IllegalArgumentException if the statistic name is unknown
+   * @since 1.1.0
+   */
+  public static int getStatisticMask(String statisticName) {
+    for (int statisticIndex = 0; statisticIndex < STATISTIC_NAMES.length; statisticIndex++) {
+      if (STATISTIC_NAMES[statisticIndex].equalsIgnoreCase(statisticName.trim())) {
+        return 1 << statisticIndex;
+      }
+    }
+    throw new IllegalArgumentException("Unknown statistic " + statisticName + ".");
+  }
+
+  /**
+   * Gets the name of the tag which the specified statistic of a tag is reported as.
+   *
+   * @param tagName the name of the tag
+   * @param statisticMask the bit mask of a single statistic
+   * @return the name of the statistic tag
+   * @since 1.1.0
+   */
+  public static String getStatisticTagName(String tagName, int statisticMask) {
+    String statisticName = "";
+    for (int statisticIndex = 0; statisticIndex < STATISTIC_NAMES.length; statisticIndex++) {
+      if (statisticMask == 1 << statisticIndex) {
+        statisticName = STATISTIC_NAMES[statisticIndex];
+      }
+    }
+    return tagName + STATISTIC_NAME_SEPARATOR + statisticName;
+  }
+}
@@ -0,0 +1,325 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointDword;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointFloat;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointInteger;
+import com.hms_networks.americas.sc.extensions.datapoint.DataQuality;
+
+/**
+ * Class for the running statistics of the open aggregation window of a tag. The statistics are
+ * updated as each sample of the window is added, so that the state of a window is fixed in size
+ * regardless of the number of samples.
+ *
+ * <p>Values which are not a number are counted, and are reported as the last value, but are not
+ * included in the minimum, maximum and average values. The quality of the statistics is the worst
+ * quality of the samples in the window.
+ *
+ * <p>The minimum, maximum and last values are reported with the type of the samples, so that the
+ * values of integer tags are reported exactly, including values above the range of integers which
+ * a float holds exactly. The average is reported as a float, computed from a double sum.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagWindow {
+
+  /**
+   * Value type of windows with integer samples only, which includes boolean and integer mapped
+   * string samples.
+   *
+   * @since 1.1.0
+   */
+  private static final int VALUE_TYPE_INTEGER = 0;
+
+  /**
+   * Value type of windows with DWORD samples, and integer samples only otherwise.
+   *
+   * @since 1.1.0
+   */
+  private static final int VALUE_TYPE_DWORD = 1;
+
+  /**
+   * Value type of windows with float samples.
+   *
+   * @since 1.1.0
+   */
+  private static final int VALUE_TYPE_FLOAT = 2;
+
+  /**
+   * The start time (in seconds since epoch) of the window, or -1 if no window is open.
+   *
+   * @since 1.1.0
+   */
+  private long windowStartSeconds = -1;
+
+  /**
+   * The end time (in seconds since epoch) of the last closed window, or -1 if no window has been
+   * closed.
+   *
+   * @since 1.1.0
+   */
+  private long closedWindowEndSeconds = -1;
+
+  /**
+   * The value type of the window, the widest of {@link #VALUE_TYPE_INTEGER}, {@link
+   * #VALUE_TYPE_DWORD} and {@link #VALUE_TYPE_FLOAT} of its samples.
+   *
+   * @since 1.1.0
+   */
+  private int valueType = VALUE_TYPE_INTEGER;
+
+  /**
+   * The number of samples in the window.
+   *
+   * @since 1.1.0
+   */
+  private int sampleCount = 0;
+
+  /**
+   * The number of samples in the window with a value which is a number.
+   *
+   * @since 1.1.0
+   */
+  private int numberCount = 0;
+
+  /**
+   * The sum of the values of the window which are a number.
+   *
+   * @since 1.1.0
+   */
+  private double sum = 0;
+
+  /**
+   * The minimum value of the window.
+   *
+   * @since 1.1.0
+   */
+  private double min = Double.NaN;
+
+  /**
+   * The maximum value of the window.
+   *
+   * @since 1.1.0
+   */
+  private double max = Double.NaN;
+
+  /**
+   * The value of the last sample of the window.
+   *
+   * @since 1.1.0
+   */
+  private double last = Double.NaN;
+
+  /**
+   * The worst quality of the samples of the window.
+   *
+   * @since 1.1.0
+   */
+  private DataQuality worstQuality = DataQuality.GOOD;
+
+  /**
+   * The ID of the tag, used for the statistic data points.
+   *
+   * @since 1.1.0
+   */
+  private int tagId = 0;
+
+  /**
+   * The unit of the tag, used for the statistic data points.
+   *
+   * @since 1.1.0
+   */
+  private String tagUnit = null;
+
+  /**
+   * Gets a boolean indicating whether a window is open.
+   *
+   * @return {@code true} if a window is open, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean isOpen() {
+    return windowStartSeconds != -1;
+  }
+
+  /**
+   * Gets the start time (in seconds since epoch) of the window.
+   *
+   * @return the window start time (in seconds since epoch), or -1 if no window is open
+   * @since 1.1.0
+   */
+  public long getWindowStartSeconds() {
+    return windowStartSeconds;
+  }
+
+  /**
+   * Gets the end time (in seconds since epoch) of the last closed window. A sample before this
+   * time is added to a later window, as the statistics of its window have already been reported.
+   *
+   * @return the end time (in seconds since epoch) of the last closed window, or -1 if no window
+   *     has been closed
+   * @since 1.1.0
+   */
+  public long getClosedWindowEndSeconds() {
+    return closedWindowEndSeconds;
+  }
+
+  /**
+   * Opens a new window with the specified start time, discarding the statistics of the previous
+   * window.
+   *
+   * @param startSeconds the start time (in seconds since epoch) of the window
+   * @since 1.1.0
+   */
+  public void open(long startSeconds) {
+    windowStartSeconds = startSeconds;
+    valueType = VALUE_TYPE_INTEGER;
+    sampleCount = 0;
+    numberCount = 0;
+    sum = 0;
+    min = Double.NaN;
+    max = Double.NaN;
+    last = Double.NaN;
+    worstQuality = DataQuality.GOOD;
+  }
+
+  /**
+   * Closes the window, which ends at the specified time.
+   *
+   * @param endSeconds the end time (in seconds since epoch) of the window
+   * @since 1.1.0
+   */
+  public void close(long endSeconds) {
+    windowStartSeconds = -1;
+    closedWindowEndSeconds = endSeconds;
+  }
+
+  /**
+   * Adds a numeric sample to the window.
+   *
+   * @param dataPoint the data point of the sample
+   * @since 1.1.0
+   */
+  public void addSample(DataPoint dataPoint) {
+    final double value = CanaryFilterUtils.getNumericValue(dataPoint);
+    final DataQuality quality = dataPoint.getQuality();
+    if (dataPoint instanceof DataPointFloat) {
+      valueType = VALUE_TYPE_FLOAT;
+    } else if (dataPoint instanceof DataPointDword) {
+      valueType = Math.max(valueType, VALUE_TYPE_DWORD);
+    }
+    sampleCount++;
+    last = value;
+    if (!Double.isNaN(value)) {
+      if (numberCount == 0) {
+        min = value;
+        max = value;
+      } else {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+      numberCount++;
+      sum += value;
+    }
+    if (getQualityRank(quality) < getQualityRank(worstQuality)) {
+      worstQuality = quality;
+    }
+    tagId = dataPoint.getTagId();
+    tagUnit = dataPoint.getTagUnit();
+  }
+
+  /**
+   * Adds a data point for each of the specified statistics of the window to the specified result,
+   * timestamped with the start time of the window.
+   *
+   * @param tagName the name of the tag
+   * @param statisticMask the bit mask of the statistics to report
+   * @param result the result to add the statistic data points to
+   * @since 1.1.0
+   */
+  public void addStatistics(String tagName, int statisticMask, CanaryTagFilterResult result) {
+    final String timeStamp = Long.toString(windowStartSeconds);
+    if ((statisticMask & CanaryTagStatistics.MIN) != 0) {
+      addStatistic(tagName, CanaryTagStatistics.MIN, min, valueType, timeStamp, result);
+    }
+    if ((statisticMask & CanaryTagStatistics.MAX) != 0) {
+      addStatistic(tagName, CanaryTagStatistics.MAX, max, valueType, timeStamp, result);
+    }
+    if ((statisticMask & CanaryTagStatistics.AVG) != 0) {
+      final double avg = numberCount > 0 ? sum / numberCount : Double.NaN;
+      addStatistic(tagName, CanaryTagStatistics.AVG, avg, VALUE_TYPE_FLOAT, timeStamp, result);
+    }
+    if ((statisticMask & CanaryTagStatistics.COUNT) != 0) {
+      final String noTimestampOverride = null;
+      result.add(
+          new DataPointInteger(
+              CanaryTagStatistics.getStatisticTagName(tagName, CanaryTagStatistics.COUNT),
+              tagId,
+              tagUnit,
+              sampleCount,
+              timeStamp,
+              worstQuality),
+          noTimestampOverride);
+    }
+    if ((statisticMask & CanaryTagStatistics.LAST) != 0) {
+      addStatistic(tagName, CanaryTagStatistics.LAST, last, valueType, timeStamp, result);
+    }
+  }
+
+  /**
+   * Adds a data point of the specified value type for the specified statistic of the window to the
+   * specified result. Values which are not a number are always added as a float data point.
+   *
+   * @param tagName the name of the tag
+   * @param statisticMask the bit mask of the statistic
+   * @param value the value of the statistic
+   * @param statisticValueType the value type of the statistic data point
+   * @param timeStamp the timestamp (in seconds since epoch) of the statistic
+   * @param result the result to add the statistic data point to
+   * @since 1.1.0
+   */
+  private void addStatistic(
+      String tagName,
+      int statisticMask,
+      double value,
+      int statisticValueType,
+      String timeStamp,
+      CanaryTagFilterResult result) {
+    final String statisticTagName = CanaryTagStatistics.getStatisticTagName(tagName, statisticMask);
+    final DataPoint statisticDataPoint;
+    if (statisticValueType == VALUE_TYPE_INTEGER && !Double.isNaN(value)) {
+      statisticDataPoint =
+          new DataPointInteger(
+              statisticTagName, tagId, tagUnit, (int) value, timeStamp, worstQuality);
+    } else if (statisticValueType == VALUE_TYPE_DWORD && !Double.isNaN(value)) {
+      statisticDataPoint =
+          new DataPointDword(
+              statisticTagName, tagId, tagUnit, (long) value, timeStamp, worstQuality);
+    } else {
+      statisticDataPoint =
+          new DataPointFloat(
+              statisticTagName, tagId, tagUnit, (float) value, timeStamp, worstQuality);
+    }
+    final String noTimestampOverride = null;
+    result.add(statisticDataPoint, noTimestampOverride);
+  }
+
+  /**
+   * Gets the rank of the specified quality, where a worse quality has a lower rank.
+   *
+   * @param quality the quality
+   * @return the rank of the quality
+   * @since 1.1.0
+   */
+  private static int getQualityRank(DataQuality quality) {
+    int rank;
+    if (DataQuality.GOOD.equals(quality)) {
+      rank = 2;
+    } else if (DataQuality.UNCERTAIN.equals(quality)) {
+      rank = 1;
+    } else {
+      rank = 0;
+    }
+    return rank;
+  }
+}
@@ -0,0 +1,59 @@
+package com.hms_networks.sc.canary.metrics;
+
+/**
+ * Class for a connector metric which counts events. The value of a counter only increases.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryCounter extends CanaryMetric {
+
+  /**
+   * The number of events counted.
+   *
+   * @since 1.1.0
+   */
+  private long value = 0;
+
+  /**
+   * Constructor for a {@link CanaryCounter} with the specified name and description.
+   *
+   * @param name the name of the counter
+   * @param help the description of the counter
+   * @since 1.1.0
+   */
+  public CanaryCounter(String name, String help) {
+    super(name, help);
+  }
+
+  /**
+   * Increments the counter by one.
+   *
+   * @since 1.1.0
+   */
+  public synchronized void increment() {
+    value++;
+  }
+
+  /**
+   * Increments the counter by the specified amount. Negative amounts are ignored.
+   *
+   * @param amount the amount to increment the counter by
+   * @since 1.1.0
+   */
+  public synchronized void add(long amount) {
+    if (amount > 0) {
+      value += amount;
+    }
+  }
+
+  /**
+   * Gets the number of events counted.
+   *
+   * @return the value of the counter
+   * @since 1.1.0
+   */
+  public synchronized long getValue() {
+    return value;
+  }
+}
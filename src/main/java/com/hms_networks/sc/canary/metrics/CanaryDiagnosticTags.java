@@ -0,0 +1,319 @@
+package com.hms_networks.sc.canary.metrics;
+
+import com.ewon.ewonitf.EWException;
+import com.ewon.ewonitf.SysControlBlock;
+import com.ewon.ewonitf.TagControl;
+import com.hms_networks.americas.sc.extensions.logging.Logger;
+
+/**
+ * Class for publishing connector health and throughput metrics from the {@link
+ * CanaryMetricsRegistry} to Ewon diagnostic tags, so that they can be monitored and alarmed on by
+ * SCADA systems and Talk2M without reading the connector logs.
+ *
+ * <p>The diagnostic tags are created as memory tags when missing, and are updated at a fixed
+ * interval from the connector main loop.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryDiagnosticTags {
+
+  /**
+   * The Ewon tag type value for floating point tags.
+   *
+   * @since 1.1.0
+   */
+  private static final String TAG_TYPE_FLOAT = "1";
+
+  /**
+   * The Ewon tag type value for integer tags.
+   *
+   * @since 1.1.0
+   */
+  private static final String TAG_TYPE_INTEGER = "2";
+
+  /**
+   * The Ewon IO server name for memory tags.
+   *
+   * @since 1.1.0
+   */
+  private static final String TAG_SERVER_NAME_MEMORY = "MEM";
+
+  /**
+   * The number of milliseconds in a minute, used to calculate rates per minute.
+   *
+   * @since 1.1.0
+   */
+  private static final double MILLIS_PER_MINUTE = 60000.0;
+
+  /**
+   * Index of the pending payloads diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int PENDING_PAYLOADS_TAG_INDEX = 0;
+
+  /**
+   * Index of the pending bytes diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int PENDING_BYTES_TAG_INDEX = 1;
+
+  /**
+   * Index of the oldest pending payload age diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int OLDEST_PENDING_AGE_TAG_INDEX = 2;
+
+  /**
+   * Index of the last store data round trip time diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int LAST_STORE_DATA_MILLIS_TAG_INDEX = 3;
+
+  /**
+   * Index of the store data success rate diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int SUCCESS_PER_MINUTE_TAG_INDEX = 4;
+
+  /**
+   * Index of the store data error rate diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int ERROR_PER_MINUTE_TAG_INDEX = 5;
+
+  /**
+   * Index of the session refresh count diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int SESSION_REFRESHES_TAG_INDEX = 6;
+
+  /**
+   * Index of the last acknowledged sample lag diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final int SAMPLE_LAG_TAG_INDEX = 7;
+
+  /**
+   * The name suffix of each diagnostic tag, appended to the configured tag name prefix.
+   *
+   * @since 1.1.0
+   */
+  private static final String[] TAG_NAME_SUFFIXES = {
+    "PendingPayloads",
+    "PendingBytes",
+    "OldestPendingAgeSecs",
+    "LastStoreDataMillis",
+    "SuccessPerMin",
+    "ErrorPerMin",
+    "SessionRefreshes",
+    "SampleLagSecs"
+  };
+
+  /**
+   * The description of each diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final String[] TAG_DESCRIPTIONS = {
+    "Canary payloads pending for the target furthest behind",
+    "Size of Canary payloads pending in bytes",
+    "Age of the oldest pending Canary payload in seconds",
+    "Round trip time of the last Canary store data request in ms",
+    "Successful Canary store data requests per minute",
+    "Unsuccessful Canary store data requests per minute",
+    "Canary sessions opened or refreshed after expiring",
+    "Lag of the newest sample acknowledged by Canary in seconds"
+  };
+
+  /**
+   * The Ewon tag type of each diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private static final String[] TAG_TYPES = {
+    TAG_TYPE_INTEGER,
+    TAG_TYPE_INTEGER,
+    TAG_TYPE_INTEGER,
+    TAG_TYPE_INTEGER,
+    TAG_TYPE_FLOAT,
+    TAG_TYPE_FLOAT,
+    TAG_TYPE_INTEGER,
+    TAG_TYPE_INTEGER
+  };
+
+  /**
+   * The prefix of the name of each diagnostic tag.
+   *
+   * @since 1.1.0
+   */
+  private final String tagNamePrefix;
+
+  /**
+   * The interval (in milliseconds) between diagnostic tag updates.
+   *
+   * @since 1.1.0
+   */
+  private final long updateIntervalMillis;
+
+  /**
+   * The {@link TagControl} of each diagnostic tag, or null if the tag is not available.
+   *
+   * @since 1.1.0
+   */
+  private final TagControl[] tagControls = new TagControl[TAG_NAME_SUFFIXES.length];
+
+  /**
+   * The time (in milliseconds) of the last diagnostic tag update, or -1 if not yet updated.
+   *
+   * @since 1.1.0
+   */
+  private long lastUpdateTimeMillis = -1;
+
+  /**
+   * The value of the acknowledged payloads counter at the last diagnostic tag update.
+   *
+   * @since 1.1.0
+   */
+  private long lastPayloadsAckedCount = 0;
+
+  /**
+   * The value of the retried payloads counter at the last diagnostic tag update.
+   *
+   * @since 1.1.0
+   */
+  private long lastPayloadsRetriedCount = 0;
+
+  /**
+   * Constructor for a {@link CanaryDiagnosticTags} with the specified tag name prefix and update
+   * interval.
+   *
+   * @param tagNamePrefix the prefix of the name of each diagnostic tag
+   * @param updateIntervalMillis the interval (in milliseconds) between diagnostic tag updates
+   * @since 1.1.0
+   */
+  public CanaryDiagnosticTags(String tagNamePrefix, long updateIntervalMillis) {
+    this.tagNamePrefix = tagNamePrefix;
+    this.updateIntervalMillis = updateIntervalMillis;
+  }
+
+  /**
+   * Creates any missing diagnostic tags and gets a {@link TagControl} for each diagnostic tag.
+   * Diagnostic tags which cannot be created are skipped when updating.
+   *
+   * @since 1.1.0
+   */
+  public void initialize() {
+    for (int tagIndex = 0; tagIndex < TAG_NAME_SUFFIXES.length; tagIndex++) {
+      String tagName = tagNamePrefix + TAG_NAME_SUFFIXES[tagIndex];
+      try {
+        tagControls[tagIndex] = getOrCreateTag(tagName, tagIndex);
+      } catch (EWException e) {
+        Logger.LOG_WARN("Unable to create diagnostic tag " + tagName + ".");
+        Logger.LOG_EXCEPTION(e);
+      }
+    }
+    lastPayloadsAckedCount = CanaryMetricsRegistry.PAYLOADS_ACKED.getValue();
+    lastPayloadsRetriedCount = CanaryMetricsRegistry.PAYLOADS_RETRIED.getValue();
+  }
+
+  /**
+   * Updates the diagnostic tags with the current metric values, if the update interval has
+   * elapsed since the last update.
+   *
+   * @param currentTimeMillis the current time (in milliseconds)
+   * @since 1.1.0
+   */
+  public void updateIfDue(long currentTimeMillis) {
+    if (lastUpdateTimeMillis < 0) {
+      // Start the first rate interval
+      lastUpdateTimeMillis = currentTimeMillis;
+    } else if (currentTimeMillis - lastUpdateTimeMillis >= updateIntervalMillis) {
+      final double elapsedMinutes = (currentTimeMillis - lastUpdateTimeMillis) / MILLIS_PER_MINUTE;
+      final long payloadsAckedCount = CanaryMetricsRegistry.PAYLOADS_ACKED.getValue();
+      final long payloadsRetriedCount = CanaryMetricsRegistry.PAYLOADS_RETRIED.getValue();
+
+      setTagValue(
+          PENDING_PAYLOADS_TAG_INDEX, CanaryMetricsRegistry.PENDING_PAYLOADS.getValue());
+      setTagValue(PENDING_BYTES_TAG_INDEX, CanaryMetricsRegistry.PENDING_BYTES.getValue());
+      setTagValue(
+          OLDEST_PENDING_AGE_TAG_INDEX,
+          CanaryMetricsRegistry.OLDEST_PENDING_PAYLOAD_AGE_MILLIS.getValue() / 1000);
+      setTagValue(
+          LAST_STORE_DATA_MILLIS_TAG_INDEX,
+          CanaryMetricsRegistry.STORE_DATA_LAST_ROUND_TRIP_MILLIS.getValue());
+      setTagValue(
+          SUCCESS_PER_MINUTE_TAG_INDEX,
+          (payloadsAckedCount - lastPayloadsAckedCount) / elapsedMinutes);
+      setTagValue(
+          ERROR_PER_MINUTE_TAG_INDEX,
+          (payloadsRetriedCount - lastPayloadsRetriedCount) / elapsedMinutes);
+      setTagValue(
+          SESSION_REFRESHES_TAG_INDEX, CanaryMetricsRegistry.SESSION_REFRESHES.getValue());
+      setTagValue(
+          SAMPLE_LAG_TAG_INDEX,
+          CanaryMetricsRegistry.LAST_ACKED_SAMPLE_LAG_MILLIS.getValue() / 1000);
+
+      lastPayloadsAckedCount = payloadsAckedCount;
+      lastPayloadsRetriedCount = payloadsRetriedCount;
+      lastUpdateTimeMillis = currentTimeMillis;
+    }
+  }
+
+  /**
+   * Sets the value of the specified diagnostic tag, if it is available.
+   *
+   * @param tagIndex the index of the diagnostic tag
+   * @param value the value to set
+   * @since 1.1.0
+   */
+  private void setTagValue(int tagIndex, double value) {
+    if (tagControls[tagIndex] != null) {
+      try {
+        tagControls[tagIndex].setTagValueAsDouble(value);
+      } catch (EWException e) {
+        Logger.LOG_WARN(
+            "Unable to update diagnostic tag " + tagNamePrefix + TAG_NAME_SUFFIXES[tagIndex] + ".");
+        Logger.LOG_EXCEPTION(e);
+      }
+    }
+  }
+
+  /**
+   * Gets a {@link TagControl} for the specified diagnostic tag, creating it as a memory tag if it
+   * does not exist.
+   *
+   * @param tagName the name of the diagnostic tag
+   * @param tagIndex the index of the diagnostic tag
+   * @return the {@link TagControl} of the diagnostic tag
+   * @throws EWException if the diagnostic tag cannot be created
+   * @since 1.1.0
+   */
+  private static TagControl getOrCreateTag(String tagName, int tagIndex) throws EWException {
+    TagControl tagControl;
+    try {
+      tagControl = new TagControl(tagName);
+    } catch (EWException e) {
+      // Tag does not exist, create it
+      SysControlBlock tagBlock = new SysControlBlock(SysControlBlock.TAG);
+      tagBlock.setItem("Name", tagName);
+      tagBlock.setItem("Description", TAG_DESCRIPTIONS[tagIndex]);
+      tagBlock.setItem("ServerName", TAG_SERVER_NAME_MEMORY);
+      tagBlock.setItem("TopicName", "");
+      tagBlock.setItem("Address", "");
+      tagBlock.setItem("Type", TAG_TYPES[tagIndex]);
+      tagBlock.saveBlock(true);
+      Logger.LOG_INFO("Created diagnostic tag " + tagName + ".");
+      tagControl = new TagControl(tagName);
+    }
+    return tagControl;
+  }
+}
@@ -0,0 +1,72 @@
+package com.hms_networks.sc.canary.metrics;
+
+/**
+ * Class for a connector metric which holds a value that can increase and decrease, such as the
+ * number of pending data points.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryGauge extends CanaryMetric {
+
+  /**
+   * The current value of the gauge.
+   *
+   * @since 1.1.0
+   */
+  private long value = 0;
+
+  /**
+   * Constructor for a {@link CanaryGauge} with the specified name and description.
+   *
+   * @param name the name of the gauge
+   * @param help the description of the gauge
+   * @since 1.1.0
+   */
+  public CanaryGauge(String name, String help) {
+    super(name, help);
+  }
+
+  /**
+   * Constructor for a {@link CanaryGauge} with the specified name, description and label.
+   *
+   * @param name the name of the gauge
+   * @param help the description of the gauge
+   * @param labelName the name of the label
+   * @param labelValue the value of the label
+   * @since 1.1.0
+   */
+  public CanaryGauge(String name, String help, String labelName, String labelValue) {
+    super(name, help, labelName, labelValue);
+  }
+
+  /**
+   * Sets the value of the gauge.
+   *
+   * @param value the new value of the gauge
+   * @since 1.1.0
+   */
+  public synchronized void set(long value) {
+    this.value = value;
+  }
+
+  /**
+   * Adds the specified amount to the value of the gauge. The amount may be negative.
+   *
+   * @param amount the amount to add to the gauge
+   * @since 1.1.0
+   */
+  public synchronized void add(long amount) {
+    value += amount;
+  }
+
+  /**
+   * Gets the current value of the gauge.
+   *
+   * @return the value of the gauge
+   * @since 1.1.0
+   */
+  public synchronized long getValue() {
+    return value;
+  }
+}
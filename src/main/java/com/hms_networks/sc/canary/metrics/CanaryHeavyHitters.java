@@ -0,0 +1,401 @@
+package com.hms_networks.sc.canary.metrics;
+
+import com.hms_networks.americas.sc.extensions.logging.Logger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class for a connector metric which estimates the tags with the largest totals of an amount, such
+ * as the number of data points or serialized bytes of each tag, using a fixed amount of memory
+ * regardless of the number of tags.
+ *
+ * <p>Amounts are counted in a count-min sketch, a table of {@link #SKETCH_DEPTH} rows of counters
+ * where each tag is hashed to one counter in each row. The estimated total of a tag is the minimum
+ * of its counters, which is never less than its true total and is only greater when other tags
+ * share all of its counters. Counters are updated conservatively, by raising only the counters of
+ * a tag which are below its new estimate, to reduce the overestimate. The tags with the largest
+ * estimates are kept in a min-heap of {@link #MAX_TOP_TAGS} entries, so that a tag replaces the
+ * smallest top tag as soon as its estimate is larger.
+ *
+ * <p>The sketch and heap are cleared at the end of each report interval, after the top tags of the
+ * interval have been published. The published top tags are rendered by the metrics endpoint with a
+ * tag label, and are logged. The sketch is only allocated once the metric is enabled.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryHeavyHitters extends CanaryMetric {
+
+  /**
+   * The maximum number of top tags which are tracked and published.
+   *
+   * @since 1.1.0
+   */
+  public static final int MAX_TOP_TAGS = 20;
+
+  /**
+   * The number of rows of the count-min sketch. Each row reduces the probability of an overestimate
+   * by a factor of e.
+   *
+   * @since 1.1.0
+   */
+  private static final int SKETCH_DEPTH = 4;
+
+  /**
+   * The number of counters in each row of the count-min sketch. The estimate of a tag exceeds its
+   * true total by at most e / width of the total of all tags, with high probability. Must be a
+   * power of two.
+   *
+   * @since 1.1.0
+   */
+  private static final int SKETCH_WIDTH = 1024;
+
+  /**
+   * The counters of the count-min sketch, one row after another, or null if the metric is not
+   * enabled.
+   *
+   * @since 1.1.0
+   */
+  private long[] sketchCounters = null;
+
+  /**
+   * Scratch array which the index of the counter of a tag in each row is kept in while it is
+   * updated.
+   *
+   * @since 1.1.0
+   */
+  private final int[] counterIndexes = new int[SKETCH_DEPTH];
+
+  /**
+   * Boolean indicating whether the metric is enabled. When disabled, amounts are not counted.
+   *
+   * @since 1.1.0
+   */
+  private volatile boolean enabled = false;
+
+  /**
+   * The interval (in milliseconds) between publications of the top tags.
+   *
+   * @since 1.1.0
+   */
+  private long reportIntervalMillis = 0;
+
+  /**
+   * The time (in milliseconds) the current report interval started.
+   *
+   * @since 1.1.0
+   */
+  private long intervalStartMillis = 0;
+
+  /**
+   * The min-heap of the {@link TopTag}s of the current report interval, ordered by estimate.
+   *
+   * @since 1.1.0
+   */
+  private final TopTag[] topTagHeap = new TopTag[MAX_TOP_TAGS];
+
+  /**
+   * The number of top tags in the heap.
+   *
+   * @since 1.1.0
+   */
+  private int topTagHeapSize = 0;
+
+  /**
+   * Map of tag names to the {@link TopTag} of each tag in the heap.
+   *
+   * @since 1.1.0
+   */
+  private final Map topTagsByTagName = new HashMap();
+
+  /**
+   * The names of the top tags published for the last report interval, in descending order of
+   * estimate.
+   *
+   * @since 1.1.0
+   */
+  private final String[] publishedTagNames = new String[MAX_TOP_TAGS];
+
+  /**
+   * The estimates of the top tags published for the last report interval.
+   *
+   * @since 1.1.0
+   */
+  private final long[] publishedEstimates = new long[MAX_TOP_TAGS];
+
+  /**
+   * The number of top tags published for the last report interval.
+   *
+   * @since 1.1.0
+   */
+  private int publishedTagCount = 0;
+
+  /**
+   * Constructor for a {@link CanaryHeavyHitters} with the specified name and description. The
+   * metric is disabled until {@link #enable(long)} is called.
+   *
+   * @param name the name of the metric
+   * @param help the description of the metric
+   * @since 1.1.0
+   */
+  public CanaryHeavyHitters(String name, String help) {
+    super(name, help);
+  }
+
+  /**
+   * Enables the metric, allocating the count-min sketch, with the specified report interval.
+   *
+   * @param reportIntervalMillis the interval (in milliseconds) between publications of the top
+   *     tags
+   * @since 1.1.0
+   */
+  public synchronized void enable(long reportIntervalMillis) {
+    if (sketchCounters == null) {
+      sketchCounters = new long[SKETCH_DEPTH * SKETCH_WIDTH];
+    }
+    this.reportIntervalMillis = reportIntervalMillis;
+    this.intervalStartMillis = System.currentTimeMillis();
+    enabled = true;
+  }
+
+  /**
+   * Gets a boolean indicating whether the metric is enabled. Callers check this before computing
+   * an amount, so that no work is done in the ingestion path when the metric is disabled.
+   *
+   * @return {@code true} if the metric is enabled, {@code false} otherwise
+   * @since 1.1.0
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Adds the specified amount to the total of the specified tag, and updates the top tags.
+   *
+   * @param tagName the name of the tag
+   * @param amount the amount to add, at least 1
+   * @since 1.1.0
+   */
+  public synchronized void add(String tagName, long amount) {
+    if (sketchCounters != null) {
+      // Find the counter of the tag in each row, from two hashes of the tag name
+      final int hash = tagName.hashCode();
+      final int firstHash = hash * 0x9E3779B1;
+      final int secondHash = ((hash ^ (hash >>> 16)) * 0x85EBCA6B) | 1;
+      long estimate = Long.MAX_VALUE;
+      for (int row = 0; row < SKETCH_DEPTH; row++) {
+        int rowHash = firstHash + row * secondHash;
+        rowHash ^= rowHash >>> 15;
+        counterIndexes[row] = row * SKETCH_WIDTH + (rowHash & (SKETCH_WIDTH - 1));
+        estimate = Math.min(estimate, sketchCounters[counterIndexes[row]]);
+      }
+
+      // Raise only the counters which are below the new estimate
+      estimate += amount;
+      for (int row = 0; row < SKETCH_DEPTH; row++) {
+        if (sketchCounters[counterIndexes[row]] < estimate) {
+          sketchCounters[counterIndexes[row]] = estimate;
+        }
+      }
+      updateTopTags(tagName, estimate);
+    }
+  }
+
+  /**
+   * Publishes the top tags of the current report interval, logs them and clears the sketch, if
+   * the report interval has elapsed.
+   *
+   * @param timeMillis the current time (in milliseconds)
+   * @since 1.1.0
+   */
+  public synchronized void publishIfDue(long timeMillis) {
+    if (enabled && timeMillis - intervalStartMillis >= reportIntervalMillis) {
+      publish(timeMillis);
+      Arrays.fill(sketchCounters, 0);
+      Arrays.fill(topTagHeap, null);
+      topTagHeapSize = 0;
+      topTagsByTagName.clear();
+      intervalStartMillis = timeMillis;
+    }
+  }
+
+  /**
+   * Copies the top tags published for the last report interval into the specified arrays, in
+   * descending order of estimate.
+   *
+   * @param tagNames the array to copy the tag names into, of length {@link #MAX_TOP_TAGS}
+   * @param estimates the array to copy the estimates into, of length {@link #MAX_TOP_TAGS}
+   * @return the number of top tags copied
+   * @since 1.1.0
+   */
+  public synchronized int copyPublishedTopTags(String[] tagNames, long[] estimates) {
+    System.arraycopy(publishedTagNames, 0, tagNames, 0, publishedTagCount);
+    System.arraycopy(publishedEstimates, 0, estimates, 0, publishedTagCount);
+    return publishedTagCount;
+  }
+
+  /**
+   * Updates the estimate of the specified tag in the heap of top tags, or adds the tag to the heap
+   * if it is not full or the estimate is larger than the smallest top tag, which is replaced.
+   *
+   * @param tagName the name of the tag
+   * @param estimate the estimated total of the tag
+   * @since 1.1.0
+   */
+  private void updateTopTags(String tagName, long estimate) {
+    TopTag topTag = (TopTag) topTagsByTagName.get(tagName);
+    if (topTag != null) {
+      topTag.estimate = estimate;
+      siftDown(topTag.heapIndex);
+    } else if (topTagHeapSize < MAX_TOP_TAGS) {
+      topTag = new TopTag();
+      topTag.tagName = tagName;
+      topTag.estimate = estimate;
+      topTag.heapIndex = topTagHeapSize;
+      topTagHeap[topTagHeapSize] = topTag;
+      topTagHeapSize++;
+      topTagsByTagName.put(tagName, topTag);
+      siftUp(topTag.heapIndex);
+    } else if (estimate > topTagHeap[0].estimate) {
+      // Reuse the entry of the smallest top tag for the new tag
+      topTag = topTagHeap[0];
+      topTagsByTagName.remove(topTag.tagName);
+      topTag.tagName = tagName;
+      topTag.estimate = estimate;
+      topTagsByTagName.put(tagName, topTag);
+      siftDown(0);
+    }
+  }
+
+  /**
+   * Moves the top tag at the specified heap index up the heap until its parent is not larger.
+   *
+   * @param heapIndex the heap index of the top tag
+   * @since 1.1.0
+   */
+  private void siftUp(int heapIndex) {
+    int index = heapIndex;
+    while (index > 0 && topTagHeap[(index - 1) / 2].estimate > topTagHeap[index].estimate) {
+      swap(index, (index - 1) / 2);
+      index = (index - 1) / 2;
+    }
+  }
+
+  /**
+   * Moves the top tag at the specified heap index down the heap until neither child is smaller.
+   *
+   * @param heapIndex the heap index of the top tag
+   * @since 1.1.0
+   */
+  private void siftDown(int heapIndex) {
+    int index = heapIndex;
+    boolean sifting = true;
+    while (sifting) {
+      int smallestIndex = index;
+      final int leftIndex = index * 2 + 1;
+      final int rightIndex = leftIndex + 1;
+      if (leftIndex < topTagHeapSize
+          && topTagHeap[leftIndex].estimate < topTagHeap[smallestIndex].estimate) {
+        smallestIndex = leftIndex;
+      }
+      if (rightIndex < topTagHeapSize
+          && topTagHeap[rightIndex].estimate < topTagHeap[smallestIndex].estimate) {
+        smallestIndex = rightIndex;
+      }
+      if (smallestIndex != index) {
+        swap(index, smallestIndex);
+        index = smallestIndex;
+      } else {
+        sifting = false;
+      }
+    }
+  }
+
+  /**
+   * Swaps the top tags at the specified heap indexes.
+   *
+   * @param firstIndex the heap index of the first top tag
+   * @param secondIndex the heap index of the second top tag
+   * @since 1.1.0
+   */
+  private void swap(int firstIndex, int secondIndex) {
+    TopTag firstTopTag = topTagHeap[firstIndex];
+    topTagHeap[firstIndex] = topTagHeap[secondIndex];
+    topTagHeap[secondIndex] = firstTopTag;
+    topTagHeap[firstIndex].heapIndex = firstIndex;
+    topTagHeap[secondIndex].heapIndex = secondIndex;
+  }
+
+  /**
+   * Publishes the top tags in the heap in descending order of estimate, and logs them.
+   *
+   * @param timeMillis the current time (in milliseconds)
+   * @since 1.1.0
+   */
+  private void publish(long timeMillis) {
+    publishedTagCount = 0;
+    for (int heapIndex = 0; heapIndex < topTagHeapSize; heapIndex++) {
+      TopTag topTag = topTagHeap[heapIndex];
+      int insertIndex = publishedTagCount;
+      while (insertIndex > 0 && publishedEstimates[insertIndex - 1] < topTag.estimate) {
+        publishedTagNames[insertIndex] = publishedTagNames[insertIndex - 1];
+        publishedEstimates[insertIndex] = publishedEstimates[insertIndex - 1];
+        insertIndex--;
+      }
+      publishedTagNames[insertIndex] = topTag.tagName;
+      publishedEstimates[insertIndex] = topTag.estimate;
+      publishedTagCount++;
+    }
+
+    if (publishedTagCount > 0) {
+      StringBuffer topTagsMessage = new StringBuffer();
+      topTagsMessage
+          .append("Top tags of ")
+          .append(getName())
+          .append(" in the last ")
+          .append((timeMillis - intervalStartMillis) / 1000)
+          .append("s: ");
+      for (int publishedIndex = 0; publishedIndex < publishedTagCount; publishedIndex++) {
+        if (publishedIndex > 0) {
+          topTagsMessage.append(", ");
+        }
+        topTagsMessage
+            .append(publishedTagNames[publishedIndex])
+            .append(" (")
+            .append(publishedEstimates[publishedIndex])
+            .append(')');
+      }
+      Logger.LOG_INFO(topTagsMessage.toString());
+    }
+  }
+
+  /**
+   * Class for a tag in the heap of top tags, with its estimated total and heap index.
+   *
+   * @since 1.1.0
+   */
+  private static class TopTag {
+
+    /**
+     * The name of the tag.
+     *
+     * @since 1.1.0
+     */
+    private String tagName;
+
+    /**
+     * The estimated total of the tag.
+     *
+     * @since 1.1.0
+     */
+    private long estimate;
+
+    /**
+     * The index of the tag in the heap.
+     *
+     * @since 1.1.0
+     */
+    private int heapIndex;
+  }
+}
@@ -0,0 +1,170 @@
+package com.hms_networks.sc.canary.metrics;
+
+/**
+ * Class for a connector metric which records the distribution of observed values in a fixed set of
+ * buckets. The memory used by a histogram is allocated when it is created, and recording a value
+ * does not allocate.
+ *
+ * <p>Each bucket counts the observed values which are less than or equal to its upper bound and
+ * greater than the upper bound of the previous bucket. An additional overflow bucket counts the
+ * observed values which are greater than the upper bound of the last bucket.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryHistogram extends CanaryMetric {
+
+  /**
+   * The inclusive upper bound of each bucket, in ascending order.
+   *
+   * @since 1.1.0
+   */
+  private final long[] bucketUpperBounds;
+
+  /**
+   * The number of observed values in each bucket. The last element is the overflow bucket.
+   *
+   * @since 1.1.0
+   */
+  private final long[] bucketCounts;
+
+  /**
+   * The number of observed values.
+   *
+   * @since 1.1.0
+   */
+  private long count = 0;
+
+  /**
+   * The sum of the observed values.
+   *
+   * @since 1.1.0
+   */
+  private long sum = 0;
+
+  /**
+   * The largest observed value, or 0 if no values have been observed.
+   *
+   * @since 1.1.0
+   */
+  private long max = 0;
+
+  /**
+   * Constructor for a {@link CanaryHistogram} with the specified name, description and bucket
+   * upper bounds.
+   *
+   * @param name the name of the histogram
+   * @param help the description of the histogram
+   * @param bucketUpperBounds the inclusive upper bound of each bucket, in ascending order
+   * @throws IllegalArgumentException if the bucket upper bounds are not in ascending order
+   * @since 1.1.0
+   */
+  public CanaryHistogram(String name, String help, long[] bucketUpperBounds) {
+    this(name, help, bucketUpperBounds, null, null);
+  }
+
+  /**
+   * Constructor for a {@link CanaryHistogram} with the specified name, description, bucket upper
+   * bounds and label.
+   *
+   * @param name the name of the histogram
+   * @param help the description of the histogram
+   * @param bucketUpperBounds the inclusive upper bound of each bucket, in ascending order
+   * @param labelName the name of the label, or null if the histogram is not labelled
+   * @param labelValue the value of the label, or null if the histogram is not labelled
+   * @throws IllegalArgumentException if the bucket upper bounds are not in ascending order
+   * @since 1.1.0
+   */
+  public CanaryHistogram(
+      String name, String help, long[] bucketUpperBounds, String labelName, String labelValue) {
+    super(name, help, labelName, labelValue);
+    for (int i = 1; i < bucketUpperBounds.length; i++) {
+      if (bucketUpperBounds[i] <= bucketUpperBounds[i - 1]) {
+        throw new IllegalArgumentException("Bucket upper bounds must be in ascending order.");
+      }
+    }
+    this.bucketUpperBounds = (long[]) bucketUpperBounds.clone();
+    this.bucketCounts = new long[bucketUpperBounds.length + 1];
+  }
+
+  /**
+   * Records the specified observed value.
+   *
+   * @param value the observed value
+   * @since 1.1.0
+   */
+  public synchronized void record(long value) {
+    int bucketIndex = 0;
+    while (bucketIndex < bucketUpperBounds.length && value > bucketUpperBounds[bucketIndex]) {
+      bucketIndex++;
+    }
+    bucketCounts[bucketIndex]++;
+    count++;
+    sum += value;
+    if (value > max) {
+      max = value;
+    }
+  }
+
+  /**
+   * Gets the number of buckets, excluding the overflow bucket.
+   *
+   * @return the number of buckets
+   * @since 1.1.0
+   */
+  public int getBucketCount() {
+    return bucketUpperBounds.length;
+  }
+
+  /**
+   * Gets the inclusive upper bound of the specified bucket.
+   *
+   * @param bucketIndex the index of the bucket
+   * @return the upper bound of the bucket
+   * @since 1.1.0
+   */
+  public long getBucketUpperBound(int bucketIndex) {
+    return bucketUpperBounds[bucketIndex];
+  }
+
+  /**
+   * Copies the number of observed values in each bucket to the specified array, which must have
+   * room for the number of buckets plus one. The last element is set to the overflow bucket count.
+   *
+   * @param bucketCountsDestination the array to copy the bucket counts to
+   * @since 1.1.0
+   */
+  public synchronized void copyBucketCounts(long[] bucketCountsDestination) {
+    System.arraycopy(bucketCounts, 0, bucketCountsDestination, 0, bucketCounts.length);
+  }
+
+  /**
+   * Gets the number of observed values.
+   *
+   * @return the number of observed values
+   * @since 1.1.0
+   */
+  public synchronized long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the sum of the observed values.
+   *
+   * @return the sum of the observed values
+   * @since 1.1.0
+   */
+  public synchronized long getSum() {
+    return sum;
+  }
+
+  /**
+   * Gets the largest observed value.
+   *
+   * @return the largest observed value, or 0 if no values have been observed
+   * @since 1.1.0
+   */
+  public synchronized long getMax() {
+    return max;
+  }
+}
@@ -0,0 +1,108 @@
+package com.hms_networks.sc.canary.metrics;
+
+/**
+ * Base class for a named connector metric. Each metric synchronizes on its own monitor when
+ * updated or read, so that metrics can be updated from the poll and data poster threads without a
+ * global lock.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public abstract class CanaryMetric {
+
+  /**
+   * The name of the metric. Names use lowercase words separated by underscores.
+   *
+   * @since 1.1.0
+   */
+  private final String name;
+
+  /**
+   * The description of the metric.
+   *
+   * @since 1.1.0
+   */
+  private final String help;
+
+  /**
+   * The name of the label of the metric, or null if the metric is not labelled.
+   *
+   * @since 1.1.0
+   */
+  private final String labelName;
+
+  /**
+   * The value of the label of the metric, or null if the metric is not labelled.
+   *
+   * @since 1.1.0
+   */
+  private final String labelValue;
+
+  /**
+   * Constructor for a {@link CanaryMetric} with the specified name and description.
+   *
+   * @param name the name of the metric
+   * @param help the description of the metric
+   * @since 1.1.0
+   */
+  protected CanaryMetric(String name, String help) {
+    this(name, help, null, null);
+  }
+
+  /**
+   * Constructor for a {@link CanaryMetric} with the specified name, description and label. Metrics
+   * with the same name and different label values are rendered together as one metric family.
+   *
+   * @param name the name of the metric
+   * @param help the description of the metric
+   * @param labelName the name of the label, or null if the metric is not labelled
+   * @param labelValue the value of the label, or null if the metric is not labelled
+   * @since 1.1.0
+   */
+  protected CanaryMetric(String name, String help, String labelName, String labelValue) {
+    this.name = name;
+    this.help = help;
+    this.labelName = labelName;
+    this.labelValue = labelValue;
+  }
+
+  /**
+   * Gets the name of the metric.
+   *
+   * @return the name of the metric
+   * @since 1.1.0
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the description of the metric.
+   *
+   * @return the description of the metric
+   * @since 1.1.0
+   */
+  public String getHelp() {
+    return help;
+  }
+
+  /**
+   * Gets the name of the label of the metric.
+   *
+   * @return the name of the label, or null if the metric is not labelled
+   * @since 1.1.0
+   */
+  public String getLabelName() {
+    return labelName;
+  }
+
+  /**
+   * Gets the value of the label of the metric.
+   *
+   * @return the value of the label, or null if the metric is not labelled
+   * @since 1.1.0
+   */
+  public String getLabelValue() {
+    return labelValue;
+  }
+}
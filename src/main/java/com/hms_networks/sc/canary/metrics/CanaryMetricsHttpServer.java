@@ -0,0 +1,336 @@
+package com.hms_networks.sc.canary.metrics;
+
+import com.hms_networks.americas.sc.extensions.logging.Logger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Class for a minimal HTTP server which exposes the metrics of the {@link CanaryMetricsRegistry}
+ * for scraping by off-device monitoring systems. Requests are handled one at a time on the server
+ * thread, and each connection is closed after its response.
+ *
+ * <p>The following paths are served in response to {@code GET} requests:
+ *
+ * <ul>
+ *   <li>{@value #PROMETHEUS_PATH} - metrics in the Prometheus text exposition format
+ *   <li>{@value #JSON_PATH} - metrics as a JSON object
+ * </ul>
+ *
+ * <p>This class only depends on the standard Java networking classes, so that it can be run and
+ * tested on any JVM.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryMetricsHttpServer extends Thread {
+
+  /**
+   * The path of metrics in the Prometheus text exposition format.
+   *
+   * @since 1.1.0
+   */
+  public static final String PROMETHEUS_PATH = "/metrics";
+
+  /**
+   * The path of metrics as a JSON object.
+   *
+   * @since 1.1.0
+   */
+  public static final String JSON_PATH = "/metrics.json";
+
+  /**
+   * The content type of metrics in the Prometheus text exposition format.
+   *
+   * @since 1.1.0
+   */
+  private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4";
+
+  /**
+   * The content type of metrics as a JSON object.
+   *
+   * @since 1.1.0
+   */
+  private static final String JSON_CONTENT_TYPE = "application/json";
+
+  /**
+   * The maximum number of bytes read from the request line and headers of a request.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_REQUEST_HEAD_BYTES = 4096;
+
+  /**
+   * The time (in milliseconds) to wait for a client to send its request before closing the
+   * connection.
+   *
+   * @since 1.1.0
+   */
+  private static final int CLIENT_READ_TIMEOUT_MILLIS = 5000;
+
+  /**
+   * The time (in milliseconds) to wait after a connection cannot be accepted before accepting the
+   * next connection, so that a persistent accept error does not spin the server thread.
+   *
+   * @since 1.1.0
+   */
+  private static final long ACCEPT_RETRY_DELAY_MILLIS = 1000;
+
+  /**
+   * The port which the server listens on.
+   *
+   * @since 1.1.0
+   */
+  private final int port;
+
+  /**
+   * The renderer used to render metrics for each request.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryMetricsRenderer renderer = new CanaryMetricsRenderer();
+
+  /**
+   * Buffer which the response status line and headers are rendered into.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryMetricsOutputBuffer headerBuffer = new CanaryMetricsOutputBuffer(256);
+
+  /**
+   * Buffer which the request line of each request is read into.
+   *
+   * @since 1.1.0
+   */
+  private final byte[] requestHeadBuffer = new byte[MAX_REQUEST_HEAD_BYTES];
+
+  /**
+   * The server socket, or null if the server has not been started.
+   *
+   * @since 1.1.0
+   */
+  private ServerSocket serverSocket = null;
+
+  /**
+   * Boolean to control the execution of the server thread. This is {@code true} by default, but
+   * will be set to {@code false} when the server has been requested to shut down.
+   *
+   * @since 1.1.0
+   */
+  private volatile boolean serverControl = true;
+
+  /**
+   * Constructor for a {@link CanaryMetricsHttpServer} which listens on the specified port.
+   *
+   * @param port the port to listen on
+   * @since 1.1.0
+   */
+  public CanaryMetricsHttpServer(int port) {
+    super("CanaryMetricsHttpServer");
+    setDaemon(true);
+    this.port = port;
+  }
+
+  /**
+   * Opens the server socket and starts the server thread.
+   *
+   * @throws IOException if the server socket cannot be opened
+   * @since 1.1.0
+   */
+  public void startServer() throws IOException {
+    serverSocket = new ServerSocket(port);
+    start();
+    Logger.LOG_INFO("Started metrics HTTP endpoint on port " + serverSocket.getLocalPort() + ".");
+  }
+
+  /**
+   * Stops the server thread and closes the server socket.
+   *
+   * @since 1.1.0
+   */
+  public void stopServer() {
+    serverControl = false;
+    if (serverSocket != null) {
+      try {
+        serverSocket.close();
+      } catch (IOException e) {
+        Logger.LOG_WARN("Unable to close metrics HTTP endpoint.");
+        Logger.LOG_EXCEPTION(e);
+      }
+    }
+  }
+
+  /**
+   * Gets the port which the server is listening on. If the server was configured with port 0, the
+   * port chosen by the system is returned once the server has been started.
+   *
+   * @return the port of the server
+   * @since 1.1.0
+   */
+  public int getPort() {
+    return serverSocket != null ? serverSocket.getLocalPort() : port;
+  }
+
+  /**
+   * Run function used to accept and handle connections until the server is stopped. An error while
+   * handling a connection only closes that connection, so that the endpoint keeps serving later
+   * requests. If the server socket is closed while the server has not been stopped, the server
+   * thread ends.
+   *
+   * @since 1.1.0
+   */
+  public void run() {
+    while (serverControl) {
+      Socket clientSocket = null;
+      try {
+        clientSocket = serverSocket.accept();
+      } catch (IOException e) {
+        if (serverControl) {
+          handleAcceptFailure(e);
+        }
+      }
+
+      if (clientSocket != null) {
+        try {
+          clientSocket.setSoTimeout(CLIENT_READ_TIMEOUT_MILLIS);
+          handleConnection(clientSocket);
+        } catch (IOException e) {
+          Logger.LOG_DEBUG("Metrics HTTP endpoint connection error: " + e.getMessage());
+        } catch (Exception e) {
+          Logger.LOG_WARN("An error occurred while handling a metrics HTTP endpoint request.");
+          Logger.LOG_EXCEPTION(e);
+        } finally {
+          try {
+            clientSocket.close();
+          } catch (IOException e) {
+            // Connection is closed regardless
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Handles the specified error from accepting a connection while the server has not been stopped.
+   * If the server socket has been closed, the server is stopped, as no further connections can be
+   * accepted. Otherwise, the server thread waits before accepting the next connection.
+   *
+   * @param e the error from accepting a connection
+   * @since 1.1.0
+   */
+  private void handleAcceptFailure(IOException e) {
+    if (serverSocket.isClosed()) {
+      serverControl = false;
+      Logger.LOG_WARN("Metrics HTTP endpoint stopped because its server socket was closed.");
+      Logger.LOG_EXCEPTION(e);
+    } else {
+      Logger.LOG_WARN("Unable to accept metrics HTTP endpoint connection: " + e.getMessage());
+      try {
+        Thread.sleep(ACCEPT_RETRY_DELAY_MILLIS);
+      } catch (InterruptedException interruptedException) {
+        Logger.LOG_WARN("Metrics HTTP endpoint was interrupted while waiting to accept again.");
+      }
+    }
+  }
+
+  /**
+   * Reads the request of the specified connection and writes the response.
+   *
+   * @param clientSocket the socket of the connection
+   * @throws IOException if the request cannot be read or the response cannot be written
+   * @since 1.1.0
+   */
+  private void handleConnection(Socket clientSocket) throws IOException {
+    final int requestLineLength = readRequestHead(clientSocket.getInputStream());
+    OutputStream outputStream = clientSocket.getOutputStream();
+
+    if (requestLineMatches(requestLineLength, "GET " + PROMETHEUS_PATH)) {
+      writeResponse(outputStream, "200 OK", PROMETHEUS_CONTENT_TYPE, renderer.renderPrometheus());
+    } else if (requestLineMatches(requestLineLength, "GET " + JSON_PATH)) {
+      writeResponse(outputStream, "200 OK", JSON_CONTENT_TYPE, renderer.renderJson());
+    } else {
+      headerBuffer.reset();
+      headerBuffer.append("HTTP/1.0 404 Not Found\r\n");
+      headerBuffer.append("Content-Length: 0\r\nConnection: close\r\n\r\n");
+      headerBuffer.writeTo(outputStream);
+    }
+    outputStream.flush();
+  }
+
+  /**
+   * Reads the request line and headers of a request into the request head buffer, stopping at the
+   * blank line which ends the headers.
+   *
+   * @param inputStream the input stream of the connection
+   * @return the length of the request line in the request head buffer
+   * @throws IOException if the request cannot be read
+   * @since 1.1.0
+   */
+  private int readRequestHead(InputStream inputStream) throws IOException {
+    int headLength = 0;
+    int requestLineLength = -1;
+    int consecutiveLineBreaks = 0;
+    boolean headComplete = false;
+    while (!headComplete && headLength < requestHeadBuffer.length) {
+      int nextByte = inputStream.read();
+      if (nextByte < 0) {
+        headComplete = true;
+      } else if (nextByte == '\n') {
+        if (requestLineLength < 0) {
+          requestLineLength = headLength;
+        }
+        consecutiveLineBreaks++;
+        headComplete = consecutiveLineBreaks == 2;
+      } else if (nextByte != '\r') {
+        consecutiveLineBreaks = 0;
+        requestHeadBuffer[headLength++] = (byte) nextByte;
+      }
+    }
+    return requestLineLength < 0 ? headLength : requestLineLength;
+  }
+
+  /**
+   * Gets a boolean indicating whether the request line in the request head buffer starts with the
+   * specified method and path, followed by a space, a query string or the end of the line.
+   *
+   * @param requestLineLength the length of the request line
+   * @param methodAndPath the method and path to match, separated by a space
+   * @return {@code true} if the request line matches, {@code false} otherwise
+   * @since 1.1.0
+   */
+  private boolean requestLineMatches(int requestLineLength, String methodAndPath) {
+    boolean matches = requestLineLength >= methodAndPath.length();
+    for (int i = 0; matches && i < methodAndPath.length(); i++) {
+      matches = requestHeadBuffer[i] == methodAndPath.charAt(i);
+    }
+    if (matches && requestLineLength > methodAndPath.length()) {
+      byte nextByte = requestHeadBuffer[methodAndPath.length()];
+      matches = nextByte == ' ' || nextByte == '?';
+    }
+    return matches;
+  }
+
+  /**
+   * Writes a response with the specified status, content type and body.
+   *
+   * @param outputStream the output stream of the connection
+   * @param status the HTTP status code and reason phrase
+   * @param contentType the content type of the body
+   * @param body the buffer containing the body
+   * @throws IOException if the response cannot be written
+   * @since 1.1.0
+   */
+  private void writeResponse(
+      OutputStream outputStream, String status, String contentType, CanaryMetricsOutputBuffer body)
+      throws IOException {
+    headerBuffer.reset();
+    headerBuffer.append("HTTP/1.0 ").append(status).append("\r\n");
+    headerBuffer.append("Content-Type: ").append(contentType).append("\r\n");
+    headerBuffer.append("Content-Length: ").append(body.getLength()).append("\r\n");
+    headerBuffer.append("Connection: close\r\n\r\n");
+    headerBuffer.writeTo(outputStream);
+    body.writeTo(outputStream);
+  }
+}
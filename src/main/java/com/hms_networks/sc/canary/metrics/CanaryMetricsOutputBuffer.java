@@ -0,0 +1,186 @@
+package com.hms_networks.sc.canary.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Class for a reusable, growable byte buffer which metrics are rendered into. Strings are appended
+ * as ASCII, and numbers are appended without creating intermediate strings, so that rendering the
+ * metrics registry does not allocate once the buffer has grown to its working size.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryMetricsOutputBuffer {
+
+  /**
+   * The maximum number of characters of a decimal long value, including the sign.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_LONG_DIGITS = 20;
+
+  /**
+   * The replacement byte for characters which are not ASCII.
+   *
+   * @since 1.1.0
+   */
+  private static final byte NON_ASCII_REPLACEMENT = (byte) '?';
+
+  /**
+   * The buffer of rendered bytes.
+   *
+   * @since 1.1.0
+   */
+  private byte[] buffer;
+
+  /**
+   * The number of rendered bytes in the buffer.
+   *
+   * @since 1.1.0
+   */
+  private int length = 0;
+
+  /**
+   * Scratch buffer used to render the digits of long values in reverse order.
+   *
+   * @since 1.1.0
+   */
+  private final byte[] digitBuffer = new byte[MAX_LONG_DIGITS];
+
+  /**
+   * Constructor for a {@link CanaryMetricsOutputBuffer} with the specified initial capacity.
+   *
+   * @param initialCapacity the initial capacity of the buffer in bytes
+   * @since 1.1.0
+   */
+  public CanaryMetricsOutputBuffer(int initialCapacity) {
+    buffer = new byte[initialCapacity];
+  }
+
+  /**
+   * Clears the buffer for reuse, keeping its capacity.
+   *
+   * @since 1.1.0
+   */
+  public void reset() {
+    length = 0;
+  }
+
+  /**
+   * Gets the number of rendered bytes in the buffer.
+   *
+   * @return the number of rendered bytes
+   * @since 1.1.0
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Appends the specified character as ASCII. Characters which are not ASCII are replaced.
+   *
+   * @param c the character to append
+   * @return this buffer
+   * @since 1.1.0
+   */
+  public CanaryMetricsOutputBuffer append(char c) {
+    ensureCapacity(1);
+    buffer[length++] = c < 0x80 ? (byte) c : NON_ASCII_REPLACEMENT;
+    return this;
+  }
+
+  /**
+   * Appends the specified string as ASCII. Characters which are not ASCII are replaced.
+   *
+   * @param value the string to append
+   * @return this buffer
+   * @since 1.1.0
+   */
+  public CanaryMetricsOutputBuffer append(String value) {
+    ensureCapacity(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      buffer[length++] = c < 0x80 ? (byte) c : NON_ASCII_REPLACEMENT;
+    }
+    return this;
+  }
+
+  /**
+   * Appends the specified string as ASCII, escaping backslashes, double quotes and line breaks with
+   * a backslash. Characters which are not ASCII are replaced.
+   *
+   * @param value the string to append
+   * @return this buffer
+   * @since 1.1.0
+   */
+  public CanaryMetricsOutputBuffer appendEscaped(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' || c == '"') {
+        append('\\').append(c);
+      } else if (c == '\n') {
+        append('\\').append('n');
+      } else {
+        append(c);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Appends the decimal representation of the specified value.
+   *
+   * @param value the value to append
+   * @return this buffer
+   * @since 1.1.0
+   */
+  public CanaryMetricsOutputBuffer append(long value) {
+    if (value == Long.MIN_VALUE) {
+      append(String.valueOf(value));
+    } else {
+      boolean negative = value < 0;
+      long remaining = negative ? -value : value;
+      int digitCount = 0;
+      do {
+        digitBuffer[digitCount++] = (byte) ('0' + (remaining % 10));
+        remaining /= 10;
+      } while (remaining > 0);
+
+      ensureCapacity(digitCount + 1);
+      if (negative) {
+        buffer[length++] = (byte) '-';
+      }
+      while (digitCount > 0) {
+        buffer[length++] = digitBuffer[--digitCount];
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Writes the rendered bytes to the specified output stream.
+   *
+   * @param outputStream the output stream to write to
+   * @throws IOException if the bytes cannot be written
+   * @since 1.1.0
+   */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    outputStream.write(buffer, 0, length);
+  }
+
+  /**
+   * Ensures the buffer has room for the specified number of additional bytes, growing it if
+   * necessary.
+   *
+   * @param additionalBytes the number of additional bytes
+   * @since 1.1.0
+   */
+  private void ensureCapacity(int additionalBytes) {
+    if (length + additionalBytes > buffer.length) {
+      byte[] grownBuffer = new byte[Math.max(buffer.length * 2, length + additionalBytes)];
+      System.arraycopy(buffer, 0, grownBuffer, 0, length);
+      buffer = grownBuffer;
+    }
+  }
+}
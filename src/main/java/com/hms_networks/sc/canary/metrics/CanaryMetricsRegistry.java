@@ -0,0 +1,575 @@
+package com.hms_networks.sc.canary.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for registering and accessing the metrics of the connector. The metrics of the connector
+ * core are created and registered when this class is loaded, and are available as static fields.
+ * Each metric synchronizes on its own monitor, so updating one metric never blocks another.
+ *
+ * <p>The metrics of each Canary historian target are created and registered when they are first
+ * requested with {@link #getTargetMetrics(String)}, and are labelled with the name of the target.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryMetricsRegistry {
+
+  /**
+   * The upper bounds (in milliseconds) of the buckets of round trip time histograms.
+   *
+   * @since 1.1.0
+   */
+  private static final long[] ROUND_TRIP_TIME_MILLIS_BUCKETS = {
+    10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000
+  };
+
+  /**
+   * The upper bounds (in milliseconds) of the buckets of ingestion lag histograms, from sub-second
+   * delays up to a day of backlog.
+   *
+   * @since 1.1.0
+   */
+  private static final long[] INGESTION_LAG_MILLIS_BUCKETS = {
+    100, 500, 1000, 5000, 10000, 30000, 60000, 300000, 900000, 3600000, 21600000, 86400000
+  };
+
+  /**
+   * The upper bounds (in bytes) of the buckets of payload size histograms.
+   *
+   * @since 1.1.0
+   */
+  private static final long[] PAYLOAD_SIZE_BYTES_BUCKETS = {
+    1024, 4096, 16384, 65536, 131072, 262144, 524288, 1048576
+  };
+
+  /**
+   * The name of the label of the metrics of each Canary historian target.
+   *
+   * @since 1.1.0
+   */
+  public static final String TARGET_LABEL_NAME = "target";
+
+  /**
+   * The list of registered metrics, in order of registration. Labelled metrics are kept after the
+   * other metrics with the same name, so that each metric family is contiguous.
+   *
+   * @since 1.1.0
+   */
+  private static final List metrics = new ArrayList();
+
+  /**
+   * Map of Canary historian target names to the {@link CanaryTargetMetrics} of each target.
+   *
+   * @since 1.1.0
+   */
+  private static final Map targetMetrics = new HashMap();
+
+  /**
+   * Counter of data points accepted into a payload.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter POINTS_ACCEPTED =
+      registerCounter("canary_points_accepted_total", "Data points accepted into a payload.");
+
+  /**
+   * Counter of data points which could not be added to a payload.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter POINTS_REJECTED =
+      registerCounter(
+          "canary_points_rejected_total", "Data points which could not be added to a payload.");
+
+  /**
+   * Counter of data points filtered out by the tag filter before being added to a payload.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter POINTS_FILTERED =
+      registerCounter(
+          "canary_points_filtered_total", "Data points filtered out by the tag filter.");
+
+  /**
+   * Counter of data points dropped by the tag filter for exceeding the rate limit of their tag.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter POINTS_RATE_LIMITED =
+      registerCounter(
+          "canary_points_rate_limited_total",
+          "Data points dropped for exceeding the rate limit of their tag.");
+
+  /**
+   * Counter of data points older than the last released data point of their tag, which could not
+   * be released in order by the reorder buffer.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter POINTS_LATE =
+      registerCounter(
+          "canary_points_late_total",
+          "Data points older than the last released data point of their tag.");
+
+  /**
+   * Counter of payloads sealed and queued to be sent.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter PAYLOADS_SEALED =
+      registerCounter("canary_payloads_sealed_total", "Payloads sealed and queued to be sent.");
+
+  /**
+   * Counter of store data requests sent.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter PAYLOADS_SENT =
+      registerCounter("canary_payloads_sent_total", "Store data requests sent.");
+
+  /**
+   * Counter of payloads acknowledged by the Canary API.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter PAYLOADS_ACKED =
+      registerCounter("canary_payloads_acked_total", "Payloads acknowledged by the Canary API.");
+
+  /**
+   * Counter of store data requests which were unsuccessful and will be retried.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter PAYLOADS_RETRIED =
+      registerCounter(
+          "canary_payloads_retried_total",
+          "Store data requests which were unsuccessful and will be retried.");
+
+  /**
+   * Gauge of data points which have been accepted but not yet sent to all Canary targets.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge PENDING_POINTS =
+      registerGauge(
+          "canary_pending_points", "Data points accepted but not yet sent to all Canary targets.");
+
+  /**
+   * Gauge of the size (in bytes, once encoded as UTF-8) of sealed payloads which have not yet been
+   * sent to all Canary targets.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge PENDING_BYTES =
+      registerGauge(
+          "canary_pending_bytes",
+          "UTF-8 encoded size in bytes of sealed payloads not yet sent to all Canary targets.");
+
+  /**
+   * Gauge of data points held by the reorder buffer until they can be released in order.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge REORDER_HELD_POINTS =
+      registerGauge(
+          "canary_reorder_held_points",
+          "Data points held by the reorder buffer until they can be released in order.");
+
+  /**
+   * Gauge of the number of sealed payloads pending for the Canary target which is furthest behind,
+   * summed across all shards.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge PENDING_PAYLOADS =
+      registerGauge(
+          "canary_pending_payloads",
+          "Sealed payloads pending for the Canary target furthest behind, across all shards.");
+
+  /**
+   * Gauge of the time (in milliseconds) since the oldest pending payload was sealed.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge OLDEST_PENDING_PAYLOAD_AGE_MILLIS =
+      registerGauge(
+          "canary_oldest_pending_payload_age_millis",
+          "Time since the oldest pending payload was sealed in milliseconds.");
+
+  /**
+   * Gauge of the number of sealed payloads pending for the live lane which is furthest behind,
+   * summed across all shards. Only reported if the backfill lane is enabled.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge LIVE_PENDING_PAYLOADS =
+      registerGauge(
+          "canary_live_pending_payloads",
+          "Sealed payloads pending for the live lane furthest behind, across all shards.");
+
+  /**
+   * Gauge of the time (in milliseconds) since the oldest payload pending for a live lane was
+   * sealed. Only reported if the backfill lane is enabled.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge LIVE_OLDEST_PENDING_PAYLOAD_AGE_MILLIS =
+      registerGauge(
+          "canary_live_oldest_pending_payload_age_millis",
+          "Time since the oldest payload pending for a live lane was sealed in milliseconds.");
+
+  /**
+   * Gauge of the number of sealed payloads pending for the backfill lane which is furthest behind,
+   * summed across all shards. Only reported if the backfill lane is enabled.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge BACKFILL_PENDING_PAYLOADS =
+      registerGauge(
+          "canary_backfill_pending_payloads",
+          "Sealed payloads pending for the backfill lane furthest behind, across all shards.");
+
+  /**
+   * Gauge of the time (in milliseconds) since the oldest payload pending for a backfill lane was
+   * sealed. Only reported if the backfill lane is enabled.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge BACKFILL_OLDEST_PENDING_PAYLOAD_AGE_MILLIS =
+      registerGauge(
+          "canary_backfill_oldest_pending_payload_age_millis",
+          "Time since the oldest payload pending for a backfill lane was sealed in milliseconds.");
+
+  /**
+   * Counter of user token, session token and revoke requests sent.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter AUTH_REQUESTS =
+      registerCounter(
+          "canary_auth_requests_total", "User token, session token and revoke requests sent.");
+
+  /**
+   * Counter of sessions opened or refreshed after the previous session expired.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter SESSION_REFRESHES =
+      registerCounter(
+          "canary_session_refreshes_total",
+          "Sessions opened or refreshed after the previous session expired.");
+
+  /**
+   * Counter of keep alive requests sent.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryCounter KEEP_ALIVE_REQUESTS =
+      registerCounter("canary_keep_alive_requests_total", "Keep alive requests sent.");
+
+  /**
+   * Histogram of the round trip time (in milliseconds) of store data requests.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryHistogram STORE_DATA_ROUND_TRIP_MILLIS =
+      registerHistogram(
+          "canary_store_data_round_trip_millis",
+          "Round trip time of store data requests in milliseconds.",
+          ROUND_TRIP_TIME_MILLIS_BUCKETS);
+
+  /**
+   * Gauge of the round trip time (in milliseconds) of the last store data request.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge STORE_DATA_LAST_ROUND_TRIP_MILLIS =
+      registerGauge(
+          "canary_store_data_last_round_trip_millis",
+          "Round trip time of the last store data request in milliseconds.");
+
+  /**
+   * Gauge of the number of Canary API request worker threads which were abandoned after their
+   * deadline and have not yet returned.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge ABANDONED_REQUEST_WORKERS =
+      registerGauge(
+          "canary_abandoned_request_workers",
+          "Canary API request threads abandoned after their deadline which have not returned.");
+
+  /**
+   * Gauge of the number of Canary API request executors which refuse requests, because the maximum
+   * number of their abandoned worker threads have not yet returned.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge BLOCKED_REQUEST_EXECUTORS =
+      registerGauge(
+          "canary_blocked_request_executors",
+          "Canary API request executors refusing requests until an abandoned request returns.");
+
+  /**
+   * Histogram of the size (in bytes) of sealed payloads.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryHistogram PAYLOAD_SIZE_BYTES =
+      registerHistogram(
+          "canary_payload_size_bytes",
+          "Size of sealed payloads in bytes.",
+          PAYLOAD_SIZE_BYTES_BUCKETS);
+
+  /**
+   * Histogram of the maximum time (in milliseconds) between the sample timestamp of a data point
+   * and the time it was added to a payload, recorded for each acknowledged payload.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryHistogram LAG_SAMPLE_TO_ENQUEUE_MILLIS =
+      registerHistogram(
+          "canary_lag_sample_to_enqueue_millis",
+          "Maximum time from sample timestamp to payload enqueue per acknowledged payload in"
+              + " milliseconds.",
+          INGESTION_LAG_MILLIS_BUCKETS);
+
+  /**
+   * Histogram of the time (in milliseconds) between the first data point being added to a payload
+   * and the payload being sealed, recorded for each acknowledged payload.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryHistogram LAG_ENQUEUE_TO_SEAL_MILLIS =
+      registerHistogram(
+          "canary_lag_enqueue_to_seal_millis",
+          "Time from first payload enqueue to payload seal per acknowledged payload in"
+              + " milliseconds.",
+          INGESTION_LAG_MILLIS_BUCKETS);
+
+  /**
+   * Histogram of the time (in milliseconds) between a payload being sealed and first sent,
+   * recorded for each acknowledged payload.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryHistogram LAG_SEAL_TO_FIRST_SEND_MILLIS =
+      registerHistogram(
+          "canary_lag_seal_to_first_send_millis",
+          "Time from payload seal to first send per acknowledged payload in milliseconds.",
+          INGESTION_LAG_MILLIS_BUCKETS);
+
+  /**
+   * Histogram of the time (in milliseconds) between a payload being sealed and acknowledged by a
+   * Canary target, including any retries.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryHistogram LAG_SEAL_TO_ACK_MILLIS =
+      registerHistogram(
+          "canary_lag_seal_to_ack_millis",
+          "Time from payload seal to acknowledgement per acknowledged payload in milliseconds.",
+          INGESTION_LAG_MILLIS_BUCKETS);
+
+  /**
+   * Histogram of the end-to-end time (in milliseconds) between the oldest sample timestamp of a
+   * payload and the payload being acknowledged by a Canary target.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryHistogram LAG_SAMPLE_TO_ACK_MILLIS =
+      registerHistogram(
+          "canary_lag_sample_to_ack_millis",
+          "Time from oldest sample timestamp to acknowledgement per acknowledged payload in"
+              + " milliseconds.",
+          INGESTION_LAG_MILLIS_BUCKETS);
+
+  /**
+   * Gauge of the time (in milliseconds) between the newest sample timestamp of the last
+   * acknowledged payload and its acknowledgement, indicating how far behind real time the
+   * connector is.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryGauge LAST_ACKED_SAMPLE_LAG_MILLIS =
+      registerGauge(
+          "canary_last_acked_sample_lag_millis",
+          "Time from newest sample timestamp of the last acknowledged payload to its"
+              + " acknowledgement in milliseconds.");
+
+  /**
+   * Heavy hitters metric of the tags with the most polled data points in the last report
+   * interval. Disabled unless enabled by the connector configuration.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryHeavyHitters TOP_TAGS_BY_DATA_POINTS =
+      registerHeavyHitters(
+          "canary_top_tag_data_points",
+          "Estimated polled data points of the tags with the most data points in the last report"
+              + " interval.");
+
+  /**
+   * Heavy hitters metric of the tags with the most serialized payload bytes in the last report
+   * interval. Disabled unless enabled by the connector configuration.
+   *
+   * @since 1.1.0
+   */
+  public static final CanaryHeavyHitters TOP_TAGS_BY_BYTES =
+      registerHeavyHitters(
+          "canary_top_tag_bytes",
+          "Estimated serialized payload bytes of the tags with the most bytes in the last report"
+              + " interval.");
+
+  /**
+   * Registers the specified metric.
+   *
+   * @param metric the metric to register
+   * @since 1.1.0
+   */
+  public static void register(CanaryMetric metric) {
+    synchronized (metrics) {
+      int insertIndex = metrics.size();
+      for (int metricIndex = 0; metricIndex < metrics.size(); metricIndex++) {
+        if (((CanaryMetric) metrics.get(metricIndex)).getName().equals(metric.getName())) {
+          insertIndex = metricIndex + 1;
+        }
+      }
+      metrics.add(insertIndex, metric);
+    }
+  }
+
+  /**
+   * Creates and registers a counter with the specified name and description.
+   *
+   * @param name the name of the counter
+   * @param help the description of the counter
+   * @return the registered counter
+   * @since 1.1.0
+   */
+  public static CanaryCounter registerCounter(String name, String help) {
+    CanaryCounter counter = new CanaryCounter(name, help);
+    register(counter);
+    return counter;
+  }
+
+  /**
+   * Creates and registers a gauge with the specified name and description.
+   *
+   * @param name the name of the gauge
+   * @param help the description of the gauge
+   * @return the registered gauge
+   * @since 1.1.0
+   */
+  public static CanaryGauge registerGauge(String name, String help) {
+    CanaryGauge gauge = new CanaryGauge(name, help);
+    register(gauge);
+    return gauge;
+  }
+
+  /**
+   * Creates and registers a histogram with the specified name, description and bucket upper
+   * bounds.
+   *
+   * @param name the name of the histogram
+   * @param help the description of the histogram
+   * @param bucketUpperBounds the inclusive upper bound of each bucket, in ascending order
+   * @return the registered histogram
+   * @since 1.1.0
+   */
+  public static CanaryHistogram registerHistogram(
+      String name, String help, long[] bucketUpperBounds) {
+    CanaryHistogram histogram = new CanaryHistogram(name, help, bucketUpperBounds);
+    register(histogram);
+    return histogram;
+  }
+
+  /**
+   * Creates and registers a heavy hitters metric with the specified name and description.
+   *
+   * @param name the name of the heavy hitters metric
+   * @param help the description of the heavy hitters metric
+   * @return the registered heavy hitters metric
+   * @since 1.1.0
+   */
+  public static CanaryHeavyHitters registerHeavyHitters(String name, String help) {
+    CanaryHeavyHitters heavyHitters = new CanaryHeavyHitters(name, help);
+    register(heavyHitters);
+    return heavyHitters;
+  }
+
+  /**
+   * Gets the metrics of the Canary historian target with the specified name, creating and
+   * registering them if they have not been requested before. Every session shard and lane of a
+   * target shares the same metrics.
+   *
+   * @param targetName the name of the Canary historian target
+   * @return the metrics of the target
+   * @since 1.1.0
+   */
+  public static CanaryTargetMetrics getTargetMetrics(String targetName) {
+    synchronized (targetMetrics) {
+      CanaryTargetMetrics metricsOfTarget = (CanaryTargetMetrics) targetMetrics.get(targetName);
+      if (metricsOfTarget == null) {
+        CanaryGauge pendingPayloads =
+            new CanaryGauge(
+                "canary_target_pending_payloads",
+                "Sealed payloads pending for each Canary target, across all shards and lanes.",
+                TARGET_LABEL_NAME,
+                targetName);
+        CanaryGauge oldestPendingPayloadAgeMillis =
+            new CanaryGauge(
+                "canary_target_oldest_pending_payload_age_millis",
+                "Time since the oldest payload pending for each Canary target was sealed in"
+                    + " milliseconds.",
+                TARGET_LABEL_NAME,
+                targetName);
+        CanaryHistogram lagSampleToAckMillis =
+            new CanaryHistogram(
+                "canary_target_lag_sample_to_ack_millis",
+                "Time from oldest sample timestamp to acknowledgement by each Canary target per"
+                    + " acknowledged payload in milliseconds.",
+                INGESTION_LAG_MILLIS_BUCKETS,
+                TARGET_LABEL_NAME,
+                targetName);
+        register(pendingPayloads);
+        register(oldestPendingPayloadAgeMillis);
+        register(lagSampleToAckMillis);
+        metricsOfTarget =
+            new CanaryTargetMetrics(
+                pendingPayloads, oldestPendingPayloadAgeMillis, lagSampleToAckMillis);
+        targetMetrics.put(targetName, metricsOfTarget);
+      }
+      return metricsOfTarget;
+    }
+  }
+
+  /**
+   * Gets the number of registered metrics.
+   *
+   * @return the number of registered metrics
+   * @since 1.1.0
+   */
+  public static int getMetricCount() {
+    synchronized (metrics) {
+      return metrics.size();
+    }
+  }
+
+  /**
+   * Gets the registered metric at the specified index, in order of registration.
+   *
+   * @param metricIndex the index of the metric
+   * @return the metric at the specified index
+   * @since 1.1.0
+   */
+  public static CanaryMetric getMetric(int metricIndex) {
+    synchronized (metrics) {
+      return (CanaryMetric) metrics.get(metricIndex);
+    }
+  }
+}
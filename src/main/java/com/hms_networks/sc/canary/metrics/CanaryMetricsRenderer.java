@@ -0,0 +1,270 @@
+package com.hms_networks.sc.canary.metrics;
+
+/**
+ * Class for rendering the metrics of the {@link CanaryMetricsRegistry} in the Prometheus text
+ * exposition format or as JSON. Metrics are rendered directly from the live registry into a
+ * reusable {@link CanaryMetricsOutputBuffer}, without allocating for each metric.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryMetricsRenderer {
+
+  /**
+   * The initial capacity (in bytes) of the output buffer.
+   *
+   * @since 1.1.0
+   */
+  private static final int INITIAL_BUFFER_CAPACITY = 8192;
+
+  /**
+   * The label value of the overflow bucket of histograms.
+   *
+   * @since 1.1.0
+   */
+  private static final String INFINITE_BUCKET_LABEL = "+Inf";
+
+  /**
+   * The buffer which metrics are rendered into.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryMetricsOutputBuffer outputBuffer =
+      new CanaryMetricsOutputBuffer(INITIAL_BUFFER_CAPACITY);
+
+  /**
+   * Scratch array which histogram bucket counts are copied into while rendering.
+   *
+   * @since 1.1.0
+   */
+  private long[] bucketCounts = new long[0];
+
+  /**
+   * Scratch array which the tag names of heavy hitters metrics are copied into while rendering.
+   *
+   * @since 1.1.0
+   */
+  private final String[] topTagNames = new String[CanaryHeavyHitters.MAX_TOP_TAGS];
+
+  /**
+   * Scratch array which the estimates of heavy hitters metrics are copied into while rendering.
+   *
+   * @since 1.1.0
+   */
+  private final long[] topTagEstimates = new long[CanaryHeavyHitters.MAX_TOP_TAGS];
+
+  /**
+   * Renders all registered metrics in the Prometheus text exposition format. Labelled metrics with
+   * the same name are rendered as one metric family, with a sample for each label value.
+   *
+   * @return the buffer containing the rendered metrics, which is reused by the next render
+   * @since 1.1.0
+   */
+  public synchronized CanaryMetricsOutputBuffer renderPrometheus() {
+    outputBuffer.reset();
+    final int metricCount = CanaryMetricsRegistry.getMetricCount();
+    CanaryMetric previousMetric = null;
+    for (int metricIndex = 0; metricIndex < metricCount; metricIndex++) {
+      CanaryMetric metric = CanaryMetricsRegistry.getMetric(metricIndex);
+      if (previousMetric == null || !previousMetric.getName().equals(metric.getName())) {
+        outputBuffer.append("# HELP ").append(metric.getName()).append(' ');
+        outputBuffer.appendEscaped(metric.getHelp()).append('\n');
+        outputBuffer.append("# TYPE ").append(metric.getName()).append(' ');
+        outputBuffer.append(getTypeName(metric)).append('\n');
+      }
+      previousMetric = metric;
+
+      if (metric instanceof CanaryCounter) {
+        outputBuffer.append(metric.getName());
+        appendPrometheusLabel(metric);
+        outputBuffer.append(' ').append(((CanaryCounter) metric).getValue()).append('\n');
+      } else if (metric instanceof CanaryGauge) {
+        outputBuffer.append(metric.getName());
+        appendPrometheusLabel(metric);
+        outputBuffer.append(' ').append(((CanaryGauge) metric).getValue()).append('\n');
+      } else if (metric instanceof CanaryHistogram) {
+        CanaryHistogram histogram = (CanaryHistogram) metric;
+        copyBucketCounts(histogram);
+        long cumulativeCount = 0;
+        for (int bucketIndex = 0; bucketIndex <= histogram.getBucketCount(); bucketIndex++) {
+          cumulativeCount += bucketCounts[bucketIndex];
+          outputBuffer.append(metric.getName()).append("_bucket{");
+          if (metric.getLabelName() != null) {
+            outputBuffer.append(metric.getLabelName()).append("=\"");
+            outputBuffer.appendEscaped(metric.getLabelValue()).append("\",");
+          }
+          outputBuffer.append("le=\"");
+          if (bucketIndex < histogram.getBucketCount()) {
+            outputBuffer.append(histogram.getBucketUpperBound(bucketIndex));
+          } else {
+            outputBuffer.append(INFINITE_BUCKET_LABEL);
+          }
+          outputBuffer.append("\"} ").append(cumulativeCount).append('\n');
+        }
+        outputBuffer.append(metric.getName()).append("_sum");
+        appendPrometheusLabel(metric);
+        outputBuffer.append(' ').append(histogram.getSum()).append('\n');
+        outputBuffer.append(metric.getName()).append("_count");
+        appendPrometheusLabel(metric);
+        outputBuffer.append(' ').append(cumulativeCount).append('\n');
+      } else if (metric instanceof CanaryHeavyHitters) {
+        final int topTagCount =
+            ((CanaryHeavyHitters) metric).copyPublishedTopTags(topTagNames, topTagEstimates);
+        for (int topTagIndex = 0; topTagIndex < topTagCount; topTagIndex++) {
+          outputBuffer.append(metric.getName()).append("{tag=\"");
+          outputBuffer.appendEscaped(topTagNames[topTagIndex]).append("\"} ");
+          outputBuffer.append(topTagEstimates[topTagIndex]).append('\n');
+        }
+      }
+    }
+    return outputBuffer;
+  }
+
+  /**
+   * Renders all registered metrics as a JSON object, with a member for each metric. Labelled
+   * metrics with the same name are rendered as one member, with a {@code values} array holding the
+   * label value and data of each metric.
+   *
+   * @return the buffer containing the rendered metrics, which is reused by the next render
+   * @since 1.1.0
+   */
+  public synchronized CanaryMetricsOutputBuffer renderJson() {
+    outputBuffer.reset();
+    outputBuffer.append('{');
+    final int metricCount = CanaryMetricsRegistry.getMetricCount();
+    CanaryMetric metric = metricCount > 0 ? CanaryMetricsRegistry.getMetric(0) : null;
+    CanaryMetric previousMetric = null;
+    for (int metricIndex = 0; metricIndex < metricCount; metricIndex++) {
+      final CanaryMetric nextMetric =
+          metricIndex + 1 < metricCount ? CanaryMetricsRegistry.getMetric(metricIndex + 1) : null;
+      final boolean labelled = metric.getLabelName() != null;
+      final boolean firstOfFamily =
+          previousMetric == null || !previousMetric.getName().equals(metric.getName());
+      final boolean lastOfFamily =
+          nextMetric == null || !nextMetric.getName().equals(metric.getName());
+
+      if (firstOfFamily) {
+        if (previousMetric != null) {
+          outputBuffer.append(',');
+        }
+        outputBuffer.append('"').appendEscaped(metric.getName()).append("\":{\"help\":\"");
+        outputBuffer.appendEscaped(metric.getHelp()).append("\",\"type\":\"");
+        outputBuffer.append(getTypeName(metric)).append('"');
+        if (labelled) {
+          outputBuffer.append(",\"values\":[");
+        }
+      }
+      if (labelled) {
+        if (!firstOfFamily) {
+          outputBuffer.append(',');
+        }
+        outputBuffer.append("{\"").appendEscaped(metric.getLabelName()).append("\":\"");
+        outputBuffer.appendEscaped(metric.getLabelValue()).append('"');
+      }
+
+      if (metric instanceof CanaryCounter) {
+        outputBuffer.append(",\"value\":").append(((CanaryCounter) metric).getValue());
+      } else if (metric instanceof CanaryGauge) {
+        outputBuffer.append(",\"value\":").append(((CanaryGauge) metric).getValue());
+      } else if (metric instanceof CanaryHistogram) {
+        outputBuffer.append(",\"buckets\":{");
+        CanaryHistogram histogram = (CanaryHistogram) metric;
+        copyBucketCounts(histogram);
+        long cumulativeCount = 0;
+        for (int bucketIndex = 0; bucketIndex <= histogram.getBucketCount(); bucketIndex++) {
+          cumulativeCount += bucketCounts[bucketIndex];
+          if (bucketIndex > 0) {
+            outputBuffer.append(',');
+          }
+          outputBuffer.append('"');
+          if (bucketIndex < histogram.getBucketCount()) {
+            outputBuffer.append(histogram.getBucketUpperBound(bucketIndex));
+          } else {
+            outputBuffer.append(INFINITE_BUCKET_LABEL);
+          }
+          outputBuffer.append("\":").append(cumulativeCount);
+        }
+        outputBuffer.append("},\"sum\":").append(histogram.getSum());
+        outputBuffer.append(",\"max\":").append(histogram.getMax());
+        outputBuffer.append(",\"count\":").append(cumulativeCount);
+      } else if (metric instanceof CanaryHeavyHitters) {
+        outputBuffer.append(",\"values\":[");
+        final int topTagCount =
+            ((CanaryHeavyHitters) metric).copyPublishedTopTags(topTagNames, topTagEstimates);
+        for (int topTagIndex = 0; topTagIndex < topTagCount; topTagIndex++) {
+          if (topTagIndex > 0) {
+            outputBuffer.append(',');
+          }
+          outputBuffer.append("{\"tag\":\"").appendEscaped(topTagNames[topTagIndex]);
+          outputBuffer.append("\",\"value\":").append(topTagEstimates[topTagIndex]).append('}');
+        }
+        outputBuffer.append(']');
+      }
+
+      if (labelled) {
+        outputBuffer.append('}');
+      }
+      if (lastOfFamily) {
+        if (labelled) {
+          outputBuffer.append(']');
+        }
+        outputBuffer.append('}');
+      }
+      previousMetric = metric;
+      metric = nextMetric;
+    }
+    outputBuffer.append("}\n");
+    return outputBuffer;
+  }
+
+  /**
+   * Gets the name of the type of the specified metric, as rendered in both formats. Heavy hitters
+   * metrics are rendered as gauges labelled by tag.
+   *
+   * @param metric the metric
+   * @return the name of the type of the metric
+   * @since 1.1.0
+   */
+  private static String getTypeName(CanaryMetric metric) {
+    String typeName;
+    if (metric instanceof CanaryCounter) {
+      typeName = "counter";
+    } else if (metric instanceof CanaryGauge || metric instanceof CanaryHeavyHitters) {
+      typeName = "gauge";
+    } else if (metric instanceof CanaryHistogram) {
+      typeName = "histogram";
+    } else {
+      typeName = "untyped";
+    }
+    return typeName;
+  }
+
+  /**
+   * Appends the label of the specified metric in the Prometheus text exposition format, if the
+   * metric is labelled.
+   *
+   * @param metric the metric
+   * @since 1.1.0
+   */
+  private void appendPrometheusLabel(CanaryMetric metric) {
+    if (metric.getLabelName() != null) {
+      outputBuffer.append('{').append(metric.getLabelName()).append("=\"");
+      outputBuffer.appendEscaped(metric.getLabelValue()).append("\"}");
+    }
+  }
+
+  /**
+   * Copies the bucket counts of the specified histogram into the scratch array, growing it if
+   * necessary.
+   *
+   * @param histogram the histogram to copy the bucket counts of
+   * @since 1.1.0
+   */
+  private void copyBucketCounts(CanaryHistogram histogram) {
+    final int requiredLength = histogram.getBucketCount() + 1;
+    if (bucketCounts.length < requiredLength) {
+      bucketCounts = new long[requiredLength];
+    }
+    histogram.copyBucketCounts(bucketCounts);
+  }
+}
@@ -0,0 +1,142 @@
+package com.hms_networks.sc.canary.metrics;
+
+/**
+ * Class for the metrics of a single Canary historian target, labelled with the name of the target,
+ * so that a target which falls behind can be told apart from the targets which are keeping up.
+ *
+ * <p>A target may be sent data by several data poster threads, one for each session shard and
+ * lane. The pending payload metrics of a target are summed across its threads by the connector
+ * main loop: {@link #beginPendingPayloadUpdate()} is called for every thread of the target, then
+ * {@link #addPendingPayloads(long, long)} for every thread, then {@link
+ * #endPendingPayloadUpdate()}, so that the gauges are never set to a partial sum.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTargetMetrics {
+
+  /**
+   * Gauge of the number of sealed payloads pending for the target, summed across all session
+   * shards and lanes of the target.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryGauge pendingPayloads;
+
+  /**
+   * Gauge of the time (in milliseconds) since the oldest payload pending for the target was sealed.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryGauge oldestPendingPayloadAgeMillis;
+
+  /**
+   * Histogram of the end-to-end time (in milliseconds) between the oldest sample timestamp of a
+   * payload and the payload being acknowledged by the target.
+   *
+   * @since 1.1.0
+   */
+  private final CanaryHistogram lagSampleToAckMillis;
+
+  /**
+   * The number of pending payloads summed so far by the current pending payload update.
+   *
+   * @since 1.1.0
+   */
+  private long updatePendingPayloadCount = 0;
+
+  /**
+   * The age (in milliseconds) of the oldest pending payload found so far by the current pending
+   * payload update.
+   *
+   * @since 1.1.0
+   */
+  private long updateOldestPendingPayloadAgeMillis = 0;
+
+  /**
+   * Constructor for a {@link CanaryTargetMetrics} with the specified metrics.
+   *
+   * @param pendingPayloads the gauge of the number of payloads pending for the target
+   * @param oldestPendingPayloadAgeMillis the gauge of the age of the oldest pending payload
+   * @param lagSampleToAckMillis the histogram of the time from sample timestamp to acknowledgement
+   * @since 1.1.0
+   */
+  CanaryTargetMetrics(
+      CanaryGauge pendingPayloads,
+      CanaryGauge oldestPendingPayloadAgeMillis,
+      CanaryHistogram lagSampleToAckMillis) {
+    this.pendingPayloads = pendingPayloads;
+    this.oldestPendingPayloadAgeMillis = oldestPendingPayloadAgeMillis;
+    this.lagSampleToAckMillis = lagSampleToAckMillis;
+  }
+
+  /**
+   * Gets the gauge of the number of sealed payloads pending for the target.
+   *
+   * @return the pending payloads gauge
+   * @since 1.1.0
+   */
+  public CanaryGauge getPendingPayloads() {
+    return pendingPayloads;
+  }
+
+  /**
+   * Gets the gauge of the time (in milliseconds) since the oldest payload pending for the target
+   * was sealed.
+   *
+   * @return the oldest pending payload age gauge
+   * @since 1.1.0
+   */
+  public CanaryGauge getOldestPendingPayloadAgeMillis() {
+    return oldestPendingPayloadAgeMillis;
+  }
+
+  /**
+   * Gets the histogram of the time (in milliseconds) between the oldest sample timestamp of a
+   * payload and the payload being acknowledged by the target.
+   *
+   * @return the sample to acknowledgement lag histogram
+   * @since 1.1.0
+   */
+  public CanaryHistogram getLagSampleToAckMillis() {
+    return lagSampleToAckMillis;
+  }
+
+  /**
+   * Starts an update of the pending payload metrics of the target, clearing the sums of the
+   * previous update.
+   *
+   * @since 1.1.0
+   */
+  public synchronized void beginPendingPayloadUpdate() {
+    updatePendingPayloadCount = 0;
+    updateOldestPendingPayloadAgeMillis = 0;
+  }
+
+  /**
+   * Adds the pending payloads of one data poster thread of the target to the current pending
+   * payload update.
+   *
+   * @param pendingPayloadCount the number of payloads pending for the thread
+   * @param oldestPendingPayloadAgeMillis the age (in milliseconds) of the oldest payload pending
+   *     for the thread, or 0 if no payloads are pending
+   * @since 1.1.0
+   */
+  public synchronized void addPendingPayloads(
+      long pendingPayloadCount, long oldestPendingPayloadAgeMillis) {
+    updatePendingPayloadCount += pendingPayloadCount;
+    updateOldestPendingPayloadAgeMillis =
+        Math.max(updateOldestPendingPayloadAgeMillis, oldestPendingPayloadAgeMillis);
+  }
+
+  /**
+   * Ends the current update of the pending payload metrics of the target, setting the gauges to
+   * the sums of the update.
+   *
+   * @since 1.1.0
+   */
+  public synchronized void endPendingPayloadUpdate() {
+    pendingPayloads.set(updatePendingPayloadCount);
+    oldestPendingPayloadAgeMillis.set(updateOldestPendingPayloadAgeMillis);
+  }
+}
@@ -0,0 +1,309 @@
+package com.hms_networks.sc.canary.api;
+
+import com.hms_networks.americas.sc.extensions.system.http.requests.SCHttpPostRequestInfo;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.io.IOException;
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link CanaryApiRequestExecutor}, using a fake {@link CanaryApiTransport} to check the
+ * request deadline, the abandonment of worker threads whose request does not return, and the
+ * pruning of abandoned worker threads once their request returns.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryApiRequestExecutorTest extends TestCase {
+
+  /**
+   * The deadline (in milliseconds) of requests which are expected to hang.
+   *
+   * @since 1.1.0
+   */
+  private static final long SHORT_TIMEOUT_MILLIS = 50;
+
+  /**
+   * The deadline (in milliseconds) of requests which are expected to complete.
+   *
+   * @since 1.1.0
+   */
+  private static final long LONG_TIMEOUT_MILLIS = 5000;
+
+  /**
+   * The request performed by the tests.
+   *
+   * @since 1.1.0
+   */
+  private static final SCHttpPostRequestInfo REQUEST =
+      new SCHttpPostRequestInfo("http://localhost/api/v2/storeData", "", "{}");
+
+  /**
+   * The fake transport installed for the tests.
+   *
+   * @since 1.1.0
+   */
+  private FakeTransport fakeTransport;
+
+  /**
+   * The executor under test.
+   *
+   * @since 1.1.0
+   */
+  private CanaryApiRequestExecutor executor;
+
+  /**
+   * The value of the abandoned request workers gauge before the test.
+   *
+   * @since 1.1.0
+   */
+  private long initialAbandonedWorkers;
+
+  /**
+   * The value of the blocked request executors gauge before the test.
+   *
+   * @since 1.1.0
+   */
+  private long initialBlockedExecutors;
+
+  /**
+   * Installs the fake transport and creates the executor.
+   *
+   * @since 1.1.0
+   */
+  protected void setUp() {
+    fakeTransport = new FakeTransport();
+    CanaryApiRequestExecutor.setTransport(fakeTransport);
+    executor = new CanaryApiRequestExecutor("test");
+    initialAbandonedWorkers = CanaryMetricsRegistry.ABANDONED_REQUEST_WORKERS.getValue();
+    initialBlockedExecutors = CanaryMetricsRegistry.BLOCKED_REQUEST_EXECUTORS.getValue();
+  }
+
+  /**
+   * Releases any hung requests, stops the executor and restores the default transport.
+   *
+   * @since 1.1.0
+   */
+  protected void tearDown() {
+    fakeTransport.setHang(false);
+    executor.shutdown();
+    CanaryApiRequestExecutor.setTransport(null);
+  }
+
+  /**
+   * Tests that the response body and exceptions of a request which completes before its deadline
+   * are returned to the calling thread, and that requests without a deadline are performed on the
+   * calling thread.
+   *
+   * @throws Exception if a request fails unexpectedly
+   * @since 1.1.0
+   */
+  public void testRequestCompletesBeforeDeadline() throws Exception {
+    assertEquals("response 1", executor.execute(REQUEST, LONG_TIMEOUT_MILLIS));
+    assertNotSame(Thread.currentThread(), fakeTransport.getLastRequestThread());
+
+    fakeTransport.setFail(true);
+    try {
+      executor.execute(REQUEST, LONG_TIMEOUT_MILLIS);
+      fail("Expected the exception of the request");
+    } catch (IOException e) {
+      assertEquals("request 2 failed", e.getMessage());
+    }
+
+    fakeTransport.setFail(false);
+    final long noDeadline = 0;
+    assertEquals("response 3", executor.execute(REQUEST, noDeadline));
+    assertSame(Thread.currentThread(), fakeTransport.getLastRequestThread());
+  }
+
+  /**
+   * Tests that a request which does not return before its deadline releases the calling thread
+   * with a timeout, abandons its worker thread, and that the next request uses a new worker thread.
+   *
+   * @throws Exception if a request fails unexpectedly
+   * @since 1.1.0
+   */
+  public void testDeadlineAbandonsWorker() throws Exception {
+    assertEquals("response 1", executor.execute(REQUEST, LONG_TIMEOUT_MILLIS));
+    final Thread firstWorker = fakeTransport.getLastRequestThread();
+
+    fakeTransport.setHang(true);
+    final long startMillis = System.currentTimeMillis();
+    assertTimesOut();
+    assertTrue(System.currentTimeMillis() - startMillis >= SHORT_TIMEOUT_MILLIS);
+    assertEquals(
+        initialAbandonedWorkers + 1, CanaryMetricsRegistry.ABANDONED_REQUEST_WORKERS.getValue());
+
+    fakeTransport.setHang(false);
+    assertEquals("response 3", executor.execute(REQUEST, LONG_TIMEOUT_MILLIS));
+    assertNotSame(firstWorker, fakeTransport.getLastRequestThread());
+  }
+
+  /**
+   * Tests that requests are refused without reaching the transport while the maximum number of
+   * abandoned worker threads have not returned, and that the executor is counted as blocked once.
+   *
+   * @throws Exception if a request fails unexpectedly
+   * @since 1.1.0
+   */
+  public void testRefusesRequestsAtAbandonedWorkerLimit() throws Exception {
+    fakeTransport.setHang(true);
+    assertTimesOut();
+    assertTimesOut();
+    assertEquals(2, fakeTransport.getRequestCount());
+
+    for (int attempt = 0; attempt < 3; attempt++) {
+      final long startMillis = System.currentTimeMillis();
+      assertTimesOut();
+      assertTrue(System.currentTimeMillis() - startMillis < SHORT_TIMEOUT_MILLIS);
+    }
+    assertEquals(2, fakeTransport.getRequestCount());
+    assertEquals(
+        initialAbandonedWorkers + 2, CanaryMetricsRegistry.ABANDONED_REQUEST_WORKERS.getValue());
+    assertEquals(
+        initialBlockedExecutors + 1, CanaryMetricsRegistry.BLOCKED_REQUEST_EXECUTORS.getValue());
+  }
+
+  /**
+   * Tests that abandoned worker threads are pruned once their request returns, so that the
+   * executor stops refusing requests.
+   *
+   * @throws Exception if a request fails unexpectedly
+   * @since 1.1.0
+   */
+  public void testPrunesReturnedWorkers() throws Exception {
+    fakeTransport.setHang(true);
+    assertTimesOut();
+    assertTimesOut();
+    assertTimesOut();
+
+    fakeTransport.setHang(false);
+    String responseBody = null;
+    final long deadlineMillis = System.currentTimeMillis() + LONG_TIMEOUT_MILLIS;
+    while (responseBody == null && System.currentTimeMillis() < deadlineMillis) {
+      try {
+        responseBody = executor.execute(REQUEST, LONG_TIMEOUT_MILLIS);
+      } catch (CanaryApiRequestTimeoutException e) {
+        // Abandoned worker threads have not exited yet
+        Thread.sleep(10);
+      }
+    }
+    assertEquals("response 3", responseBody);
+    assertEquals(
+        initialAbandonedWorkers, CanaryMetricsRegistry.ABANDONED_REQUEST_WORKERS.getValue());
+    assertEquals(
+        initialBlockedExecutors, CanaryMetricsRegistry.BLOCKED_REQUEST_EXECUTORS.getValue());
+  }
+
+  /**
+   * Asserts that a request with the short deadline fails with a timeout.
+   *
+   * @throws Exception if the request fails with another exception
+   * @since 1.1.0
+   */
+  private void assertTimesOut() throws Exception {
+    try {
+      executor.execute(REQUEST, SHORT_TIMEOUT_MILLIS);
+      fail("Expected the request to time out");
+    } catch (CanaryApiRequestTimeoutException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Fake transport which numbers its requests, and can fail requests or hang them until released.
+   *
+   * @since 1.1.0
+   */
+  private static class FakeTransport implements CanaryApiTransport {
+
+    /**
+     * The number of requests performed.
+     *
+     * @since 1.1.0
+     */
+    private int requestCount = 0;
+
+    /**
+     * Boolean indicating whether requests hang until this is cleared.
+     *
+     * @since 1.1.0
+     */
+    private boolean hang = false;
+
+    /**
+     * Boolean indicating whether requests fail.
+     *
+     * @since 1.1.0
+     */
+    private boolean fail = false;
+
+    /**
+     * The thread which performed the last request.
+     *
+     * @since 1.1.0
+     */
+    private Thread lastRequestThread = null;
+
+    /**
+     * Performs the specified request, returning a numbered response body, failing, or hanging
+     * until released.
+     *
+     * @param request the request to perform
+     * @return the response body of the request
+     * @throws Exception if requests fail
+     * @since 1.1.0
+     */
+    public synchronized String doRequest(SCHttpPostRequestInfo request) throws Exception {
+      final int requestNumber = ++requestCount;
+      lastRequestThread = Thread.currentThread();
+      while (hang) {
+        wait();
+      }
+      if (fail) {
+        throw new IOException("request " + requestNumber + " failed");
+      }
+      return "response " + requestNumber;
+    }
+
+    /**
+     * Sets a boolean indicating whether requests hang, releasing hung requests if cleared.
+     *
+     * @param hangRequests {@code true} to hang requests, {@code false} otherwise
+     * @since 1.1.0
+     */
+    synchronized void setHang(boolean hangRequests) {
+      hang = hangRequests;
+      notifyAll();
+    }
+
+    /**
+     * Sets a boolean indicating whether requests fail.
+     *
+     * @param failRequests {@code true} to fail requests, {@code false} otherwise
+     * @since 1.1.0
+     */
+    synchronized void setFail(boolean failRequests) {
+      fail = failRequests;
+    }
+
+    /**
+     * Gets the number of requests performed.
+     *
+     * @return the number of requests
+     * @since 1.1.0
+     */
+    synchronized int getRequestCount() {
+      return requestCount;
+    }
+
+    /**
+     * Gets the thread which performed the last request.
+     *
+     * @return the thread of the last request
+     * @since 1.1.0
+     */
+    synchronized Thread getLastRequestThread() {
+      return lastRequestThread;
+    }
+  }
+}
@@ -0,0 +1,259 @@
+package com.hms_networks.sc.canary.api;
+
+import com.hms_networks.americas.sc.extensions.json.JSONException;
+import com.hms_networks.americas.sc.extensions.json.JSONObject;
+import com.hms_networks.americas.sc.extensions.json.JSONTokener;
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link CanaryApiResponseScanner}, covering the response bodies which are scanned, and
+ * the response bodies which are rejected and must be populated by the JSON parser instead.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryApiResponseScannerTest extends TestCase {
+
+  /**
+   * Tests that a response body with only a status code is scanned.
+   *
+   * @since 1.1.0
+   */
+  public void testScanStatusCode() {
+    CanaryApiResponse response = new CanaryApiResponse();
+    assertTrue(CanaryApiResponseScanner.scan("{\"statusCode\":\"Good\"}", response));
+    assertEquals("Good", response.getStatusCode());
+    assertNull(response.getUserToken());
+    assertNull(response.getSessionToken());
+    assertEquals(0, response.getErrorCount());
+  }
+
+  /**
+   * Tests that whitespace around tokens and after the response object is accepted.
+   *
+   * @since 1.1.0
+   */
+  public void testScanWhitespace() {
+    CanaryApiResponse response = new CanaryApiResponse();
+    assertTrue(
+        CanaryApiResponseScanner.scan(
+            " {\r\n \"statusCode\" : \"Good\" ,\t\"userToken\":\"abc\" }\r\n", response));
+    assertEquals("Good", response.getStatusCode());
+    assertEquals("abc", response.getUserToken());
+  }
+
+  /**
+   * Tests that the user and session tokens are scanned.
+   *
+   * @since 1.1.0
+   */
+  public void testScanTokens() {
+    CanaryApiResponse response = new CanaryApiResponse();
+    assertTrue(
+        CanaryApiResponseScanner.scan(
+            "{\"statusCode\":\"Good\",\"userToken\":\"user-1\",\"sessionToken\":\"session-2\"}",
+            response));
+    assertEquals("user-1", response.getUserToken());
+    assertEquals("session-2", response.getSessionToken());
+  }
+
+  /**
+   * Tests that escape sequences in strings are decoded.
+   *
+   * @since 1.1.0
+   */
+  public void testScanEscapedStrings() {
+    CanaryApiResponse response = new CanaryApiResponse();
+    assertTrue(
+        CanaryApiResponseScanner.scan(
+            "{\"statusCode\":\"Good\",\"userToken\":\"a\\\"b\\\\c\\/d\\n\\te\\r\\b\\f\"}",
+            response));
+    assertEquals("a\"b\\c/d\n\te\r\b\f", response.getUserToken());
+  }
+
+  /**
+   * Tests that unicode escape sequences in strings are decoded, including escaped field names.
+   *
+   * @since 1.1.0
+   */
+  public void testScanUnicodeEscapes() {
+    CanaryApiResponse response = new CanaryApiResponse();
+    assertTrue(
+        CanaryApiResponseScanner.scan(
+            "{\"status\\u0043ode\":\"Good\",\"sessionToken\":\"caf\\u00e9 \\u20AC\"}", response));
+    assertEquals("Good", response.getStatusCode());
+    assertEquals("caf\u00e9 \u20ac", response.getSessionToken());
+  }
+
+  /**
+   * Tests that strings with invalid escape sequences or unescaped control characters are rejected.
+   *
+   * @since 1.1.0
+   */
+  public void testRejectInvalidStrings() {
+    assertFalse(
+        CanaryApiResponseScanner.scan("{\"statusCode\":\"G\\u00zzood\"}", new CanaryApiResponse()));
+    assertFalse(
+        CanaryApiResponseScanner.scan("{\"statusCode\":\"G\\u00\"}", new CanaryApiResponse()));
+    assertFalse(
+        CanaryApiResponseScanner.scan("{\"statusCode\":\"G\\xood\"}", new CanaryApiResponse()));
+    assertFalse(
+        CanaryApiResponseScanner.scan("{\"statusCode\":\"Go\nod\"}", new CanaryApiResponse()));
+    assertFalse(
+        CanaryApiResponseScanner.scan("{\"statusCode\":\"Good}", new CanaryApiResponse()));
+  }
+
+  /**
+   * Tests that an errors array is scanned in order.
+   *
+   * @since 1.1.0
+   */
+  public void testScanErrorsArray() {
+    CanaryApiResponse response = new CanaryApiResponse();
+    assertTrue(
+        CanaryApiResponseScanner.scan(
+            "{\"statusCode\":\"BadRequest\",\"errors\":[\"First error\",\"Second \\\"quoted\\\""
+                + " error\"]}",
+            response));
+    assertEquals("BadRequest", response.getStatusCode());
+    assertEquals(2, response.getErrorCount());
+    assertEquals("First error", response.getError(0));
+    assertEquals("Second \"quoted\" error", response.getError(1));
+  }
+
+  /**
+   * Tests that an empty errors array is scanned without errors.
+   *
+   * @since 1.1.0
+   */
+  public void testScanEmptyErrorsArray() {
+    CanaryApiResponse response = new CanaryApiResponse();
+    assertTrue(
+        CanaryApiResponseScanner.scan("{\"statusCode\":\"Good\",\"errors\":[ ]}", response));
+    assertEquals(0, response.getErrorCount());
+  }
+
+  /**
+   * Tests that fields which are not used by the connector are skipped, including nested objects
+   * and arrays, numbers, booleans and null.
+   *
+   * @since 1.1.0
+   */
+  public void testScanSkipsNestedValues() {
+    CanaryApiResponse response = new CanaryApiResponse();
+    assertTrue(
+        CanaryApiResponseScanner.scan(
+            "{\"extra\":{\"a\":[1,2.5,{\"b\":null}],\"c\":true,\"d\":\"x\\\"}\"},"
+                + "\"statusCode\":\"Good\",\"n\":-1.5e3,\"empty\":[[],{}],\"f\":false,"
+                + "\"sessionToken\":\"s\"}",
+            response));
+    assertEquals("Good", response.getStatusCode());
+    assertEquals("s", response.getSessionToken());
+  }
+
+  /**
+   * Tests that skipped values nested deeper than the scanner allows are rejected, and are
+   * populated by the JSON parser instead.
+   *
+   * @throws JSONException if the JSON parser cannot parse the response body
+   * @since 1.1.0
+   */
+  public void testRejectDeeplyNestedValues() throws JSONException {
+    final int depth = 40;
+    StringBuffer json = new StringBuffer("{\"statusCode\":\"Good\",\"nested\":");
+    for (int i = 0; i < depth; i++) {
+      json.append('[');
+    }
+    for (int i = 0; i < depth; i++) {
+      json.append(']');
+    }
+    json.append('}');
+    assertRejectedAndParsed(json.toString(), "{\"statusCode\":\"Good\"}");
+  }
+
+  /**
+   * Tests that response bodies which are not a single well-formed object are rejected.
+   *
+   * @since 1.1.0
+   */
+  public void testRejectMalformedObjects() {
+    assertFalse(CanaryApiResponseScanner.scan("", new CanaryApiResponse()));
+    assertFalse(CanaryApiResponseScanner.scan("[\"Good\"]", new CanaryApiResponse()));
+    assertFalse(CanaryApiResponseScanner.scan("\"Good\"", new CanaryApiResponse()));
+    assertFalse(CanaryApiResponseScanner.scan("{\"statusCode\":\"Good\"", new CanaryApiResponse()));
+    assertFalse(
+        CanaryApiResponseScanner.scan("{\"statusCode\":\"Good\",}", new CanaryApiResponse()));
+    assertFalse(CanaryApiResponseScanner.scan("{\"statusCode\"\"Good\"}", new CanaryApiResponse()));
+    assertFalse(CanaryApiResponseScanner.scan("{statusCode:\"Good\"}", new CanaryApiResponse()));
+    assertFalse(
+        CanaryApiResponseScanner.scan("{\"statusCode\":\"Good\",\"x\":}", new CanaryApiResponse()));
+  }
+
+  /**
+   * Tests that a response body followed by anything other than whitespace is rejected, and is
+   * populated by the JSON parser instead.
+   *
+   * @throws JSONException if the JSON parser cannot parse the response body
+   * @since 1.1.0
+   */
+  public void testRejectTrailingGarbage() throws JSONException {
+    assertRejectedAndParsed(
+        "{\"statusCode\":\"Good\",\"userToken\":\"u\"} trailing",
+        "{\"statusCode\":\"Good\",\"userToken\":\"u\"}");
+    assertRejectedAndParsed("{\"statusCode\":\"Good\"}}", "{\"statusCode\":\"Good\"}");
+  }
+
+  /**
+   * Tests that a session token which is not a string is rejected, and is populated by the JSON
+   * parser instead.
+   *
+   * @throws JSONException if the JSON parser cannot parse the response body
+   * @since 1.1.0
+   */
+  public void testRejectNonStringSessionToken() throws JSONException {
+    assertRejectedAndParsed(
+        "{\"statusCode\":\"Good\",\"sessionToken\":12345}",
+        "{\"statusCode\":\"Good\",\"sessionToken\":\"12345\"}");
+  }
+
+  /**
+   * Tests that errors which are not strings are rejected, and are populated by the JSON parser
+   * instead.
+   *
+   * @throws JSONException if the JSON parser cannot parse the response body
+   * @since 1.1.0
+   */
+  public void testRejectNonStringErrors() throws JSONException {
+    assertRejectedAndParsed(
+        "{\"statusCode\":\"BadRequest\",\"errors\":[\"First error\",42]}",
+        "{\"statusCode\":\"BadRequest\",\"errors\":[\"First error\",\"42\"]}");
+  }
+
+  /**
+   * Asserts that the specified response body is rejected by the scanner, and that populating the
+   * response with the JSON parser, as the request sender does after a rejection, gives the same
+   * response as scanning the specified equivalent response body.
+   *
+   * @param rejectedJson the response body which must be rejected by the scanner
+   * @param equivalentJson an equivalent response body which is accepted by the scanner
+   * @throws JSONException if the JSON parser cannot parse the rejected response body
+   * @since 1.1.0
+   */
+  private static void assertRejectedAndParsed(String rejectedJson, String equivalentJson)
+      throws JSONException {
+    CanaryApiResponse response = new CanaryApiResponse();
+    assertFalse(CanaryApiResponseScanner.scan(rejectedJson, response));
+    response.reset();
+    response.readJson(new JSONObject(new JSONTokener(rejectedJson)));
+
+    CanaryApiResponse expectedResponse = new CanaryApiResponse();
+    assertTrue(CanaryApiResponseScanner.scan(equivalentJson, expectedResponse));
+    assertEquals(expectedResponse.getStatusCode(), response.getStatusCode());
+    assertEquals(expectedResponse.getUserToken(), response.getUserToken());
+    assertEquals(expectedResponse.getSessionToken(), response.getSessionToken());
+    assertEquals(expectedResponse.getErrorCount(), response.getErrorCount());
+    for (int errorIndex = 0; errorIndex < response.getErrorCount(); errorIndex++) {
+      assertEquals(expectedResponse.getError(errorIndex), response.getError(errorIndex));
+    }
+  }
+}
@@ -0,0 +1,414 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointInteger;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointString;
+import com.hms_networks.americas.sc.extensions.datapoint.DataQuality;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/**
+ * Tests for the live and backfill lanes of {@link CanaryDataPayloadStream}, checking that every
+ * sealed payload is delivered exactly once across the two lanes of a consumer, or dropped, as the
+ * live lane skips ahead and the backfill lane sends the skipped ranges.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryDataPayloadStreamTest extends TestCase {
+
+  /**
+   * The ISO 8601 timestamp of the data points added to payloads.
+   *
+   * @since 1.1.0
+   */
+  private static final String TIMESTAMP = "2024-01-01T00:00:00.000Z";
+
+  /**
+   * The stream under test.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDataPayloadStream stream;
+
+  /**
+   * The cursor of a consumer which receives every payload as soon as it is sealed, used to record
+   * the sealed payloads of the stream.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDataPayloadCursor recorderCursor;
+
+  /**
+   * The sealed payloads of the stream, in order of sealing.
+   *
+   * @since 1.1.0
+   */
+  private List sealedPayloads;
+
+  /**
+   * The number of times each sealed payload has been delivered to the lane pair, in order of
+   * sealing.
+   *
+   * @since 1.1.0
+   */
+  private List deliveryCounts;
+
+  /**
+   * Sets the client ID used to name TVQs, so that data points can be added without a connector
+   * configuration.
+   *
+   * @since 1.1.0
+   */
+  protected void setUp() {
+    CanaryDataUtils.setTvqNameClientId("test");
+  }
+
+  /**
+   * Creates a stream with the specified maximum number of pending payloads per consumer, and the
+   * recorder consumer of the stream.
+   *
+   * @param maxPendingPayloads the maximum number of pending payloads, or 0 for no maximum
+   * @since 1.1.0
+   */
+  private void createStream(int maxPendingPayloads) {
+    stream = new CanaryDataPayloadStream(maxPendingPayloads);
+    recorderCursor = stream.createCursor("recorder");
+    sealedPayloads = new ArrayList();
+    deliveryCounts = new ArrayList();
+  }
+
+  /**
+   * Tests that the live lane skips ahead to the newest payloads, and that the backfill lane only
+   * sends the skipped payloads, oldest first, once the live lane has no payloads pending.
+   *
+   * @throws Exception if a data point cannot be added
+   * @since 1.1.0
+   */
+  public void testLiveLaneSkipsAheadAndBackfillSendsSkippedPayloads() throws Exception {
+    final int liveLaneMaxPendingPayloads = 2;
+    createStream(0);
+    CanaryDataPayloadCursor liveCursor =
+        stream.createLaneCursors("live", "backfill", liveLaneMaxPendingPayloads);
+    CanaryDataPayloadCursor backfillCursor = liveCursor.getPairedCursor();
+    sealPayloads(10);
+
+    assertEquals(8, deliverNext(liveCursor));
+    assertEquals(8, stream.getPendingPayloadCount(backfillCursor));
+    assertEquals(1, stream.getPendingPayloadCount(liveCursor));
+    assertEquals(-1, deliverNext(backfillCursor));
+    assertEquals(9, deliverNext(liveCursor));
+    assertEquals(-1, deliverNext(liveCursor));
+
+    for (int sequenceNumber = 0; sequenceNumber < 8; sequenceNumber++) {
+      assertEquals(sequenceNumber, deliverNext(backfillCursor));
+    }
+    assertEquals(-1, deliverNext(backfillCursor));
+    assertEquals(0, stream.getPendingPayloadCount(backfillCursor));
+    assertDeliveredExactlyOnce();
+  }
+
+  /**
+   * Tests that payloads skipped by the live lane in several separate ranges are each sent once by
+   * the backfill lane, while payloads sent by the live lane between the ranges are not resent.
+   *
+   * @throws Exception if a data point cannot be added
+   * @since 1.1.0
+   */
+  public void testBackfillSendsEachSkippedRangeOnce() throws Exception {
+    final int liveLaneMaxPendingPayloads = 1;
+    createStream(0);
+    CanaryDataPayloadCursor liveCursor =
+        stream.createLaneCursors("live", "backfill", liveLaneMaxPendingPayloads);
+    CanaryDataPayloadCursor backfillCursor = liveCursor.getPairedCursor();
+
+    // Skip payloads 0 to 2, send payload 3 live
+    sealPayloads(4);
+    assertEquals(3, deliverNext(liveCursor));
+
+    // Skip payloads 4 and 5, send payload 6 live, then send payload 0 by backfill
+    sealPayloads(3);
+    assertEquals(6, deliverNext(liveCursor));
+    assertEquals(0, deliverNext(backfillCursor));
+
+    // Skip payloads 7 to 9, send payload 10 live
+    sealPayloads(4);
+    assertEquals(10, deliverNext(liveCursor));
+    assertEquals(7, stream.getPendingPayloadCount(backfillCursor));
+
+    final int[] expectedBackfillOrder = {1, 2, 4, 5, 7, 8, 9};
+    for (int i = 0; i < expectedBackfillOrder.length; i++) {
+      assertEquals(expectedBackfillOrder[i], deliverNext(backfillCursor));
+    }
+    assertEquals(-1, deliverNext(backfillCursor));
+    assertDeliveredExactlyOnce();
+  }
+
+  /**
+   * Tests that every sealed payload is delivered exactly once across the two lanes when payloads
+   * are sealed and sent in an irregular pattern, with the live lane repeatedly skipping ahead of a
+   * slower backfill lane.
+   *
+   * @throws Exception if a data point cannot be added
+   * @since 1.1.0
+   */
+  public void testInterleavedLanesDeliverEveryPayloadOnce() throws Exception {
+    final int liveLaneMaxPendingPayloads = 3;
+    final int steps = 500;
+    createStream(0);
+    CanaryDataPayloadCursor liveCursor =
+        stream.createLaneCursors("live", "backfill", liveLaneMaxPendingPayloads);
+    CanaryDataPayloadCursor backfillCursor = liveCursor.getPairedCursor();
+
+    Random random = new Random(47);
+    for (int step = 0; step < steps; step++) {
+      sealPayloads(random.nextInt(6));
+      deliverNext(liveCursor);
+      if (random.nextInt(3) == 0) {
+        deliverNext(backfillCursor);
+      }
+    }
+    drain(liveCursor, backfillCursor);
+    assertDeliveredExactlyOnce();
+  }
+
+  /**
+   * Tests that when payloads are dropped for a lane pair which has fallen too far behind another
+   * consumer, no payload is delivered twice, every payload which is not delivered is counted as
+   * dropped, and payloads sealed after the drop are still delivered.
+   *
+   * @throws Exception if a data point cannot be added
+   * @since 1.1.0
+   */
+  public void testDroppedPayloadsAreNotDelivered() throws Exception {
+    final int maxPendingPayloads = 8;
+    final int liveLaneMaxPendingPayloads = 2;
+    final int steps = 300;
+    createStream(maxPendingPayloads);
+    CanaryDataPayloadCursor liveCursor =
+        stream.createLaneCursors("live", "backfill", liveLaneMaxPendingPayloads);
+    CanaryDataPayloadCursor backfillCursor = liveCursor.getPairedCursor();
+
+    Random random = new Random(48);
+    for (int step = 0; step < steps; step++) {
+      // The recorder keeps up, so the lane pair has payloads dropped instead of stalling it
+      sealPayloads(random.nextInt(4));
+      if (random.nextInt(2) == 0) {
+        deliverNext(liveCursor);
+      }
+      if (random.nextInt(4) == 0) {
+        deliverNext(backfillCursor);
+      }
+    }
+    assertTrue(backfillCursor.getDroppedPayloadCount() > 0);
+
+    // Payloads sealed after the last drop are still delivered
+    final int finalPayloadCount = 3;
+    sealPayloads(finalPayloadCount);
+    drain(liveCursor, backfillCursor);
+    for (int i = 1; i <= finalPayloadCount; i++) {
+      assertEquals(1, getDeliveryCount(sealedPayloads.size() - i));
+    }
+
+    int deliveredCount = 0;
+    for (int sequenceNumber = 0; sequenceNumber < sealedPayloads.size(); sequenceNumber++) {
+      assertTrue(getDeliveryCount(sequenceNumber) <= 1);
+      deliveredCount += getDeliveryCount(sequenceNumber);
+    }
+    assertEquals(
+        sealedPayloads.size() - deliveredCount, (int) backfillCursor.getDroppedPayloadCount());
+  }
+
+  /**
+   * Tests that when a single drop passes over payloads already sent by the live lane, such as
+   * after the maximum number of pending payloads is lowered, only the payloads which were not sent
+   * by either lane are counted as dropped.
+   *
+   * @throws Exception if a data point cannot be added
+   * @since 1.1.0
+   */
+  public void testDropPassingSentPayloadsCountsOnlyUnsentPayloads() throws Exception {
+    final int liveLaneMaxPendingPayloads = 1;
+    createStream(0);
+    CanaryDataPayloadCursor liveCursor =
+        stream.createLaneCursors("live", "backfill", liveLaneMaxPendingPayloads);
+    CanaryDataPayloadCursor backfillCursor = liveCursor.getPairedCursor();
+
+    // Skip payloads 0 to 2 and 4 to 5, send payloads 3 and 6 live, leave 7 and 8 pending live
+    sealPayloads(4);
+    assertEquals(3, deliverNext(liveCursor));
+    sealPayloads(3);
+    assertEquals(6, deliverNext(liveCursor));
+    sealPayloads(2);
+
+    // Drop payloads 0 to 7, of which 3 and 6 were already sent
+    stream.setMaxPendingPayloads(2);
+    sealPayloads(1);
+    assertEquals(6, backfillCursor.getDroppedPayloadCount());
+
+    drain(liveCursor, backfillCursor);
+    final int[] expectedDeliveryCounts = {0, 0, 0, 1, 0, 0, 1, 0, 1, 1};
+    for (int i = 0; i < expectedDeliveryCounts.length; i++) {
+      assertEquals("Payload " + i, expectedDeliveryCounts[i], getDeliveryCount(i));
+    }
+  }
+
+  /**
+   * Tests that repeated string values are no longer collapsed after payloads are dropped for a
+   * consumer, as the dropped payloads may have held the last value of the tag.
+   *
+   * @throws Exception if a data point cannot be added
+   * @since 1.1.0
+   */
+  public void testDroppedPayloadsClearRepeatedStringValues() throws Exception {
+    final int maxPendingPayloads = 2;
+    createStream(maxPendingPayloads);
+    stream.setCollapseRepeatedStringValues(true);
+    CanaryDataPayloadCursor laggingCursor = stream.createCursor("lagging");
+
+    DataPointString dataPoint =
+        new DataPointString("StateTag", 0, "", "RUNNING", "1704067200", DataQuality.GOOD);
+    assertTrue(stream.addDataPoint(dataPoint, TIMESTAMP));
+    assertTrue(stream.isRepeatedStringValue(dataPoint));
+    stream.sealOpenPayload();
+    assertNotNull(stream.getNextPayload(recorderCursor));
+    assertTrue(stream.acknowledgePayload(recorderCursor));
+
+    // The lagging consumer falls behind, and the payload with the value is dropped for it
+    sealPayloads(maxPendingPayloads - 1);
+    assertEquals(0, laggingCursor.getDroppedPayloadCount());
+    assertTrue(stream.isRepeatedStringValue(dataPoint));
+    sealPayloads(1);
+    assertTrue(laggingCursor.getDroppedPayloadCount() > 0);
+    assertFalse(stream.isRepeatedStringValue(dataPoint));
+
+    assertTrue(stream.addDataPoint(dataPoint, TIMESTAMP));
+    assertTrue(stream.isRepeatedStringValue(dataPoint));
+  }
+
+  /**
+   * Tests that the pending bytes gauge counts the UTF-8 encoded size of sealed payloads, rather
+   * than the number of characters, until the payloads are acknowledged by every consumer.
+   *
+   * @throws Exception if a data point cannot be added
+   * @since 1.1.0
+   */
+  public void testPendingBytesCountsEncodedBytes() throws Exception {
+    final int maxPendingPayloads = 0;
+    createStream(maxPendingPayloads);
+    CanaryDataPayloadCursor senderCursor = stream.createCursor("sender");
+    final long initialPendingBytes = CanaryMetricsRegistry.PENDING_BYTES.getValue();
+
+    DataPointString dataPoint =
+        new DataPointString(
+            "Temp\u00e9rature", 0, "", "\u6e29\u5ea6 \ud83d\ude00", "1704067200", DataQuality.GOOD);
+    assertTrue(stream.addDataPoint(dataPoint, TIMESTAMP));
+    stream.sealOpenPayload();
+    CanaryDataPayload payload = stream.getNextPayload(recorderCursor);
+    assertTrue(stream.acknowledgePayload(recorderCursor));
+
+    final String tvqsJsonString = payload.getTvqsJsonString();
+    final int encodedSizeBytes = tvqsJsonString.getBytes("UTF-8").length;
+    assertTrue(encodedSizeBytes > tvqsJsonString.length());
+    assertEquals(encodedSizeBytes, payload.getTvqsJsonSizeBytes());
+    assertEquals(
+        initialPendingBytes + encodedSizeBytes, CanaryMetricsRegistry.PENDING_BYTES.getValue());
+
+    assertSame(payload, stream.getNextPayload(senderCursor));
+    assertTrue(stream.acknowledgePayload(senderCursor));
+    assertEquals(initialPendingBytes, CanaryMetricsRegistry.PENDING_BYTES.getValue());
+  }
+
+  /**
+   * Adds a data point to the open payload of the stream and seals it, the specified number of
+   * times, recording each sealed payload with the recorder consumer.
+   *
+   * @param payloadCount the number of payloads to seal
+   * @throws Exception if a data point cannot be added
+   * @since 1.1.0
+   */
+  private void sealPayloads(int payloadCount) throws Exception {
+    for (int i = 0; i < payloadCount; i++) {
+      final int sequenceNumber = sealedPayloads.size();
+      DataPointInteger dataPoint =
+          new DataPointInteger(
+              "Tag" + sequenceNumber,
+              sequenceNumber,
+              "",
+              sequenceNumber,
+              "1704067200",
+              DataQuality.GOOD);
+      assertTrue(stream.addDataPoint(dataPoint, TIMESTAMP));
+      stream.sealOpenPayload();
+
+      CanaryDataPayload payload = stream.getNextPayload(recorderCursor);
+      assertNotNull(payload);
+      assertEquals(1, payload.getDataPointCount());
+      assertTrue(stream.acknowledgePayload(recorderCursor));
+      sealedPayloads.add(payload);
+      deliveryCounts.add(new Integer(0));
+    }
+  }
+
+  /**
+   * Gets and acknowledges the next payload of the specified cursor, as a data poster thread does
+   * when a payload is sent successfully, and counts its delivery.
+   *
+   * @param cursor the cursor to deliver the next payload of
+   * @return the sequence number of the delivered payload, or -1 if no payload was delivered
+   * @since 1.1.0
+   */
+  private int deliverNext(CanaryDataPayloadCursor cursor) {
+    int sequenceNumber = -1;
+    CanaryDataPayload payload = stream.getNextPayload(cursor);
+    if (payload != null) {
+      sequenceNumber = sealedPayloads.indexOf(payload);
+      assertTrue(sequenceNumber >= 0);
+      deliveryCounts.set(sequenceNumber, new Integer(getDeliveryCount(sequenceNumber) + 1));
+      assertTrue(stream.acknowledgePayload(cursor));
+    }
+    return sequenceNumber;
+  }
+
+  /**
+   * Delivers payloads of the specified lane cursors until neither has any payloads pending.
+   *
+   * @param liveCursor the live lane cursor
+   * @param backfillCursor the backfill lane cursor
+   * @since 1.1.0
+   */
+  private void drain(CanaryDataPayloadCursor liveCursor, CanaryDataPayloadCursor backfillCursor) {
+    boolean delivered = true;
+    while (delivered) {
+      delivered = deliverNext(liveCursor) >= 0;
+      delivered = deliverNext(backfillCursor) >= 0 || delivered;
+    }
+    assertEquals(0, stream.getPendingPayloadCount(liveCursor));
+    assertEquals(0, stream.getPendingPayloadCount(backfillCursor));
+  }
+
+  /**
+   * Gets the number of times the sealed payload with the specified sequence number has been
+   * delivered.
+   *
+   * @param sequenceNumber the sequence number of the payload
+   * @return the number of deliveries of the payload
+   * @since 1.1.0
+   */
+  private int getDeliveryCount(int sequenceNumber) {
+    return ((Integer) deliveryCounts.get(sequenceNumber)).intValue();
+  }
+
+  /**
+   * Asserts that every sealed payload has been delivered exactly once.
+   *
+   * @since 1.1.0
+   */
+  private void assertDeliveredExactlyOnce() {
+    for (int sequenceNumber = 0; sequenceNumber < sealedPayloads.size(); sequenceNumber++) {
+      assertEquals("Payload " + sequenceNumber, 1, getDeliveryCount(sequenceNumber));
+    }
+  }
+}
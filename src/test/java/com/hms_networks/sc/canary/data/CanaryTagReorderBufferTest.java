@@ -0,0 +1,235 @@
+package com.hms_networks.sc.canary.data;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointInteger;
+import com.hms_networks.americas.sc.extensions.datapoint.DataQuality;
+import com.hms_networks.sc.canary.filter.CanaryFilterUtils;
+import com.hms_networks.sc.canary.metrics.CanaryMetricsRegistry;
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link CanaryTagReorderBuffer}, checking that the data points of each tag are released
+ * in order of sample time once they are more than the reorder window old, and that late data
+ * points and data points with an invalid timestamp are routed without being held.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagReorderBufferTest extends TestCase {
+
+  /**
+   * The reorder window (in seconds) of the buffer under test.
+   *
+   * @since 1.1.0
+   */
+  private static final long REORDER_WINDOW_SECS = 10;
+
+  /**
+   * The maximum number of data points held for each tag by the buffer.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_HELD_DATA_POINTS_PER_TAG = 32;
+
+  /**
+   * The buffer under test.
+   *
+   * @since 1.1.0
+   */
+  private CanaryTagReorderBuffer buffer;
+
+  /**
+   * The batch of released data points.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDataPointBatch releasedBatch;
+
+  /**
+   * The batch of late data points.
+   *
+   * @since 1.1.0
+   */
+  private CanaryDataPointBatch lateBatch;
+
+  /**
+   * The value of the reorder held points gauge before the test.
+   *
+   * @since 1.1.0
+   */
+  private long initialHeldPoints;
+
+  /**
+   * Creates the buffer and the batches.
+   *
+   * @since 1.1.0
+   */
+  protected void setUp() {
+    buffer = new CanaryTagReorderBuffer(REORDER_WINDOW_SECS);
+    releasedBatch = new CanaryDataPointBatch();
+    lateBatch = new CanaryDataPointBatch();
+    initialHeldPoints = CanaryMetricsRegistry.REORDER_HELD_POINTS.getValue();
+  }
+
+  /**
+   * Tests that data points added in order are held until the newest sample time is the reorder
+   * window past them, then released in order.
+   *
+   * @since 1.1.0
+   */
+  public void testInOrderRelease() {
+    add("TagA", 100);
+    add("TagA", 105);
+    add("TagA", 110);
+    buffer.release(releasedBatch);
+    assertReleased(new String[] {"TagA"}, new long[] {100});
+    assertEquals(initialHeldPoints + 2, CanaryMetricsRegistry.REORDER_HELD_POINTS.getValue());
+
+    add("TagB", 120);
+    buffer.release(releasedBatch);
+    assertReleased(new String[] {"TagA", "TagA"}, new long[] {105, 110});
+
+    add("TagB", 131);
+    buffer.release(releasedBatch);
+    assertReleased(new String[] {"TagB"}, new long[] {120});
+    assertEquals(0, lateBatch.size());
+  }
+
+  /**
+   * Tests that data points of a tag which arrive out of order within the reorder window are
+   * released in order of sample time.
+   *
+   * @since 1.1.0
+   */
+  public void testOutOfOrderReleaseWithinWindow() {
+    add("TagA", 105);
+    add("TagA", 100);
+    add("TagA", 108);
+    add("TagA", 103);
+    buffer.release(releasedBatch);
+    assertReleased(new String[] {}, new long[] {});
+
+    add("TagB", 120);
+    buffer.release(releasedBatch);
+    assertReleased(new String[] {"TagA", "TagA", "TagA", "TagA"}, new long[] {100, 103, 105, 108});
+    assertEquals(0, lateBatch.size());
+  }
+
+  /**
+   * Tests that the oldest data point of a tag is released early when the tag holds more than the
+   * maximum number of data points, without waiting for the reorder window.
+   *
+   * @since 1.1.0
+   */
+  public void testPerTagCapReleasesOldestEarly() {
+    buffer = new CanaryTagReorderBuffer(1000);
+    for (int i = 0; i < MAX_HELD_DATA_POINTS_PER_TAG; i++) {
+      add("TagA", 100 + i);
+    }
+    assertEquals(0, releasedBatch.size());
+
+    add("TagA", 50);
+    add("TagA", 200);
+    assertReleased(new String[] {"TagA", "TagA"}, new long[] {50, 100});
+    assertEquals(
+        initialHeldPoints + MAX_HELD_DATA_POINTS_PER_TAG,
+        CanaryMetricsRegistry.REORDER_HELD_POINTS.getValue());
+
+    // The cap is per tag, so other tags are still held
+    add("TagB", 150);
+    assertEquals(0, releasedBatch.size());
+  }
+
+  /**
+   * Tests that a data point older than the last released data point of its tag is added to the
+   * late batch, and that data points at or after it are still held.
+   *
+   * @since 1.1.0
+   */
+  public void testLateDataPointsRouted() {
+    final long initialLatePoints = CanaryMetricsRegistry.POINTS_LATE.getValue();
+    add("TagA", 100);
+    add("TagB", 115);
+    buffer.release(releasedBatch);
+    assertReleased(new String[] {"TagA"}, new long[] {100});
+
+    add("TagA", 95);
+    assertEquals(1, lateBatch.size());
+    assertEquals(95, CanaryFilterUtils.getSampleTimeSeconds(lateBatch.getDataPoint(0)));
+    assertEquals(initialLatePoints + 1, CanaryMetricsRegistry.POINTS_LATE.getValue());
+
+    // Data points are only late relative to the last released data point of their own tag
+    add("TagA", 100);
+    add("TagB", 101);
+    assertEquals(1, lateBatch.size());
+    assertEquals(0, releasedBatch.size());
+  }
+
+  /**
+   * Tests that a data point with an invalid timestamp is released immediately, and does not move
+   * the newest sample time of the buffer.
+   *
+   * @since 1.1.0
+   */
+  public void testInvalidTimestampReleasedImmediately() {
+    add("TagA", 100);
+    final DataPoint invalidDataPoint =
+        new DataPointInteger("TagA", 1, "", 0, "not a time", DataQuality.GOOD);
+    buffer.add(invalidDataPoint, null, releasedBatch, lateBatch);
+    assertEquals(1, releasedBatch.size());
+    assertSame(invalidDataPoint, releasedBatch.getDataPoint(0));
+    releasedBatch.clear();
+
+    buffer.release(releasedBatch);
+    assertEquals(0, releasedBatch.size());
+    assertEquals(0, lateBatch.size());
+  }
+
+  /**
+   * Tests that with a reorder window of 0, data points are released as they arrive, and data points
+   * older than the last released data point of their tag are late.
+   *
+   * @since 1.1.0
+   */
+  public void testZeroWindowReleasesImmediately() {
+    buffer = new CanaryTagReorderBuffer(0);
+    add("TagA", 100);
+    add("TagA", 100);
+    add("TagA", 99);
+    assertReleased(new String[] {"TagA", "TagA"}, new long[] {100, 100});
+    assertEquals(1, lateBatch.size());
+    assertEquals(initialHeldPoints, CanaryMetricsRegistry.REORDER_HELD_POINTS.getValue());
+  }
+
+  /**
+   * Adds a data point of the specified tag with the specified sample time to the buffer.
+   *
+   * @param tagName the name of the tag
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @since 1.1.0
+   */
+  private void add(String tagName, long sampleTimeSeconds) {
+    final DataPoint dataPoint =
+        new DataPointInteger(
+            tagName, 1, "", 0, String.valueOf(sampleTimeSeconds), DataQuality.GOOD);
+    buffer.add(dataPoint, null, releasedBatch, lateBatch);
+  }
+
+  /**
+   * Asserts that the data points released since the last assertion have the specified tag names
+   * and sample times, in order, then clears the released batch.
+   *
+   * @param tagNames the expected tag names
+   * @param sampleTimesSeconds the expected sample times (in seconds since epoch)
+   * @since 1.1.0
+   */
+  private void assertReleased(String[] tagNames, long[] sampleTimesSeconds) {
+    assertEquals(tagNames.length, releasedBatch.size());
+    for (int index = 0; index < tagNames.length; index++) {
+      final DataPoint dataPoint = releasedBatch.getDataPoint(index);
+      assertEquals(tagNames[index], dataPoint.getTagName());
+      assertEquals(sampleTimesSeconds[index], CanaryFilterUtils.getSampleTimeSeconds(dataPoint));
+    }
+    releasedBatch.clear();
+  }
+}
@@ -0,0 +1,366 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointDword;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointFloat;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointInteger;
+import com.hms_networks.americas.sc.extensions.datapoint.DataQuality;
+import java.util.ArrayList;
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link CanaryAggregationFilterStage}, checking the alignment and closing of the
+ * aggregation windows of a tag, and the statistics reported for each window.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryAggregationFilterStageTest extends TestCase {
+
+  /**
+   * The name of the tag of the data points filtered.
+   *
+   * @since 1.1.0
+   */
+  private static final String TAG_NAME = "AggregatedTag";
+
+  /**
+   * The length (in seconds) of the aggregation windows.
+   *
+   * @since 1.1.0
+   */
+  private static final long WINDOW_SECS = 60;
+
+  /**
+   * The index of the minimum value in the statistics of a window, in order of reporting.
+   *
+   * @since 1.1.0
+   */
+  private static final int MIN_INDEX = 0;
+
+  /**
+   * The index of the maximum value in the statistics of a window, in order of reporting.
+   *
+   * @since 1.1.0
+   */
+  private static final int MAX_INDEX = 1;
+
+  /**
+   * The index of the average value in the statistics of a window, in order of reporting.
+   *
+   * @since 1.1.0
+   */
+  private static final int AVG_INDEX = 2;
+
+  /**
+   * The index of the sample count in the statistics of a window, in order of reporting.
+   *
+   * @since 1.1.0
+   */
+  private static final int COUNT_INDEX = 3;
+
+  /**
+   * The index of the last value in the statistics of a window, in order of reporting.
+   *
+   * @since 1.1.0
+   */
+  private static final int LAST_INDEX = 4;
+
+  /**
+   * The number of statistics reported for each window.
+   *
+   * @since 1.1.0
+   */
+  private static final int STATISTIC_COUNT = 5;
+
+  /**
+   * The stage under test.
+   *
+   * @since 1.1.0
+   */
+  private CanaryAggregationFilterStage stage;
+
+  /**
+   * The filter state of the tag.
+   *
+   * @since 1.1.0
+   */
+  private CanaryTagState tagState;
+
+  /**
+   * The result the statistics of closed windows are added to.
+   *
+   * @since 1.1.0
+   */
+  private CanaryTagFilterResult result;
+
+  /**
+   * Creates the stage, the filter state of the tag and the result.
+   *
+   * @since 1.1.0
+   */
+  protected void setUp() {
+    stage = new CanaryAggregationFilterStage();
+    tagState = new CanaryTagState(TAG_NAME, createSettings());
+    result = new CanaryTagFilterResult();
+  }
+
+  /**
+   * Tests that windows are aligned to multiples of the window length, and that the statistics of a
+   * window are timestamped with its start when the first sample of a later window closes it.
+   *
+   * @since 1.1.0
+   */
+  public void testWindowsAlignedToWindowLength() {
+    filter(createFloat(1.0f, 1030, DataQuality.GOOD));
+    filter(createFloat(3.0f, 1079, DataQuality.GOOD));
+    assertEquals(0, result.size());
+    assertEquals(1020, tagState.getWindow().getWindowStartSeconds());
+
+    filter(createFloat(5.0f, 1080, DataQuality.GOOD));
+    assertEquals(STATISTIC_COUNT, result.size());
+    for (int index = 0; index < STATISTIC_COUNT; index++) {
+      assertEquals(1020, CanaryFilterUtils.getSampleTimeSeconds(result.getDataPoint(index)));
+    }
+    assertEquals(TAG_NAME + ".min", result.getDataPoint(MIN_INDEX).getTagName());
+    assertEquals(1.0, getValue(MIN_INDEX), 0);
+    assertEquals(3.0, getValue(MAX_INDEX), 0);
+    assertEquals(2.0, getValue(AVG_INDEX), 0);
+    assertEquals(2.0, getValue(COUNT_INDEX), 0);
+    assertEquals(3.0, getValue(LAST_INDEX), 0);
+    assertEquals(1080, tagState.getWindow().getWindowStartSeconds());
+  }
+
+  /**
+   * Tests that a flush closes the open window once the flush time reaches the end of the window,
+   * and not before.
+   *
+   * @since 1.1.0
+   */
+  public void testFlushClosesWindowAtWindowEnd() {
+    filter(createFloat(1.0f, 1030, DataQuality.GOOD));
+
+    stage.flush(1079, tagState, result);
+    assertEquals(0, result.size());
+    assertTrue(tagState.getWindow().isOpen());
+
+    stage.flush(1080, tagState, result);
+    assertEquals(STATISTIC_COUNT, result.size());
+    assertFalse(tagState.getWindow().isOpen());
+    result.clear();
+
+    stage.flush(1200, tagState, result);
+    assertEquals(0, result.size());
+  }
+
+  /**
+   * Tests that a sample of a window which was already closed by a flush is added to the window
+   * after it, so that the statistics of the closed window are not reported twice.
+   *
+   * @since 1.1.0
+   */
+  public void testLateSampleAddedAfterClosedWindow() {
+    filter(createFloat(1.0f, 1030, DataQuality.GOOD));
+    stage.flush(1080, tagState, result);
+    result.clear();
+
+    filter(createFloat(7.0f, 1050, DataQuality.GOOD));
+    assertEquals(1080, tagState.getWindow().getWindowStartSeconds());
+
+    stage.flush(1140, tagState, result);
+    assertEquals(STATISTIC_COUNT, result.size());
+    assertEquals(1080, CanaryFilterUtils.getSampleTimeSeconds(result.getDataPoint(MIN_INDEX)));
+    assertEquals(7.0, getValue(LAST_INDEX), 0);
+  }
+
+  /**
+   * Tests that the tag filter closes the window of a silent tag by the newest sample time of any
+   * tag, no later than the current time, and by the current time once no newer sample has been
+   * filtered for a window length.
+   *
+   * @since 1.1.0
+   */
+  public void testTagFilterClosesWindowsOfSilentTags() {
+    final CanaryTagFilter tagFilter = new CanaryTagFilter(createSettings(), new ArrayList(), 0);
+    tagFilter.filter(createFloat(1.0f, 1030, DataQuality.GOOD), null, result);
+    tagFilter.filter(createFloat("OtherTag", 1.0f, 1070, DataQuality.GOOD), null, result);
+    tagFilter.flush(1075, result);
+    assertEquals(0, result.size());
+
+    // A sample of another tag closes its own window, and passes the end of the silent tag window
+    tagFilter.filter(createFloat("OtherTag", 2.0f, 1085, DataQuality.GOOD), null, result);
+    assertEquals(STATISTIC_COUNT, result.size());
+    assertEquals("OtherTag.min", result.getDataPoint(MIN_INDEX).getTagName());
+    result.clear();
+
+    // Not closed before the current time passes the end of the window
+    tagFilter.flush(1079, result);
+    assertEquals(0, result.size());
+    tagFilter.flush(1090, result);
+    assertEquals(STATISTIC_COUNT, result.size());
+    assertEquals(TAG_NAME + ".min", result.getDataPoint(MIN_INDEX).getTagName());
+    assertEquals(1020, CanaryFilterUtils.getSampleTimeSeconds(result.getDataPoint(MIN_INDEX)));
+    result.clear();
+
+    // Every tag is silent, so the window of the other tag is closed by the current time
+    tagFilter.flush(1139, result);
+    assertEquals(0, result.size());
+    tagFilter.flush(1140, result);
+    assertEquals(STATISTIC_COUNT, result.size());
+    assertEquals("OtherTag.min", result.getDataPoint(MIN_INDEX).getTagName());
+    assertEquals(1080, CanaryFilterUtils.getSampleTimeSeconds(result.getDataPoint(MIN_INDEX)));
+  }
+
+  /**
+   * Tests that values which are not a number are counted and reported as the last value, but are
+   * not included in the minimum, maximum and average values.
+   *
+   * @since 1.1.0
+   */
+  public void testNaNValues() {
+    filter(createFloat(2.0f, 1020, DataQuality.GOOD));
+    filter(createFloat(Float.NaN, 1030, DataQuality.GOOD));
+    filter(createFloat(4.0f, 1040, DataQuality.GOOD));
+    filter(createFloat(Float.NaN, 1050, DataQuality.GOOD));
+    stage.flush(1080, tagState, result);
+
+    assertEquals(2.0, getValue(MIN_INDEX), 0);
+    assertEquals(4.0, getValue(MAX_INDEX), 0);
+    assertEquals(3.0, getValue(AVG_INDEX), 0);
+    assertEquals(4.0, getValue(COUNT_INDEX), 0);
+    assertTrue(Double.isNaN(getValue(LAST_INDEX)));
+    result.clear();
+
+    filter(createFloat(Float.NaN, 1090, DataQuality.GOOD));
+    stage.flush(1140, tagState, result);
+    assertTrue(Double.isNaN(getValue(MIN_INDEX)));
+    assertTrue(Double.isNaN(getValue(MAX_INDEX)));
+    assertTrue(Double.isNaN(getValue(AVG_INDEX)));
+    assertEquals(1.0, getValue(COUNT_INDEX), 0);
+  }
+
+  /**
+   * Tests that the statistics of a window have the worst quality of its samples.
+   *
+   * @since 1.1.0
+   */
+  public void testWorstQuality() {
+    filter(createFloat(1.0f, 1020, DataQuality.GOOD));
+    filter(createFloat(2.0f, 1030, DataQuality.UNCERTAIN));
+    filter(createFloat(3.0f, 1040, DataQuality.GOOD));
+    stage.flush(1080, tagState, result);
+    for (int index = 0; index < STATISTIC_COUNT; index++) {
+      assertSame(DataQuality.UNCERTAIN, result.getDataPoint(index).getQuality());
+    }
+    result.clear();
+
+    filter(createFloat(1.0f, 1090, DataQuality.UNCERTAIN));
+    filter(createFloat(2.0f, 1100, DataQuality.BAD));
+    filter(createFloat(3.0f, 1110, DataQuality.GOOD));
+    stage.flush(1140, tagState, result);
+    for (int index = 0; index < STATISTIC_COUNT; index++) {
+      assertSame(DataQuality.BAD, result.getDataPoint(index).getQuality());
+    }
+  }
+
+  /**
+   * Tests that the minimum, maximum and last values of integer and DWORD tags are reported exactly
+   * with the type of the samples, including values which a float does not hold exactly.
+   *
+   * @since 1.1.0
+   */
+  public void testIntegerStatisticsReportedExactly() {
+    final int largeInteger = (1 << 24) + 1;
+    filter(new DataPointInteger(TAG_NAME, 1, "", largeInteger, "1020", DataQuality.GOOD));
+    filter(new DataPointInteger(TAG_NAME, 1, "", largeInteger + 2, "1030", DataQuality.GOOD));
+    stage.flush(1080, tagState, result);
+    assertTrue(result.getDataPoint(MIN_INDEX) instanceof DataPointInteger);
+    assertEquals(largeInteger, ((DataPointInteger) result.getDataPoint(MIN_INDEX)).getValue());
+    assertEquals(largeInteger + 2, ((DataPointInteger) result.getDataPoint(MAX_INDEX)).getValue());
+    assertEquals(largeInteger + 2, ((DataPointInteger) result.getDataPoint(LAST_INDEX)).getValue());
+    assertTrue(result.getDataPoint(AVG_INDEX) instanceof DataPointFloat);
+    assertEquals(largeInteger + 1, getValue(AVG_INDEX), 2);
+    result.clear();
+
+    final long largeDword = 4000000001L;
+    filter(new DataPointDword(TAG_NAME, 1, "", largeDword, "1090", DataQuality.GOOD));
+    filter(new DataPointInteger(TAG_NAME, 1, "", 3, "1100", DataQuality.GOOD));
+    stage.flush(1140, tagState, result);
+    assertEquals(3, ((DataPointDword) result.getDataPoint(MIN_INDEX)).getValue());
+    assertEquals(largeDword, ((DataPointDword) result.getDataPoint(MAX_INDEX)).getValue());
+    assertEquals(3, ((DataPointDword) result.getDataPoint(LAST_INDEX)).getValue());
+  }
+
+  /**
+   * Creates filter settings with aggregation of all statistics enabled.
+   *
+   * @return the filter settings
+   * @since 1.1.0
+   */
+  private static CanaryTagFilterSettings createSettings() {
+    return new CanaryTagFilterSettings(
+        true,
+        0,
+        0,
+        0,
+        0,
+        0,
+        WINDOW_SECS,
+        CanaryTagStatistics.ALL,
+        CanaryTagFilterSettings.FULL_PRECISION,
+        true,
+        0,
+        0,
+        CanaryTagFilterSettings.RATE_LIMIT_MODE_DROP);
+  }
+
+  /**
+   * Creates a float data point of the tag.
+   *
+   * @param value the value of the data point
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @param quality the quality of the data point
+   * @return the data point
+   * @since 1.1.0
+   */
+  private static DataPoint createFloat(float value, long sampleTimeSeconds, DataQuality quality) {
+    return createFloat(TAG_NAME, value, sampleTimeSeconds, quality);
+  }
+
+  /**
+   * Creates a float data point of the specified tag.
+   *
+   * @param tagName the name of the tag
+   * @param value the value of the data point
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @param quality the quality of the data point
+   * @return the data point
+   * @since 1.1.0
+   */
+  private static DataPoint createFloat(
+      String tagName, float value, long sampleTimeSeconds, DataQuality quality) {
+    return new DataPointFloat(tagName, 1, "", value, String.valueOf(sampleTimeSeconds), quality);
+  }
+
+  /**
+   * Filters the specified data point of the tag.
+   *
+   * @param dataPoint the data point
+   * @since 1.1.0
+   */
+  private void filter(DataPoint dataPoint) {
+    final long sampleTimeSeconds = CanaryFilterUtils.getSampleTimeSeconds(dataPoint);
+    stage.filter(dataPoint, null, sampleTimeSeconds, tagState, result);
+  }
+
+  /**
+   * Gets the numeric value of the reported statistic at the specified index of the result.
+   *
+   * @param index the index of the statistic in the result
+   * @return the numeric value of the statistic
+   * @since 1.1.0
+   */
+  private double getValue(int index) {
+    return CanaryFilterUtils.getNumericValue(result.getDataPoint(index));
+  }
+}
@@ -0,0 +1,349 @@
+package com.hms_networks.sc.canary.filter;
+
+import com.hms_networks.americas.sc.extensions.datapoint.DataPoint;
+import com.hms_networks.americas.sc.extensions.datapoint.DataPointFloat;
+import com.hms_networks.americas.sc.extensions.datapoint.DataQuality;
+import java.util.ArrayList;
+import java.util.List;
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link CanaryCompressionFilterStage}, checking the swinging door compression of a tag,
+ * the replacement of its held data point, and the flush of held data points by time.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryCompressionFilterStageTest extends TestCase {
+
+  /**
+   * The name of the tag of the data points filtered.
+   *
+   * @since 1.1.0
+   */
+  private static final String TAG_NAME = "CompressedTag";
+
+  /**
+   * The compression deviation of the tag.
+   *
+   * @since 1.1.0
+   */
+  private static final double DEVIATION = 1.0;
+
+  /**
+   * The stage under test.
+   *
+   * @since 1.1.0
+   */
+  private CanaryCompressionFilterStage stage;
+
+  /**
+   * The filter state of the tag.
+   *
+   * @since 1.1.0
+   */
+  private CanaryTagState tagState;
+
+  /**
+   * The result the reported data points are added to.
+   *
+   * @since 1.1.0
+   */
+  private CanaryTagFilterResult result;
+
+  /**
+   * Creates the stage and the result.
+   *
+   * @since 1.1.0
+   */
+  protected void setUp() {
+    stage = new CanaryCompressionFilterStage();
+    result = new CanaryTagFilterResult();
+  }
+
+  /**
+   * Tests that the doors are narrowed by every data point received since the last reported data
+   * point, so that a data point within the doors of the newest data point alone still reports the
+   * held data point.
+   *
+   * @since 1.1.0
+   */
+  public void testDoorsNarrowWithEachDataPoint() {
+    createTagState(0, 0);
+    filter(0.0f, 0);
+    assertReported(new double[] {0.0}, new long[] {0});
+
+    filter(0.9f, 10);
+    filter(-0.1f, 20);
+    filter(1.2f, 30);
+    assertReported(new double[] {}, new long[] {});
+    assertEquals(0.045, tagState.getUpperDoorSlope(), 1e-6);
+    assertEquals(0.2 / 30, tagState.getLowerDoorSlope(), 1e-6);
+
+    // Within the doors swung from the data point at 30 alone, but below the narrowed lower door
+    filter(0.0f, 40);
+    assertReported(new double[] {1.2}, new long[] {30});
+    assertEquals(40, tagState.getHeldTimeSeconds());
+  }
+
+  /**
+   * Tests that the held data point is replaced by each data point on a line between the doors,
+   * and reported once a data point leaves the doors.
+   *
+   * @since 1.1.0
+   */
+  public void testHeldDataPointReplaced() {
+    createTagState(0, 0);
+    filter(0.0f, 100);
+    assertReported(new double[] {0.0}, new long[] {100});
+    for (int step = 1; step <= 5; step++) {
+      filter(step * 2.0f, 100 + step * 10);
+      assertReported(new double[] {}, new long[] {});
+      assertEquals(step * 2.0, tagState.getHeldNumericValue(), 0);
+      assertEquals(100 + step * 10, tagState.getHeldTimeSeconds());
+    }
+
+    filter(0.0f, 160);
+    assertReported(new double[] {10.0}, new long[] {150});
+    assertEquals(0.0, tagState.getHeldNumericValue(), 0);
+    assertEquals(160, tagState.getHeldTimeSeconds());
+  }
+
+  /**
+   * Tests that a flush reports the held data point of a step change once the maximum hold time has
+   * elapsed since its sample time, and only once.
+   *
+   * @since 1.1.0
+   */
+  public void testFlushReportsHeldDataPointAfterHoldMaxSecs() {
+    final long holdMaxSecs = 60;
+    createTagState(0, holdMaxSecs);
+    filter(0.0f, 100);
+    filter(100.0f, 110);
+    assertReported(new double[] {0.0}, new long[] {100});
+
+    stage.flush(110 + holdMaxSecs - 1, tagState, result);
+    assertReported(new double[] {}, new long[] {});
+
+    stage.flush(110 + holdMaxSecs, tagState, result);
+    assertReported(new double[] {100.0}, new long[] {110});
+    assertNull(tagState.getHeldDataPoint());
+    assertEquals(110, tagState.getLastReportedTimeSeconds());
+
+    stage.flush(110 + holdMaxSecs * 2, tagState, result);
+    assertReported(new double[] {}, new long[] {});
+  }
+
+  /**
+   * Tests that a flush reports the held data point once the maximum silence has elapsed since the
+   * last reported data point, even without a maximum hold time.
+   *
+   * @since 1.1.0
+   */
+  public void testFlushReportsHeldDataPointAfterMaxSilence() {
+    final long maxSilenceSecs = 30;
+    createTagState(maxSilenceSecs, 0);
+    filter(0.0f, 100);
+    filter(5.0f, 125);
+    assertReported(new double[] {0.0}, new long[] {100});
+
+    stage.flush(100 + maxSilenceSecs - 1, tagState, result);
+    assertReported(new double[] {}, new long[] {});
+
+    stage.flush(100 + maxSilenceSecs, tagState, result);
+    assertReported(new double[] {5.0}, new long[] {125});
+  }
+
+  /**
+   * Tests that a flush keeps the held data point when neither a maximum hold time nor a maximum
+   * silence is configured.
+   *
+   * @since 1.1.0
+   */
+  public void testFlushWithoutBoundsKeepsHeldDataPoint() {
+    createTagState(0, 0);
+    filter(0.0f, 100);
+    filter(100.0f, 110);
+    assertReported(new double[] {0.0}, new long[] {100});
+
+    stage.flush(Integer.MAX_VALUE, tagState, result);
+    assertReported(new double[] {}, new long[] {});
+    assertNotNull(tagState.getHeldDataPoint());
+  }
+
+  /**
+   * Tests that a flush of the tag filter reports the held data points of every tag, each with the
+   * number of decimals of its own tag.
+   *
+   * @since 1.1.0
+   */
+  public void testTagFilterFlushSetsDecimalsOfEachTag() {
+    final List rules = new ArrayList();
+    rules.add(new CanaryTagFilterRule("Fine*", 0, createSettings(0, 60, 3)));
+    final CanaryTagFilter tagFilter = new CanaryTagFilter(createSettings(0, 60, 1), rules, 0);
+    tagFilter.filter(createDataPoint("CoarseTag", 0.0f, 100), null, result);
+    tagFilter.filter(createDataPoint("FineTag", 0.0f, 100), null, result);
+    tagFilter.filter(createDataPoint("CoarseTag", 50.0f, 110), null, result);
+    tagFilter.filter(createDataPoint("FineTag", 50.0f, 110), null, result);
+    assertEquals(2, result.size());
+    result.clear();
+
+    tagFilter.flush(170, result);
+    assertEquals(2, result.size());
+    for (int index = 0; index < result.size(); index++) {
+      final int expectedDecimals =
+          result.getDataPoint(index).getTagName().equals("FineTag") ? 3 : 1;
+      assertEquals(expectedDecimals, result.getDecimals(index));
+    }
+  }
+
+  /**
+   * Tests that a value which is not a number is reported immediately, with the held data point,
+   * that repeated values which are not a number are compressed, and that the first number after
+   * them is reported.
+   *
+   * @since 1.1.0
+   */
+  public void testNaNValues() {
+    createTagState(0, 0);
+    filter(5.0f, 100);
+    filter(6.0f, 110);
+    assertReported(new double[] {5.0}, new long[] {100});
+
+    filter(Float.NaN, 120);
+    assertReported(new double[] {6.0, Double.NaN}, new long[] {110, 120});
+    assertNull(tagState.getHeldDataPoint());
+
+    filter(Float.NaN, 130);
+    assertReported(new double[] {}, new long[] {});
+
+    filter(5.0f, 140);
+    assertReported(new double[] {5.0}, new long[] {140});
+  }
+
+  /**
+   * Tests that data points with a sample time not after the last reported data point are only
+   * reported if they differ from it by more than the compression deviation, and that a data point
+   * older than the held data point is reported after it.
+   *
+   * @since 1.1.0
+   */
+  public void testOutOfOrderSamples() {
+    createTagState(0, 0);
+    filter(10.0f, 100);
+    assertReported(new double[] {10.0}, new long[] {100});
+
+    filter(10.5f, 90);
+    assertReported(new double[] {}, new long[] {});
+
+    filter(20.0f, 95);
+    assertReported(new double[] {20.0}, new long[] {95});
+
+    // Held data point after the last reported data point, then a data point between them
+    createTagState(0, 0);
+    filter(0.0f, 100);
+    filter(5.0f, 110);
+    filter(0.0f, 105);
+    assertReported(new double[] {0.0, 5.0, 0.0}, new long[] {100, 110, 105});
+    assertNull(tagState.getHeldDataPoint());
+
+    // Held data point, then a data point at the time of the last reported data point
+    createTagState(0, 0);
+    filter(0.0f, 100);
+    filter(5.0f, 110);
+    filter(0.5f, 100);
+    assertReported(new double[] {0.0, 5.0, 0.5}, new long[] {100, 110, 100});
+  }
+
+  /**
+   * Creates the filter state of the tag with compression enabled and the specified maximum silence
+   * and maximum hold time.
+   *
+   * @param maxSilenceSecs the maximum silence (in seconds), or 0 for none
+   * @param holdMaxSecs the maximum hold time (in seconds), or 0 for none
+   * @since 1.1.0
+   */
+  private void createTagState(long maxSilenceSecs, long holdMaxSecs) {
+    final CanaryTagFilterSettings settings =
+        createSettings(maxSilenceSecs, holdMaxSecs, CanaryTagFilterSettings.FULL_PRECISION);
+    tagState = new CanaryTagState(TAG_NAME, settings);
+    result.clear();
+  }
+
+  /**
+   * Creates filter settings with compression enabled and the specified maximum silence, maximum
+   * hold time and number of decimals.
+   *
+   * @param maxSilenceSecs the maximum silence (in seconds), or 0 for none
+   * @param holdMaxSecs the maximum hold time (in seconds), or 0 for none
+   * @param decimals the number of decimals
+   * @return the filter settings
+   * @since 1.1.0
+   */
+  private static CanaryTagFilterSettings createSettings(
+      long maxSilenceSecs, long holdMaxSecs, int decimals) {
+    return new CanaryTagFilterSettings(
+        true,
+        0,
+        0,
+        DEVIATION,
+        maxSilenceSecs,
+        holdMaxSecs,
+        0,
+        0,
+        decimals,
+        true,
+        0,
+        0,
+        CanaryTagFilterSettings.RATE_LIMIT_MODE_DROP);
+  }
+
+  /**
+   * Creates a float data point of the specified tag with good quality.
+   *
+   * @param tagName the name of the tag
+   * @param value the value of the data point
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @return the data point
+   * @since 1.1.0
+   */
+  private static DataPoint createDataPoint(String tagName, float value, long sampleTimeSeconds) {
+    return new DataPointFloat(
+        tagName, 1, "", value, String.valueOf(sampleTimeSeconds), DataQuality.GOOD);
+  }
+
+  /**
+   * Filters a float data point of the tag with the specified value and sample time.
+   *
+   * @param value the value of the data point
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the data point
+   * @since 1.1.0
+   */
+  private void filter(float value, long sampleTimeSeconds) {
+    final DataPoint dataPoint = createDataPoint(TAG_NAME, value, sampleTimeSeconds);
+    stage.filter(dataPoint, null, sampleTimeSeconds, tagState, result);
+  }
+
+  /**
+   * Asserts that the data points reported since the last assertion have the specified values and
+   * sample times, in order, then clears the result.
+   *
+   * @param values the expected values
+   * @param sampleTimesSeconds the expected sample times (in seconds since epoch)
+   * @since 1.1.0
+   */
+  private void assertReported(double[] values, long[] sampleTimesSeconds) {
+    assertEquals(values.length, result.size());
+    for (int index = 0; index < values.length; index++) {
+      final DataPoint dataPoint = result.getDataPoint(index);
+      final double value = CanaryFilterUtils.getNumericValue(dataPoint);
+      if (Double.isNaN(values[index])) {
+        assertTrue(Double.isNaN(value));
+      } else {
+        assertEquals(values[index], value, 1e-6);
+      }
+      assertEquals(sampleTimesSeconds[index], CanaryFilterUtils.getSampleTimeSeconds(dataPoint));
+    }
+    result.clear();
+  }
+}
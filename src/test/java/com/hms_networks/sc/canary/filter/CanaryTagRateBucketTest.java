@@ -0,0 +1,185 @@
+package com.hms_networks.sc.canary.filter;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link CanaryTagRateBucket}, checking the samples passed and limited for known sample
+ * patterns by the refill and burst of the bucket, in both drop and decimate mode. The samples of a
+ * second are shown as a pattern, with {@code P} for a passed sample and {@code .} for a limited
+ * sample.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryTagRateBucketTest extends TestCase {
+
+  /**
+   * The bucket under test.
+   *
+   * @since 1.1.0
+   */
+  private CanaryTagRateBucket bucket;
+
+  /**
+   * Creates the bucket.
+   *
+   * @since 1.1.0
+   */
+  protected void setUp() {
+    bucket = new CanaryTagRateBucket();
+  }
+
+  /**
+   * Tests that in drop mode, the first samples of each second are passed until the bucket is empty,
+   * and the bucket is refilled at the rate limit for each new second.
+   *
+   * @since 1.1.0
+   */
+  public void testDropModePassesFirstSamplesOfEachSecond() {
+    final CanaryTagFilterSettings settings =
+        createSettings(5, 0, CanaryTagFilterSettings.RATE_LIMIT_MODE_DROP);
+    for (long second = 100; second < 105; second++) {
+      assertEquals("PPPPP.....", filterSecond(settings, second, 10));
+    }
+    assertReportCounts(50, 25);
+  }
+
+  /**
+   * Tests that the bucket starts full at the burst, is refilled at the rate limit, and is never
+   * refilled above the burst, however long the tag is silent.
+   *
+   * @since 1.1.0
+   */
+  public void testBurstAndRefill() {
+    final CanaryTagFilterSettings settings =
+        createSettings(2, 10, CanaryTagFilterSettings.RATE_LIMIT_MODE_DROP);
+    assertEquals("PPPPPPPPPP..", filterSecond(settings, 100, 12));
+    assertEquals("PP...", filterSecond(settings, 101, 5));
+    assertEquals("PPPPPPPPPP..", filterSecond(settings, 110, 12));
+    assertReportCounts(29, 7);
+  }
+
+  /**
+   * Tests that a rate limit below one sample per second accumulates partial tokens over several
+   * seconds.
+   *
+   * @since 1.1.0
+   */
+  public void testFractionalRefill() {
+    final CanaryTagFilterSettings settings =
+        createSettings(0.5, 0, CanaryTagFilterSettings.RATE_LIMIT_MODE_DROP);
+    final StringBuffer pattern = new StringBuffer();
+    for (long second = 100; second < 110; second++) {
+      pattern.append(filterSecond(settings, second, 1));
+    }
+    assertEquals("P.P.P.P.P.", pattern.toString());
+    assertReportCounts(10, 5);
+  }
+
+  /**
+   * Tests that in decimate mode, every Nth sample of a second is passed, with N chosen from the
+   * number of samples in the previous second, so that the passed samples are spread over the
+   * second. The first second has no previous second, so its first samples are passed.
+   *
+   * @since 1.1.0
+   */
+  public void testDecimateModeSpreadsPassedSamples() {
+    final CanaryTagFilterSettings settings =
+        createSettings(5, 0, CanaryTagFilterSettings.RATE_LIMIT_MODE_DECIMATE);
+    assertEquals("PPPPP...............", filterSecond(settings, 100, 20));
+    for (long second = 101; second < 104; second++) {
+      assertEquals("P...P...P...P...P...", filterSecond(settings, second, 20));
+    }
+    assertReportCounts(80, 60);
+  }
+
+  /**
+   * Tests that in decimate mode, the bucket still limits the number of samples passed, so that a
+   * burst is passed in full and later seconds are decimated to the rate limit.
+   *
+   * @since 1.1.0
+   */
+  public void testDecimateModeWithBurst() {
+    final CanaryTagFilterSettings settings =
+        createSettings(5, 10, CanaryTagFilterSettings.RATE_LIMIT_MODE_DECIMATE);
+    assertEquals("PPPPPPPPPP", filterSecond(settings, 100, 10));
+    assertEquals("P.P.P.P.P.", filterSecond(settings, 101, 10));
+    assertEquals("P.P.P.P.P.", filterSecond(settings, 102, 10));
+    assertReportCounts(30, 10);
+  }
+
+  /**
+   * Tests that a sample older than the newest sample time of the tag is counted with the newest
+   * second, and does not refill the bucket.
+   *
+   * @since 1.1.0
+   */
+  public void testOlderSampleCountedWithNewestSecond() {
+    final CanaryTagFilterSettings settings =
+        createSettings(1, 0, CanaryTagFilterSettings.RATE_LIMIT_MODE_DROP);
+    assertTrue(bucket.tryPass(settings, 100));
+    assertFalse(bucket.tryPass(settings, 99));
+    assertTrue(bucket.tryPass(settings, 101));
+    assertReportCounts(3, 1);
+
+    bucket.clearReportCounts();
+    assertReportCounts(0, 0);
+  }
+
+  /**
+   * Creates filter settings with the specified rate limit, and filtering disabled otherwise.
+   *
+   * @param rateLimitPerSec the rate limit (in samples per second)
+   * @param rateLimitBurst the burst, or 0 to use the rate limit
+   * @param rateLimitMode the rate limit mode
+   * @return the filter settings
+   * @since 1.1.0
+   */
+  private static CanaryTagFilterSettings createSettings(
+      double rateLimitPerSec, double rateLimitBurst, int rateLimitMode) {
+    return new CanaryTagFilterSettings(
+        false,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        CanaryTagFilterSettings.FULL_PRECISION,
+        true,
+        rateLimitPerSec,
+        rateLimitBurst,
+        rateLimitMode);
+  }
+
+  /**
+   * Passes the specified number of samples with the same sample time through the bucket.
+   *
+   * @param settings the filter settings of the tag
+   * @param sampleTimeSeconds the sample time (in seconds since epoch) of the samples
+   * @param sampleCount the number of samples
+   * @return the pattern of passed ({@code P}) and limited ({@code .}) samples, in order
+   * @since 1.1.0
+   */
+  private String filterSecond(
+      CanaryTagFilterSettings settings, long sampleTimeSeconds, int sampleCount) {
+    final StringBuffer pattern = new StringBuffer(sampleCount);
+    for (int i = 0; i < sampleCount; i++) {
+      pattern.append(bucket.tryPass(settings, sampleTimeSeconds) ? 'P' : '.');
+    }
+    return pattern.toString();
+  }
+
+  /**
+   * Asserts the sample counts of the bucket since the last rate limit report.
+   *
+   * @param sampleCount the expected number of samples
+   * @param limitedCount the expected number of limited samples
+   * @since 1.1.0
+   */
+  private void assertReportCounts(long sampleCount, long limitedCount) {
+    assertEquals(sampleCount, bucket.getReportSampleCount());
+    assertEquals(limitedCount, bucket.getReportLimitedCount());
+  }
+}
@@ -0,0 +1,232 @@
+package com.hms_networks.sc.canary.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link CanaryHeavyHitters}, checking that the count-min sketch never underestimates the
+ * total of a tag, and that tags with a known large total always appear in the published top tags,
+ * whatever order the amounts of other tags are added in.
+ *
+ * @author HMS Networks, MU Americas Solution Center
+ * @since 1.1.0
+ */
+public class CanaryHeavyHittersTest extends TestCase {
+
+  /**
+   * The interval (in milliseconds) between publications of the top tags.
+   *
+   * @since 1.1.0
+   */
+  private static final long REPORT_INTERVAL_MILLIS = 60000;
+
+  /**
+   * The number of light tags added, several times the width of the sketch so that every counter is
+   * shared by several tags.
+   *
+   * @since 1.1.0
+   */
+  private static final int LIGHT_TAG_COUNT = 5000;
+
+  /**
+   * The number of heavy tags added.
+   *
+   * @since 1.1.0
+   */
+  private static final int HEAVY_TAG_COUNT = 5;
+
+  /**
+   * The metric under test.
+   *
+   * @since 1.1.0
+   */
+  private CanaryHeavyHitters heavyHitters;
+
+  /**
+   * Map of tag names to the true total of each tag added during the test.
+   *
+   * @since 1.1.0
+   */
+  private Map trueTotalsByTagName;
+
+  /**
+   * Creates and enables the metric.
+   *
+   * @since 1.1.0
+   */
+  protected void setUp() {
+    heavyHitters = new CanaryHeavyHitters("canary_test_top_tags", "Top tags of the test.");
+    heavyHitters.enable(REPORT_INTERVAL_MILLIS);
+    trueTotalsByTagName = new HashMap();
+  }
+
+  /**
+   * Tests that the heavy tags are published in descending order of total when they are added
+   * before the light tags, so that the light tags cannot evict them from the heap.
+   *
+   * @since 1.1.0
+   */
+  public void testHeavyTagsAddedFirstArePublished() {
+    addHeavyTags();
+    addLightTags();
+    assertHeavyTagsPublished();
+  }
+
+  /**
+   * Tests that the heavy tags are published in descending order of total when they are added after
+   * the light tags have filled the heap.
+   *
+   * @since 1.1.0
+   */
+  public void testHeavyTagsAddedLastArePublished() {
+    addLightTags();
+    addHeavyTags();
+    assertHeavyTagsPublished();
+  }
+
+  /**
+   * Tests that the heavy tags are published in descending order of total when their amounts are
+   * added one at a time, interleaved with the light tags, so that each heavy tag must grow into the
+   * heap.
+   *
+   * @since 1.1.0
+   */
+  public void testInterleavedHeavyTagsArePublished() {
+    final int heavyAddCount = 100;
+    for (int addIndex = 0; addIndex < heavyAddCount; addIndex++) {
+      for (int lightIndex = addIndex; lightIndex < LIGHT_TAG_COUNT; lightIndex += heavyAddCount) {
+        add("LightTag" + lightIndex, getLightTagAmount(lightIndex));
+      }
+      for (int heavyIndex = 0; heavyIndex < HEAVY_TAG_COUNT; heavyIndex++) {
+        add("HeavyTag" + heavyIndex, getHeavyTagTotal(heavyIndex) / heavyAddCount);
+      }
+    }
+    assertHeavyTagsPublished();
+  }
+
+  /**
+   * Tests that the estimates of a single tag are exact, that the top tags are only published once
+   * the report interval has elapsed, and that the sketch is cleared for the next report interval.
+   *
+   * @since 1.1.0
+   */
+  public void testPublishIfDueClearsSketch() {
+    final long startMillis = System.currentTimeMillis();
+    final String[] tagNames = new String[CanaryHeavyHitters.MAX_TOP_TAGS];
+    final long[] estimates = new long[CanaryHeavyHitters.MAX_TOP_TAGS];
+    heavyHitters.add("OnlyTag", 7);
+    heavyHitters.add("OnlyTag", 5);
+    heavyHitters.publishIfDue(startMillis);
+    assertEquals(0, heavyHitters.copyPublishedTopTags(tagNames, estimates));
+
+    heavyHitters.publishIfDue(startMillis + REPORT_INTERVAL_MILLIS);
+    assertEquals(1, heavyHitters.copyPublishedTopTags(tagNames, estimates));
+    assertEquals("OnlyTag", tagNames[0]);
+    assertEquals(12, estimates[0]);
+
+    heavyHitters.add("OnlyTag", 3);
+    heavyHitters.publishIfDue(startMillis + REPORT_INTERVAL_MILLIS * 2);
+    assertEquals(1, heavyHitters.copyPublishedTopTags(tagNames, estimates));
+    assertEquals(3, estimates[0]);
+  }
+
+  /**
+   * Tests that amounts are not counted while the metric is disabled.
+   *
+   * @since 1.1.0
+   */
+  public void testDisabledMetricCountsNothing() {
+    final CanaryHeavyHitters disabledHeavyHitters =
+        new CanaryHeavyHitters("canary_test_disabled_top_tags", "Disabled top tags of the test.");
+    assertFalse(disabledHeavyHitters.isEnabled());
+    disabledHeavyHitters.add("Tag", 1);
+    disabledHeavyHitters.publishIfDue(Long.MAX_VALUE);
+    final String[] tagNames = new String[CanaryHeavyHitters.MAX_TOP_TAGS];
+    final long[] estimates = new long[CanaryHeavyHitters.MAX_TOP_TAGS];
+    assertEquals(0, disabledHeavyHitters.copyPublishedTopTags(tagNames, estimates));
+  }
+
+  /**
+   * Adds the light tags, each with a total of 1 to 3.
+   *
+   * @since 1.1.0
+   */
+  private void addLightTags() {
+    for (int lightIndex = 0; lightIndex < LIGHT_TAG_COUNT; lightIndex++) {
+      add("LightTag" + lightIndex, getLightTagAmount(lightIndex));
+    }
+  }
+
+  /**
+   * Adds the heavy tags, each with its total in a single amount.
+   *
+   * @since 1.1.0
+   */
+  private void addHeavyTags() {
+    for (int heavyIndex = 0; heavyIndex < HEAVY_TAG_COUNT; heavyIndex++) {
+      add("HeavyTag" + heavyIndex, getHeavyTagTotal(heavyIndex));
+    }
+  }
+
+  /**
+   * Gets the amount added for the light tag with the specified index.
+   *
+   * @param lightIndex the index of the light tag
+   * @return the amount of the light tag
+   * @since 1.1.0
+   */
+  private static long getLightTagAmount(int lightIndex) {
+    return lightIndex % 3 + 1;
+  }
+
+  /**
+   * Gets the total of the heavy tag with the specified index. The totals are far enough apart that
+   * the overestimate of the sketch cannot change their order.
+   *
+   * @param heavyIndex the index of the heavy tag
+   * @return the total of the heavy tag
+   * @since 1.1.0
+   */
+  private static long getHeavyTagTotal(int heavyIndex) {
+    return 1000 + heavyIndex * 200;
+  }
+
+  /**
+   * Adds the specified amount to the specified tag, and to its true total.
+   *
+   * @param tagName the name of the tag
+   * @param amount the amount to add
+   * @since 1.1.0
+   */
+  private void add(String tagName, long amount) {
+    heavyHitters.add(tagName, amount);
+    final Long trueTotal = (Long) trueTotalsByTagName.get(tagName);
+    final long previousTotal = trueTotal != null ? trueTotal.longValue() : 0;
+    trueTotalsByTagName.put(tagName, new Long(previousTotal + amount));
+  }
+
+  /**
+   * Publishes the top tags, and asserts that the heavy tags are the first top tags in descending
+   * order of total, and that no published estimate is less than the true total of its tag.
+   *
+   * @since 1.1.0
+   */
+  private void assertHeavyTagsPublished() {
+    heavyHitters.publishIfDue(System.currentTimeMillis() + REPORT_INTERVAL_MILLIS);
+    final String[] tagNames = new String[CanaryHeavyHitters.MAX_TOP_TAGS];
+    final long[] estimates = new long[CanaryHeavyHitters.MAX_TOP_TAGS];
+    final int topTagCount = heavyHitters.copyPublishedTopTags(tagNames, estimates);
+    assertEquals(CanaryHeavyHitters.MAX_TOP_TAGS, topTagCount);
+
+    for (int heavyIndex = 0; heavyIndex < HEAVY_TAG_COUNT; heavyIndex++) {
+      assertEquals("HeavyTag" + (HEAVY_TAG_COUNT - 1 - heavyIndex), tagNames[heavyIndex]);
+    }
+    for (int topIndex = 0; topIndex < topTagCount; topIndex++) {
+      final long trueTotal = ((Long) trueTotalsByTagName.get(tagNames[topIndex])).longValue();
+      assertTrue(
+          tagNames[topIndex] + " estimated " + estimates[topIndex] + " below " + trueTotal,
+          estimates[topIndex] >= trueTotal);
+    }
+  }
+}